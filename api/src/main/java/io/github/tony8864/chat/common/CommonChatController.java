@@ -11,6 +11,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+
 @RestController
 @RequestMapping("/api/chats")
 @AllArgsConstructor
@@ -22,11 +24,13 @@ public class CommonChatController {
     @GetMapping
     public ListChatsApiResponse listChats(
             HttpServletRequest request,
-            @RequestParam(name = "limit", defaultValue = "0") int limit
+            @RequestParam(name = "limit", defaultValue = "0") int limit,
+            @RequestParam(name = "cursorLastMessageAt", required = false) Instant cursorLastMessageAt,
+            @RequestParam(name = "cursorChatId", required = false) String cursorChatId
     ) {
 
         var requester = (AuthenticatedUser) request.getAttribute("authenticatedUser");
-        var appRequest = mapper.toApplication(requester.userId(), limit);
+        var appRequest = mapper.toApplication(requester.userId(), limit, cursorLastMessageAt, cursorChatId);
         var appResponse = listChatsUseCase.list(appRequest);
 
         return mapper.toApi(appResponse);
@@ -1,18 +1,40 @@
 package io.github.tony8864.chat.common.config;
 
-import io.github.tony8864.chat.repository.DirectChatRepository;
-import io.github.tony8864.chat.repository.GroupChatRepository;
+import io.github.tony8864.chat.common.ChatMembershipCache;
+import io.github.tony8864.chat.repository.ChatMembershipEventPublisher;
+import io.github.tony8864.chat.repository.ChatRepository;
+import io.github.tony8864.chat.repository.ChatSummaryRepository;
 import io.github.tony8864.chat.usecase.listchats.ListChatsUseCase;
-import io.github.tony8864.message.repository.MessageRepository;
-import io.github.tony8864.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class CommonChatConfig {
 
     @Bean
-    public ListChatsUseCase listChatsUseCase(MessageRepository messageRepository, GroupChatRepository groupChatRepository, DirectChatRepository directChatRepository, UserRepository userRepository) {
-        return new ListChatsUseCase(directChatRepository, groupChatRepository, messageRepository, userRepository);
+    public ListChatsUseCase listChatsUseCase(ChatSummaryRepository chatSummaryRepository) {
+        return new ListChatsUseCase(chatSummaryRepository);
+    }
+
+    // a single instance has no one to tell; PostgresFanoutConfig replaces this when fanout is on
+    @Bean
+    public ChatMembershipEventPublisher localChatMembershipEventPublisher() {
+        return chatId -> {
+        };
+    }
+
+    @Bean
+    public ChatMembershipCache chatMembershipCache(
+            ChatRepository chatRepository,
+            ChatMembershipEventPublisher chatMembershipEventPublisher,
+            @Value("${chat.membership-cache.max-chats:10000}") int maxChats,
+            @Value("${chat.membership-cache.max-members-per-chat:1000}") int maxMembersPerChat,
+            @Value("${chat.membership-cache.max-large-chats:16}") int maxLargeChats,
+            @Value("${chat.membership-cache.ttl:PT5M}") Duration ttl
+    ) {
+        return new ChatMembershipCache(chatRepository, chatMembershipEventPublisher, maxChats, maxMembersPerChat, maxLargeChats, ttl);
     }
 }
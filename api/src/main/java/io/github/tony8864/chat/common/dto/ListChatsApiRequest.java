@@ -1,5 +1,9 @@
 package io.github.tony8864.chat.common.dto;
 
+import java.time.Instant;
+
 public record ListChatsApiRequest(
-        Integer limit
-) {}
\ No newline at end of file
+        Integer limit,
+        Instant cursorLastMessageAt,
+        String cursorChatId
+) {}
@@ -7,13 +7,14 @@ import io.github.tony8864.chat.usecase.listchats.dto.ListChatsRequest;
 import io.github.tony8864.chat.usecase.listchats.dto.ListChatsResponse;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.List;
 
 @Component
 public class CommonChatMapper {
 
-    public ListChatsRequest toApplication(String requesterId, int limit) {
-        return new ListChatsRequest(requesterId, limit);
+    public ListChatsRequest toApplication(String requesterId, int limit, Instant cursorLastMessageAt, String cursorChatId) {
+        return new ListChatsRequest(requesterId, limit, cursorLastMessageAt, cursorChatId);
     }
 
     public ListChatsApiResponse toApi(ListChatsResponse appResponse) {
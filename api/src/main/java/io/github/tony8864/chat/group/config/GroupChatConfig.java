@@ -1,5 +1,6 @@
 package io.github.tony8864.chat.group.config;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.repository.GroupChatRepository;
 import io.github.tony8864.chat.usecase.addparticipant.AddParticipantUseCase;
 import io.github.tony8864.chat.usecase.creategroupchat.CreateGroupChatUseCase;
@@ -19,13 +20,13 @@ public class GroupChatConfig {
     }
 
     @Bean
-    public RemoveParticipantUseCase removeParticipantUseCase(UserRepository userRepository, GroupChatRepository groupChatRepository) {
-        return new RemoveParticipantUseCase(userRepository, groupChatRepository);
+    public RemoveParticipantUseCase removeParticipantUseCase(UserRepository userRepository, GroupChatRepository groupChatRepository, ChatMembershipCache membershipCache) {
+        return new RemoveParticipantUseCase(userRepository, groupChatRepository, membershipCache);
     }
 
     @Bean
-    public DeleteGroupChatUseCase deleteGroupChatUseCase(UserRepository userRepository, GroupChatRepository groupChatRepository) {
-        return new DeleteGroupChatUseCase(userRepository, groupChatRepository);
+    public DeleteGroupChatUseCase deleteGroupChatUseCase(UserRepository userRepository, GroupChatRepository groupChatRepository, ChatMembershipCache membershipCache) {
+        return new DeleteGroupChatUseCase(userRepository, groupChatRepository, membershipCache);
     }
 
     @Bean
@@ -34,7 +35,7 @@ public class GroupChatConfig {
     }
 
     @Bean
-    public AddParticipantUseCase addParticipantUseCase(UserRepository userRepository, GroupChatRepository groupChatRepository) {
-        return new AddParticipantUseCase(userRepository, groupChatRepository);
+    public AddParticipantUseCase addParticipantUseCase(UserRepository userRepository, GroupChatRepository groupChatRepository, ChatMembershipCache membershipCache) {
+        return new AddParticipantUseCase(userRepository, groupChatRepository, membershipCache);
     }
 }
@@ -0,0 +1,64 @@
+package io.github.tony8864.common.exception;
+
+import io.github.tony8864.chat.common.exception.GroupChatNotFoundException;
+import io.github.tony8864.chat.usecase.createdirectchat.exception.InvalidChatException;
+import io.github.tony8864.common.UserNotFoundException;
+import io.github.tony8864.exceptions.chat.InvalidGroupException;
+import io.github.tony8864.exceptions.common.InvalidIdentifierException;
+import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
+import io.github.tony8864.exceptions.message.EmptyMessageContentException;
+import io.github.tony8864.user.usecase.login.exception.InvalidCredentialsException;
+import io.github.tony8864.user.usecase.register.exception.UserAlreadyExistsException;
+import io.github.tony8864.user.usecase.register.exception.UsernameAlreadyExistsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+// the one place an exception becomes an error code, shared by the REST handler and the STOMP acks
+@Slf4j
+public final class ApiErrors {
+
+    private static final List<Mapping> MAPPINGS = List.of(
+            // --- User-related exceptions ---
+            new Mapping(UserAlreadyExistsException.class, HttpStatus.BAD_REQUEST, "USER_ALREADY_EXISTS", null),
+            new Mapping(UsernameAlreadyExistsException.class, HttpStatus.BAD_REQUEST, "USERNAME_ALREADY_EXISTS", null),
+            new Mapping(InvalidCredentialsException.class, HttpStatus.UNAUTHORIZED, "INVALID_CREDENTIALS", "Invalid email or password"),
+            new Mapping(UserNotFoundException.class, HttpStatus.NOT_FOUND, "USER_NOT_FOUND", null),
+            new Mapping(UnauthorizedOperationException.class, HttpStatus.FORBIDDEN, "FORBIDDEN", null),
+            new Mapping(InvalidIdentifierException.class, HttpStatus.BAD_REQUEST, "INVALID_ID", null),
+
+            // --- Chat-related exceptions ---
+            new Mapping(InvalidGroupException.class, HttpStatus.BAD_REQUEST, "INVALID_GROUP", null),
+            new Mapping(GroupChatNotFoundException.class, HttpStatus.NOT_FOUND, "GROUP_CHAT_NOT_FOUND", null),
+            new Mapping(InvalidChatException.class, HttpStatus.BAD_REQUEST, "INVALID_CHAT", null),
+
+            // --- Message-related exceptions ---
+            new Mapping(EmptyMessageContentException.class, HttpStatus.BAD_REQUEST, "INVALID_MESSAGE", null)
+    );
+
+    private ApiErrors() {
+    }
+
+    public static ApiError from(Exception ex) {
+        for (Mapping mapping : MAPPINGS) {
+            if (mapping.type().isInstance(ex)) {
+                String message = mapping.message() != null ? mapping.message() : ex.getMessage();
+                return new ApiError(mapping.status(), new ErrorResponse(mapping.code(), message));
+            }
+        }
+
+        // --- Generic fallback ---
+        log.error("Unexpected error", ex);
+        return new ApiError(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                new ErrorResponse("INTERNAL_SERVER_ERROR", "An unexpected error occurred")
+        );
+    }
+
+    public record ApiError(HttpStatus status, ErrorResponse response) {
+    }
+
+    private record Mapping(Class<? extends Exception> type, HttpStatus status, String code, String message) {
+    }
+}
@@ -12,6 +12,8 @@ import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+
 @RestController
 @RequestMapping("/api/chats/{chatId}/messages")
 @AllArgsConstructor
@@ -40,11 +42,17 @@ public class MessageController {
     public ResponseEntity<ListMessagesApiResponse> listMessages(
             HttpServletRequest request,
             @PathVariable String chatId,
-            @RequestParam(defaultValue = "50") int limit
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Instant beforeCreatedAt,
+            @RequestParam(required = false) String beforeMessageId,
+            @RequestParam(required = false) Instant afterCreatedAt,
+            @RequestParam(required = false) String afterMessageId
     ) {
 
         var requester = (AuthenticatedUser) request.getAttribute("authenticatedUser");
-        var appRequest = mapper.toApplication(chatId, requester.userId(), limit);
+        var appRequest = mapper.toApplication(
+                chatId, requester.userId(), limit, beforeCreatedAt, beforeMessageId, afterCreatedAt, afterMessageId
+        );
         var appResponse = listMessagesUseCase.list(appRequest);
         var apiResponse = mapper.toApi(appResponse);
 
@@ -0,0 +1,100 @@
+package io.github.tony8864.message;
+
+import io.github.tony8864.common.exception.ApiErrors;
+import io.github.tony8864.exceptions.common.InvalidIdentifierException;
+import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
+import io.github.tony8864.message.dto.ReceiptStompRequest;
+import io.github.tony8864.message.dto.SendMessageAck;
+import io.github.tony8864.message.dto.SendMessageApiRequest;
+import io.github.tony8864.message.dto.SendMessageStompRequest;
+import io.github.tony8864.message.dto.TypingStompRequest;
+import io.github.tony8864.message.mapper.MessageApiMapper;
+import io.github.tony8864.message.usecase.receipt.UpdateReceiptUseCase;
+import io.github.tony8864.message.usecase.receipt.dto.UpdateReceiptRequest;
+import io.github.tony8864.message.usecase.sendmessage.SendMessageUseCase;
+import io.github.tony8864.message.usecase.typing.UpdateTypingUseCase;
+import io.github.tony8864.message.usecase.typing.dto.UpdateTypingRequest;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+@Slf4j
+@Controller
+@AllArgsConstructor
+public class MessageStompController {
+    private final SendMessageUseCase sendMessageUseCase;
+    private final UpdateTypingUseCase updateTypingUseCase;
+    private final UpdateReceiptUseCase updateReceiptUseCase;
+
+    private final MessageApiMapper mapper;
+
+    // the sender was authenticated once at CONNECT, so each frame only carries the message itself
+    @MessageMapping("/chats/{chatId}/messages")
+    @SendToUser(destinations = "/queue/acks", broadcast = false)
+    public SendMessageAck sendMessage(
+            Principal principal,
+            @DestinationVariable String chatId,
+            @Payload SendMessageStompRequest stompRequest
+    ) {
+
+        try {
+            var appRequest = mapper.toApplication(new SendMessageApiRequest(stompRequest.content()), chatId, principal.getName());
+            var appResponse = sendMessageUseCase.send(appRequest);
+            return SendMessageAck.accepted(stompRequest.correlationId(), mapper.toApi(appResponse));
+        } catch (RuntimeException ex) {
+            return SendMessageAck.rejected(stompRequest.correlationId(), ApiErrors.from(ex).response());
+        }
+    }
+
+    // best effort and never acked; a dropped indicator simply expires on the clients
+    @MessageMapping("/chats/{chatId}/typing")
+    public void updateTyping(
+            Principal principal,
+            @DestinationVariable String chatId,
+            @Payload TypingStompRequest stompRequest
+    ) {
+
+        try {
+            updateTypingUseCase.update(new UpdateTypingRequest(chatId, principal.getName(), stompRequest.typing()));
+        } catch (UnauthorizedOperationException | InvalidIdentifierException ignored) {
+        } catch (RuntimeException ex) {
+            log.warn("Typing update failed for chat {}", chatId, ex);
+        }
+    }
+
+    @MessageMapping("/chats/{chatId}/receipts/delivered")
+    public void markDelivered(
+            Principal principal,
+            @DestinationVariable String chatId,
+            @Payload ReceiptStompRequest stompRequest
+    ) {
+        updateReceipt(principal, chatId, stompRequest, false);
+    }
+
+    @MessageMapping("/chats/{chatId}/receipts/read")
+    public void markRead(
+            Principal principal,
+            @DestinationVariable String chatId,
+            @Payload ReceiptStompRequest stompRequest
+    ) {
+        updateReceipt(principal, chatId, stompRequest, true);
+    }
+
+    // not acked either; receipts are cursors, so the next ack carries a dropped one forward
+    private void updateReceipt(Principal principal, String chatId, ReceiptStompRequest stompRequest, boolean read) {
+        try {
+            updateReceiptUseCase.update(new UpdateReceiptRequest(
+                    chatId, principal.getName(), read, stompRequest.messageId()
+            ));
+        } catch (UnauthorizedOperationException | InvalidIdentifierException ignored) {
+        } catch (RuntimeException ex) {
+            log.warn("Receipt update failed for chat {}", chatId, ex);
+        }
+    }
+}
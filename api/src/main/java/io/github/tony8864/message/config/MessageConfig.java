@@ -1,33 +1,228 @@
 package io.github.tony8864.message.config;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.repository.DirectChatRepository;
 import io.github.tony8864.chat.repository.GroupChatRepository;
+import io.github.tony8864.common.TransactionCallbacks;
+import io.github.tony8864.common.TransactionRunner;
+import io.github.tony8864.message.common.MessageTailCache;
+import io.github.tony8864.message.common.ReceiptBuffer;
+import io.github.tony8864.message.common.TypingTracker;
+import io.github.tony8864.message.repository.AsyncMessageEventPublisher;
 import io.github.tony8864.message.repository.MessageEventPublisher;
 import io.github.tony8864.message.repository.MessageRepository;
+import io.github.tony8864.message.repository.ReceiptEventPublisher;
+import io.github.tony8864.message.repository.ReceiptRepository;
+import io.github.tony8864.message.repository.TypingEventPublisher;
 import io.github.tony8864.message.usecase.listmessages.ListMessagesUseCase;
+import io.github.tony8864.message.usecase.receipt.UpdateReceiptUseCase;
 import io.github.tony8864.message.usecase.sendmessage.SendMessageUseCase;
+import io.github.tony8864.message.usecase.typing.UpdateTypingUseCase;
+import io.github.tony8864.outbox.MessageOutboxRelay;
+import io.github.tony8864.publisher.MessageCoalescer;
+import io.github.tony8864.publisher.WebSocketMessagePublisher;
+import io.github.tony8864.repository.JdbcOutboxRepository;
+import io.github.tony8864.scheduling.PeriodicFlusher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class MessageConfig {
+    // local delivery only: every node's LISTEN thread hands messages over here, so one slow chat or broker does not
+    // hold up notifications for the others; it is qualified by name so it never stands in for the cross-node publisher
+    @Bean(defaultCandidate = false)
+    public AsyncMessageEventPublisher asyncMessageEventPublisher(
+            WebSocketMessagePublisher webSocketMessagePublisher,
+            MeterRegistry meterRegistry,
+            @Value("${message.events.queue-capacity:10000}") int capacity,
+            @Value("${message.events.dispatchers:4}") int dispatchers,
+            @Value("${message.events.overflow-policy:BLOCK}") AsyncMessageEventPublisher.OverflowPolicy overflowPolicy
+    ) {
+        AsyncMessageEventPublisher publisher = new AsyncMessageEventPublisher(
+                webSocketMessagePublisher, capacity, dispatchers, overflowPolicy
+        );
+
+        Gauge.builder("message.events.queue.depth", publisher, AsyncMessageEventPublisher::getQueueDepth)
+                .register(meterRegistry);
+        FunctionTimer.builder("message.events.queue.latency", publisher,
+                        AsyncMessageEventPublisher::getDispatched,
+                        AsyncMessageEventPublisher::getQueueLatencyNanos,
+                        TimeUnit.NANOSECONDS)
+                .register(meterRegistry);
+        FunctionCounter.builder("message.events", publisher, AsyncMessageEventPublisher::getDelivered)
+                .tag("result", "delivered")
+                .register(meterRegistry);
+        FunctionCounter.builder("message.events", publisher, AsyncMessageEventPublisher::getFailed)
+                .tag("result", "failed")
+                .register(meterRegistry);
+        FunctionCounter.builder("message.events", publisher, AsyncMessageEventPublisher::getDropped)
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        FunctionCounter.builder("message.events.spilled", publisher, AsyncMessageEventPublisher::getSpilled)
+                .register(meterRegistry);
+
+        return publisher;
+    }
+
+    @Bean
+    public MessageOutboxRelay messageOutboxRelay(
+            JdbcOutboxRepository outboxRepository,
+            PlatformTransactionManager transactionManager,
+            MessageEventPublisher messageEventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${message.outbox.batch-size:100}") int batchSize,
+            @Value("${message.outbox.poll-interval:PT0.1S}") Duration pollInterval
+    ) {
+        MessageOutboxRelay relay = new MessageOutboxRelay(
+                outboxRepository,
+                new TransactionTemplate(transactionManager),
+                // synchronous, so a row is only deleted once its event has been published
+                messageEventPublisher,
+                batchSize,
+                pollInterval,
+                Clock.systemUTC()
+        );
+
+        FunctionTimer.builder("message.outbox.lag", relay,
+                        MessageOutboxRelay::getRelayed,
+                        MessageOutboxRelay::getLagNanos,
+                        TimeUnit.NANOSECONDS)
+                .register(meterRegistry);
+        FunctionCounter.builder("message.outbox.failures", relay, MessageOutboxRelay::getFailed)
+                .register(meterRegistry);
+
+        return relay;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public MessageCoalescer messageCoalescer(
+            MeterRegistry meterRegistry,
+            @Value("${message.coalescing.window:PT0S}") Duration window,
+            @Value("${message.coalescing.max-batch:50}") int maxBatch,
+            @Value("${message.coalescing.min-members:50}") int minMembers
+    ) {
+        MessageCoalescer coalescer = new MessageCoalescer(window, maxBatch, minMembers);
+
+        FunctionCounter.builder("message.coalescing.messages", coalescer, MessageCoalescer::getMessages)
+                .register(meterRegistry);
+        FunctionCounter.builder("message.coalescing.frames", coalescer, MessageCoalescer::getFrames)
+                .register(meterRegistry);
+
+        return coalescer;
+    }
+
+    @Bean
+    public MessageTailCache messageTailCache(
+            @Value("${message.tail-cache.messages-per-chat:100}") int messagesPerChat,
+            @Value("${message.tail-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${message.tail-cache.ttl:PT30S}") Duration ttl
+    ) {
+        return new MessageTailCache(messagesPerChat, maxBytes, ttl);
+    }
+
     @Bean
     public SendMessageUseCase sendMessageUseCase(
             MessageRepository messageRepository,
+            ChatMembershipCache membershipCache,
             GroupChatRepository groupChatRepository,
             DirectChatRepository directChatRepository,
-            MessageEventPublisher messageEventPublisher
+            MessageTailCache tailCache,
+            TransactionRunner transactionRunner,
+            TransactionCallbacks transactionCallbacks
     ) {
         return new SendMessageUseCase(
                 messageRepository,
+                membershipCache,
                 groupChatRepository,
                 directChatRepository,
-                messageEventPublisher
+                tailCache,
+                transactionRunner,
+                transactionCallbacks
         );
     }
 
     @Bean
-    public ListMessagesUseCase listMessagesUseCase(MessageRepository messageRepository, GroupChatRepository groupChatRepository, DirectChatRepository directChatRepository) {
-        return new ListMessagesUseCase(messageRepository, groupChatRepository, directChatRepository);
+    public ListMessagesUseCase listMessagesUseCase(
+            MessageRepository messageRepository,
+            ChatMembershipCache membershipCache,
+            MessageTailCache tailCache
+    ) {
+        return new ListMessagesUseCase(messageRepository, membershipCache, tailCache);
+    }
+
+    @Bean
+    public TypingTracker typingTracker(
+            MeterRegistry meterRegistry,
+            @Value("${message.typing.throttle:PT2S}") Duration throttle,
+            @Value("${message.typing.expiry:PT6S}") Duration expiry
+    ) {
+        TypingTracker tracker = new TypingTracker(throttle, expiry);
+
+        FunctionCounter.builder("message.typing.published", tracker, TypingTracker::getPublished)
+                .register(meterRegistry);
+        FunctionCounter.builder("message.typing.throttled", tracker, TypingTracker::getThrottled)
+                .register(meterRegistry);
+        Gauge.builder("message.typing.users", tracker, TypingTracker::getTypingUsers)
+                .register(meterRegistry);
+
+        return tracker;
+    }
+
+    @Bean
+    public UpdateTypingUseCase updateTypingUseCase(
+            ChatMembershipCache membershipCache,
+            TypingTracker typingTracker,
+            // only the local publisher: typing stays off the database, so it reaches members connected to this node
+            TypingEventPublisher typingEventPublisher
+    ) {
+        return new UpdateTypingUseCase(membershipCache, typingTracker, typingEventPublisher);
+    }
+
+    @Bean
+    public ReceiptBuffer receiptBuffer(
+            ReceiptRepository receiptRepository,
+            ReceiptEventPublisher receiptEventPublisher,
+            MeterRegistry meterRegistry
+    ) {
+        ReceiptBuffer buffer = new ReceiptBuffer(receiptRepository, receiptEventPublisher);
+
+        FunctionCounter.builder("message.receipts.acks", buffer, ReceiptBuffer::getAcks)
+                .register(meterRegistry);
+        FunctionCounter.builder("message.receipts.writes", buffer, ReceiptBuffer::getWrites)
+                .register(meterRegistry);
+        Gauge.builder("message.receipts.pending", buffer, ReceiptBuffer::getPending)
+                .register(meterRegistry);
+
+        return buffer;
+    }
+
+    @Bean
+    public PeriodicFlusher receiptFlusher(
+            ReceiptBuffer receiptBuffer,
+            MeterRegistry meterRegistry,
+            @Value("${message.receipts.flush-interval:PT1S}") Duration flushInterval
+    ) {
+        PeriodicFlusher flusher = new PeriodicFlusher("receipt-flusher", receiptBuffer::flush, flushInterval);
+
+        FunctionCounter.builder("message.receipts.flush.failures", flusher, PeriodicFlusher::getFailures)
+                .register(meterRegistry);
+
+        return flusher;
+    }
+
+    @Bean
+    public UpdateReceiptUseCase updateReceiptUseCase(ChatMembershipCache membershipCache, ReceiptBuffer receiptBuffer) {
+        return new UpdateReceiptUseCase(membershipCache, receiptBuffer);
     }
 }
@@ -1,5 +1,11 @@
 package io.github.tony8864.message.dto;
 
+import java.time.Instant;
+
 public record ListMessagesApiRequest(
-        int limit
+        int limit,
+        Instant beforeCreatedAt,
+        String beforeMessageId,
+        Instant afterCreatedAt,
+        String afterMessageId
 ) {}
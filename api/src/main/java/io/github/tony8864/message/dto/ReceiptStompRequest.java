@@ -0,0 +1,5 @@
+package io.github.tony8864.message.dto;
+
+public record ReceiptStompRequest(
+        String messageId
+) {}
@@ -0,0 +1,18 @@
+package io.github.tony8864.message.dto;
+
+import io.github.tony8864.common.exception.ErrorResponse;
+
+public record SendMessageAck(
+        String correlationId,
+        String status,
+        SendMessageApiResponse message,
+        ErrorResponse error
+) {
+    public static SendMessageAck accepted(String correlationId, SendMessageApiResponse message) {
+        return new SendMessageAck(correlationId, "ACCEPTED", message, null);
+    }
+
+    public static SendMessageAck rejected(String correlationId, ErrorResponse error) {
+        return new SendMessageAck(correlationId, "REJECTED", null, error);
+    }
+}
@@ -0,0 +1,6 @@
+package io.github.tony8864.message.dto;
+
+public record SendMessageStompRequest(
+        String correlationId,
+        String content
+) {}
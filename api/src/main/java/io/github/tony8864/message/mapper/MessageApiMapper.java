@@ -11,6 +11,8 @@ import io.github.tony8864.message.usecase.sendmessage.dto.SendMessageRequest;
 import io.github.tony8864.message.usecase.sendmessage.dto.SendMessageResponse;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+
 @Component
 public class MessageApiMapper {
     public SendMessageRequest toApplication(SendMessageApiRequest apiRequest, String chatId, String senderId) {
@@ -29,8 +31,18 @@ public class MessageApiMapper {
         );
     }
 
-    public ListMessagesRequest toApplication(String chatId, String requesterId, int limit) {
-        return new ListMessagesRequest(chatId, requesterId, limit);
+    public ListMessagesRequest toApplication(
+            String chatId,
+            String requesterId,
+            int limit,
+            Instant beforeCreatedAt,
+            String beforeMessageId,
+            Instant afterCreatedAt,
+            String afterMessageId
+    ) {
+        return new ListMessagesRequest(
+                chatId, requesterId, limit, beforeCreatedAt, beforeMessageId, afterCreatedAt, afterMessageId
+        );
     }
 
     public ListMessagesApiResponse toApi(ListMessagesResponse response) {
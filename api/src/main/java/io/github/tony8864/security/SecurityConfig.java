@@ -3,16 +3,37 @@ package io.github.tony8864.security;
 import io.github.tony8864.entities.user.PasswordHasher;
 import io.github.tony8864.jwt.JwtTokenService;
 import io.github.tony8864.password.BCryptPasswordHasher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public TokenService tokenService(@Value("${jwt.secret}") String secret) {
-        return new JwtTokenService(secret);
+    public TokenService tokenService(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.cache.max-size:10000}") int maxCachedTokens,
+            MeterRegistry meterRegistry
+    ) {
+        JwtTokenService tokenService = new JwtTokenService(secret, maxCachedTokens, Clock.systemUTC());
+
+        FunctionCounter.builder("cache.gets", tokenService, JwtTokenService::getHits)
+                .tag("cache", "jwt").tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", tokenService, JwtTokenService::getMisses)
+                .tag("cache", "jwt").tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", tokenService, JwtTokenService::getCachedTokenCount)
+                .tag("cache", "jwt")
+                .register(meterRegistry);
+
+        return tokenService;
     }
 
     @Bean
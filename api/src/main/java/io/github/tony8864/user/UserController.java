@@ -2,6 +2,7 @@ package io.github.tony8864.user;
 
 import io.github.tony8864.user.dto.*;
 import io.github.tony8864.user.mapper.UserApiMapper;
+import io.github.tony8864.user.usecase.getpresence.GetPresenceUseCase;
 import io.github.tony8864.user.usecase.login.LoginUserUseCase;
 import io.github.tony8864.user.usecase.login.dto.AuthenticatedUser;
 import io.github.tony8864.user.usecase.logout.LogoutUseCase;
@@ -11,6 +12,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,6 +27,7 @@ public class UserController {
     private final SearchUserUseCase searchUserUseCase;
     private final LoginUserUseCase loginUserUseCase;
     private final LogoutUseCase logoutUseCase;
+    private final GetPresenceUseCase getPresenceUseCase;
 
     private final UserApiMapper mapper;
 
@@ -56,4 +60,10 @@ public class UserController {
         var appResponse = searchUserUseCase.search(appRequest);
         return ResponseEntity.ok(mapper.toApi(appResponse));
     }
+
+    @GetMapping("/{userId}/presence")
+    public ResponseEntity<PresenceApiResponse> getPresence(@PathVariable String userId) {
+        var appResponse = getPresenceUseCase.get(userId);
+        return ResponseEntity.ok(mapper.toApi(appResponse));
+    }
 }
@@ -1,31 +1,107 @@
 package io.github.tony8864.user.config;
 
+import io.github.tony8864.adapter.JpaUserRepository;
 import io.github.tony8864.entities.user.PasswordHasher;
+import io.github.tony8864.scheduling.PeriodicFlusher;
 import io.github.tony8864.security.TokenService;
+import io.github.tony8864.user.common.PresenceRegistry;
+import io.github.tony8864.user.repository.CachingUserRepository;
 import io.github.tony8864.user.repository.UserRepository;
+import io.github.tony8864.user.usecase.getpresence.GetPresenceUseCase;
 import io.github.tony8864.user.usecase.login.LoginUserUseCase;
 import io.github.tony8864.user.usecase.logout.LogoutUseCase;
 import io.github.tony8864.user.usecase.register.RegisterUserUseCase;
 import io.github.tony8864.user.usecase.searchuser.SearchUserUseCase;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
 
 @Configuration
 public class UserConfig {
 
+    @Bean
+    @Primary
+    public CachingUserRepository cachingUserRepository(
+            JpaUserRepository jpaUserRepository,
+            MeterRegistry meterRegistry,
+            @Value("${user.cache.max-size:10000}") int maxSize,
+            @Value("${user.cache.ttl:PT5M}") Duration ttl
+    ) {
+        CachingUserRepository repository = new CachingUserRepository(jpaUserRepository, maxSize, ttl);
+
+        FunctionCounter.builder("cache.gets", repository, CachingUserRepository::getHits)
+                .tag("cache", "users").tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", repository, CachingUserRepository::getMisses)
+                .tag("cache", "users").tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", repository, CachingUserRepository::getEvictions)
+                .tag("cache", "users")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", repository, CachingUserRepository::getSize)
+                .tag("cache", "users")
+                .register(meterRegistry);
+
+        return repository;
+    }
+
+    @Bean
+    public PresenceRegistry presenceRegistry(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${presence.idle-timeout:PT5M}") Duration idleTimeout,
+            @Value("${presence.node-expiry:PT30S}") Duration nodeExpiry
+    ) {
+        PresenceRegistry registry = new PresenceRegistry(userRepository, idleTimeout, nodeExpiry);
+
+        FunctionCounter.builder("presence.changes", registry, PresenceRegistry::getChanges)
+                .register(meterRegistry);
+        FunctionCounter.builder("presence.writes", registry, PresenceRegistry::getWrites)
+                .register(meterRegistry);
+        Gauge.builder("presence.users", registry, PresenceRegistry::getTrackedUsers)
+                .register(meterRegistry);
+
+        return registry;
+    }
+
+    @Bean
+    public PeriodicFlusher presenceFlusher(
+            PresenceRegistry presenceRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${presence.flush-interval:PT5S}") Duration flushInterval
+    ) {
+        PeriodicFlusher flusher = new PeriodicFlusher("presence-flusher", presenceRegistry::tick, flushInterval);
+
+        FunctionCounter.builder("presence.flush.failures", flusher, PeriodicFlusher::getFailures)
+                .register(meterRegistry);
+
+        return flusher;
+    }
+
     @Bean
     public RegisterUserUseCase registerUserUseCase(UserRepository userRepository, PasswordHasher passwordHasher) {
         return new RegisterUserUseCase(userRepository, passwordHasher);
     }
 
     @Bean
-    public LoginUserUseCase loginUserUseCase(UserRepository userRepository, PasswordHasher passwordHasher, TokenService tokenService) {
-        return new LoginUserUseCase(userRepository, passwordHasher, tokenService);
+    public LoginUserUseCase loginUserUseCase(UserRepository userRepository, PasswordHasher passwordHasher, TokenService tokenService, PresenceRegistry presenceRegistry) {
+        return new LoginUserUseCase(userRepository, passwordHasher, tokenService, presenceRegistry);
+    }
+
+    @Bean
+    public LogoutUseCase logoutUseCase(UserRepository userRepository, PresenceRegistry presenceRegistry) {
+        return new LogoutUseCase(userRepository, presenceRegistry);
     }
 
     @Bean
-    public LogoutUseCase logoutUseCase(UserRepository userRepository) {
-        return new LogoutUseCase(userRepository);
+    public GetPresenceUseCase getPresenceUseCase(PresenceRegistry presenceRegistry, UserRepository userRepository) {
+        return new GetPresenceUseCase(presenceRegistry, userRepository);
     }
 
     @Bean
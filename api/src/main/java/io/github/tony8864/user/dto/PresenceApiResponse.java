@@ -0,0 +1,6 @@
+package io.github.tony8864.user.dto;
+
+public record PresenceApiResponse(
+        String userId,
+        String status
+) { }
@@ -1,6 +1,7 @@
 package io.github.tony8864.user.mapper;
 
 import io.github.tony8864.user.dto.*;
+import io.github.tony8864.user.usecase.getpresence.dto.GetPresenceResponse;
 import io.github.tony8864.user.usecase.login.dto.AuthRequest;
 import io.github.tony8864.user.usecase.login.dto.AuthenticatedUser;
 import io.github.tony8864.user.usecase.register.dto.RegisterUserRequest;
@@ -58,4 +59,12 @@ public class UserApiMapper {
                 appResponse.username()
         );
     }
+
+    // --- Presence ---
+    public PresenceApiResponse toApi(GetPresenceResponse appResponse) {
+        return new PresenceApiResponse(
+                appResponse.userId(),
+                appResponse.status()
+        );
+    }
 }
@@ -3,6 +3,7 @@ package io.github.tony8864;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tony8864.chat.repository.DirectChatRepository;
 import io.github.tony8864.dto.ChatMessageDto;
+import io.github.tony8864.dto.InboxEventDto;
 import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.chat.DirectChat;
 import io.github.tony8864.entities.user.*;
@@ -16,6 +17,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.simp.stomp.StompFrameHandler;
 import org.springframework.messaging.simp.stomp.StompHeaders;
@@ -23,8 +25,13 @@ import org.springframework.messaging.simp.stomp.StompSession;
 import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 import org.springframework.web.socket.messaging.WebSocketStompClient;
 import org.springframework.web.socket.sockjs.client.SockJsClient;
 import org.springframework.web.socket.sockjs.client.WebSocketTransport;
@@ -33,15 +40,21 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = ChatApplication.class)
 @Testcontainers
@@ -77,73 +90,395 @@ public class SendMessageWebSocketIntegrationTest {
     }
 
     @Test
-    void whenMessageSentOverHttp_thenReceivedOverWebSocket() throws Exception {
+    void whenMessageSentOverHttp_thenReceivedInRecipientInbox() throws Exception {
         // --- Arrange ---
-        var user1 = User.create(
+        var sender = User.create(
                 UserId.newId(),
-                "user1_" + UUID.randomUUID(),
-                Email.of("user1_" + UUID.randomUUID() + "@example.com"),
+                "sender_" + UUID.randomUUID(),
+                Email.of("sender_" + UUID.randomUUID() + "@example.com"),
                 PasswordHash.newHash("secret123")
         );
-        var user2 = User.create(
+        var recipient = User.create(
                 UserId.newId(),
-                "user2_" + UUID.randomUUID(),
-                Email.of("user2_" + UUID.randomUUID() + "@example.com"),
+                "recipient_" + UUID.randomUUID(),
+                Email.of("recipient_" + UUID.randomUUID() + "@example.com"),
                 PasswordHash.newHash("secret123")
         );
 
-        userRepository.save(user1);
-        userRepository.save(user2);
+        userRepository.save(sender);
+        userRepository.save(recipient);
 
-        DirectChat chat = DirectChat.create(ChatId.newId(), List.of(user1.getUserId(), user2.getUserId()));
+        DirectChat chat = DirectChat.create(ChatId.newId(), List.of(sender.getUserId(), recipient.getUserId()));
         directChatRepository.save(chat);
 
-        var claims = new UserClaims(
-                user1.getUserId().getValue(),
-                user1.getEmail().getValue(),
-                Set.of("USER")
+        String senderToken = tokenService.generate(
+                new UserClaims(sender.getUserId().getValue(), sender.getEmail().getValue(), Set.of("USER")),
+                Duration.ofHours(1)
+        );
+        String recipientToken = tokenService.generate(
+                new UserClaims(recipient.getUserId().getValue(), recipient.getEmail().getValue(), Set.of("USER")),
+                Duration.ofHours(1)
         );
-        String token = tokenService.generate(claims, Duration.ofHours(1));
 
-        CompletableFuture<ChatMessageDto> future = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
 
-        // --- Subscribe over WebSocket ---
+        // --- Subscribe to the recipient's inbox over an authenticated STOMP session ---
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + recipientToken);
         StompSession session = stompClient
-                .connectAsync("ws://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {})
+                .connectAsync("ws://localhost:" + port + "/ws", new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {})
                 .get(1, TimeUnit.SECONDS);
 
-        session.subscribe("/topic/chats/" + chat.getChatId().getValue() + "/messages",
-                new StompFrameHandler() {
-                    @Override
-                    public Type getPayloadType(StompHeaders headers) {
-                        return ChatMessageDto.class;
-                    }
+        session.subscribe("/user/queue/inbox", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
 
-                    @Override
-                    public void handleFrame(StompHeaders headers, Object payload) {
-                        future.complete((ChatMessageDto) payload);
-                    }
-                });
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                future.complete((Map<String, Object>) payload);
+            }
+        });
 
-        // --- Act: send HTTP POST with JWT ---
+        // --- Act: send HTTP POST with the sender's JWT ---
         HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(token);
-
-        Map<String, String> body = Map.of(
-                "senderId", user1.getUserId().getValue(),
-                "content", "Hello from WebSocket test!"
-        );
+        headers.setBearerAuth(senderToken);
 
-        HttpEntity<Map<String, String>> entity = new HttpEntity<>(body, headers);
         new RestTemplate().postForEntity(
                 "http://localhost:" + port + "/api/chats/" + chat.getChatId().getValue() + "/messages",
-                entity,
+                new HttpEntity<>(Map.of("senderId", sender.getUserId().getValue(), "content", "Hello inbox!"), headers),
                 Void.class
         );
 
         // --- Assert ---
-        ChatMessageDto received = future.get(3, TimeUnit.SECONDS);
-        assertEquals("Hello from WebSocket test!", received.getContent());
-        assertEquals(user1.getUserId().getValue(), received.getSenderId());
+        Map<String, Object> received = future.get(3, TimeUnit.SECONDS);
+        Map<?, ?> message = (Map<?, ?>) received.get("payload");
+        assertEquals(InboxEventDto.MESSAGE_SENT, received.get("type"));
+        assertEquals("Hello inbox!", message.get("content"));
+        assertEquals(chat.getChatId().getValue(), message.get("chatId"));
+    }
+
+    @Test
+    void whenMessageSentOverStomp_thenAckedAndDeliveredToRecipient() throws Exception {
+        // --- Arrange ---
+        var sender = newUser("sender");
+        var recipient = newUser("recipient");
+
+        DirectChat chat = DirectChat.create(ChatId.newId(), List.of(sender.getUserId(), recipient.getUserId()));
+        directChatRepository.save(chat);
+
+        CompletableFuture<Map<String, Object>> ack = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> inbox = new CompletableFuture<>();
+
+        StompSession recipientSession = connect(recipient);
+        recipientSession.subscribe("/user/queue/inbox", mapHandler(inbox));
+        StompSession senderSession = connect(sender);
+        senderSession.subscribe("/user/queue/acks", mapHandler(ack));
+
+        // --- Act ---
+        senderSession.send(
+                "/app/chats/" + chat.getChatId().getValue() + "/messages",
+                Map.of("correlationId", "c-1", "content", "Hello over STOMP!")
+        );
+
+        // --- Assert ---
+        Map<String, Object> receivedAck = ack.get(3, TimeUnit.SECONDS);
+        Map<?, ?> ackedMessage = (Map<?, ?>) receivedAck.get("message");
+        assertEquals("c-1", receivedAck.get("correlationId"));
+        assertEquals("ACCEPTED", receivedAck.get("status"));
+        assertEquals(sender.getUserId().getValue(), ackedMessage.get("senderId"));
+
+        Map<?, ?> delivered = (Map<?, ?>) inbox.get(3, TimeUnit.SECONDS).get("payload");
+        assertEquals(ackedMessage.get("id"), delivered.get("id"));
+        assertEquals("Hello over STOMP!", delivered.get("content"));
+    }
+
+    @Test
+    void whenSenderNotInChat_thenStompSendIsRejected() throws Exception {
+        // --- Arrange ---
+        var outsider = newUser("outsider");
+        DirectChat chat = DirectChat.create(ChatId.newId(), List.of(newUser("a").getUserId(), newUser("b").getUserId()));
+        directChatRepository.save(chat);
+
+        CompletableFuture<Map<String, Object>> ack = new CompletableFuture<>();
+        StompSession session = connect(outsider);
+        session.subscribe("/user/queue/acks", mapHandler(ack));
+
+        // --- Act ---
+        session.send(
+                "/app/chats/" + chat.getChatId().getValue() + "/messages",
+                Map.of("correlationId", "c-2", "content", "Let me in")
+        );
+
+        // --- Assert ---
+        Map<String, Object> receivedAck = ack.get(3, TimeUnit.SECONDS);
+        assertEquals("c-2", receivedAck.get("correlationId"));
+        assertEquals("REJECTED", receivedAck.get("status"));
+        assertEquals("FORBIDDEN", ((Map<?, ?>) receivedAck.get("error")).get("code"));
+    }
+
+    @Test
+    void whenClientSendsStraightToBrokerDestination_thenFrameIsDropped() throws Exception {
+        // --- Arrange ---
+        var member = newUser("member");
+        var forger = newUser("forger");
+
+        DirectChat chat = DirectChat.create(ChatId.newId(), List.of(member.getUserId(), forger.getUserId()));
+        directChatRepository.save(chat);
+
+        List<Object> received = new CopyOnWriteArrayList<>();
+        CompletableFuture<Object> genuine = new CompletableFuture<>();
+        StompSession memberSession = connect(member);
+        memberSession.subscribe("/user/queue/inbox", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                Object content = ((Map<?, ?>) ((Map<?, ?>) payload).get("payload")).get("content");
+                received.add(content);
+                if ("genuine".equals(content)) {
+                    genuine.complete(content);
+                }
+            }
+        });
+
+        // --- Act: a forged event first, then a real send that has to go through the outbox ---
+        connect(forger).send("/user/" + member.getUserId().getValue() + "/queue/inbox", new InboxEventDto<>(InboxEventDto.MESSAGE_SENT, new ChatMessageDto(
+                UUID.randomUUID().toString(), chat.getChatId().getValue(), forger.getUserId().getValue(), "forged", "2020-01-01T00:00:00Z"
+        )));
+        memberSession.send(
+                "/app/chats/" + chat.getChatId().getValue() + "/messages",
+                Map.of("correlationId", "c-4", "content", "genuine")
+        );
+
+        // --- Assert ---
+        genuine.get(3, TimeUnit.SECONDS);
+        assertEquals(List.of("genuine"), received);
+    }
+
+    @Test
+    void whenMemberTypes_thenOtherMembersSeeOneThrottledIndicator() throws Exception {
+        // --- Arrange ---
+        var typist = newUser("typist");
+        var reader = newUser("reader");
+
+        DirectChat chat = DirectChat.create(ChatId.newId(), List.of(typist.getUserId(), reader.getUserId()));
+        directChatRepository.save(chat);
+
+        List<Map<String, Object>> received = new CopyOnWriteArrayList<>();
+        CompletableFuture<Map<String, Object>> stopped = new CompletableFuture<>();
+        StompSession readerSession = connect(reader);
+        readerSession.subscribe("/user/queue/inbox", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                Map<String, Object> event = (Map<String, Object>) payload;
+                received.add(event);
+                if (Boolean.FALSE.equals(((Map<?, ?>) event.get("payload")).get("typing"))) {
+                    stopped.complete(event);
+                }
+            }
+        });
+        StompSession typistSession = connect(typist);
+
+        // --- Act: a burst of keystrokes followed by a stop ---
+        String destination = "/app/chats/" + chat.getChatId().getValue() + "/typing";
+        for (int i = 0; i < 5; i++) {
+            typistSession.send(destination, Map.of("typing", true));
+        }
+        typistSession.send(destination, Map.of("typing", false));
+
+        // --- Assert ---
+        stopped.get(3, TimeUnit.SECONDS);
+        assertEquals(2, received.size());
+        Map<?, ?> started = (Map<?, ?>) received.get(0).get("payload");
+        assertEquals(InboxEventDto.TYPING, received.get(0).get("type"));
+        assertEquals(Boolean.TRUE, started.get("typing"));
+        assertEquals(typist.getUserId().getValue(), started.get("userId"));
+        assertEquals(chat.getChatId().getValue(), started.get("chatId"));
+    }
+
+    @Test
+    void whenRecipientReadsMessages_thenSenderGetsAggregatedReceipts() throws Exception {
+        // --- Arrange ---
+        var sender = newUser("sender");
+        var reader = newUser("reader");
+
+        DirectChat chat = DirectChat.create(ChatId.newId(), List.of(sender.getUserId(), reader.getUserId()));
+        directChatRepository.save(chat);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(tokenService.generate(
+                new UserClaims(sender.getUserId().getValue(), sender.getEmail().getValue(), Set.of("USER")),
+                Duration.ofHours(1)
+        ));
+        List<Map<?, ?>> sent = new ArrayList<>();
+        for (String content : List.of("one", "two", "three")) {
+            sent.add(new RestTemplate().postForEntity(
+                    "http://localhost:" + port + "/api/chats/" + chat.getChatId().getValue() + "/messages",
+                    new HttpEntity<>(Map.of("senderId", sender.getUserId().getValue(), "content", content), headers),
+                    Map.class
+            ).getBody());
+        }
+        Object lastId = sent.get(2).get("id");
+
+        List<Map<?, ?>> batches = new CopyOnWriteArrayList<>();
+        CompletableFuture<Map<?, ?>> caughtUp = new CompletableFuture<>();
+        StompSession senderSession = connect(sender);
+        senderSession.subscribe("/user/queue/inbox", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                Map<?, ?> event = (Map<?, ?>) payload;
+                if (!InboxEventDto.RECEIPTS_UPDATED.equals(event.get("type"))) {
+                    return;
+                }
+                Map<?, ?> batch = (Map<?, ?>) event.get("payload");
+                batches.add(batch);
+                Map<?, ?> receipt = (Map<?, ?>) ((List<?>) batch.get("receipts")).get(0);
+                if (lastId.equals(receipt.get("readMessageId"))) {
+                    caughtUp.complete(receipt);
+                }
+            }
+        });
+
+        // --- Act: the reader acks every message as delivered and then read ---
+        StompSession readerSession = connect(reader);
+        String destination = "/app/chats/" + chat.getChatId().getValue() + "/receipts/";
+        for (Map<?, ?> message : sent) {
+            Map<String, Object> cursor = Map.of("messageId", message.get("id"));
+            readerSession.send(destination + "delivered", cursor);
+            readerSession.send(destination + "read", cursor);
+        }
+
+        // --- Assert: six acks arrive as at most a couple of coalesced receipt events ---
+        Map<?, ?> receipt = caughtUp.get(5, TimeUnit.SECONDS);
+        assertEquals(reader.getUserId().getValue(), receipt.get("userId"));
+        assertEquals(lastId, receipt.get("deliveredMessageId"));
+        assertTrue(batches.size() <= 2);
+        assertTrue(batches.stream().allMatch(batch -> ((List<?>) batch.get("receipts")).size() == 1));
+    }
+
+    @Test
+    void whenCborNegotiated_thenEventsArriveAsCompactBinaryFrames() throws Exception {
+        // --- Arrange ---
+        var sender = newUser("sender");
+        var recipient = newUser("recipient");
+
+        DirectChat chat = DirectChat.create(ChatId.newId(), List.of(sender.getUserId(), recipient.getUserId()));
+        directChatRepository.save(chat);
+
+        WebSocketStompClient nativeClient = new WebSocketStompClient(new StandardWebSocketClient());
+        nativeClient.setMessageConverter(new ByteArrayMessageConverter());
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + tokenService.generate(
+                new UserClaims(recipient.getUserId().getValue(), recipient.getEmail().getValue(), Set.of("USER")),
+                Duration.ofHours(1)
+        ));
+        connectHeaders.add("accept-content-type", "application/cbor");
+        StompSession session = nativeClient
+                .connectAsync("ws://localhost:" + port + "/ws-native", new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {})
+                .get(1, TimeUnit.SECONDS);
+
+        CompletableFuture<StompHeaders> frameHeaders = new CompletableFuture<>();
+        CompletableFuture<byte[]> frame = new CompletableFuture<>();
+        session.subscribe("/user/queue/inbox", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                frameHeaders.complete(headers);
+                frame.complete((byte[]) payload);
+            }
+        });
+
+        // --- Act ---
+        StompSession senderSession = connect(sender);
+        senderSession.send(
+                "/app/chats/" + chat.getChatId().getValue() + "/messages",
+                Map.of("correlationId", "c-3", "content", "compact")
+        );
+
+        // --- Assert: a CBOR map carrying the chat id as a tagged 16-byte UUID rather than JSON text ---
+        byte[] payload = frame.get(3, TimeUnit.SECONDS);
+        UUID chatUuid = UUID.fromString(chat.getChatId().getValue());
+        byte[] taggedChatId = ByteBuffer.allocate(19).put((byte) 0xd8).put((byte) 37).put((byte) 0x50)
+                .putLong(chatUuid.getMostSignificantBits()).putLong(chatUuid.getLeastSignificantBits()).array();
+
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, frameHeaders.get(1, TimeUnit.SECONDS).getContentType());
+        assertEquals(0xa0, payload[0] & 0xe0);
+        assertTrue(new String(payload, StandardCharsets.ISO_8859_1).contains(new String(taggedChatId, StandardCharsets.ISO_8859_1)));
+    }
+
+    @Test
+    void whenClientOffersPerMessageDeflate_thenNativeEndpointNegotiatesIt() throws Exception {
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setSecWebSocketExtensions(List.of(new WebSocketExtension("permessage-deflate")));
+
+        WebSocketSession session = new StandardWebSocketClient()
+                .execute(new AbstractWebSocketHandler() {}, headers, URI.create("ws://localhost:" + port + "/ws-native"))
+                .get(1, TimeUnit.SECONDS);
+
+        try {
+            assertTrue(session.getExtensions().stream().anyMatch(extension -> extension.getName().equals("permessage-deflate")));
+        } finally {
+            session.close();
+        }
+    }
+
+    private User newUser(String prefix) {
+        var user = User.create(
+                UserId.newId(),
+                prefix + "_" + UUID.randomUUID(),
+                Email.of(prefix + "_" + UUID.randomUUID() + "@example.com"),
+                PasswordHash.newHash("secret123")
+        );
+        userRepository.save(user);
+        return user;
+    }
+
+    private StompSession connect(User user) throws Exception {
+        String token = tokenService.generate(
+                new UserClaims(user.getUserId().getValue(), user.getEmail().getValue(), Set.of("USER")),
+                Duration.ofHours(1)
+        );
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return stompClient
+                .connectAsync("ws://localhost:" + port + "/ws", new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {})
+                .get(1, TimeUnit.SECONDS);
+    }
+
+    private StompFrameHandler mapHandler(CompletableFuture<Map<String, Object>> future) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                future.complete((Map<String, Object>) payload);
+            }
+        };
     }
 }
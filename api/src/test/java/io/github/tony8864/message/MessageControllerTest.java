@@ -9,6 +9,7 @@ import io.github.tony8864.entities.chat.DirectChat;
 import io.github.tony8864.entities.chat.GroupChat;
 import io.github.tony8864.entities.message.Message;
 import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.message.MessageStatus;
 import io.github.tony8864.entities.participant.Participant;
 import io.github.tony8864.entities.participant.Role;
 import io.github.tony8864.entities.user.*;
@@ -113,6 +114,42 @@ class MessageControllerTest {
                 .andExpect(jsonPath("$.createdAt").exists());
     }
 
+    @Test
+    void shouldRejectEmptyMessageWithSameCodeAsStomp() throws Exception {
+        // --- Arrange ---
+        var sender = User.create(
+                UserId.newId(),
+                "sender_" + UUID.randomUUID(),
+                Email.of("sender_" + UUID.randomUUID() + "@example.com"),
+                PasswordHash.newHash("secret123")
+        );
+        var receiver = User.create(
+                UserId.newId(),
+                "receiver_" + UUID.randomUUID(),
+                Email.of("receiver_" + UUID.randomUUID() + "@example.com"),
+                PasswordHash.newHash("secret123")
+        );
+
+        userRepository.save(sender);
+        userRepository.save(receiver);
+
+        var chat = DirectChat.create(ChatId.newId(), List.of(sender.getUserId(), receiver.getUserId()));
+        directChatRepository.save(chat);
+
+        String token = tokenService.generate(
+                new UserClaims(sender.getUserId().getValue(), sender.getEmail().getValue(), Set.of("USER")),
+                Duration.ofHours(1)
+        );
+
+        // --- Act & Assert ---
+        mockMvc.perform(post("/api/chats/{chatId}/messages", chat.getChatId().getValue())
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SendMessageApiRequest("  "))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_MESSAGE"));
+    }
+
     @Test
     void shouldFailWhenSenderNotInDirectChat() throws Exception {
         // --- Arrange ---
@@ -420,6 +457,65 @@ class MessageControllerTest {
                 .andExpect(jsonPath("$.messages[1].content").value("Message 2"));
     }
 
+    @Test
+    void shouldScrollBackWithBeforeCursor() throws Exception {
+        // --- Arrange ---
+        var user1 = User.create(
+                UserId.newId(),
+                "user1_" + UUID.randomUUID(),
+                Email.of("user1_" + UUID.randomUUID() + "@example.com"),
+                PasswordHash.newHash("secret123")
+        );
+        var user2 = User.create(
+                UserId.newId(),
+                "user2_" + UUID.randomUUID(),
+                Email.of("user2_" + UUID.randomUUID() + "@example.com"),
+                PasswordHash.newHash("secret123")
+        );
+
+        userRepository.save(user1);
+        userRepository.save(user2);
+
+        var chat = DirectChat.create(ChatId.newId(), List.of(user1.getUserId(), user2.getUserId()));
+        directChatRepository.save(chat);
+
+        Instant base = Instant.parse("2025-09-13T10:00:00Z");
+        List<Message> history = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Message message = Message.restore(
+                    MessageId.newId(),
+                    chat.getChatId(),
+                    user1.getUserId(),
+                    "Message " + i,
+                    base.plusSeconds(i),
+                    MessageStatus.SENT,
+                    null
+            );
+            messageRepository.save(message);
+            history.add(message);
+        }
+        Message oldestShown = history.get(2);
+
+        // JWT for user1
+        var claims = new UserClaims(
+                user1.getUserId().getValue(),
+                user1.getEmail().getValue(),
+                Set.of("USER")
+        );
+        String token = tokenService.generate(claims, Duration.ofHours(1));
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/chats/{chatId}/messages", chat.getChatId().getValue())
+                        .param("limit", "10")
+                        .param("beforeCreatedAt", oldestShown.getCreatedAt().toString())
+                        .param("beforeMessageId", oldestShown.getMessageId().getValue())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages.length()").value(2))
+                .andExpect(jsonPath("$.messages[0].content").value("Message 2"))
+                .andExpect(jsonPath("$.messages[1].content").value("Message 1"));
+    }
+
     @Test
     void shouldFailWhenUserNotInDirectChat() throws Exception {
         // --- Arrange ---
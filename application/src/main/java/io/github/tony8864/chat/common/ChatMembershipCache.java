@@ -0,0 +1,206 @@
+package io.github.tony8864.chat.common;
+
+import io.github.tony8864.chat.repository.ChatMembershipEventPublisher;
+import io.github.tony8864.chat.repository.ChatRepository;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.chat.ChatType;
+import io.github.tony8864.entities.user.UserId;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ChatMembershipCache {
+    private static final int MAX_STRIPES = 64;
+
+    private final ChatRepository chatRepository;
+    private final ChatMembershipEventPublisher eventPublisher;
+    private final int maxMembersPerChat;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Stripe[] stripes;
+    private final Map<ChatId, LargeChat> largeChats;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ChatMembershipCache(ChatRepository chatRepository, ChatMembershipEventPublisher eventPublisher, int maxChats, int maxMembersPerChat, int maxLargeChats, Duration ttl) {
+        this(chatRepository, eventPublisher, maxChats, maxMembersPerChat, maxLargeChats, ttl, Clock.systemUTC());
+    }
+
+    public ChatMembershipCache(ChatRepository chatRepository, ChatMembershipEventPublisher eventPublisher, int maxChats, int maxMembersPerChat, int maxLargeChats, Duration ttl, Clock clock) {
+        this.chatRepository = chatRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxMembersPerChat = maxMembersPerChat;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+
+        // every event in a chat needs its member list, so the few chats too large for a regular entry get
+        // their own small LRU instead of a database query per event
+        this.largeChats = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChatId, LargeChat> eldest) {
+                return size() > maxLargeChats;
+            }
+        };
+
+        // send and list checks hit this on every request, so chats are spread over independently locked LRU maps
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, maxChats)));
+        int chatsPerStripe = (maxChats + stripeCount - 1) / stripeCount;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(chatsPerStripe);
+        }
+    }
+
+    public Optional<ChatType> findType(ChatId chatId) {
+        Entry entry = get(chatId);
+        if (entry != null) {
+            return Optional.of(entry.type);
+        }
+
+        long generation = invalidations.get();
+        Optional<ChatType> type = chatRepository.findType(chatId);
+        type.ifPresent(t -> {
+            Stripe stripe = stripe(chatId);
+            synchronized (stripe) {
+                if (invalidations.get() == generation) {
+                    stripe.entries.putIfAbsent(chatId, new Entry(t, clock.millis() + ttlMillis));
+                }
+            }
+        });
+        return type;
+    }
+
+    public boolean isMember(ChatId chatId, UserId userId) {
+        Entry entry = get(chatId);
+        if (entry != null && entry.allMembers != null) {
+            return entry.allMembers.contains(userId);
+        }
+        if (entry != null && entry.members.contains(userId)) {
+            return true;
+        }
+        Set<UserId> large = getLarge(chatId);
+        if (large != null) {
+            return large.contains(userId);
+        }
+
+        long generation = invalidations.get();
+        boolean member = chatRepository.isMember(chatId, userId);
+        if (member && entry != null && entry.members.size() < maxMembersPerChat) {
+            synchronized (stripe(chatId)) {
+                if (invalidations.get() == generation) {
+                    entry.members.add(userId);
+                }
+            }
+        }
+        return member;
+    }
+
+    public Set<UserId> findMembers(ChatId chatId) {
+        if (findType(chatId).isEmpty()) {
+            return Set.of();
+        }
+        Entry entry = get(chatId);
+        if (entry != null && entry.allMembers != null) {
+            return entry.allMembers;
+        }
+        Set<UserId> large = getLarge(chatId);
+        if (large != null) {
+            return large;
+        }
+
+        long generation = invalidations.get();
+        Set<UserId> members = Set.copyOf(chatRepository.findMemberIds(chatId));
+        if (entry != null && members.size() <= maxMembersPerChat) {
+            synchronized (stripe(chatId)) {
+                if (invalidations.get() == generation) {
+                    entry.allMembers = members;
+                }
+            }
+        } else if (entry != null) {
+            synchronized (largeChats) {
+                if (invalidations.get() == generation) {
+                    largeChats.put(chatId, new LargeChat(members, entry.expiresAt));
+                }
+            }
+        }
+        return members;
+    }
+
+    public void invalidate(ChatId chatId) {
+        evict(chatId);
+        // other instances cache the same chat and drop it when the event reaches them
+        eventPublisher.publishMembershipChanged(chatId);
+    }
+
+    public void evict(ChatId chatId) {
+        Stripe stripe = stripe(chatId);
+        synchronized (stripe) {
+            invalidations.incrementAndGet();
+            stripe.entries.remove(chatId);
+        }
+        synchronized (largeChats) {
+            largeChats.remove(chatId);
+        }
+    }
+
+    // entries expire even without an invalidation, so a missed one cannot keep granting access
+    private Entry get(ChatId chatId) {
+        Stripe stripe = stripe(chatId);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(chatId);
+            if (entry != null && entry.expiresAt <= clock.millis()) {
+                stripe.entries.remove(chatId);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private Set<UserId> getLarge(ChatId chatId) {
+        synchronized (largeChats) {
+            LargeChat chat = largeChats.get(chatId);
+            if (chat != null && chat.expiresAt <= clock.millis()) {
+                largeChats.remove(chatId);
+                return null;
+            }
+            return chat == null ? null : chat.members;
+        }
+    }
+
+    private Stripe stripe(ChatId chatId) {
+        return stripes[chatId.hashCode() & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+        private final Map<ChatId, Entry> entries;
+
+        private Stripe(int maxChats) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ChatId, Entry> eldest) {
+                    return size() > maxChats;
+                }
+            };
+        }
+    }
+
+    private record LargeChat(Set<UserId> members, long expiresAt) {
+    }
+
+    private static final class Entry {
+        private final ChatType type;
+        private final long expiresAt;
+        private final Set<UserId> members = ConcurrentHashMap.newKeySet();
+        private volatile Set<UserId> allMembers;
+
+        private Entry(ChatType type, long expiresAt) {
+            this.type = type;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
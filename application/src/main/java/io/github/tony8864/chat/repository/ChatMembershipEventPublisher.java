@@ -0,0 +1,7 @@
+package io.github.tony8864.chat.repository;
+
+import io.github.tony8864.entities.chat.ChatId;
+
+public interface ChatMembershipEventPublisher {
+    void publishMembershipChanged(ChatId chatId);
+}
@@ -0,0 +1,14 @@
+package io.github.tony8864.chat.repository;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.chat.ChatType;
+import io.github.tony8864.entities.user.UserId;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ChatRepository {
+    Optional<ChatType> findType(ChatId chatId);
+    boolean isMember(ChatId chatId, UserId userId);
+    List<UserId> findMemberIds(ChatId chatId);
+}
@@ -0,0 +1,12 @@
+package io.github.tony8864.chat.repository;
+
+import io.github.tony8864.chat.usecase.listchats.dto.ChatSummaryDto;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.user.UserId;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ChatSummaryRepository {
+    List<ChatSummaryDto> findInbox(UserId userId, Instant cursorLastMessageAt, ChatId cursorChatId, int limit);
+}
@@ -2,8 +2,10 @@ package io.github.tony8864.chat.repository;
 
 import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.chat.DirectChat;
+import io.github.tony8864.entities.message.MessageId;
 import io.github.tony8864.entities.user.UserId;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +13,8 @@ public interface DirectChatRepository {
     Optional<DirectChat> findById(ChatId chatId);
     Optional<DirectChat> findByUsers(UserId user1, UserId user2);
     List<DirectChat> findByParticipant(UserId userId);
+    void add(DirectChat directChat);
     void save(DirectChat directChat);
+    void updateLastMessage(ChatId chatId, MessageId messageId, Instant sentAt);
     void delete(DirectChat directChat);
 }
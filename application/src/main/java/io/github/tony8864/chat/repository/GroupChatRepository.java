@@ -3,14 +3,18 @@ package io.github.tony8864.chat.repository;
 import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.chat.DirectChat;
 import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.message.MessageId;
 import io.github.tony8864.entities.user.UserId;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 public interface GroupChatRepository {
     Optional<GroupChat> findById(ChatId chatId);
     List<GroupChat> findByParticipant(UserId userId);
+    void add(GroupChat groupChat);
     void save(GroupChat groupChat);
+    void updateLastMessage(ChatId chatId, MessageId messageId, Instant sentAt);
     void delete(GroupChat groupChat);
 }
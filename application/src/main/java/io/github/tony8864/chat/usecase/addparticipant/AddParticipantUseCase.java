@@ -5,6 +5,7 @@ import io.github.tony8864.entities.chat.GroupChat;
 import io.github.tony8864.entities.participant.Participant;
 import io.github.tony8864.entities.participant.Role;
 import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.common.exception.GroupChatNotFoundException;
 import io.github.tony8864.common.UserNotFoundException;
 import io.github.tony8864.chat.repository.GroupChatRepository;
@@ -16,13 +17,16 @@ public class AddParticipantUseCase {
 
     private final UserRepository userRepository;
     private final GroupChatRepository groupChatRepository;
+    private final ChatMembershipCache membershipCache;
 
     public AddParticipantUseCase(
             UserRepository userRepository,
-            GroupChatRepository groupChatRepository
+            GroupChatRepository groupChatRepository,
+            ChatMembershipCache membershipCache
     ) {
             this.userRepository = userRepository;
             this.groupChatRepository = groupChatRepository;
+            this.membershipCache = membershipCache;
     }
 
     public AddParticipantResponse add(AddParticipantRequest request) {
@@ -43,6 +47,7 @@ public class AddParticipantUseCase {
         chat.addParticipant(requesterId, participant);
 
         groupChatRepository.save(chat);
+        membershipCache.invalidate(chat.getChatId());
         return AddParticipantResponse.fromDomain(chat);
     }
 }
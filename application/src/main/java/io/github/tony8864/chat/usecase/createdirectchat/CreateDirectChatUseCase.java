@@ -49,7 +49,7 @@ public class CreateDirectChatUseCase {
         DirectChat chat = DirectChat.create(ChatId.newId(), List.of(user1, user2));
 
         try {
-            directChatRepository.save(chat);
+            directChatRepository.add(chat);
             return CreateDirectChatResponse.fromDomain(chat);
         } catch (UniqueConstraintViolationException e) {
             DirectChat winner = directChatRepository.findByUsers(user1, user2)
@@ -37,7 +37,7 @@ public class CreateGroupChatUseCase {
 
         List<Participant> participants = mapToParticipants(userIds, requesterId);
         GroupChat chat = GroupChat.create(ChatId.newId(), participants, request.groupName());
-        groupChatRepository.save(chat);
+        groupChatRepository.add(chat);
 
         return CreateGroupChatResponse.fromDomain(chat);
     }
@@ -1,5 +1,6 @@
 package io.github.tony8864.chat.usecase.deletegroupchat;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.common.exception.GroupChatNotFoundException;
 import io.github.tony8864.chat.repository.GroupChatRepository;
 import io.github.tony8864.chat.usecase.deletegroupchat.dto.DeleteGroupChatRequest;
@@ -14,10 +15,12 @@ public class DeleteGroupChatUseCase {
 
     private final UserRepository userRepository;
     private final GroupChatRepository groupChatRepository;
+    private final ChatMembershipCache membershipCache;
 
-    public DeleteGroupChatUseCase(UserRepository userRepository, GroupChatRepository groupChatRepository) {
+    public DeleteGroupChatUseCase(UserRepository userRepository, GroupChatRepository groupChatRepository, ChatMembershipCache membershipCache) {
         this.userRepository = userRepository;
         this.groupChatRepository = groupChatRepository;
+        this.membershipCache = membershipCache;
     }
 
     public void delete(DeleteGroupChatRequest request) {
@@ -30,13 +33,11 @@ public class DeleteGroupChatUseCase {
         userRepository.findById(userId)
                 .orElseThrow(() -> UserNotFoundException.byId(userId.getValue()));
 
-        boolean isAdmin = chat.getParticipants().stream()
-                .anyMatch(p -> p.getUserId().equals(userId) && p.isAdmin());
-
-        if (!isAdmin) {
+        if (!chat.isAdmin(userId)) {
             throw new UnauthorizedOperationException("Only admin can delete group chat");
         }
 
         groupChatRepository.delete(chat);
+        membershipCache.invalidate(chat.getChatId());
     }
 }
@@ -1,99 +1,38 @@
 package io.github.tony8864.chat.usecase.listchats;
 
-import io.github.tony8864.chat.repository.DirectChatRepository;
-import io.github.tony8864.chat.repository.GroupChatRepository;
+import io.github.tony8864.chat.repository.ChatSummaryRepository;
 import io.github.tony8864.chat.usecase.listchats.dto.ChatSummaryDto;
 import io.github.tony8864.chat.usecase.listchats.dto.ListChatsRequest;
 import io.github.tony8864.chat.usecase.listchats.dto.ListChatsResponse;
-import io.github.tony8864.common.UserNotFoundException;
-import io.github.tony8864.entities.chat.DirectChat;
-import io.github.tony8864.entities.chat.GroupChat;
-import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.user.UserId;
-import io.github.tony8864.message.repository.MessageRepository;
-import io.github.tony8864.user.repository.UserRepository;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 public class ListChatsUseCase {
-    private final DirectChatRepository directChatRepository;
-    private final GroupChatRepository groupChatRepository;
-    private final MessageRepository messageRepository;
-    private final UserRepository userRepository;
+    private static final int DEFAULT_LIMIT = 50;
 
-    public ListChatsUseCase(
-            DirectChatRepository directChatRepository,
-            GroupChatRepository groupChatRepository,
-            MessageRepository messageRepository,
-            UserRepository userRepository
-    ) {
-        this.directChatRepository = directChatRepository;
-        this.groupChatRepository = groupChatRepository;
-        this.messageRepository = messageRepository;
-        this.userRepository = userRepository;
+    private final ChatSummaryRepository chatSummaryRepository;
+
+    public ListChatsUseCase(ChatSummaryRepository chatSummaryRepository) {
+        this.chatSummaryRepository = chatSummaryRepository;
     }
 
     public ListChatsResponse list(ListChatsRequest request) {
         UserId requesterId = UserId.of(request.requesterId());
+        int limit = request.limit() > 0 ? request.limit() : DEFAULT_LIMIT;
 
-        List<ChatSummaryDto> directChatSummaries =
-                directChatRepository.findByParticipant(requesterId).stream()
-                        .map(chat -> toDirectChatSummary(chat, requesterId))
-                        .toList();
-
-        List<ChatSummaryDto> groupChatSummaries =
-                groupChatRepository.findByParticipant(requesterId).stream()
-                        .map(this::toGroupChatSummary)
-                        .toList();
-
-        // merge and sort by last message time
-        List<ChatSummaryDto> allChats = new ArrayList<>();
-        allChats.addAll(directChatSummaries);
-        allChats.addAll(groupChatSummaries);
-
-        allChats.sort(Comparator.comparing(ChatSummaryDto::lastMessageAt, Comparator.nullsLast(Comparator.reverseOrder())));
-
-        // apply limit if set
-        List<ChatSummaryDto> limited = request.limit() > 0
-                ? allChats.stream().limit(request.limit()).toList()
-                : allChats;
-
-        return new ListChatsResponse(limited);
-    }
+        // the cursor is the (lastMessageAt, chatId) of the last row of the previous page;
+        // lastMessageAt is null when paging through chats without messages
+        ChatId cursorChatId = request.cursorChatId() != null ? ChatId.of(request.cursorChatId()) : null;
 
-    private ChatSummaryDto toDirectChatSummary(DirectChat chat, UserId requesterId) {
-        // pick the other participant’s name as the chat "name"
-        UserId other = chat.getParticipants().stream()
-                .filter(p -> !p.equals(requesterId))
-                .findFirst()
-                .orElseThrow();
-
-        var otherUser = userRepository.findById(other)
-                .orElseThrow(() -> UserNotFoundException.byId(other.getValue()));
-
-        // fetch latest message (optional)
-        Message lastMessage = messageRepository.findLastMessage(chat.getChatId()).orElse(null);
-
-        return new ChatSummaryDto(
-                chat.getChatId().getValue(),
-                "DIRECT",
-                otherUser.getUsername(),
-                lastMessage != null ? lastMessage.getContent() : null,
-                lastMessage != null ? lastMessage.getCreatedAt() : null
+        List<ChatSummaryDto> chats = chatSummaryRepository.findInbox(
+                requesterId,
+                cursorChatId != null ? request.cursorLastMessageAt() : null,
+                cursorChatId,
+                limit
         );
-    }
-
-    private ChatSummaryDto toGroupChatSummary(GroupChat chat) {
-        Message lastMessage = messageRepository.findLastMessage(chat.getChatId()).orElse(null);
 
-        return new ChatSummaryDto(
-                chat.getChatId().getValue(),
-                "GROUP",
-                chat.getGroupName(),
-                lastMessage != null ? lastMessage.getContent() : null,
-                lastMessage != null ? lastMessage.getCreatedAt() : null
-        );
+        return new ListChatsResponse(chats);
     }
 }
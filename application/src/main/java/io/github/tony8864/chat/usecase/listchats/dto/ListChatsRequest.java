@@ -1,6 +1,14 @@
 package io.github.tony8864.chat.usecase.listchats.dto;
 
+import java.time.Instant;
+
 public record ListChatsRequest(
         String requesterId,
-        int limit
-) {}
+        int limit,
+        Instant cursorLastMessageAt,
+        String cursorChatId
+) {
+    public ListChatsRequest(String requesterId, int limit) {
+        this(requesterId, limit, null, null);
+    }
+}
@@ -2,6 +2,7 @@ package io.github.tony8864.chat.usecase.removeparticipant;
 
 import io.github.tony8864.chat.usecase.removeparticipant.dto.RemoveParticipantRequest;
 import io.github.tony8864.chat.usecase.removeparticipant.dto.RemoveParticipantResponse;
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.common.exception.GroupChatNotFoundException;
 import io.github.tony8864.chat.repository.GroupChatRepository;
 import io.github.tony8864.common.UserNotFoundException;
@@ -13,13 +14,16 @@ import io.github.tony8864.user.repository.UserRepository;
 public class RemoveParticipantUseCase {
     private final UserRepository userRepository;
     private final GroupChatRepository groupChatRepository;
+    private final ChatMembershipCache membershipCache;
 
     public RemoveParticipantUseCase(
             UserRepository userRepository,
-            GroupChatRepository groupChatRepository
+            GroupChatRepository groupChatRepository,
+            ChatMembershipCache membershipCache
     ) {
         this.userRepository = userRepository;
         this.groupChatRepository = groupChatRepository;
+        this.membershipCache = membershipCache;
     }
     public RemoveParticipantResponse remove(RemoveParticipantRequest request) {
         UserId requesterId = UserId.of(request.requesterId());
@@ -38,6 +42,7 @@ public class RemoveParticipantUseCase {
         chat.removeParticipant(requesterId, removeUserId);
 
         groupChatRepository.save(chat);
+        membershipCache.invalidate(chat.getChatId());
         return RemoveParticipantResponse.fromDomain(chat);
     }
 }
@@ -31,10 +31,7 @@ public class RenameGroupChatUseCase {
                 .orElseThrow(() -> new GroupChatNotFoundException(chatId.getValue()
                 ));
 
-        boolean isAdmin = chat.getParticipants().stream()
-                .anyMatch(p -> p.getUserId().equals(userId) && p.isAdmin());
-
-        if (!isAdmin) {
+        if (!chat.isAdmin(userId)) {
             throw new UnauthorizedOperationException("Only admin can rename group chat");
         }
 
@@ -0,0 +1,6 @@
+package io.github.tony8864.common;
+
+public interface TransactionCallbacks {
+    // runs the action once the surrounding transaction commits, or right away when there is none
+    void afterCommit(Runnable action);
+}
@@ -0,0 +1,6 @@
+package io.github.tony8864.common;
+
+public interface TransactionRunner {
+    // runs the work in one transaction, joining the surrounding one if there is any
+    void inTransaction(Runnable work);
+}
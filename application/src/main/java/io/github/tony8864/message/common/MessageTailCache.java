@@ -0,0 +1,219 @@
+package io.github.tony8864.message.common;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.Message;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class MessageTailCache {
+    private static final int VERSION_STRIPES = 1024;
+    private static final long MESSAGE_OVERHEAD_BYTES = 256;
+
+    private final int messagesPerChat;
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<ChatId, Tail> tails = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private long usedBytes;
+
+    public MessageTailCache(int messagesPerChat, long maxBytes, Duration ttl) {
+        this(messagesPerChat, maxBytes, ttl, Clock.systemUTC());
+    }
+
+    public MessageTailCache(int messagesPerChat, long maxBytes, Duration ttl, Clock clock) {
+        if (messagesPerChat <= 0) throw new IllegalArgumentException("messagesPerChat must be positive");
+        this.messagesPerChat = messagesPerChat;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    // a tail is re-read from the database once it expires, so an append this node never saw
+    // (a lost notification, a dropped event) is missing for at most one ttl
+    public Optional<List<Message>> findLatest(ChatId chatId, int limit) {
+        synchronized (tails) {
+            Tail tail = tails.get(chatId);
+            if (tail != null && tail.expiresAt <= clock.millis()) {
+                usedBytes -= tail.bytes;
+                tails.remove(chatId);
+                return Optional.empty();
+            }
+            if (tail == null || (tail.size < limit && !tail.complete)) {
+                return Optional.empty();
+            }
+            return Optional.of(tail.newest(limit));
+        }
+    }
+
+    public long version(ChatId chatId) {
+        return versions.get(stripe(chatId));
+    }
+
+    public void append(Message message) {
+        ChatId chatId = message.getChatId();
+        synchronized (tails) {
+            versions.incrementAndGet(stripe(chatId));
+            Tail tail = tails.get(chatId);
+            if (tail == null) {
+                return;
+            }
+            usedBytes += tail.insert(copy(message));
+            evictColdChats();
+        }
+    }
+
+    public void prime(ChatId chatId, long version, List<Message> newestFirst, int requested) {
+        int kept = Math.min(newestFirst.size(), messagesPerChat);
+        Tail tail = new Tail(messagesPerChat, clock.millis() + ttlMillis);
+        for (int i = kept - 1; i >= 0; i--) {
+            tail.insert(copy(newestFirst.get(i)));
+        }
+        tail.complete = newestFirst.size() < requested && newestFirst.size() <= messagesPerChat;
+
+        synchronized (tails) {
+            // a send that landed after the snapshot was read would be missing from it
+            if (versions.get(stripe(chatId)) != version || tails.containsKey(chatId)) {
+                return;
+            }
+            tails.put(chatId, tail);
+            usedBytes += tail.bytes;
+            evictColdChats();
+        }
+    }
+
+    // after appends may have been missed for every chat at once; in-flight primes read before this are discarded too
+    public void clear() {
+        synchronized (tails) {
+            for (int i = 0; i < VERSION_STRIPES; i++) {
+                versions.incrementAndGet(i);
+            }
+            tails.clear();
+            usedBytes = 0;
+        }
+    }
+
+    public long getUsedBytes() {
+        synchronized (tails) {
+            return usedBytes;
+        }
+    }
+
+    public int getChatCount() {
+        synchronized (tails) {
+            return tails.size();
+        }
+    }
+
+    private void evictColdChats() {
+        Iterator<Tail> eldest = tails.values().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    private static int stripe(ChatId chatId) {
+        return chatId.hashCode() & (VERSION_STRIPES - 1);
+    }
+
+    private static Message copy(Message message) {
+        return Message.restore(
+                message.getMessageId(),
+                message.getChatId(),
+                message.getUserId(),
+                message.getContent(),
+                message.getCreatedAt(),
+                message.getStatus(),
+                message.getUpdatedAt()
+        );
+    }
+
+    private static long sizeOf(Message message) {
+        return MESSAGE_OVERHEAD_BYTES + 2L * message.getContent().length();
+    }
+
+    private static int compare(Message a, Message b) {
+        int byTime = a.getCreatedAt().compareTo(b.getCreatedAt());
+        if (byTime != 0) {
+            return byTime;
+        }
+        UUID x = a.getMessageId().toUuid();
+        UUID y = b.getMessageId().toUuid();
+        int byHigh = Long.compareUnsigned(x.getMostSignificantBits(), y.getMostSignificantBits());
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(x.getLeastSignificantBits(), y.getLeastSignificantBits());
+    }
+
+    private static final class Tail {
+        private final Message[] ring;
+        private final long expiresAt;
+        private int start;
+        private int size;
+        private long bytes;
+        private boolean complete;
+
+        private Tail(int capacity, long expiresAt) {
+            this.ring = new Message[capacity];
+            this.expiresAt = expiresAt;
+        }
+
+        private long insert(Message message) {
+            int position = size;
+            while (position > 0 && compare(get(position - 1), message) > 0) {
+                position--;
+            }
+            if (position > 0 && compare(get(position - 1), message) == 0) {
+                return 0;
+            }
+
+            long delta = 0;
+            if (size == ring.length) {
+                complete = false;
+                if (position == 0) {
+                    return 0;
+                }
+                delta -= sizeOf(ring[start]);
+                ring[start] = null;
+                start = (start + 1) % ring.length;
+                size--;
+                position--;
+            }
+
+            for (int i = size; i > position; i--) {
+                set(i, get(i - 1));
+            }
+            set(position, message);
+            size++;
+
+            delta += sizeOf(message);
+            bytes += delta;
+            return delta;
+        }
+
+        private List<Message> newest(int limit) {
+            int count = Math.min(limit, size);
+            List<Message> messages = new ArrayList<>(count);
+            for (int i = size - 1; i >= size - count; i--) {
+                messages.add(get(i));
+            }
+            return messages;
+        }
+
+        private Message get(int index) {
+            return ring[(start + index) % ring.length];
+        }
+
+        private void set(int index, Message message) {
+            ring[(start + index) % ring.length] = message;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.tony8864.message.common;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.user.UserId;
+
+public record Receipt(ChatId chatId, UserId userId, ReceiptCursor delivered, ReceiptCursor read) {
+
+    // anything read has been delivered
+    public Receipt {
+        delivered = ReceiptCursor.latest(delivered, read);
+    }
+
+    public static Receipt delivered(ChatId chatId, UserId userId, ReceiptCursor cursor) {
+        return new Receipt(chatId, userId, cursor, null);
+    }
+
+    public static Receipt read(ChatId chatId, UserId userId, ReceiptCursor cursor) {
+        return new Receipt(chatId, userId, null, cursor);
+    }
+}
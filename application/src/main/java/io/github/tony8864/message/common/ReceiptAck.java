@@ -0,0 +1,9 @@
+package io.github.tony8864.message.common;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+
+// what a reader claims to have seen; its position in the chat comes from the stored message, never the client
+public record ReceiptAck(ChatId chatId, UserId userId, MessageId messageId, boolean read) {
+}
@@ -0,0 +1,112 @@
+package io.github.tony8864.message.common;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.repository.ReceiptEventPublisher;
+import io.github.tony8864.message.repository.ReceiptRepository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ReceiptBuffer {
+    // a reader acking faster than the flush interval keeps only its most recent acks
+    private static final int MAX_ACKS_PER_READER = 64;
+
+    private final ReceiptRepository receiptRepository;
+    private final ReceiptEventPublisher receiptEventPublisher;
+
+    // acked message ids per reader, true once read; their order in the chat is only known to the database
+    private final Map<Key, Map<MessageId, Boolean>> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong acks = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    public ReceiptBuffer(ReceiptRepository receiptRepository, ReceiptEventPublisher receiptEventPublisher) {
+        this.receiptRepository = receiptRepository;
+        this.receiptEventPublisher = receiptEventPublisher;
+    }
+
+    // a burst from one reader collapses into a single row, positioned at the latest message it acked
+    public void add(ReceiptAck ack) {
+        acks.incrementAndGet();
+        pending.compute(new Key(ack.chatId(), ack.userId()), (key, current) -> {
+            Map<MessageId, Boolean> messages = current != null ? current : new LinkedHashMap<>();
+            messages.merge(ack.messageId(), ack.read(), Boolean::logicalOr);
+            return trim(messages);
+        });
+    }
+
+    public int flush() {
+        Map<Key, Map<MessageId, Boolean>> taken = new LinkedHashMap<>();
+        for (Key key : pending.keySet()) {
+            Map<MessageId, Boolean> messages = pending.remove(key);
+            if (messages != null) {
+                taken.put(key, messages);
+            }
+        }
+        if (taken.isEmpty()) {
+            return 0;
+        }
+
+        List<ReceiptAck> batch = new ArrayList<>();
+        taken.forEach((key, messages) -> messages.forEach((messageId, read) ->
+                batch.add(new ReceiptAck(key.chatId(), key.userId(), messageId, read))));
+
+        List<Receipt> written;
+        try {
+            written = receiptRepository.upsertAll(batch);
+        } catch (RuntimeException e) {
+            taken.forEach(this::requeue);
+            throw e;
+        }
+        writes.addAndGet(written.size());
+
+        Map<ChatId, List<Receipt>> byChat = new LinkedHashMap<>();
+        for (Receipt receipt : written) {
+            byChat.computeIfAbsent(receipt.chatId(), chatId -> new ArrayList<>()).add(receipt);
+        }
+        byChat.forEach(receiptEventPublisher::publishReceipts);
+        return written.size();
+    }
+
+    public long getAcks() {
+        return acks.get();
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+
+    // acks that arrived while the write failed are newer, so they are the last to be trimmed
+    private void requeue(Key key, Map<MessageId, Boolean> failed) {
+        pending.compute(key, (k, current) -> {
+            Map<MessageId, Boolean> messages = new LinkedHashMap<>(failed);
+            if (current != null) {
+                current.forEach((messageId, read) -> messages.merge(messageId, read, Boolean::logicalOr));
+            }
+            return trim(messages);
+        });
+    }
+
+    private static Map<MessageId, Boolean> trim(Map<MessageId, Boolean> messages) {
+        Iterator<MessageId> oldest = messages.keySet().iterator();
+        while (messages.size() > MAX_ACKS_PER_READER) {
+            oldest.next();
+            oldest.remove();
+        }
+        return messages;
+    }
+
+    private record Key(ChatId chatId, UserId userId) {
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.tony8864.message.common;
+
+import io.github.tony8864.entities.message.MessageId;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.UUID;
+
+// position in a chat's (created_at, id) message order, the same keyset the message listing pages by
+public record ReceiptCursor(Instant createdAt, MessageId messageId) implements Comparable<ReceiptCursor> {
+
+    // unsigned, so ties on created_at order like Postgres compares uuid columns
+    private static final Comparator<UUID> UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    public ReceiptCursor {
+        if (createdAt == null || messageId == null) {
+            throw new IllegalArgumentException("Receipt cursor needs both createdAt and messageId");
+        }
+    }
+
+    public static ReceiptCursor latest(ReceiptCursor a, ReceiptCursor b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    @Override
+    public int compareTo(ReceiptCursor other) {
+        int byTime = createdAt.compareTo(other.createdAt);
+        return byTime != 0 ? byTime : UUID_ORDER.compare(messageId.toUuid(), other.messageId.toUuid());
+    }
+}
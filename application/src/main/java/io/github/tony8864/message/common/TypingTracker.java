@@ -0,0 +1,91 @@
+package io.github.tony8864.message.common;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.user.UserId;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TypingTracker {
+    private final long throttleMillis;
+    private final Duration expiry;
+    private final Clock clock;
+
+    private final Map<Key, Long> lastPublished = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    public TypingTracker(Duration throttle, Duration expiry) {
+        this(throttle, expiry, Clock.systemUTC());
+    }
+
+    public TypingTracker(Duration throttle, Duration expiry, Clock clock) {
+        if (expiry.compareTo(throttle) <= 0) {
+            throw new IllegalArgumentException("expiry must be longer than throttle");
+        }
+        this.throttleMillis = throttle.toMillis();
+        this.expiry = expiry;
+        this.clock = clock;
+    }
+
+    public boolean started(ChatId chatId, UserId userId) {
+        long now = clock.millis();
+        sweep(now);
+
+        boolean[] publish = {false};
+        lastPublished.compute(new Key(chatId, userId), (key, last) -> {
+            if (last != null && now - last < throttleMillis) {
+                return last;
+            }
+            publish[0] = true;
+            return now;
+        });
+
+        (publish[0] ? published : throttled).incrementAndGet();
+        return publish[0];
+    }
+
+    // only worth announcing if members may still be showing the indicator
+    public boolean stopped(ChatId chatId, UserId userId) {
+        Long last = lastPublished.remove(new Key(chatId, userId));
+        boolean publish = last != null && clock.millis() - last < expiry.toMillis();
+        if (publish) {
+            published.incrementAndGet();
+        }
+        return publish;
+    }
+
+    public Duration getExpiry() {
+        return expiry;
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    public long getThrottled() {
+        return throttled.get();
+    }
+
+    public int getTypingUsers() {
+        return lastPublished.size();
+    }
+
+    // clients drop the indicator after the expiry by themselves, so stale entries are just forgotten
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last < expiry.toMillis() || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        long cutoff = now - expiry.toMillis();
+        lastPublished.values().removeIf(at -> at <= cutoff);
+    }
+
+    private record Key(ChatId chatId, UserId userId) {
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.tony8864.message.repository;
+
+import io.github.tony8864.entities.message.Message;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AsyncMessageEventPublisher implements MessageEventPublisher, AutoCloseable {
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP,
+        // park the event in an unbounded overflow behind the queue, still in chat order
+        SPILL
+    }
+
+    private static final long POLL_MILLIS = 100;
+    private static final int MAX_DRAIN = 100;
+
+    private final MessageEventPublisher delegate;
+    private final OverflowPolicy overflowPolicy;
+    private final List<Lane> lanes = new ArrayList<>();
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong queueLatencyNanos = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public AsyncMessageEventPublisher(MessageEventPublisher delegate, int capacity, int dispatcherCount, OverflowPolicy overflowPolicy) {
+        if (capacity < dispatcherCount || dispatcherCount <= 0) {
+            throw new IllegalArgumentException("capacity must be at least dispatcherCount, which must be positive");
+        }
+        this.delegate = delegate;
+        this.overflowPolicy = overflowPolicy;
+
+        // one queue per dispatcher, chosen by chat, keeps events of a chat in send order
+        for (int i = 0; i < dispatcherCount; i++) {
+            Lane lane = new Lane(new ArrayBlockingQueue<>(capacity / dispatcherCount));
+            Thread dispatcher = new Thread(() -> dispatch(lane), "message-events-" + i);
+            dispatcher.setDaemon(true);
+            lanes.add(lane);
+            dispatchers.add(dispatcher);
+        }
+        dispatchers.forEach(Thread::start);
+    }
+
+    @Override
+    public void publishMessageSent(Message message) {
+        if (!running) {
+            // publishing inline would overtake events still being drained for the same chat
+            dropped.incrementAndGet();
+            return;
+        }
+
+        Lane lane = lanes.get(Math.floorMod(message.getChatId().hashCode(), lanes.size()));
+        PendingEvent event = new PendingEvent(message, System.nanoTime());
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            lane.offerOrSpill(event);
+            return;
+        }
+        if (lane.queue.offer(event)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    lane.queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                }
+            }
+            case DROP -> dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Thread dispatcher : dispatchers) {
+            try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public int getQueueDepth() {
+        return lanes.stream().mapToInt(Lane::size).sum();
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getDispatched() {
+        return dispatched.get();
+    }
+
+    public double getQueueLatencyNanos() {
+        return queueLatencyNanos.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private void dispatch(Lane lane) {
+        List<PendingEvent> drained = new ArrayList<>(MAX_DRAIN);
+        while (running || lane.size() > 0) {
+            lane.refill();
+            PendingEvent event;
+            try {
+                event = lane.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (event == null) {
+                continue;
+            }
+
+            // whatever piled up behind the first event goes out in the same call, so the delegate can batch it
+            drained.add(event);
+            lane.queue.drainTo(drained, MAX_DRAIN - 1);
+
+            long now = System.nanoTime();
+            List<Message> messages = new ArrayList<>(drained.size());
+            for (PendingEvent pending : drained) {
+                queueLatencyNanos.addAndGet(now - pending.enqueuedAtNanos());
+                messages.add(pending.message());
+            }
+            dispatched.addAndGet(drained.size());
+            drained.clear();
+
+            publishNow(messages);
+        }
+    }
+
+    private void publishNow(List<Message> messages) {
+        if (messages.size() == 1) {
+            publishNow(messages.get(0));
+            return;
+        }
+        try {
+            delegate.publishMessagesSent(messages);
+            delivered.addAndGet(messages.size());
+        } catch (RuntimeException e) {
+            // retried one by one so a single bad event does not take the rest with it; some may go out twice
+            messages.forEach(this::publishNow);
+        }
+    }
+
+    private void publishNow(Message message) {
+        try {
+            delegate.publishMessageSent(message);
+            delivered.incrementAndGet();
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+        }
+    }
+
+    private final class Lane {
+        private final BlockingQueue<PendingEvent> queue;
+        // only ever holds events sent after everything in the queue, so moving it over keeps send order
+        private final ArrayDeque<PendingEvent> spill = new ArrayDeque<>();
+
+        private Lane(BlockingQueue<PendingEvent> queue) {
+            this.queue = queue;
+        }
+
+        private synchronized void offerOrSpill(PendingEvent event) {
+            if (spill.isEmpty() && queue.offer(event)) {
+                return;
+            }
+            spill.addLast(event);
+            spilled.incrementAndGet();
+        }
+
+        private synchronized void refill() {
+            while (!spill.isEmpty() && queue.offer(spill.peekFirst())) {
+                spill.removeFirst();
+            }
+        }
+
+        private synchronized int size() {
+            return queue.size() + spill.size();
+        }
+    }
+
+    private record PendingEvent(Message message, long enqueuedAtNanos) {
+    }
+}
@@ -2,6 +2,12 @@ package io.github.tony8864.message.repository;
 
 import io.github.tony8864.entities.message.Message;
 
+import java.util.List;
+
 public interface MessageEventPublisher {
     void publishMessageSent(Message message);
+
+    default void publishMessagesSent(List<Message> messages) {
+        messages.forEach(this::publishMessageSent);
+    }
 }
@@ -2,12 +2,21 @@ package io.github.tony8864.message.repository;
 
 import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface MessageRepository {
+    Optional<Message> findById(MessageId messageId);
     List<Message> findLastNMessages(ChatId chatId, int limit);
+    List<Message> findMessagesBefore(ChatId chatId, Instant createdAt, MessageId messageId, int limit);
+    List<Message> findMessagesAfter(ChatId chatId, Instant createdAt, MessageId messageId, int limit);
     Optional<Message> findLastMessage(ChatId chatId);
+    Map<ChatId, Message> findLastMessages(Collection<ChatId> chatIds);
+    void add(Message message);
     void save(Message message);
 }
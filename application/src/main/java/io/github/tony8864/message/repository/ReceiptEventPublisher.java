@@ -0,0 +1,10 @@
+package io.github.tony8864.message.repository;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.message.common.Receipt;
+
+import java.util.List;
+
+public interface ReceiptEventPublisher {
+    void publishReceipts(ChatId chatId, List<Receipt> receipts);
+}
@@ -0,0 +1,13 @@
+package io.github.tony8864.message.repository;
+
+import io.github.tony8864.message.common.Receipt;
+import io.github.tony8864.message.common.ReceiptAck;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ReceiptRepository {
+    // acks for messages outside their chat, or from readers that no longer exist, are dropped;
+    // returns the stored receipt of every reader that had at least one ack left
+    List<Receipt> upsertAll(Collection<ReceiptAck> acks);
+}
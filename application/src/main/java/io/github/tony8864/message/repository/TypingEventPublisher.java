@@ -0,0 +1,10 @@
+package io.github.tony8864.message.repository;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.user.UserId;
+
+import java.time.Duration;
+
+public interface TypingEventPublisher {
+    void publishTyping(ChatId chatId, UserId userId, boolean typing, Duration expiresIn);
+}
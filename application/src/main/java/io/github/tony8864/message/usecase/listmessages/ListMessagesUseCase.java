@@ -1,60 +1,72 @@
 package io.github.tony8864.message.usecase.listmessages;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.common.exception.GroupChatNotFoundException;
-import io.github.tony8864.chat.repository.DirectChatRepository;
-import io.github.tony8864.chat.repository.GroupChatRepository;
 import io.github.tony8864.entities.chat.ChatId;
-import io.github.tony8864.entities.chat.DirectChat;
-import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.chat.ChatType;
 import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
 import io.github.tony8864.entities.user.UserId;
 import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
+import io.github.tony8864.message.common.MessageTailCache;
 import io.github.tony8864.message.repository.MessageRepository;
 import io.github.tony8864.message.usecase.listmessages.dto.ListMessagesRequest;
 import io.github.tony8864.message.usecase.listmessages.dto.ListMessagesResponse;
 
 import java.util.List;
+import java.util.Optional;
 
 public class ListMessagesUseCase {
     private final MessageRepository messageRepository;
-    private final GroupChatRepository groupChatRepository;
-    private final DirectChatRepository directChatRepository;
+    private final ChatMembershipCache membershipCache;
+    private final MessageTailCache tailCache;
 
-    public ListMessagesUseCase(MessageRepository messageRepository, GroupChatRepository groupChatRepository, DirectChatRepository directChatRepository) {
+    public ListMessagesUseCase(MessageRepository messageRepository, ChatMembershipCache membershipCache, MessageTailCache tailCache) {
         this.messageRepository = messageRepository;
-        this.groupChatRepository = groupChatRepository;
-        this.directChatRepository = directChatRepository;
+        this.membershipCache = membershipCache;
+        this.tailCache = tailCache;
     }
 
     public ListMessagesResponse list(ListMessagesRequest request) {
         UserId requesterId = UserId.of(request.requesterId());
         ChatId chatId = ChatId.of(request.chatId());
 
-        return directChatRepository.findById(chatId)
-                .map(chat -> handleDirectChatMessages(chat, requesterId, request.limit()))
-                .orElseGet(() -> groupChatRepository.findById(chatId)
-                        .map(chat -> handleGroupChatMessages(chat, requesterId, request.limit()))
-                        .orElseThrow(() -> new GroupChatNotFoundException(chatId.getValue())));
-    }
+        ChatType type = membershipCache.findType(chatId)
+                .orElseThrow(() -> new GroupChatNotFoundException(chatId.getValue()));
 
-    private ListMessagesResponse handleDirectChatMessages(DirectChat chat, UserId requesterId, int limit) {
-        if (!chat.getParticipants().contains(requesterId)) {
-            throw new UnauthorizedOperationException("User is not a participant of this direct chat");
+        if (!membershipCache.isMember(chatId, requesterId)) {
+            throw new UnauthorizedOperationException(type == ChatType.DIRECT
+                    ? "User is not a participant of this direct chat"
+                    : "User is not a participant of this group chat");
         }
 
-        List<Message> messages = messageRepository.findLastNMessages(chat.getChatId(), limit);
-        return ListMessagesResponse.fromDomain(chat.getChatId(), messages);
+        List<Message> messages = findMessages(chatId, request);
+        return ListMessagesResponse.fromDomain(chatId, messages);
     }
 
-    private ListMessagesResponse handleGroupChatMessages(GroupChat chat, UserId requesterId, int limit) {
-        boolean isParticipant = chat.getParticipants().stream()
-                .anyMatch(p -> p.getUserId().equals(requesterId));
+    private List<Message> findMessages(ChatId chatId, ListMessagesRequest request) {
+        if (request.beforeCreatedAt() != null && request.beforeMessageId() != null) {
+            return messageRepository.findMessagesBefore(
+                    chatId, request.beforeCreatedAt(), MessageId.of(request.beforeMessageId()), request.limit()
+            );
+        }
+        if (request.afterCreatedAt() != null && request.afterMessageId() != null) {
+            return messageRepository.findMessagesAfter(
+                    chatId, request.afterCreatedAt(), MessageId.of(request.afterMessageId()), request.limit()
+            );
+        }
+        return findLatestMessages(chatId, request.limit());
+    }
 
-        if (!isParticipant) {
-            throw new UnauthorizedOperationException("User is not a participant of this group chat");
+    private List<Message> findLatestMessages(ChatId chatId, int limit) {
+        Optional<List<Message>> cached = tailCache.findLatest(chatId, limit);
+        if (cached.isPresent()) {
+            return cached.get();
         }
 
-        List<Message> messages = messageRepository.findLastNMessages(chat.getChatId(), limit);
-        return ListMessagesResponse.fromDomain(chat.getChatId(), messages);
+        long version = tailCache.version(chatId);
+        List<Message> messages = messageRepository.findLastNMessages(chatId, limit);
+        tailCache.prime(chatId, version, messages, limit);
+        return messages;
     }
 }
@@ -1,8 +1,17 @@
 package io.github.tony8864.message.usecase.listmessages.dto;
 
+import java.time.Instant;
+
 public record ListMessagesRequest(
         String chatId,
         String requesterId,
-        int limit
+        int limit,
+        Instant beforeCreatedAt,
+        String beforeMessageId,
+        Instant afterCreatedAt,
+        String afterMessageId
 ) {
+    public ListMessagesRequest(String chatId, String requesterId, int limit) {
+        this(chatId, requesterId, limit, null, null, null, null);
+    }
 }
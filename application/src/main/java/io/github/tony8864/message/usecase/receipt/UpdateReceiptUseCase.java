@@ -0,0 +1,32 @@
+package io.github.tony8864.message.usecase.receipt;
+
+import io.github.tony8864.chat.common.ChatMembershipCache;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
+import io.github.tony8864.message.common.ReceiptAck;
+import io.github.tony8864.message.common.ReceiptBuffer;
+import io.github.tony8864.message.usecase.receipt.dto.UpdateReceiptRequest;
+
+public class UpdateReceiptUseCase {
+    private final ChatMembershipCache membershipCache;
+    private final ReceiptBuffer receiptBuffer;
+
+    public UpdateReceiptUseCase(ChatMembershipCache membershipCache, ReceiptBuffer receiptBuffer) {
+        this.membershipCache = membershipCache;
+        this.receiptBuffer = receiptBuffer;
+    }
+
+    public void update(UpdateReceiptRequest request) {
+        ChatId chatId = ChatId.of(request.chatId());
+        UserId userId = UserId.of(request.userId());
+        MessageId messageId = MessageId.of(request.messageId());
+
+        if (!membershipCache.isMember(chatId, userId)) {
+            throw new UnauthorizedOperationException("User is not in this chat");
+        }
+
+        receiptBuffer.add(new ReceiptAck(chatId, userId, messageId, request.read()));
+    }
+}
@@ -0,0 +1,9 @@
+package io.github.tony8864.message.usecase.receipt.dto;
+
+public record UpdateReceiptRequest(
+        String chatId,
+        String userId,
+        boolean read,
+        String messageId
+) {
+}
@@ -1,70 +1,68 @@
 package io.github.tony8864.message.usecase.sendmessage;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.common.exception.GroupChatNotFoundException;
 import io.github.tony8864.chat.repository.DirectChatRepository;
 import io.github.tony8864.chat.repository.GroupChatRepository;
+import io.github.tony8864.common.TransactionCallbacks;
+import io.github.tony8864.common.TransactionRunner;
 import io.github.tony8864.entities.chat.ChatId;
-import io.github.tony8864.entities.chat.DirectChat;
-import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.chat.ChatType;
 import io.github.tony8864.entities.message.Message;
 import io.github.tony8864.entities.message.MessageId;
 import io.github.tony8864.entities.user.UserId;
 import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
-import io.github.tony8864.message.repository.MessageEventPublisher;
+import io.github.tony8864.message.common.MessageTailCache;
 import io.github.tony8864.message.repository.MessageRepository;
 import io.github.tony8864.message.usecase.sendmessage.dto.SendMessageRequest;
 import io.github.tony8864.message.usecase.sendmessage.dto.SendMessageResponse;
 
 public class SendMessageUseCase {
     private final MessageRepository messageRepository;
+    private final ChatMembershipCache membershipCache;
     private final GroupChatRepository groupChatRepository;
     private final DirectChatRepository directChatRepository;
-    private final MessageEventPublisher messageEventPublisher;
+    private final MessageTailCache tailCache;
+    private final TransactionRunner transactionRunner;
+    private final TransactionCallbacks transactionCallbacks;
 
-    public SendMessageUseCase(MessageRepository messageRepository, GroupChatRepository groupChatRepository, DirectChatRepository directChatRepository, MessageEventPublisher messageEventPublisher) {
+    public SendMessageUseCase(MessageRepository messageRepository, ChatMembershipCache membershipCache, GroupChatRepository groupChatRepository, DirectChatRepository directChatRepository, MessageTailCache tailCache, TransactionRunner transactionRunner, TransactionCallbacks transactionCallbacks) {
         this.messageRepository = messageRepository;
+        this.membershipCache = membershipCache;
         this.groupChatRepository = groupChatRepository;
         this.directChatRepository = directChatRepository;
-        this.messageEventPublisher = messageEventPublisher;
+        this.tailCache = tailCache;
+        this.transactionRunner = transactionRunner;
+        this.transactionCallbacks = transactionCallbacks;
     }
 
     public SendMessageResponse send(SendMessageRequest request) {
         ChatId chatId = ChatId.of(request.chatId());
         UserId senderId = UserId.of(request.senderId());
 
-        return directChatRepository.findById(chatId)
-                .map(chat -> handleDirectChatMessage(chat, senderId, request.content()))
-                .orElseGet(() -> groupChatRepository.findById(chatId)
-                        .map(chat -> handleGroupChatMessage(chat, senderId, request.content()))
-                        .orElseThrow(() -> new GroupChatNotFoundException(chatId.getValue())));
-    }
+        ChatType type = membershipCache.findType(chatId)
+                .orElseThrow(() -> new GroupChatNotFoundException(chatId.getValue()));
 
-    private SendMessageResponse handleDirectChatMessage(DirectChat chat, UserId senderId, String content) {
-        if (!chat.canSendMessage(senderId)) {
-            throw new UnauthorizedOperationException("Sender is not in this direct chat");
+        if (!membershipCache.isMember(chatId, senderId)) {
+            throw new UnauthorizedOperationException(type == ChatType.DIRECT
+                    ? "Sender is not in this direct chat"
+                    : "Sender is not in this group chat");
         }
 
-        Message message = Message.create(MessageId.newId(), chat.getChatId(), senderId, content);
-        messageRepository.save(message);
-        chat.updateLastMessage(message.getMessageId());
-        directChatRepository.save(chat);
-
-        messageEventPublisher.publishMessageSent(message);
-
-        return SendMessageResponse.fromDomain(message);
-    }
-
-    private SendMessageResponse handleGroupChatMessage(GroupChat chat, UserId senderId, String content) {
-        if (!chat.canSendMessage(senderId)) {
-            throw new UnauthorizedOperationException("Sender is not in this direct chat");
-        }
+        Message message = Message.create(MessageId.newId(), chatId, senderId, request.content());
+        // the message and the chat's pointer to it commit together, so neither is ever left behind by the other
+        transactionRunner.inTransaction(() -> {
+            messageRepository.add(message);
 
-        Message message = Message.create(MessageId.newId(), chat.getChatId(), senderId, content);
-        messageRepository.save(message);
-        chat.updateLastMessage(message.getMessageId());
-        groupChatRepository.save(chat);
+            if (type == ChatType.DIRECT) {
+                directChatRepository.updateLastMessage(chatId, message.getMessageId(), message.getCreatedAt());
+            } else {
+                groupChatRepository.updateLastMessage(chatId, message.getMessageId(), message.getCreatedAt());
+            }
 
-        messageEventPublisher.publishMessageSent(message);
+            // a reader must never see a cached message that a rollback takes back
+            transactionCallbacks.afterCommit(() -> tailCache.append(message));
+        });
 
         return SendMessageResponse.fromDomain(message);
     }
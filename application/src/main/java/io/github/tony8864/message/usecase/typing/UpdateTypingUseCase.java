@@ -0,0 +1,39 @@
+package io.github.tony8864.message.usecase.typing;
+
+import io.github.tony8864.chat.common.ChatMembershipCache;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
+import io.github.tony8864.message.common.TypingTracker;
+import io.github.tony8864.message.repository.TypingEventPublisher;
+import io.github.tony8864.message.usecase.typing.dto.UpdateTypingRequest;
+
+public class UpdateTypingUseCase {
+    private final ChatMembershipCache membershipCache;
+    private final TypingTracker typingTracker;
+    private final TypingEventPublisher typingEventPublisher;
+
+    public UpdateTypingUseCase(ChatMembershipCache membershipCache, TypingTracker typingTracker, TypingEventPublisher typingEventPublisher) {
+        this.membershipCache = membershipCache;
+        this.typingTracker = typingTracker;
+        this.typingEventPublisher = typingEventPublisher;
+    }
+
+    public void update(UpdateTypingRequest request) {
+        ChatId chatId = ChatId.of(request.chatId());
+        UserId userId = UserId.of(request.userId());
+
+        boolean publish = request.typing()
+                ? typingTracker.started(chatId, userId)
+                : typingTracker.stopped(chatId, userId);
+        if (!publish) {
+            return;
+        }
+
+        // checked only for events that go out, so a throttled keystroke costs no lookup
+        if (!membershipCache.isMember(chatId, userId)) {
+            throw new UnauthorizedOperationException("User is not in this chat");
+        }
+        typingEventPublisher.publishTyping(chatId, userId, request.typing(), typingTracker.getExpiry());
+    }
+}
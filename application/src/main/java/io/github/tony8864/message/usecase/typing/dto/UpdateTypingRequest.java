@@ -0,0 +1,8 @@
+package io.github.tony8864.message.usecase.typing.dto;
+
+public record UpdateTypingRequest(
+        String chatId,
+        String userId,
+        boolean typing
+) {
+}
@@ -0,0 +1,201 @@
+package io.github.tony8864.user.common;
+
+import io.github.tony8864.entities.user.PresenceStatus;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.user.repository.UserRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class PresenceRegistry {
+    private final UserRepository userRepository;
+    private final long idleTimeoutMillis;
+    private final Duration nodeExpiry;
+    private final Clock clock;
+    // a fresh id per start, so what a crashed process wrote simply expires
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentHashMap<UserId, Presence> presences = new ConcurrentHashMap<>();
+    private final Set<UserId> dirty = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    public PresenceRegistry(UserRepository userRepository, Duration idleTimeout, Duration nodeExpiry) {
+        this(userRepository, idleTimeout, nodeExpiry, Clock.systemUTC());
+    }
+
+    public PresenceRegistry(UserRepository userRepository, Duration idleTimeout, Duration nodeExpiry, Clock clock) {
+        this.userRepository = userRepository;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.nodeExpiry = nodeExpiry;
+        this.clock = clock;
+    }
+
+    public void loggedIn(UserId userId) {
+        long now = clock.millis();
+        update(userId, presence -> presence.active(now));
+    }
+
+    public void loggedOut(UserId userId) {
+        update(userId, presence -> {
+            presence.sessions.clear();
+            presence.status = PresenceStatus.OFFLINE;
+        });
+    }
+
+    public void connected(UserId userId, String sessionId) {
+        long now = clock.millis();
+        update(userId, presence -> {
+            presence.sessions.add(sessionId);
+            presence.active(now);
+        });
+    }
+
+    public void heartbeat(UserId userId, String sessionId) {
+        connected(userId, sessionId);
+    }
+
+    public void disconnected(UserId userId, String sessionId) {
+        update(userId, presence -> {
+            presence.sessions.remove(sessionId);
+            if (presence.sessions.isEmpty()) {
+                presence.status = PresenceStatus.OFFLINE;
+            }
+        });
+    }
+
+    // this node's view only; the user may still be connected to another node
+    public Optional<PresenceStatus> find(UserId userId) {
+        Presence presence = presences.get(userId);
+        return presence == null ? Optional.empty() : Optional.ofNullable(presence.status);
+    }
+
+    public void tick() {
+        sweep();
+        heartbeat();
+        flush();
+    }
+
+    // keeps this node's statuses counted and retires nodes that stopped ticking, e.g. after a crash
+    public void heartbeat() {
+        if (!userRepository.touchNode(nodeId)) {
+            // expired during a long pause, which dropped everything this node had written
+            for (UserId userId : presences.keySet()) {
+                presences.computeIfPresent(userId, (id, presence) -> {
+                    presence.persisted = null;
+                    dirty.add(id);
+                    return presence;
+                });
+            }
+        }
+        userRepository.expireNodes(nodeExpiry);
+    }
+
+    // connected users go AWAY when idle; users who only logged in over HTTP go OFFLINE
+    public void sweep() {
+        long idleSince = clock.millis() - idleTimeoutMillis;
+        for (UserId userId : presences.keySet()) {
+            presences.computeIfPresent(userId, (id, presence) -> {
+                if (presence.status == PresenceStatus.ONLINE && presence.lastActivity <= idleSince) {
+                    presence.status = presence.sessions.isEmpty() ? PresenceStatus.OFFLINE : PresenceStatus.AWAY;
+                    markChanged(id, presence);
+                }
+                return presence;
+            });
+        }
+    }
+
+    // only the latest status per user is written, and nothing at all for users whose stored status already matches
+    public int flush() {
+        Map<UserId, PresenceStatus> batch = new HashMap<>();
+        for (Iterator<UserId> it = dirty.iterator(); it.hasNext(); ) {
+            UserId userId = it.next();
+            it.remove();
+            presences.computeIfPresent(userId, (id, presence) -> {
+                if (presence.status != presence.persisted) {
+                    batch.put(id, presence.status);
+                }
+                return presence;
+            });
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            userRepository.updateStatuses(nodeId, batch);
+        } catch (RuntimeException e) {
+            dirty.addAll(batch.keySet());
+            throw e;
+        }
+        writes.addAndGet(batch.size());
+
+        batch.forEach((userId, status) -> presences.computeIfPresent(userId, (id, presence) -> {
+            presence.persisted = status;
+            if (presence.status != status) {
+                dirty.add(id);
+                return presence;
+            }
+            return presence.status == PresenceStatus.OFFLINE && presence.sessions.isEmpty() ? null : presence;
+        }));
+        return batch.size();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getChanges() {
+        return changes.get();
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    public int getTrackedUsers() {
+        return presences.size();
+    }
+
+    private void update(UserId userId, Consumer<Presence> change) {
+        presences.compute(userId, (id, existing) -> {
+            Presence presence = existing == null ? new Presence() : existing;
+            PresenceStatus before = presence.status;
+            change.accept(presence);
+            if (presence.status != before) {
+                markChanged(id, presence);
+            }
+            return presence;
+        });
+    }
+
+    private void markChanged(UserId userId, Presence presence) {
+        changes.incrementAndGet();
+        if (presence.status != presence.persisted) {
+            dirty.add(userId);
+        }
+    }
+
+    private static final class Presence {
+        private final Set<String> sessions = new HashSet<>();
+        private long lastActivity;
+        private volatile PresenceStatus status;
+        private PresenceStatus persisted;
+
+        private void active(long now) {
+            lastActivity = now;
+            status = PresenceStatus.ONLINE;
+        }
+    }
+}
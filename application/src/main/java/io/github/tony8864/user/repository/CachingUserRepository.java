@@ -0,0 +1,199 @@
+package io.github.tony8864.user.repository;
+
+import io.github.tony8864.entities.user.Email;
+import io.github.tony8864.entities.user.PresenceStatus;
+import io.github.tony8864.entities.user.User;
+import io.github.tony8864.entities.user.UserId;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class CachingUserRepository implements UserRepository {
+    private final UserRepository delegate;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final Map<UserId, Entry> entries;
+
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CachingUserRepository(UserRepository delegate, int maxSize, Duration ttl) {
+        this(delegate, maxSize, ttl, Clock.systemUTC());
+    }
+
+    public CachingUserRepository(UserRepository delegate, int maxSize, Duration ttl, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UserId, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Optional<User> findById(UserId userId) {
+        User cached = get(userId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        misses.incrementAndGet();
+        return load(() -> delegate.findById(userId));
+    }
+
+    @Override
+    public Optional<User> findByEmail(Email email) {
+        return load(() -> delegate.findByEmail(email));
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return load(() -> delegate.findByUsername(username));
+    }
+
+    @Override
+    public void add(User user) {
+        delegate.add(user);
+        write(user);
+    }
+
+    @Override
+    public void save(User user) {
+        delegate.save(user);
+        write(user);
+    }
+
+    @Override
+    public void delete(User user) {
+        delegate.delete(user);
+        synchronized (entries) {
+            writes.incrementAndGet();
+            entries.remove(user.getUserId());
+        }
+    }
+
+    // never served from the cache: other nodes change it without going through this one
+    @Override
+    public Optional<PresenceStatus> findStatus(UserId userId) {
+        return delegate.findStatus(userId);
+    }
+
+    @Override
+    public Map<UserId, PresenceStatus> updateStatuses(String nodeId, Map<UserId, PresenceStatus> statuses) {
+        Map<UserId, PresenceStatus> aggregated = delegate.updateStatuses(nodeId, statuses);
+        applyStatuses(aggregated);
+        return aggregated;
+    }
+
+    @Override
+    public boolean touchNode(String nodeId) {
+        return delegate.touchNode(nodeId);
+    }
+
+    @Override
+    public Map<UserId, PresenceStatus> expireNodes(Duration expiry) {
+        Map<UserId, PresenceStatus> aggregated = delegate.expireNodes(expiry);
+        applyStatuses(aggregated);
+        return aggregated;
+    }
+
+    private void applyStatuses(Map<UserId, PresenceStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        synchronized (entries) {
+            writes.incrementAndGet();
+            statuses.forEach((userId, status) -> {
+                Entry entry = entries.get(userId);
+                if (entry != null) {
+                    entry.user().setPresenceStatus(status);
+                }
+            });
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Optional<User> load(Supplier<Optional<User>> loader) {
+        long generation = writes.get();
+        Optional<User> user = loader.get();
+        user.ifPresent(u -> {
+            synchronized (entries) {
+                if (writes.get() == generation) {
+                    entries.put(u.getUserId(), new Entry(copyOf(u), expiry()));
+                }
+            }
+        });
+        return user;
+    }
+
+    private void write(User user) {
+        synchronized (entries) {
+            writes.incrementAndGet();
+            entries.put(user.getUserId(), new Entry(copyOf(user), expiry()));
+        }
+    }
+
+    private User get(UserId userId) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= clock.millis()) {
+                entries.remove(userId);
+                evictions.incrementAndGet();
+                return null;
+            }
+            return copyOf(entry.user());
+        }
+    }
+
+    private long expiry() {
+        return clock.millis() + ttlMillis;
+    }
+
+    private static User copyOf(User user) {
+        return User.restore(
+                user.getUserId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getPasswordHash(),
+                user.getStatus(),
+                user.getCreatedAt()
+        );
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+}
@@ -1,16 +1,31 @@
 package io.github.tony8864.user.repository;
 
 import io.github.tony8864.entities.user.Email;
+import io.github.tony8864.entities.user.PresenceStatus;
 import io.github.tony8864.entities.user.User;
 import io.github.tony8864.entities.user.UserId;
 
-import javax.swing.text.html.Option;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserRepository {
     Optional<User> findById(UserId userId);
     Optional<User> findByEmail(Email email);
     Optional<User> findByUsername(String username);
+    void add(User user);
     void save(User user);
     void delete(User user);
+
+    // the status aggregated across nodes, read from where every node flushes to
+    Optional<PresenceStatus> findStatus(UserId userId);
+
+    // records one node's view of these users and returns their status across every node
+    Map<UserId, PresenceStatus> updateStatuses(String nodeId, Map<UserId, PresenceStatus> statuses);
+
+    // false when the node had already been expired, so everything it wrote before is gone
+    boolean touchNode(String nodeId);
+
+    // drops what nodes not seen within the expiry wrote and returns the users whose status was recomputed
+    Map<UserId, PresenceStatus> expireNodes(Duration expiry);
 }
@@ -0,0 +1,33 @@
+package io.github.tony8864.user.usecase.getpresence;
+
+import io.github.tony8864.common.UserNotFoundException;
+import io.github.tony8864.entities.user.PresenceStatus;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.user.common.PresenceRegistry;
+import io.github.tony8864.user.repository.UserRepository;
+import io.github.tony8864.user.usecase.getpresence.dto.GetPresenceResponse;
+
+public class GetPresenceUseCase {
+
+    private final PresenceRegistry presenceRegistry;
+    private final UserRepository userRepository;
+
+    public GetPresenceUseCase(PresenceRegistry presenceRegistry, UserRepository userRepository) {
+        this.presenceRegistry = presenceRegistry;
+        this.userRepository = userRepository;
+    }
+
+    public GetPresenceResponse get(String userId) {
+        UserId id = UserId.of(userId);
+
+        // nothing ranks above a local ONLINE; anything else may be outranked by a session on another
+        // node, so it falls back to the status aggregated across nodes at the last flush, read uncached
+        // because other nodes' flushes never reach this node's user cache
+        PresenceStatus status = presenceRegistry.find(id)
+                .filter(local -> local == PresenceStatus.ONLINE)
+                .or(() -> userRepository.findStatus(id))
+                .orElseThrow(() -> UserNotFoundException.byId(userId));
+
+        return new GetPresenceResponse(id.getValue(), status.name());
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.tony8864.user.usecase.getpresence.dto;
+
+public record GetPresenceResponse(
+        String userId,
+        String status
+) {
+}
@@ -5,6 +5,7 @@ import io.github.tony8864.entities.user.Email;
 import io.github.tony8864.entities.user.PasswordHasher;
 import io.github.tony8864.entities.user.PresenceStatus;
 import io.github.tony8864.entities.user.User;
+import io.github.tony8864.user.common.PresenceRegistry;
 import io.github.tony8864.user.usecase.login.exception.InvalidCredentialsException;
 import io.github.tony8864.common.UserNotFoundException;
 import io.github.tony8864.user.repository.UserRepository;
@@ -21,14 +22,17 @@ public class LoginUserUseCase {
     private final UserRepository userRepository;
     private final PasswordHasher passwordHasher;
     private final TokenService tokenService;
+    private final PresenceRegistry presenceRegistry;
 
     public LoginUserUseCase(UserRepository userRepository,
                             PasswordHasher passwordHasher,
-                            TokenService tokenService
+                            TokenService tokenService,
+                            PresenceRegistry presenceRegistry
     ) {
         this.userRepository = userRepository;
         this.passwordHasher = passwordHasher;
         this.tokenService = tokenService;
+        this.presenceRegistry = presenceRegistry;
     }
 
     public AuthenticatedUser login(AuthRequest request) {
@@ -40,8 +44,8 @@ public class LoginUserUseCase {
             throw new InvalidCredentialsException();
         }
 
-        user.setPresenceStatus(PresenceStatus.ONLINE);
-        userRepository.save(user);
+        presenceRegistry.loggedIn(user.getUserId());
+        PresenceStatus status = presenceRegistry.find(user.getUserId()).orElse(user.getStatus());
 
         UserClaims claims = UserClaims.fromDomain(
                 user.getUserId().toString(),
@@ -50,6 +54,6 @@ public class LoginUserUseCase {
         );
 
         String token = tokenService.generate(claims, Duration.ofHours(1));
-        return AuthenticatedUser.from(user, token);
+        return AuthenticatedUser.from(user, status, token);
     }
 }
@@ -1,5 +1,6 @@
 package io.github.tony8864.user.usecase.login.dto;
 
+import io.github.tony8864.entities.user.PresenceStatus;
 import io.github.tony8864.entities.user.User;
 
 public record AuthenticatedUser(
@@ -9,12 +10,12 @@ public record AuthenticatedUser(
         String presenceStatus,
         String token
 ) {
-    public static AuthenticatedUser from(User user, String token) {
+    public static AuthenticatedUser from(User user, PresenceStatus status, String token) {
         return new AuthenticatedUser(
                 user.getUserId().toString(),
                 user.getUsername(),
                 user.getEmail().getValue(),
-                user.getStatus().name(),
+                status.name(),
                 token
         );
     }
@@ -1,17 +1,19 @@
 package io.github.tony8864.user.usecase.logout;
 
 import io.github.tony8864.common.UserNotFoundException;
-import io.github.tony8864.entities.user.PresenceStatus;
 import io.github.tony8864.entities.user.User;
 import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.user.common.PresenceRegistry;
 import io.github.tony8864.user.repository.UserRepository;
 
 public class LogoutUseCase {
 
     private final UserRepository userRepository;
+    private final PresenceRegistry presenceRegistry;
 
-    public LogoutUseCase(UserRepository userRepository) {
+    public LogoutUseCase(UserRepository userRepository, PresenceRegistry presenceRegistry) {
         this.userRepository = userRepository;
+        this.presenceRegistry = presenceRegistry;
     }
 
     public void logout(String userId) {
@@ -20,7 +22,6 @@ public class LogoutUseCase {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> UserNotFoundException.byId(userId));
 
-        user.setPresenceStatus(PresenceStatus.OFFLINE);
-        userRepository.save(user);
+        presenceRegistry.loggedOut(user.getUserId());
     }
 }
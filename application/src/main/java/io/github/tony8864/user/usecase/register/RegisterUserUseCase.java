@@ -35,7 +35,7 @@ public class RegisterUserUseCase {
         PasswordHash hash = PasswordHash.newHash(hashed);
 
         User user = User.create(UserId.newId(), request.username(), email, hash);
-        userRepository.save(user);
+        userRepository.add(user);
 
         return RegisterUserResponse.from(user);
     }
@@ -0,0 +1,164 @@
+package io.github.tony8864.chat.common;
+
+import io.github.tony8864.chat.repository.ChatMembershipEventPublisher;
+import io.github.tony8864.chat.repository.ChatRepository;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.chat.ChatType;
+import io.github.tony8864.entities.user.UserId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChatMembershipCacheTest {
+    private ChatRepository chatRepository;
+    private ChatMembershipEventPublisher eventPublisher;
+    private Clock clock;
+    private ChatMembershipCache cache;
+
+    private final ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private final ChatId otherChatId = ChatId.of("00000000-0000-0000-0000-000000000022");
+    private final UserId memberId = UserId.of("00000000-0000-0000-0000-000000000001");
+    private final UserId strangerId = UserId.of("00000000-0000-0000-0000-000000000036");
+
+    @BeforeEach
+    void setUp() {
+        chatRepository = mock(ChatRepository.class);
+        eventPublisher = mock(ChatMembershipEventPublisher.class);
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        cache = new ChatMembershipCache(chatRepository, eventPublisher, 1, 10, 1, Duration.ofMinutes(5), clock);
+
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.GROUP));
+        when(chatRepository.findType(otherChatId)).thenReturn(Optional.of(ChatType.DIRECT));
+        when(chatRepository.isMember(chatId, memberId)).thenReturn(true);
+        when(chatRepository.isMember(chatId, strangerId)).thenReturn(false);
+    }
+
+    @Test
+    void shouldServeRepeatedChecksFromCache() {
+        assertEquals(Optional.of(ChatType.GROUP), cache.findType(chatId));
+        assertTrue(cache.isMember(chatId, memberId));
+
+        assertEquals(Optional.of(ChatType.GROUP), cache.findType(chatId));
+        assertTrue(cache.isMember(chatId, memberId));
+
+        verify(chatRepository, times(1)).findType(chatId);
+        verify(chatRepository, times(1)).isMember(chatId, memberId);
+    }
+
+    @Test
+    void shouldNotCacheNegativeMembership() {
+        cache.findType(chatId);
+
+        assertFalse(cache.isMember(chatId, strangerId));
+        assertFalse(cache.isMember(chatId, strangerId));
+
+        verify(chatRepository, times(2)).isMember(chatId, strangerId);
+    }
+
+    @Test
+    void shouldNotCacheMissingChats() {
+        ChatId missing = ChatId.of("00000000-0000-0000-0000-000000000017");
+        when(chatRepository.findType(missing)).thenReturn(Optional.empty());
+
+        assertTrue(cache.findType(missing).isEmpty());
+        assertTrue(cache.findType(missing).isEmpty());
+
+        verify(chatRepository, times(2)).findType(missing);
+    }
+
+    @Test
+    void invalidateShouldForceReload() {
+        cache.findType(chatId);
+        cache.isMember(chatId, memberId);
+
+        cache.invalidate(chatId);
+        when(chatRepository.isMember(chatId, memberId)).thenReturn(false);
+
+        cache.findType(chatId);
+        assertFalse(cache.isMember(chatId, memberId));
+        verify(chatRepository, times(2)).findType(chatId);
+        verify(eventPublisher).publishMembershipChanged(chatId);
+    }
+
+    @Test
+    void evictShouldForceReloadWithoutPublishing() {
+        cache.findType(chatId);
+
+        cache.evict(chatId);
+        cache.findType(chatId);
+
+        verify(chatRepository, times(2)).findType(chatId);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldReloadAfterTtlWithoutInvalidation() {
+        cache.findType(chatId);
+        cache.isMember(chatId, memberId);
+
+        when(clock.millis()).thenReturn(Duration.ofMinutes(5).toMillis());
+        when(chatRepository.isMember(chatId, memberId)).thenReturn(false);
+
+        assertFalse(cache.isMember(chatId, memberId));
+        verify(chatRepository, times(2)).isMember(chatId, memberId);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedChat() {
+        cache.findType(chatId);
+        cache.findType(otherChatId);
+        cache.findType(chatId);
+
+        verify(chatRepository, times(2)).findType(chatId);
+        verify(chatRepository, times(1)).findType(otherChatId);
+    }
+
+    @Test
+    void shouldCacheFullMemberListAndAnswerMembershipFromIt() {
+        when(chatRepository.findMemberIds(chatId)).thenReturn(List.of(memberId));
+
+        assertEquals(Set.of(memberId), cache.findMembers(chatId));
+        assertEquals(Set.of(memberId), cache.findMembers(chatId));
+        assertTrue(cache.isMember(chatId, memberId));
+        assertFalse(cache.isMember(chatId, strangerId));
+
+        verify(chatRepository, times(1)).findMemberIds(chatId);
+        verify(chatRepository, never()).isMember(any(), any());
+    }
+
+    @Test
+    void shouldReloadMemberListAfterInvalidate() {
+        when(chatRepository.findMemberIds(chatId)).thenReturn(List.of(memberId), List.of(memberId, strangerId));
+
+        cache.findMembers(chatId);
+        cache.invalidate(chatId);
+
+        assertEquals(Set.of(memberId, strangerId), cache.findMembers(chatId));
+    }
+
+    @Test
+    void shouldKeepMemberListOfChatTooLargeForRegularEntry() {
+        List<UserId> crowd = IntStream.range(0, 11).mapToObj(i -> UserId.newId()).toList();
+        when(chatRepository.findMemberIds(chatId)).thenReturn(crowd);
+
+        assertEquals(Set.copyOf(crowd), cache.findMembers(chatId));
+        assertEquals(Set.copyOf(crowd), cache.findMembers(chatId));
+        assertTrue(cache.isMember(chatId, crowd.get(10)));
+        verify(chatRepository, times(1)).findMemberIds(chatId);
+        verify(chatRepository, never()).isMember(any(), any());
+
+        cache.evict(chatId);
+        cache.findMembers(chatId);
+        verify(chatRepository, times(2)).findMemberIds(chatId);
+    }
+}
@@ -35,96 +35,96 @@ class CreateGroupChatUseCaseTest {
         groupChatRepository = mock(GroupChatRepository.class);
         useCase = new CreateGroupChatUseCase(userRepository, groupChatRepository);
 
-        requesterId = UserId.of("req-1");
+        requesterId = UserId.of("00000000-0000-0000-0000-000000000013");
         requester = mock(User.class);
         when(requester.getUserId()).thenReturn(requesterId);
 
         user1 = mock(User.class);
-        when(user1.getUserId()).thenReturn(UserId.of("user-1"));
+        when(user1.getUserId()).thenReturn(UserId.of("00000000-0000-0000-0000-000000000001"));
 
         user2 = mock(User.class);
-        when(user2.getUserId()).thenReturn(UserId.of("user-2"));
+        when(user2.getUserId()).thenReturn(UserId.of("00000000-0000-0000-0000-000000000007"));
     }
 
     @Test
     void createGroupChat_success() {
-        List<String> userIds = List.of("req-1", "user-1", "user-2");
+        List<String> userIds = List.of("00000000-0000-0000-0000-000000000013", "00000000-0000-0000-0000-000000000001", "00000000-0000-0000-0000-000000000007");
         CreateGroupChatRequest request =
-                new CreateGroupChatRequest("req-1", "Test Group", userIds);
+                new CreateGroupChatRequest("00000000-0000-0000-0000-000000000013", "Test Group", userIds);
 
         when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(UserId.of("user-1"))).thenReturn(Optional.of(user1));
-        when(userRepository.findById(UserId.of("user-2"))).thenReturn(Optional.of(user2));
+        when(userRepository.findById(UserId.of("00000000-0000-0000-0000-000000000001"))).thenReturn(Optional.of(user1));
+        when(userRepository.findById(UserId.of("00000000-0000-0000-0000-000000000007"))).thenReturn(Optional.of(user2));
 
         CreateGroupChatResponse response = useCase.create(request);
 
         assertEquals("Test Group", response.groupName());
         assertTrue(response.participantDtos().stream()
-                        .anyMatch(p -> p.userId().equals("req-1") && p.role() == Role.ADMIN),
+                        .anyMatch(p -> p.userId().equals("00000000-0000-0000-0000-000000000013") && p.role() == Role.ADMIN),
                 "Requester should be an ADMIN");
         assertTrue(response.participantDtos().stream()
-                .anyMatch(p -> p.userId().equals("user-1") && p.role() == Role.MEMBER));
+                .anyMatch(p -> p.userId().equals("00000000-0000-0000-0000-000000000001") && p.role() == Role.MEMBER));
         assertTrue(response.participantDtos().stream()
-                .anyMatch(p -> p.userId().equals("user-2") && p.role() == Role.MEMBER));
+                .anyMatch(p -> p.userId().equals("00000000-0000-0000-0000-000000000007") && p.role() == Role.MEMBER));
 
-        verify(groupChatRepository).save(any());
+        verify(groupChatRepository).add(any());
     }
 
     @Test
     void createGroupChat_requesterNotFound() {
-        List<String> userIds = List.of("req-1", "user-1");
+        List<String> userIds = List.of("00000000-0000-0000-0000-000000000013", "00000000-0000-0000-0000-000000000001");
         CreateGroupChatRequest request =
-                new CreateGroupChatRequest("req-1", "Group", userIds);
+                new CreateGroupChatRequest("00000000-0000-0000-0000-000000000013", "Group", userIds);
 
         when(userRepository.findById(requesterId)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> useCase.create(request));
-        verify(groupChatRepository, never()).save(any());
+        verify(groupChatRepository, never()).add(any());
     }
 
     @Test
     void createGroupChat_memberNotFound() {
-        List<String> userIds = List.of("req-1", "user-1");
+        List<String> userIds = List.of("00000000-0000-0000-0000-000000000013", "00000000-0000-0000-0000-000000000001");
         CreateGroupChatRequest request =
-                new CreateGroupChatRequest("req-1", "Group", userIds);
+                new CreateGroupChatRequest("00000000-0000-0000-0000-000000000013", "Group", userIds);
 
         when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(UserId.of("user-1"))).thenReturn(Optional.empty());
+        when(userRepository.findById(UserId.of("00000000-0000-0000-0000-000000000001"))).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> useCase.create(request));
-        verify(groupChatRepository, never()).save(any());
+        verify(groupChatRepository, never()).add(any());
     }
 
     @Test
     void createGroupChat_requesterShouldNotBeDuplicated() {
-        List<String> userIds = List.of("req-1", "user-1", "req-1", "user-2");
+        List<String> userIds = List.of("00000000-0000-0000-0000-000000000013", "00000000-0000-0000-0000-000000000001", "00000000-0000-0000-0000-000000000013", "00000000-0000-0000-0000-000000000007");
         CreateGroupChatRequest request =
-                new CreateGroupChatRequest("req-1", "Group", userIds);
+                new CreateGroupChatRequest("00000000-0000-0000-0000-000000000013", "Group", userIds);
 
         when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(UserId.of("user-1"))).thenReturn(Optional.of(user1));
-        when(userRepository.findById(UserId.of("user-2"))).thenReturn(Optional.of(user2));
+        when(userRepository.findById(UserId.of("00000000-0000-0000-0000-000000000001"))).thenReturn(Optional.of(user1));
+        when(userRepository.findById(UserId.of("00000000-0000-0000-0000-000000000007"))).thenReturn(Optional.of(user2));
 
         CreateGroupChatResponse response = useCase.create(request);
 
         long requesterCount = response.participantDtos().stream()
-                .filter(p -> p.userId().equals("req-1"))
+                .filter(p -> p.userId().equals("00000000-0000-0000-0000-000000000013"))
                 .count();
 
         assertEquals(1, requesterCount, "Requester should appear only once as ADMIN");
-        verify(groupChatRepository).save(any());
+        verify(groupChatRepository).add(any());
     }
 
     @Test
     void createGroupChat_shouldFailIfLessThan3UniqueParticipants() {
-        List<String> userIds = List.of("req-1", "user-1", "req-1");
+        List<String> userIds = List.of("00000000-0000-0000-0000-000000000013", "00000000-0000-0000-0000-000000000001", "00000000-0000-0000-0000-000000000013");
         CreateGroupChatRequest request =
-                new CreateGroupChatRequest("req-1", "Group", userIds);
+                new CreateGroupChatRequest("00000000-0000-0000-0000-000000000013", "Group", userIds);
 
         when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(UserId.of("user-1"))).thenReturn(Optional.of(user1));
+        when(userRepository.findById(UserId.of("00000000-0000-0000-0000-000000000001"))).thenReturn(Optional.of(user1));
 
         assertThrows(InvalidGroupException.class, () -> useCase.create(request));
-        verify(groupChatRepository, never()).save(any());
+        verify(groupChatRepository, never()).add(any());
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package io.github.tony8864.chat.usecase;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.usecase.removeparticipant.dto.RemoveParticipantRequest;
 import io.github.tony8864.chat.usecase.removeparticipant.dto.RemoveParticipantResponse;
 import io.github.tony8864.chat.common.exception.GroupChatNotFoundException;
@@ -28,6 +29,7 @@ import static org.mockito.Mockito.*;
 class RemoveParticipantUseCaseTest {
     private UserRepository userRepository;
     private GroupChatRepository groupChatRepository;
+    private ChatMembershipCache membershipCache;
     private RemoveParticipantUseCase useCase;
 
     private UserId requesterId;
@@ -41,11 +43,12 @@ class RemoveParticipantUseCaseTest {
     void setUp() {
         userRepository = mock(UserRepository.class);
         groupChatRepository = mock(GroupChatRepository.class);
-        useCase = new RemoveParticipantUseCase(userRepository, groupChatRepository);
+        membershipCache = mock(ChatMembershipCache.class);
+        useCase = new RemoveParticipantUseCase(userRepository, groupChatRepository, membershipCache);
 
-        requesterId = UserId.of("admin-1");
-        targetId = UserId.of("user-2");
-        chatId = ChatId.of("chat-123");
+        requesterId = UserId.of("00000000-0000-0000-0000-000000000008");
+        targetId = UserId.of("00000000-0000-0000-0000-000000000007");
+        chatId = ChatId.of("00000000-0000-0000-0000-000000000002");
 
         requester = mock(User.class);
         when(requester.getUserId()).thenReturn(requesterId);
@@ -55,7 +58,7 @@ class RemoveParticipantUseCaseTest {
 
         Participant admin = Participant.create(requesterId, Role.ADMIN);
         Participant member1 = Participant.create(targetId, Role.MEMBER);
-        Participant member2 = Participant.create(UserId.of("user-3"), Role.MEMBER);
+        Participant member2 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000016"), Role.MEMBER);
 
         chat = GroupChat.create(chatId, new ArrayList<>(List.of(admin, member1, member2)), "Test Group");
     }
@@ -77,6 +80,7 @@ class RemoveParticipantUseCaseTest {
                 "Removed user should not appear in the response participants list");
 
         verify(groupChatRepository).save(chat);
+        verify(membershipCache).invalidate(chatId);
     }
 
     @Test
@@ -118,7 +122,7 @@ class RemoveParticipantUseCaseTest {
     @Test
     void removeParticipant_requesterNotAdmin() {
         // Rebuild chat: requester is only a member
-        Participant admin = Participant.create(UserId.of("another-admin"), Role.ADMIN);
+        Participant admin = Participant.create(UserId.of("00000000-0000-0000-0000-000000000014"), Role.ADMIN);
         Participant requesterAsMember = Participant.create(requesterId, Role.MEMBER);
         Participant member2 = Participant.create(targetId, Role.MEMBER);
 
@@ -139,7 +143,7 @@ class RemoveParticipantUseCaseTest {
 
     @Test
     void removeParticipant_userNotInChat() {
-        UserId notInChatId = UserId.of("ghost-1");
+        UserId notInChatId = UserId.of("00000000-0000-0000-0000-000000000015");
         RemoveParticipantRequest request =
                 new RemoveParticipantRequest(chatId.getValue(), requesterId.getValue(), notInChatId.getValue());
 
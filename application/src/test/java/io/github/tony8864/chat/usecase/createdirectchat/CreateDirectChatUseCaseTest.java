@@ -34,8 +34,8 @@ class CreateDirectChatUseCaseTest {
         directChatRepository = mock(DirectChatRepository.class);
         useCase = new CreateDirectChatUseCase(userRepository, directChatRepository);
 
-        requesterId = UserId.of("a-user");
-        otherId = UserId.of("b-user");
+        requesterId = UserId.of("00000000-0000-0000-0000-000000000011");
+        otherId = UserId.of("00000000-0000-0000-0000-000000000012");
 
         requester = mock(User.class);
         when(requester.getUserId()).thenReturn(requesterId);
@@ -59,7 +59,7 @@ class CreateDirectChatUseCaseTest {
         assertTrue(response.participantIds().containsAll(
                 List.of(requesterId.getValue(), otherId.getValue())));
 
-        verify(directChatRepository).save(any(DirectChat.class));
+        verify(directChatRepository).add(any(DirectChat.class));
     }
 
     @Test
@@ -80,7 +80,7 @@ class CreateDirectChatUseCaseTest {
                 List.of(requesterId.getValue(), otherId.getValue()),
                 response.participantIds()
         );
-        verify(directChatRepository, never()).save(any());
+        verify(directChatRepository, never()).add(any());
     }
 
     @Test
@@ -101,7 +101,7 @@ class CreateDirectChatUseCaseTest {
         when(userRepository.findById(requesterId)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> useCase.create(request));
-        verify(directChatRepository, never()).save(any());
+        verify(directChatRepository, never()).add(any());
     }
 
     @Test
@@ -113,7 +113,7 @@ class CreateDirectChatUseCaseTest {
         when(userRepository.findById(otherId)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> useCase.create(request));
-        verify(directChatRepository, never()).save(any());
+        verify(directChatRepository, never()).add(any());
     }
 
     @Test
@@ -126,7 +126,7 @@ class CreateDirectChatUseCaseTest {
         when(directChatRepository.findByUsers(requesterId, otherId)).thenReturn(Optional.empty());
 
         doThrow(new UniqueConstraintViolationException("Duplicate", null))
-                .when(directChatRepository).save(any(DirectChat.class));
+                .when(directChatRepository).add(any(DirectChat.class));
 
         DirectChat winner = DirectChat.create(ChatId.newId(), List.of(requesterId, otherId));
         when(directChatRepository.findByUsers(requesterId, otherId)).thenReturn(Optional.of(winner));
@@ -1,5 +1,6 @@
 package io.github.tony8864.chat.usecase.deletegroupchat;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.common.exception.GroupChatNotFoundException;
 import io.github.tony8864.chat.repository.GroupChatRepository;
 import io.github.tony8864.chat.usecase.deletegroupchat.dto.DeleteGroupChatRequest;
@@ -26,6 +27,7 @@ import static org.mockito.Mockito.*;
 class DeleteGroupChatUseCaseTest {
     private UserRepository userRepository;
     private GroupChatRepository groupChatRepository;
+    private ChatMembershipCache membershipCache;
     private DeleteGroupChatUseCase useCase;
 
     private UserId adminId;
@@ -38,11 +40,12 @@ class DeleteGroupChatUseCaseTest {
     void setUp() {
         userRepository = mock(UserRepository.class);
         groupChatRepository = mock(GroupChatRepository.class);
-        useCase = new DeleteGroupChatUseCase(userRepository, groupChatRepository);
+        membershipCache = mock(ChatMembershipCache.class);
+        useCase = new DeleteGroupChatUseCase(userRepository, groupChatRepository, membershipCache);
 
-        adminId = UserId.of("admin-1");
-        memberId = UserId.of("member-1");
-        chatId = ChatId.of("chat-1");
+        adminId = UserId.of("00000000-0000-0000-0000-000000000008");
+        memberId = UserId.of("00000000-0000-0000-0000-000000000003");
+        chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
 
         admin = mock(User.class);
         when(admin.getUserId()).thenReturn(adminId);
@@ -52,7 +55,7 @@ class DeleteGroupChatUseCaseTest {
 
         Participant adminP = Participant.create(adminId, Role.ADMIN);
         Participant memberP = Participant.create(memberId, Role.MEMBER);
-        chat = GroupChat.create(chatId, new ArrayList<>(List.of(adminP, memberP, Participant.create(UserId.of("m2"), Role.MEMBER))), "Test Group");
+        chat = GroupChat.create(chatId, new ArrayList<>(List.of(adminP, memberP, Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER))), "Test Group");
     }
 
     @Test
@@ -65,6 +68,7 @@ class DeleteGroupChatUseCaseTest {
         assertDoesNotThrow(() -> useCase.delete(request));
 
         verify(groupChatRepository).delete(chat);
+        verify(membershipCache).invalidate(chatId);
     }
 
     @Test
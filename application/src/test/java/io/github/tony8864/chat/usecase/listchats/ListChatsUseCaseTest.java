@@ -1,289 +1,111 @@
 package io.github.tony8864.chat.usecase.listchats;
 
-import io.github.tony8864.chat.repository.DirectChatRepository;
-import io.github.tony8864.chat.repository.GroupChatRepository;
+import io.github.tony8864.chat.repository.ChatSummaryRepository;
 import io.github.tony8864.chat.usecase.listchats.dto.ChatSummaryDto;
 import io.github.tony8864.chat.usecase.listchats.dto.ListChatsRequest;
 import io.github.tony8864.chat.usecase.listchats.dto.ListChatsResponse;
 import io.github.tony8864.entities.chat.ChatId;
-import io.github.tony8864.entities.chat.DirectChat;
-import io.github.tony8864.entities.chat.GroupChat;
-import io.github.tony8864.entities.message.Message;
-import io.github.tony8864.entities.user.User;
 import io.github.tony8864.entities.user.UserId;
-import io.github.tony8864.message.repository.MessageRepository;
-import io.github.tony8864.user.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class ListChatsUseCaseTest {
-    private DirectChatRepository directChatRepository;
-    private GroupChatRepository groupChatRepository;
-    private MessageRepository messageRepository;
-    private UserRepository userRepository;
+    private ChatSummaryRepository chatSummaryRepository;
     private ListChatsUseCase useCase;
 
     private UserId requesterId;
 
     @BeforeEach
     void setUp() {
-        directChatRepository = mock(DirectChatRepository.class);
-        groupChatRepository = mock(GroupChatRepository.class);
-        messageRepository = mock(MessageRepository.class);
-        userRepository = mock(UserRepository.class);
-        useCase = new ListChatsUseCase(directChatRepository, groupChatRepository, messageRepository, userRepository);
+        chatSummaryRepository = mock(ChatSummaryRepository.class);
+        useCase = new ListChatsUseCase(chatSummaryRepository);
 
-        requesterId = UserId.of("req-1");
+        requesterId = UserId.of("00000000-0000-0000-0000-000000000013");
     }
 
     @Test
-    void shouldListDirectChatsForUser() {
+    void shouldReturnInboxPageFromReadModel() {
         // --- Arrange ---
-        UserId otherUserId = UserId.of("user-2");
-        DirectChat directChat = mock(DirectChat.class);
-        when(directChat.getChatId()).thenReturn(ChatId.of("chat-1"));
-        when(directChat.getParticipants()).thenReturn(List.of(requesterId, UserId.of("user-2")));
+        ChatSummaryDto group = new ChatSummaryDto(
+                "chat-2", "GROUP", "Project Team", "Meeting tomorrow at 10", Instant.parse("2025-09-13T12:00:00Z")
+        );
+        ChatSummaryDto direct = new ChatSummaryDto(
+                "00000000-0000-0000-0000-000000000009", "DIRECT", "bob", "Hello there", Instant.parse("2025-09-13T10:15:30Z")
+        );
 
-        Message lastMessage = mock(Message.class);
-        when(lastMessage.getContent()).thenReturn("Hello there");
-        when(lastMessage.getCreatedAt()).thenReturn(Instant.parse("2025-09-13T10:15:30Z"));
-
-        when(directChatRepository.findByParticipant(requesterId))
-                .thenReturn(List.of(directChat));
-        when(messageRepository.findLastMessage(ChatId.of("chat-1")))
-                .thenReturn(Optional.of(lastMessage));
-
-        User otherUser = mock(User.class);
-        when(otherUser.getUserId()).thenReturn(otherUserId);
-        when(otherUser.getUsername()).thenReturn("bob");
-        when(userRepository.findById(otherUserId)).thenReturn(Optional.of(otherUser));
+        when(chatSummaryRepository.findInbox(requesterId, null, null, 10))
+                .thenReturn(List.of(group, direct));
 
         // --- Act ---
-        ListChatsRequest request = new ListChatsRequest("req-1", 10);
-        ListChatsResponse response = useCase.list(request);
+        ListChatsResponse response = useCase.list(new ListChatsRequest("00000000-0000-0000-0000-000000000013", 10));
 
         // --- Assert ---
-        assertEquals(1, response.chats().size());
-        ChatSummaryDto summary = response.chats().get(0);
-
-        assertEquals("chat-1", summary.chatId());
-        assertEquals("DIRECT", summary.type());
-        assertEquals("bob", summary.name());
-        assertEquals("Hello there", summary.lastMessage());
-        assertEquals(Instant.parse("2025-09-13T10:15:30Z"), summary.lastMessageAt());
-
-        verify(directChatRepository).findByParticipant(requesterId);
-        verify(messageRepository).findLastMessage(ChatId.of("chat-1"));
+        assertEquals(List.of(group, direct), response.chats());
+        verify(chatSummaryRepository).findInbox(requesterId, null, null, 10);
     }
 
     @Test
-    void shouldListGroupChatsForUser() {
+    void shouldPassCursorToReadModel() {
         // --- Arrange ---
-        GroupChat groupChat = mock(GroupChat.class);
-        when(groupChat.getChatId()).thenReturn(ChatId.of("chat-2"));
-        when(groupChat.getGroupName()).thenReturn("Project Team");
-
-        Message lastMessage = mock(Message.class);
-        when(lastMessage.getContent()).thenReturn("Meeting tomorrow at 10");
-        when(lastMessage.getCreatedAt()).thenReturn(Instant.parse("2025-09-13T12:00:00Z"));
-
-        when(groupChatRepository.findByParticipant(requesterId))
-                .thenReturn(List.of(groupChat));
-        when(messageRepository.findLastMessage(ChatId.of("chat-2")))
-                .thenReturn(Optional.of(lastMessage));
-
-        // --- Act ---
-        ListChatsRequest request = new ListChatsRequest("req-1", 10);
-        ListChatsResponse response = useCase.list(request);
-
-        // --- Assert ---
-        assertEquals(1, response.chats().size());
-        ChatSummaryDto summary = response.chats().get(0);
-
-        assertEquals("chat-2", summary.chatId());
-        assertEquals("GROUP", summary.type());
-        assertEquals("Project Team", summary.name());
-        assertEquals("Meeting tomorrow at 10", summary.lastMessage());
-        assertEquals(Instant.parse("2025-09-13T12:00:00Z"), summary.lastMessageAt());
-
-        verify(groupChatRepository).findByParticipant(requesterId);
-        verify(messageRepository).findLastMessage(ChatId.of("chat-2"));
-    }
-
-    @Test
-    void shouldMergeAndSortByLastMessageAt() {
-        // --- Arrange ---
-        UserId otherUserId = UserId.of("user-2");
-
-        DirectChat directChat = mock(DirectChat.class);
-        when(directChat.getChatId()).thenReturn(ChatId.of("chat-1"));
-        when(directChat.getParticipants()).thenReturn(List.of(requesterId, otherUserId));
-
-        GroupChat groupChat = mock(GroupChat.class);
-        when(groupChat.getChatId()).thenReturn(ChatId.of("chat-2"));
-        when(groupChat.getGroupName()).thenReturn("Project Group");
-
-        Message directLastMessage = mock(Message.class);
-        when(directLastMessage.getContent()).thenReturn("Direct message");
-        when(directLastMessage.getCreatedAt()).thenReturn(Instant.parse("2025-09-13T10:00:00Z"));
-
-        Message groupLastMessage = mock(Message.class);
-        when(groupLastMessage.getContent()).thenReturn("Group message");
-        when(groupLastMessage.getCreatedAt()).thenReturn(Instant.parse("2025-09-13T12:00:00Z"));
-
-        when(directChatRepository.findByParticipant(requesterId))
-                .thenReturn(List.of(directChat));
-        when(groupChatRepository.findByParticipant(requesterId))
-                .thenReturn(List.of(groupChat));
-
-        when(messageRepository.findLastMessage(ChatId.of("chat-1")))
-                .thenReturn(Optional.of(directLastMessage));
-        when(messageRepository.findLastMessage(ChatId.of("chat-2")))
-                .thenReturn(Optional.of(groupLastMessage));
-
-        User otherUser = mock(User.class);
-        when(otherUser.getUserId()).thenReturn(otherUserId);
-        when(otherUser.getUsername()).thenReturn("bob");
-        when(userRepository.findById(otherUserId)).thenReturn(Optional.of(otherUser));
+        Instant cursorAt = Instant.parse("2025-09-13T10:00:00Z");
+        when(chatSummaryRepository.findInbox(requesterId, cursorAt, ChatId.of("00000000-0000-0000-0000-000000000009"), 20))
+                .thenReturn(List.of());
 
         // --- Act ---
-        ListChatsRequest request = new ListChatsRequest("req-1", 10);
-        ListChatsResponse response = useCase.list(request);
+        ListChatsResponse response = useCase.list(new ListChatsRequest("00000000-0000-0000-0000-000000000013", 20, cursorAt, "00000000-0000-0000-0000-000000000009"));
 
         // --- Assert ---
-        assertEquals(2, response.chats().size());
-
-        // chats should be sorted by lastMessageAt (descending)
-        assertEquals("chat-2", response.chats().get(0).chatId());
-        assertEquals("Group message", response.chats().get(0).lastMessage());
-
-        assertEquals("chat-1", response.chats().get(1).chatId());
-        assertEquals("Direct message", response.chats().get(1).lastMessage());
-
-        verify(directChatRepository).findByParticipant(requesterId);
-        verify(groupChatRepository).findByParticipant(requesterId);
-        verify(userRepository).findById(otherUserId);
+        assertTrue(response.chats().isEmpty());
+        verify(chatSummaryRepository).findInbox(requesterId, cursorAt, ChatId.of("00000000-0000-0000-0000-000000000009"), 20);
     }
 
     @Test
-    void shouldRespectLimitParameter() {
+    void shouldPageThroughChatsWithoutMessages() {
         // --- Arrange ---
-        UserId userX = UserId.of("user-x");
-        UserId userY = UserId.of("user-y");
-
-        DirectChat chat1 = mock(DirectChat.class);
-        when(chat1.getChatId()).thenReturn(ChatId.of("chat-1"));
-        when(chat1.getParticipants()).thenReturn(List.of(requesterId, userX));
-
-        DirectChat chat2 = mock(DirectChat.class);
-        when(chat2.getChatId()).thenReturn(ChatId.of("chat-2"));
-        when(chat2.getParticipants()).thenReturn(List.of(requesterId, userY));
-
-        Message lastMsg1 = mock(Message.class);
-        when(lastMsg1.getContent()).thenReturn("Old message");
-        when(lastMsg1.getCreatedAt()).thenReturn(Instant.parse("2025-09-13T10:00:00Z"));
-
-        Message lastMsg2 = mock(Message.class);
-        when(lastMsg2.getContent()).thenReturn("New message");
-        when(lastMsg2.getCreatedAt()).thenReturn(Instant.parse("2025-09-13T12:00:00Z"));
-
-        when(directChatRepository.findByParticipant(requesterId))
-                .thenReturn(List.of(chat1, chat2));
-        when(groupChatRepository.findByParticipant(requesterId))
-                .thenReturn(List.of()); // no group chats
-
-        when(messageRepository.findLastMessage(ChatId.of("chat-1")))
-                .thenReturn(Optional.of(lastMsg1));
-        when(messageRepository.findLastMessage(ChatId.of("chat-2")))
-                .thenReturn(Optional.of(lastMsg2));
-
-        User mockUserX = mock(User.class);
-        when(mockUserX.getUserId()).thenReturn(userX);
-        when(mockUserX.getUsername()).thenReturn("alice");
-        when(userRepository.findById(userX)).thenReturn(Optional.of(mockUserX));
-
-        User mockUserY = mock(User.class);
-        when(mockUserY.getUserId()).thenReturn(userY);
-        when(mockUserY.getUsername()).thenReturn("bob");
-        when(userRepository.findById(userY)).thenReturn(Optional.of(mockUserY));
+        ChatSummaryDto silent = new ChatSummaryDto("chat-0", "GROUP", "Silent Group", null, null);
+        when(chatSummaryRepository.findInbox(requesterId, null, ChatId.of("00000000-0000-0000-0000-000000000017"), 10))
+                .thenReturn(List.of(silent));
 
         // --- Act ---
-        ListChatsRequest request = new ListChatsRequest("req-1", 1); // limit = 1
-        ListChatsResponse response = useCase.list(request);
+        ListChatsResponse response = useCase.list(new ListChatsRequest("00000000-0000-0000-0000-000000000013", 10, null, "00000000-0000-0000-0000-000000000017"));
 
         // --- Assert ---
         assertEquals(1, response.chats().size());
-        ChatSummaryDto summary = response.chats().get(0);
-
-        assertEquals("chat-2", summary.chatId()); // newer chat should remain
-        assertEquals("New message", summary.lastMessage());
-
-        verify(directChatRepository).findByParticipant(requesterId);
-        verify(messageRepository).findLastMessage(ChatId.of("chat-1"));
-        verify(messageRepository).findLastMessage(ChatId.of("chat-2"));
-        verify(userRepository).findById(userX);
-        verify(userRepository).findById(userY);
+        assertNull(response.chats().get(0).lastMessage());
+        assertNull(response.chats().get(0).lastMessageAt());
     }
 
     @Test
-    void shouldReturnEmptyListWhenUserHasNoChats() {
+    void shouldIgnoreTimestampWithoutCursorChatId() {
         // --- Arrange ---
-        when(directChatRepository.findByParticipant(requesterId))
-                .thenReturn(List.of());
-        when(groupChatRepository.findByParticipant(requesterId))
+        when(chatSummaryRepository.findInbox(requesterId, null, null, 10))
                 .thenReturn(List.of());
 
         // --- Act ---
-        ListChatsRequest request = new ListChatsRequest("req-1", 10);
-        ListChatsResponse response = useCase.list(request);
+        useCase.list(new ListChatsRequest("00000000-0000-0000-0000-000000000013", 10, Instant.parse("2025-09-13T10:00:00Z"), null));
 
         // --- Assert ---
-        assertNotNull(response.chats());
-        assertTrue(response.chats().isEmpty(), "Chats list should be empty");
-
-        verify(directChatRepository).findByParticipant(requesterId);
-        verify(groupChatRepository).findByParticipant(requesterId);
-        verifyNoInteractions(messageRepository);
+        verify(chatSummaryRepository).findInbox(requesterId, null, null, 10);
     }
 
     @Test
-    void shouldHandleChatsWithoutMessages() {
+    void shouldApplyDefaultLimitWhenNotSet() {
         // --- Arrange ---
-        GroupChat groupChat = mock(GroupChat.class);
-        when(groupChat.getChatId()).thenReturn(ChatId.of("chat-99"));
-        when(groupChat.getGroupName()).thenReturn("Silent Group");
-
-        when(groupChatRepository.findByParticipant(requesterId))
-                .thenReturn(List.of(groupChat));
-        when(directChatRepository.findByParticipant(requesterId))
+        when(chatSummaryRepository.findInbox(requesterId, null, null, 50))
                 .thenReturn(List.of());
 
-        // no messages found
-        when(messageRepository.findLastMessage(ChatId.of("chat-99")))
-                .thenReturn(Optional.empty());
-
         // --- Act ---
-        ListChatsRequest request = new ListChatsRequest("req-1", 10);
-        ListChatsResponse response = useCase.list(request);
+        ListChatsResponse response = useCase.list(new ListChatsRequest("00000000-0000-0000-0000-000000000013", 0));
 
         // --- Assert ---
-        assertEquals(1, response.chats().size());
-        ChatSummaryDto summary = response.chats().get(0);
-
-        assertEquals("chat-99", summary.chatId());
-        assertEquals("GROUP", summary.type());
-        assertEquals("Silent Group", summary.name());
-        assertNull(summary.lastMessage(), "Last message should be null if none exist");
-        assertNull(summary.lastMessageAt(), "Last messageAt should be null if none exist");
-
-        verify(groupChatRepository).findByParticipant(requesterId);
-        verify(messageRepository).findLastMessage(ChatId.of("chat-99"));
+        assertNotNull(response.chats());
+        assertTrue(response.chats().isEmpty(), "Chats list should be empty");
+        verify(chatSummaryRepository).findInbox(requesterId, null, null, 50);
     }
-}
\ No newline at end of file
+}
@@ -38,9 +38,9 @@ class RenameGroupChatUseCaseTest {
         groupChatRepository = mock(GroupChatRepository.class);
         useCase = new RenameGroupChatUseCase(userRepository, groupChatRepository);
 
-        adminId = UserId.of("admin-1");
-        memberId = UserId.of("member-1");
-        chatId = ChatId.of("chat-1");
+        adminId = UserId.of("00000000-0000-0000-0000-000000000008");
+        memberId = UserId.of("00000000-0000-0000-0000-000000000003");
+        chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
 
         admin = mock(User.class);
         when(admin.getUserId()).thenReturn(adminId);
@@ -51,7 +51,7 @@ class RenameGroupChatUseCaseTest {
         Participant adminP = Participant.create(adminId, Role.ADMIN);
         Participant memberP = Participant.create(memberId, Role.MEMBER);
         chat = GroupChat.create(chatId,
-                new ArrayList<>(List.of(adminP, memberP, Participant.create(UserId.of("m2"), Role.MEMBER))),
+                new ArrayList<>(List.of(adminP, memberP, Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER))),
                 "Old Group");
     }
 
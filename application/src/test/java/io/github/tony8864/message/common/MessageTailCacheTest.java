@@ -0,0 +1,138 @@
+package io.github.tony8864.message.common;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.message.MessageStatus;
+import io.github.tony8864.entities.user.UserId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MessageTailCacheTest {
+    private static final ChatId CHAT_ID = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private static final ChatId OTHER_CHAT_ID = ChatId.of("00000000-0000-0000-0000-000000000010");
+    private static final UserId USER_ID = UserId.of("00000000-0000-0000-0000-000000000001");
+    private static final Instant BASE = Instant.parse("2025-09-13T10:00:00Z");
+
+    @Test
+    void findLatest_unknownChat_returnsEmpty() {
+        MessageTailCache cache = new MessageTailCache(10, 1_000_000, Duration.ofMinutes(5));
+
+        assertTrue(cache.findLatest(CHAT_ID, 5).isEmpty());
+    }
+
+    @Test
+    void append_beforePrime_isIgnored() {
+        MessageTailCache cache = new MessageTailCache(10, 1_000_000, Duration.ofMinutes(5));
+
+        cache.append(message(CHAT_ID, 1, "one"));
+
+        assertTrue(cache.findLatest(CHAT_ID, 1).isEmpty());
+        assertEquals(0, cache.getChatCount());
+    }
+
+    @Test
+    void prime_thenAppend_servesNewestFirst() {
+        MessageTailCache cache = new MessageTailCache(10, 1_000_000, Duration.ofMinutes(5));
+        cache.prime(CHAT_ID, cache.version(CHAT_ID), List.of(message(CHAT_ID, 2, "two"), message(CHAT_ID, 1, "one")), 2);
+
+        cache.append(message(CHAT_ID, 3, "three"));
+
+        List<Message> latest = cache.findLatest(CHAT_ID, 2).orElseThrow();
+        assertEquals(List.of("three", "two"), latest.stream().map(Message::getContent).toList());
+    }
+
+    @Test
+    void findLatest_pageLargerThanTail_missesUnlessWholeChatIsCached() {
+        MessageTailCache cache = new MessageTailCache(10, 1_000_000, Duration.ofMinutes(5));
+        cache.prime(CHAT_ID, cache.version(CHAT_ID), List.of(message(CHAT_ID, 2, "two"), message(CHAT_ID, 1, "one")), 2);
+        cache.prime(OTHER_CHAT_ID, cache.version(OTHER_CHAT_ID), List.of(message(OTHER_CHAT_ID, 1, "one")), 5);
+
+        assertTrue(cache.findLatest(CHAT_ID, 3).isEmpty());
+        assertEquals(1, cache.findLatest(OTHER_CHAT_ID, 5).orElseThrow().size());
+    }
+
+    @Test
+    void append_fullTail_dropsOldestAndKeepsOrder() {
+        MessageTailCache cache = new MessageTailCache(3, 1_000_000, Duration.ofMinutes(5));
+        cache.prime(CHAT_ID, cache.version(CHAT_ID), List.of(), 50);
+
+        cache.append(message(CHAT_ID, 1, "one"));
+        cache.append(message(CHAT_ID, 3, "three"));
+        cache.append(message(CHAT_ID, 4, "four"));
+        cache.append(message(CHAT_ID, 2, "two"));
+        cache.append(message(CHAT_ID, 4, "four"));
+
+        List<Message> latest = cache.findLatest(CHAT_ID, 3).orElseThrow();
+        assertEquals(List.of("four", "three", "two"), latest.stream().map(Message::getContent).toList());
+        assertTrue(cache.findLatest(CHAT_ID, 4).isEmpty());
+    }
+
+    @Test
+    void prime_afterConcurrentSend_isDiscarded() {
+        MessageTailCache cache = new MessageTailCache(10, 1_000_000, Duration.ofMinutes(5));
+        long version = cache.version(CHAT_ID);
+
+        cache.append(message(CHAT_ID, 2, "two"));
+        cache.prime(CHAT_ID, version, List.of(message(CHAT_ID, 1, "one")), 5);
+
+        assertTrue(cache.findLatest(CHAT_ID, 1).isEmpty());
+    }
+
+    @Test
+    void memoryBudget_evictsLeastRecentlyUsedChat() {
+        MessageTailCache cache = new MessageTailCache(10, 600, Duration.ofMinutes(5));
+        cache.prime(CHAT_ID, cache.version(CHAT_ID), List.of(message(CHAT_ID, 1, "one")), 5);
+        cache.prime(OTHER_CHAT_ID, cache.version(OTHER_CHAT_ID), List.of(message(OTHER_CHAT_ID, 1, "one")), 5);
+        cache.findLatest(CHAT_ID, 1);
+
+        cache.append(message(CHAT_ID, 2, "two"));
+
+        assertTrue(cache.findLatest(CHAT_ID, 2).isPresent());
+        assertTrue(cache.findLatest(OTHER_CHAT_ID, 1).isEmpty());
+        assertTrue(cache.getUsedBytes() <= 600);
+    }
+
+    @Test
+    void findLatest_expiredTail_missesSoItIsReadAgain() {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        MessageTailCache cache = new MessageTailCache(10, 1_000_000, Duration.ofSeconds(30), clock);
+        cache.prime(CHAT_ID, cache.version(CHAT_ID), List.of(message(CHAT_ID, 1, "one")), 5);
+        assertTrue(cache.findLatest(CHAT_ID, 1).isPresent());
+
+        when(clock.millis()).thenReturn(Duration.ofSeconds(30).toMillis());
+
+        assertTrue(cache.findLatest(CHAT_ID, 1).isEmpty());
+        assertEquals(0, cache.getChatCount());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    void clear_dropsEveryTailAndDiscardsPrimesReadBefore() {
+        MessageTailCache cache = new MessageTailCache(10, 1_000_000, Duration.ofMinutes(5));
+        cache.prime(CHAT_ID, cache.version(CHAT_ID), List.of(message(CHAT_ID, 1, "one")), 5);
+        long version = cache.version(OTHER_CHAT_ID);
+
+        cache.clear();
+        cache.prime(OTHER_CHAT_ID, version, List.of(message(OTHER_CHAT_ID, 1, "one")), 5);
+
+        assertTrue(cache.findLatest(CHAT_ID, 1).isEmpty());
+        assertTrue(cache.findLatest(OTHER_CHAT_ID, 1).isEmpty());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    private static Message message(ChatId chatId, int second, String content) {
+        MessageId messageId = MessageId.of(String.format("00000000-0000-7000-8000-%012d", second));
+        Instant createdAt = BASE.plusSeconds(second);
+        return Message.restore(messageId, chatId, USER_ID, content, createdAt, MessageStatus.SENT, createdAt);
+    }
+}
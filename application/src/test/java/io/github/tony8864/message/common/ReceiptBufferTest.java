@@ -0,0 +1,159 @@
+package io.github.tony8864.message.common;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.repository.ReceiptEventPublisher;
+import io.github.tony8864.message.repository.ReceiptRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ReceiptBufferTest {
+    private final ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private final ChatId otherChatId = ChatId.of("00000000-0000-0000-0000-000000000010");
+    private final UserId alice = UserId.of("00000000-0000-0000-0000-000000000001");
+    private final UserId bob = UserId.of("00000000-0000-0000-0000-000000000002");
+    private final Instant t0 = Instant.parse("2025-01-01T10:00:00Z");
+
+    private ReceiptRepository receiptRepository;
+    private ReceiptEventPublisher receiptEventPublisher;
+    private ReceiptBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        receiptRepository = mock(ReceiptRepository.class);
+        receiptEventPublisher = mock(ReceiptEventPublisher.class);
+        buffer = new ReceiptBuffer(receiptRepository, receiptEventPublisher);
+    }
+
+    @Test
+    void burstOfAcks_shouldBecomeOneSetPerChatAndUser() {
+        when(receiptRepository.upsertAll(any())).thenReturn(List.of(
+                Receipt.read(chatId, alice, cursor(99)),
+                Receipt.read(chatId, bob, cursor(3))
+        ));
+        for (int i = 0; i < 3; i++) {
+            buffer.add(new ReceiptAck(chatId, alice, messageId(i), false));
+            buffer.add(new ReceiptAck(chatId, alice, messageId(i), true));
+        }
+        buffer.add(new ReceiptAck(chatId, bob, messageId(3), true));
+
+        assertEquals(2, buffer.getPending());
+        assertEquals(2, buffer.flush());
+
+        Collection<ReceiptAck> written = written();
+        assertEquals(4, written.size());
+        assertTrue(written.contains(new ReceiptAck(chatId, alice, messageId(2), true)));
+        assertTrue(written.contains(new ReceiptAck(chatId, bob, messageId(3), true)));
+        assertEquals(7, buffer.getAcks());
+        assertEquals(2, buffer.getWrites());
+        assertEquals(0, buffer.flush());
+    }
+
+    @Test
+    void deliveredAfterRead_shouldStayRead() {
+        when(receiptRepository.upsertAll(any())).thenReturn(List.of());
+        buffer.add(new ReceiptAck(chatId, alice, messageId(5), true));
+        buffer.add(new ReceiptAck(chatId, alice, messageId(5), false));
+
+        buffer.flush();
+
+        assertEquals(List.of(new ReceiptAck(chatId, alice, messageId(5), true)), List.copyOf(written()));
+    }
+
+    @Test
+    void chattyReader_shouldKeepOnlyItsMostRecentAcks() {
+        when(receiptRepository.upsertAll(any())).thenReturn(List.of());
+        for (int i = 0; i < 100; i++) {
+            buffer.add(new ReceiptAck(chatId, alice, messageId(i), false));
+        }
+
+        buffer.flush();
+
+        Collection<ReceiptAck> written = written();
+        assertEquals(64, written.size());
+        assertTrue(written.contains(new ReceiptAck(chatId, alice, messageId(99), false)));
+        assertFalse(written.contains(new ReceiptAck(chatId, alice, messageId(35), false)));
+    }
+
+    @Test
+    void cursorsAtSameInstant_shouldOrderByMessageIdLikePostgres() {
+        ReceiptCursor low = new ReceiptCursor(t0, MessageId.of("7fffffff-ffff-ffff-ffff-ffffffffffff"));
+        ReceiptCursor high = new ReceiptCursor(t0, MessageId.of("80000000-0000-0000-0000-000000000000"));
+
+        assertSame(high, ReceiptCursor.latest(low, high));
+        assertSame(high, ReceiptCursor.latest(high, low));
+    }
+
+    @Test
+    void flush_shouldPublishOneEventPerChatWithStoredReceipts() {
+        when(receiptRepository.upsertAll(any())).thenReturn(List.of(
+                Receipt.read(chatId, alice, cursor(1)),
+                Receipt.read(chatId, bob, cursor(1)),
+                Receipt.read(otherChatId, alice, cursor(1))
+        ));
+        buffer.add(new ReceiptAck(chatId, alice, messageId(1), true));
+        buffer.add(new ReceiptAck(chatId, bob, messageId(1), true));
+        buffer.add(new ReceiptAck(otherChatId, alice, messageId(1), true));
+
+        buffer.flush();
+
+        verify(receiptEventPublisher).publishReceipts(eq(chatId), argThat(receipts -> receipts.size() == 2));
+        verify(receiptEventPublisher).publishReceipts(eq(otherChatId), argThat(receipts -> receipts.size() == 1));
+    }
+
+    @Test
+    void flush_acksDroppedByRepository_shouldNotBePublished() {
+        when(receiptRepository.upsertAll(any())).thenReturn(List.of());
+        buffer.add(new ReceiptAck(chatId, alice, messageId(1), true));
+
+        assertEquals(0, buffer.flush());
+
+        verify(receiptEventPublisher, never()).publishReceipts(any(), anyList());
+        assertEquals(0, buffer.getPending());
+    }
+
+    @Test
+    void failedWrite_shouldKeepAcksForNextFlush() {
+        buffer.add(new ReceiptAck(chatId, alice, messageId(1), true));
+        when(receiptRepository.upsertAll(any()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(List.of(Receipt.read(chatId, alice, cursor(2))));
+
+        assertThrows(IllegalStateException.class, () -> buffer.flush());
+        verify(receiptEventPublisher, never()).publishReceipts(any(), anyList());
+
+        buffer.add(new ReceiptAck(chatId, alice, messageId(2), true));
+        assertEquals(1, buffer.flush());
+        assertEquals(List.of(
+                new ReceiptAck(chatId, alice, messageId(1), true),
+                new ReceiptAck(chatId, alice, messageId(2), true)
+        ), List.copyOf(written()));
+        verify(receiptEventPublisher).publishReceipts(chatId, List.of(Receipt.read(chatId, alice, cursor(2))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<ReceiptAck> written() {
+        ArgumentCaptor<Collection<ReceiptAck>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(receiptRepository, atLeastOnce()).upsertAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private ReceiptCursor cursor(int second) {
+        return new ReceiptCursor(t0.plusSeconds(second), messageId(second));
+    }
+
+    private MessageId messageId(int n) {
+        return MessageId.of(String.format("00000000-0000-0000-0000-%012d", n));
+    }
+}
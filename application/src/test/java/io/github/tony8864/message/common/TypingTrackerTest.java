@@ -0,0 +1,81 @@
+package io.github.tony8864.message.common;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.user.UserId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TypingTrackerTest {
+    private final ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private final ChatId otherChatId = ChatId.of("00000000-0000-0000-0000-000000000010");
+    private final UserId alice = UserId.of("00000000-0000-0000-0000-000000000001");
+    private final UserId bob = UserId.of("00000000-0000-0000-0000-000000000002");
+
+    private Clock clock;
+    private TypingTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        tracker = new TypingTracker(Duration.ofSeconds(2), Duration.ofSeconds(6), clock);
+    }
+
+    @Test
+    void started_shouldThrottlePerUserAndChat() {
+        assertTrue(tracker.started(chatId, alice));
+        assertFalse(tracker.started(chatId, alice));
+        assertTrue(tracker.started(chatId, bob));
+        assertTrue(tracker.started(otherChatId, alice));
+
+        when(clock.millis()).thenReturn(1999L);
+        assertFalse(tracker.started(chatId, alice));
+
+        when(clock.millis()).thenReturn(2000L);
+        assertTrue(tracker.started(chatId, alice));
+
+        assertEquals(4, tracker.getPublished());
+        assertEquals(2, tracker.getThrottled());
+    }
+
+    @Test
+    void stopped_shouldOnlyPublishWhileIndicatorIsShown() {
+        assertFalse(tracker.stopped(chatId, alice));
+
+        tracker.started(chatId, alice);
+        assertTrue(tracker.stopped(chatId, alice));
+        assertTrue(tracker.started(chatId, alice));
+
+        when(clock.millis()).thenReturn(6000L);
+        assertFalse(tracker.stopped(chatId, alice));
+    }
+
+    @Test
+    void expiredEntries_shouldBeForgotten() {
+        tracker.started(chatId, alice);
+        tracker.started(chatId, bob);
+
+        when(clock.millis()).thenReturn(4000L);
+        tracker.started(chatId, bob);
+        assertEquals(2, tracker.getTypingUsers());
+
+        when(clock.millis()).thenReturn(6000L);
+        tracker.started(otherChatId, bob);
+
+        assertEquals(2, tracker.getTypingUsers());
+        assertTrue(tracker.started(chatId, alice));
+    }
+
+    @Test
+    void expiryNotLongerThanThrottle_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TypingTracker(Duration.ofSeconds(2), Duration.ofSeconds(2), clock));
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.tony8864.message.repository;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.repository.AsyncMessageEventPublisher.OverflowPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncMessageEventPublisherTest {
+    private final ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private final UserId senderId = UserId.of("00000000-0000-0000-0000-000000000001");
+
+    private final List<Message> published = new CopyOnWriteArrayList<>();
+    private final List<String> threads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstTaken = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private AsyncMessageEventPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        publisher.close();
+    }
+
+    @Test
+    void publish_dispatchesOffTheCallingThreadInSendOrder() {
+        publisher = new AsyncMessageEventPublisher(recordingDelegate(), 100, 2, OverflowPolicy.BLOCK);
+        List<Message> messages = List.of(message("one"), message("two"), message("three"));
+
+        messages.forEach(publisher::publishMessageSent);
+        publisher.close();
+
+        assertEquals(messages, published);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("message-events-")));
+        assertEquals(3, publisher.getDelivered());
+        assertEquals(3, publisher.getDispatched());
+    }
+
+    @Test
+    void publish_queueFull_dropPolicyDiscardsEvent() throws InterruptedException {
+        publisher = new AsyncMessageEventPublisher(blockingDelegate(), 1, 1, OverflowPolicy.DROP);
+
+        publisher.publishMessageSent(message("taken"));
+        assertTrue(firstTaken.await(1, TimeUnit.SECONDS));
+        publisher.publishMessageSent(message("queued"));
+        publisher.publishMessageSent(message("dropped"));
+
+        assertEquals(1, publisher.getDropped());
+        assertEquals(1, publisher.getQueueDepth());
+    }
+
+    @Test
+    void publish_queueFull_spillPolicyKeepsEventsBehindTheQueueInSendOrder() throws InterruptedException {
+        publisher = new AsyncMessageEventPublisher(blockingDelegate(), 1, 1, OverflowPolicy.SPILL);
+
+        publisher.publishMessageSent(message("taken"));
+        assertTrue(firstTaken.await(1, TimeUnit.SECONDS));
+        publisher.publishMessageSent(message("queued"));
+        publisher.publishMessageSent(message("spilled"));
+        publisher.publishMessageSent(message("after"));
+
+        assertEquals(2, publisher.getSpilled());
+        assertEquals(3, publisher.getQueueDepth());
+        assertTrue(published.isEmpty());
+
+        release.countDown();
+        publisher.close();
+
+        assertEquals(List.of("queued", "spilled", "after"), published.stream().map(Message::getContent).toList());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("message-events-")));
+    }
+
+    @Test
+    void publish_afterClose_dropsInsteadOfPublishingInline() {
+        publisher = new AsyncMessageEventPublisher(recordingDelegate(), 10, 1, OverflowPolicy.SPILL);
+        publisher.close();
+
+        publisher.publishMessageSent(message("late"));
+
+        assertEquals(1, publisher.getDropped());
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void publish_delegateFails_dispatcherKeepsRunning() {
+        publisher = new AsyncMessageEventPublisher(message -> {
+            if (message.getContent().equals("boom")) {
+                throw new IllegalStateException("broker down");
+            }
+            published.add(message);
+        }, 10, 1, OverflowPolicy.BLOCK);
+
+        publisher.publishMessageSent(message("boom"));
+        publisher.publishMessageSent(message("after"));
+        publisher.close();
+
+        assertEquals(1, publisher.getFailed());
+        assertEquals("after", published.get(0).getContent());
+    }
+
+    @Test
+    void publish_eventsQueuedBehindSlowDelegate_areHandedOverAsOneBatch() throws InterruptedException {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        MessageEventPublisher slow = blockingDelegate();
+        publisher = new AsyncMessageEventPublisher(new MessageEventPublisher() {
+            @Override
+            public void publishMessageSent(Message message) {
+                slow.publishMessageSent(message);
+            }
+
+            @Override
+            public void publishMessagesSent(List<Message> messages) {
+                batchSizes.add(messages.size());
+                published.addAll(messages);
+            }
+        }, 10, 1, OverflowPolicy.BLOCK);
+
+        publisher.publishMessageSent(message("taken"));
+        assertTrue(firstTaken.await(1, TimeUnit.SECONDS));
+        publisher.publishMessageSent(message("one"));
+        publisher.publishMessageSent(message("two"));
+        publisher.publishMessageSent(message("three"));
+        release.countDown();
+        publisher.close();
+
+        assertEquals(List.of(3), batchSizes);
+        assertEquals(List.of("one", "two", "three"), published.stream().map(Message::getContent).toList());
+        assertEquals(4, publisher.getDelivered());
+    }
+
+    private MessageEventPublisher recordingDelegate() {
+        return message -> {
+            threads.add(Thread.currentThread().getName());
+            published.add(message);
+        };
+    }
+
+    private MessageEventPublisher blockingDelegate() {
+        return message -> {
+            if (message.getContent().equals("taken")) {
+                firstTaken.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            threads.add(Thread.currentThread().getName());
+            published.add(message);
+        };
+    }
+
+    private Message message(String content) {
+        return Message.create(MessageId.newId(), chatId, senderId, content);
+    }
+}
@@ -1,15 +1,17 @@
 package io.github.tony8864.message.usecase;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.common.exception.GroupChatNotFoundException;
+import io.github.tony8864.chat.repository.ChatRepository;
 import io.github.tony8864.chat.repository.DirectChatRepository;
 import io.github.tony8864.chat.repository.GroupChatRepository;
 import io.github.tony8864.entities.chat.ChatId;
-import io.github.tony8864.entities.chat.DirectChat;
-import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.chat.ChatType;
 import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
 import io.github.tony8864.entities.user.UserId;
 import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
-import io.github.tony8864.message.repository.MessageEventPublisher;
+import io.github.tony8864.message.common.MessageTailCache;
 import io.github.tony8864.message.repository.MessageRepository;
 import io.github.tony8864.message.usecase.sendmessage.SendMessageUseCase;
 import io.github.tony8864.message.usecase.sendmessage.dto.SendMessageRequest;
@@ -17,103 +19,159 @@ import io.github.tony8864.message.usecase.sendmessage.dto.SendMessageResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 class SendMessageUseCaseTest {
     private MessageRepository messageRepository;
+    private ChatRepository chatRepository;
     private GroupChatRepository groupChatRepository;
     private DirectChatRepository directChatRepository;
-    private MessageEventPublisher messageEventPublisher;
+    private MessageTailCache tailCache;
+    private List<Runnable> afterCommit;
+    private boolean inTransaction;
     private SendMessageUseCase useCase;
 
     private ChatId chatId;
     private UserId senderId;
-    private DirectChat directChat;
-    private GroupChat groupChat;
 
     @BeforeEach
     void setUp() {
         messageRepository = mock(MessageRepository.class);
+        chatRepository = mock(ChatRepository.class);
         groupChatRepository = mock(GroupChatRepository.class);
         directChatRepository = mock(DirectChatRepository.class);
-        messageEventPublisher = mock(MessageEventPublisher.class);
 
-        useCase = new SendMessageUseCase(messageRepository, groupChatRepository, directChatRepository, messageEventPublisher);
+        tailCache = new MessageTailCache(100, 1_000_000, Duration.ofMinutes(5));
+        afterCommit = new ArrayList<>();
 
-        chatId = ChatId.of("chat-1");
-        senderId = UserId.of("user-1");
+        useCase = new SendMessageUseCase(messageRepository, new ChatMembershipCache(chatRepository, chatId -> {}, 100, 100, 10, Duration.ofMinutes(5)), groupChatRepository, directChatRepository, tailCache, work -> {
+            inTransaction = true;
+            try {
+                work.run();
+            } finally {
+                inTransaction = false;
+            }
+        }, afterCommit::add);
 
-        directChat = mock(DirectChat.class);
-        when(directChat.getChatId()).thenReturn(chatId);
-
-        groupChat = mock(GroupChat.class);
-        when(groupChat.getChatId()).thenReturn(chatId);
+        chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+        senderId = UserId.of("00000000-0000-0000-0000-000000000001");
     }
 
     @Test
     void sendMessage_directChat_success() {
         SendMessageRequest request = new SendMessageRequest(chatId.getValue(), senderId.getValue(), "hello!");
 
-        when(directChatRepository.findById(chatId)).thenReturn(Optional.of(directChat));
-        when(directChat.canSendMessage(senderId)).thenReturn(true);
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.DIRECT));
+        when(chatRepository.isMember(chatId, senderId)).thenReturn(true);
 
         SendMessageResponse response = useCase.send(request);
 
         assertEquals(request.content(), response.content());
-        verify(messageRepository).save(any(Message.class));
-        verify(directChatRepository).save(directChat);
+        verify(messageRepository).add(any(Message.class));
+        verify(directChatRepository).updateLastMessage(eq(chatId), any(MessageId.class), any(Instant.class));
+        verify(directChatRepository, never()).save(any());
     }
 
     @Test
     void sendMessage_groupChat_success() {
         SendMessageRequest request = new SendMessageRequest(chatId.getValue(), senderId.getValue(), "hello group");
 
-        when(directChatRepository.findById(chatId)).thenReturn(Optional.empty());
-        when(groupChatRepository.findById(chatId)).thenReturn(Optional.of(groupChat));
-        when(groupChat.canSendMessage(senderId)).thenReturn(true);
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.GROUP));
+        when(chatRepository.isMember(chatId, senderId)).thenReturn(true);
 
         SendMessageResponse response = useCase.send(request);
 
         assertEquals(request.content(), response.content());
-        verify(messageRepository).save(any(Message.class));
-        verify(groupChatRepository).save(groupChat);
+        verify(messageRepository).add(any(Message.class));
+        verify(groupChatRepository).updateLastMessage(eq(chatId), any(MessageId.class), any(Instant.class));
+        verify(groupChatRepository, never()).save(any());
+        verify(directChatRepository, never()).findById(any());
+    }
+
+    @Test
+    void sendMessage_appendsToTailOnlyAfterCommit() {
+        SendMessageRequest request = new SendMessageRequest(chatId.getValue(), senderId.getValue(), "hello!");
+
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.DIRECT));
+        when(chatRepository.isMember(chatId, senderId)).thenReturn(true);
+        tailCache.prime(chatId, tailCache.version(chatId), List.of(), 10);
+
+        useCase.send(request);
+
+        assertTrue(tailCache.findLatest(chatId, 10).orElseThrow().isEmpty());
+
+        afterCommit.forEach(Runnable::run);
+
+        assertEquals("hello!", tailCache.findLatest(chatId, 10).orElseThrow().get(0).getContent());
+    }
+
+    @Test
+    void sendMessage_writesMessageAndLastMessageInOneTransaction() {
+        SendMessageRequest request = new SendMessageRequest(chatId.getValue(), senderId.getValue(), "hello!");
+        List<Boolean> writesInTransaction = new ArrayList<>();
+
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.DIRECT));
+        when(chatRepository.isMember(chatId, senderId)).thenReturn(true);
+        doAnswer(invocation -> writesInTransaction.add(inTransaction)).when(messageRepository).add(any());
+        doAnswer(invocation -> writesInTransaction.add(inTransaction))
+                .when(directChatRepository).updateLastMessage(any(), any(), any());
+
+        useCase.send(request);
+
+        assertEquals(List.of(true, true), writesInTransaction);
+    }
+
+    @Test
+    void sendMessage_failedLastMessageUpdate_leavesTailUntouched() {
+        SendMessageRequest request = new SendMessageRequest(chatId.getValue(), senderId.getValue(), "hello!");
+
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.GROUP));
+        when(chatRepository.isMember(chatId, senderId)).thenReturn(true);
+        doThrow(new IllegalStateException("boom"))
+                .when(groupChatRepository).updateLastMessage(any(), any(), any());
+
+        assertThrows(IllegalStateException.class, () -> useCase.send(request));
+        assertTrue(afterCommit.isEmpty());
     }
 
     @Test
     void sendMessage_directChat_unauthorized() {
         SendMessageRequest request = new SendMessageRequest(chatId.getValue(), senderId.getValue(), "bad");
 
-        when(directChatRepository.findById(chatId)).thenReturn(Optional.of(directChat));
-        when(directChat.canSendMessage(senderId)).thenReturn(false);
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.DIRECT));
+        when(chatRepository.isMember(chatId, senderId)).thenReturn(false);
 
         assertThrows(UnauthorizedOperationException.class, () -> useCase.send(request));
-        verify(messageRepository, never()).save(any());
-        verify(directChatRepository, never()).save(any());
+        verify(messageRepository, never()).add(any());
+        verify(directChatRepository, never()).updateLastMessage(any(), any(), any());
     }
 
     @Test
     void sendMessage_groupChat_unauthorized() {
         SendMessageRequest request = new SendMessageRequest(chatId.getValue(), senderId.getValue(), "bad");
 
-        when(directChatRepository.findById(chatId)).thenReturn(Optional.empty());
-        when(groupChatRepository.findById(chatId)).thenReturn(Optional.of(groupChat));
-        when(groupChat.canSendMessage(senderId)).thenReturn(false);
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.GROUP));
+        when(chatRepository.isMember(chatId, senderId)).thenReturn(false);
 
         assertThrows(UnauthorizedOperationException.class, () -> useCase.send(request));
-        verify(messageRepository, never()).save(any());
-        verify(groupChatRepository, never()).save(any());
+        verify(messageRepository, never()).add(any());
+        verify(groupChatRepository, never()).updateLastMessage(any(), any(), any());
     }
 
     @Test
     void sendMessage_chatNotFoundAnywhere() {
         SendMessageRequest request = new SendMessageRequest(chatId.getValue(), senderId.getValue(), "hello?");
 
-        when(directChatRepository.findById(chatId)).thenReturn(Optional.empty());
-        when(groupChatRepository.findById(chatId)).thenReturn(Optional.empty());
+        when(chatRepository.findType(chatId)).thenReturn(Optional.empty());
 
         assertThrows(GroupChatNotFoundException.class, () -> useCase.send(request));
     }
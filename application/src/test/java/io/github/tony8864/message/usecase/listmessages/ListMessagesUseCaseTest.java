@@ -1,23 +1,23 @@
 package io.github.tony8864.message.usecase.listmessages;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.common.exception.GroupChatNotFoundException;
-import io.github.tony8864.chat.repository.DirectChatRepository;
-import io.github.tony8864.chat.repository.GroupChatRepository;
+import io.github.tony8864.chat.repository.ChatRepository;
 import io.github.tony8864.entities.chat.ChatId;
-import io.github.tony8864.entities.chat.DirectChat;
-import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.chat.ChatType;
 import io.github.tony8864.entities.message.Message;
 import io.github.tony8864.entities.message.MessageId;
-import io.github.tony8864.entities.participant.Participant;
-import io.github.tony8864.entities.participant.Role;
 import io.github.tony8864.entities.user.UserId;
 import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
+import io.github.tony8864.message.common.MessageTailCache;
 import io.github.tony8864.message.repository.MessageRepository;
 import io.github.tony8864.message.usecase.listmessages.dto.ListMessagesRequest;
 import io.github.tony8864.message.usecase.listmessages.dto.ListMessagesResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,32 +25,22 @@ import static org.mockito.Mockito.*;
 
 class ListMessagesUseCaseTest {
     private MessageRepository messageRepository;
-    private GroupChatRepository groupChatRepository;
-    private DirectChatRepository directChatRepository;
+    private ChatRepository chatRepository;
     private ListMessagesUseCase useCase;
 
     private ChatId chatId;
     private UserId requesterId;
-    private DirectChat directChat;
-    private GroupChat groupChat;
     private Message message1;
     private Message message2;
 
     @BeforeEach
     void setUp() {
         messageRepository = mock(MessageRepository.class);
-        groupChatRepository = mock(GroupChatRepository.class);
-        directChatRepository = mock(DirectChatRepository.class);
-        useCase = new ListMessagesUseCase(messageRepository, groupChatRepository, directChatRepository);
+        chatRepository = mock(ChatRepository.class);
+        useCase = new ListMessagesUseCase(messageRepository, new ChatMembershipCache(chatRepository, chatId -> {}, 100, 100, 10, Duration.ofMinutes(5)), new MessageTailCache(100, 1_000_000, Duration.ofMinutes(5)));
 
-        chatId = ChatId.of("chat-1");
-        requesterId = UserId.of("user-1");
-
-        directChat = mock(DirectChat.class);
-        when(directChat.getChatId()).thenReturn(chatId);
-
-        groupChat = mock(GroupChat.class);
-        when(groupChat.getChatId()).thenReturn(chatId);
+        chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+        requesterId = UserId.of("00000000-0000-0000-0000-000000000001");
 
         message1 = Message.create(MessageId.newId(), chatId, requesterId, "Hello");
         message2 = Message.create(MessageId.newId(), chatId, requesterId, "World");
@@ -60,8 +50,8 @@ class ListMessagesUseCaseTest {
     void listMessages_directChat_success() {
         ListMessagesRequest request = new ListMessagesRequest(chatId.getValue(), requesterId.getValue(), 2);
 
-        when(directChatRepository.findById(chatId)).thenReturn(Optional.of(directChat));
-        when(directChat.getParticipants()).thenReturn(List.of(requesterId));
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.DIRECT));
+        when(chatRepository.isMember(chatId, requesterId)).thenReturn(true);
         when(messageRepository.findLastNMessages(chatId, 2)).thenReturn(List.of(message1, message2));
 
         ListMessagesResponse response = useCase.list(request);
@@ -76,8 +66,8 @@ class ListMessagesUseCaseTest {
     void listMessages_directChat_unauthorized() {
         ListMessagesRequest request = new ListMessagesRequest(chatId.getValue(), requesterId.getValue(), 1);
 
-        when(directChatRepository.findById(chatId)).thenReturn(Optional.of(directChat));
-        when(directChat.getParticipants()).thenReturn(List.of(UserId.of("other-user")));
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.DIRECT));
+        when(chatRepository.isMember(chatId, requesterId)).thenReturn(false);
 
         assertThrows(UnauthorizedOperationException.class, () -> useCase.list(request));
         verify(messageRepository, never()).findLastNMessages(any(), anyInt());
@@ -87,12 +77,8 @@ class ListMessagesUseCaseTest {
     void listMessages_groupChat_success() {
         ListMessagesRequest request = new ListMessagesRequest(chatId.getValue(), requesterId.getValue(), 2);
 
-        when(directChatRepository.findById(chatId)).thenReturn(Optional.empty());
-        when(groupChatRepository.findById(chatId)).thenReturn(Optional.of(groupChat));
-        when(groupChat.getParticipants()).thenReturn(List.of(
-                Participant.create(requesterId, Role.MEMBER),
-                Participant.create(UserId.of("other"), Role.MEMBER)
-        ));
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.GROUP));
+        when(chatRepository.isMember(chatId, requesterId)).thenReturn(true);
         when(messageRepository.findLastNMessages(chatId, 2)).thenReturn(List.of(message1, message2));
 
         ListMessagesResponse response = useCase.list(request);
@@ -106,11 +92,8 @@ class ListMessagesUseCaseTest {
     void listMessages_groupChat_unauthorized() {
         ListMessagesRequest request = new ListMessagesRequest(chatId.getValue(), requesterId.getValue(), 1);
 
-        when(directChatRepository.findById(chatId)).thenReturn(Optional.empty());
-        when(groupChatRepository.findById(chatId)).thenReturn(Optional.of(groupChat));
-        when(groupChat.getParticipants()).thenReturn(List.of(
-                Participant.create(UserId.of("someone-else"), Role.MEMBER)
-        ));
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.GROUP));
+        when(chatRepository.isMember(chatId, requesterId)).thenReturn(false);
 
         assertThrows(UnauthorizedOperationException.class, () -> useCase.list(request));
         verify(messageRepository, never()).findLastNMessages(any(), anyInt());
@@ -120,9 +103,63 @@ class ListMessagesUseCaseTest {
     void listMessages_chatNotFoundAnywhere() {
         ListMessagesRequest request = new ListMessagesRequest(chatId.getValue(), requesterId.getValue(), 1);
 
-        when(directChatRepository.findById(chatId)).thenReturn(Optional.empty());
-        when(groupChatRepository.findById(chatId)).thenReturn(Optional.empty());
+        when(chatRepository.findType(chatId)).thenReturn(Optional.empty());
 
         assertThrows(GroupChatNotFoundException.class, () -> useCase.list(request));
     }
-}
\ No newline at end of file
+
+    @Test
+    void listMessages_latestPageTwice_secondServedFromTailCache() {
+        ListMessagesRequest request = new ListMessagesRequest(chatId.getValue(), requesterId.getValue(), 2);
+
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.GROUP));
+        when(chatRepository.isMember(chatId, requesterId)).thenReturn(true);
+        when(messageRepository.findLastNMessages(chatId, 2)).thenReturn(List.of(message2, message1));
+
+        useCase.list(request);
+        ListMessagesResponse response = useCase.list(request);
+
+        assertEquals(2, response.messageDtos().size());
+        assertEquals("World", response.messageDtos().get(0).content());
+        verify(messageRepository, times(1)).findLastNMessages(chatId, 2);
+    }
+
+    @Test
+    void listMessages_beforeCursor_usesKeysetQuery() {
+        Instant cursorAt = Instant.parse("2025-09-13T10:00:00Z");
+        ListMessagesRequest request = new ListMessagesRequest(
+                chatId.getValue(), requesterId.getValue(), 2, cursorAt, "00000000-0000-0000-0000-000000000019", null, null
+        );
+
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.DIRECT));
+        when(chatRepository.isMember(chatId, requesterId)).thenReturn(true);
+        when(messageRepository.findMessagesBefore(chatId, cursorAt, MessageId.of("00000000-0000-0000-0000-000000000019"), 2))
+                .thenReturn(List.of(message2, message1));
+
+        ListMessagesResponse response = useCase.list(request);
+
+        assertEquals(2, response.messageDtos().size());
+        assertEquals("World", response.messageDtos().get(0).content());
+        verify(messageRepository).findMessagesBefore(chatId, cursorAt, MessageId.of("00000000-0000-0000-0000-000000000019"), 2);
+        verify(messageRepository, never()).findLastNMessages(any(), anyInt());
+    }
+
+    @Test
+    void listMessages_afterCursor_usesKeysetQuery() {
+        Instant cursorAt = Instant.parse("2025-09-13T10:00:00Z");
+        ListMessagesRequest request = new ListMessagesRequest(
+                chatId.getValue(), requesterId.getValue(), 5, null, null, cursorAt, "00000000-0000-0000-0000-000000000018"
+        );
+
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.GROUP));
+        when(chatRepository.isMember(chatId, requesterId)).thenReturn(true);
+        when(messageRepository.findMessagesAfter(chatId, cursorAt, MessageId.of("00000000-0000-0000-0000-000000000018"), 5))
+                .thenReturn(List.of(message2));
+
+        ListMessagesResponse response = useCase.list(request);
+
+        assertEquals(1, response.messageDtos().size());
+        verify(messageRepository).findMessagesAfter(chatId, cursorAt, MessageId.of("00000000-0000-0000-0000-000000000018"), 5);
+        verify(messageRepository, never()).findLastNMessages(any(), anyInt());
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.tony8864.message.usecase.receipt;
+
+import io.github.tony8864.chat.common.ChatMembershipCache;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.exceptions.common.InvalidIdentifierException;
+import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
+import io.github.tony8864.message.common.ReceiptAck;
+import io.github.tony8864.message.common.ReceiptBuffer;
+import io.github.tony8864.message.usecase.receipt.dto.UpdateReceiptRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UpdateReceiptUseCaseTest {
+    private final ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private final UserId userId = UserId.of("00000000-0000-0000-0000-000000000001");
+    private final MessageId messageId = MessageId.of("00000000-0000-0000-0000-000000000042");
+
+    private ChatMembershipCache membershipCache;
+    private ReceiptBuffer receiptBuffer;
+    private UpdateReceiptUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        membershipCache = mock(ChatMembershipCache.class);
+        receiptBuffer = mock(ReceiptBuffer.class);
+        useCase = new UpdateReceiptUseCase(membershipCache, receiptBuffer);
+    }
+
+    @Test
+    void update_read_shouldBufferReadAck() {
+        when(membershipCache.isMember(chatId, userId)).thenReturn(true);
+
+        useCase.update(new UpdateReceiptRequest(chatId.getValue(), userId.getValue(), true, messageId.getValue()));
+
+        verify(receiptBuffer).add(new ReceiptAck(chatId, userId, messageId, true));
+    }
+
+    @Test
+    void update_delivered_shouldBufferDeliveredAck() {
+        when(membershipCache.isMember(chatId, userId)).thenReturn(true);
+
+        useCase.update(new UpdateReceiptRequest(chatId.getValue(), userId.getValue(), false, messageId.getValue()));
+
+        verify(receiptBuffer).add(new ReceiptAck(chatId, userId, messageId, false));
+    }
+
+    @Test
+    void update_shouldRejectNonMember() {
+        when(membershipCache.isMember(chatId, userId)).thenReturn(false);
+
+        assertThrows(UnauthorizedOperationException.class, () -> useCase.update(
+                new UpdateReceiptRequest(chatId.getValue(), userId.getValue(), true, messageId.getValue())));
+
+        verify(receiptBuffer, never()).add(any());
+    }
+
+    @Test
+    void update_shouldRejectMalformedMessageId() {
+        assertThrows(InvalidIdentifierException.class, () -> useCase.update(
+                new UpdateReceiptRequest(chatId.getValue(), userId.getValue(), true, "not-a-uuid")));
+
+        verifyNoInteractions(membershipCache, receiptBuffer);
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.tony8864.message.usecase.typing;
+
+import io.github.tony8864.chat.common.ChatMembershipCache;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
+import io.github.tony8864.message.common.TypingTracker;
+import io.github.tony8864.message.repository.TypingEventPublisher;
+import io.github.tony8864.message.usecase.typing.dto.UpdateTypingRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UpdateTypingUseCaseTest {
+    private final ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private final UserId userId = UserId.of("00000000-0000-0000-0000-000000000001");
+    private final Duration expiry = Duration.ofSeconds(6);
+
+    private ChatMembershipCache membershipCache;
+    private TypingEventPublisher typingEventPublisher;
+    private UpdateTypingUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        membershipCache = mock(ChatMembershipCache.class);
+        typingEventPublisher = mock(TypingEventPublisher.class);
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+
+        useCase = new UpdateTypingUseCase(membershipCache, new TypingTracker(Duration.ofSeconds(2), expiry, clock), typingEventPublisher);
+    }
+
+    @Test
+    void update_shouldPublishOncePerThrottleWindow() {
+        when(membershipCache.isMember(chatId, userId)).thenReturn(true);
+
+        for (int i = 0; i < 10; i++) {
+            useCase.update(new UpdateTypingRequest(chatId.getValue(), userId.getValue(), true));
+        }
+        useCase.update(new UpdateTypingRequest(chatId.getValue(), userId.getValue(), false));
+
+        verify(typingEventPublisher).publishTyping(chatId, userId, true, expiry);
+        verify(typingEventPublisher).publishTyping(chatId, userId, false, expiry);
+        verify(membershipCache, times(2)).isMember(chatId, userId);
+    }
+
+    @Test
+    void update_shouldRejectNonMember() {
+        when(membershipCache.isMember(chatId, userId)).thenReturn(false);
+
+        assertThrows(UnauthorizedOperationException.class,
+                () -> useCase.update(new UpdateTypingRequest(chatId.getValue(), userId.getValue(), true)));
+
+        verify(typingEventPublisher, never()).publishTyping(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void update_stopWithoutStart_shouldPublishNothing() {
+        useCase.update(new UpdateTypingRequest(chatId.getValue(), userId.getValue(), false));
+
+        verifyNoInteractions(membershipCache, typingEventPublisher);
+    }
+}
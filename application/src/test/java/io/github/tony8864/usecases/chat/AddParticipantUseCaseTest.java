@@ -1,5 +1,6 @@
 package io.github.tony8864.usecases.chat;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.chat.usecase.addparticipant.AddParticipantUseCase;
 import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.chat.GroupChat;
@@ -26,6 +27,7 @@ import static org.mockito.Mockito.*;
 class AddParticipantUseCaseTest {
     private UserRepository userRepository;
     private GroupChatRepository groupChatRepository;
+    private ChatMembershipCache membershipCache;
     private AddParticipantUseCase useCase;
 
     private UserId requesterId;
@@ -39,11 +41,12 @@ class AddParticipantUseCaseTest {
     void setUp() {
         userRepository = mock(UserRepository.class);
         groupChatRepository = mock(GroupChatRepository.class);
-        useCase = new AddParticipantUseCase(userRepository, groupChatRepository);
+        membershipCache = mock(ChatMembershipCache.class);
+        useCase = new AddParticipantUseCase(userRepository, groupChatRepository, membershipCache);
 
-        requesterId = UserId.of("requester-1");
-        newUserId = UserId.of("user-2");
-        chatId = ChatId.of("chat-123");
+        requesterId = UserId.of("00000000-0000-0000-0000-000000000005");
+        newUserId = UserId.of("00000000-0000-0000-0000-000000000007");
+        chatId = ChatId.of("00000000-0000-0000-0000-000000000002");
 
         requester = mock(User.class);
         when(requester.getUserId()).thenReturn(requesterId);
@@ -52,8 +55,8 @@ class AddParticipantUseCaseTest {
         when(newUser.getUserId()).thenReturn(newUserId);
 
         Participant admin = Participant.create(requesterId, Role.ADMIN);
-        Participant member1 = Participant.create(UserId.of("member-1"), Role.MEMBER);
-        Participant member2 = Participant.create(UserId.of("member-2"), Role.MEMBER);
+        Participant member1 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000003"), Role.MEMBER);
+        Participant member2 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000004"), Role.MEMBER);
 
         List<Participant> participants = new ArrayList<>(List.of(admin, member1, member2));
         chat = GroupChat.create(chatId, participants, "Test Group");
@@ -79,13 +82,14 @@ class AddParticipantUseCaseTest {
                 "The new user should be included in the response participants list");
 
         verify(groupChatRepository).save(chat);
+        verify(membershipCache).invalidate(chatId);
     }
 
     @Test
     void addParticipant_requesterNotAdmin() {
         // given: requester is not admin in this group
-        Participant admin = Participant.create(UserId.of("someone-else"), Role.ADMIN);
-        Participant member1 = Participant.create(UserId.of("member-1"), Role.MEMBER);
+        Participant admin = Participant.create(UserId.of("00000000-0000-0000-0000-000000000006"), Role.ADMIN);
+        Participant member1 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000003"), Role.MEMBER);
         Participant requesterAsMember = Participant.create(requesterId, Role.MEMBER);
 
         chat = GroupChat.create(chatId,
@@ -108,7 +112,7 @@ class AddParticipantUseCaseTest {
     void addParticipant_alreadyExists() {
         // given: newUser is already in the group
         Participant admin = Participant.create(requesterId, Role.ADMIN);
-        Participant member1 = Participant.create(UserId.of("member-1"), Role.MEMBER);
+        Participant member1 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000003"), Role.MEMBER);
         Participant newParticipant = Participant.create(newUserId, Role.MEMBER);
 
         chat = GroupChat.create(chatId,
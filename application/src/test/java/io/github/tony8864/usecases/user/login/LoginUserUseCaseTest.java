@@ -1,6 +1,7 @@
 package io.github.tony8864.usecases.user.login;
 
 import io.github.tony8864.entities.user.*;
+import io.github.tony8864.user.common.PresenceRegistry;
 import io.github.tony8864.user.usecase.login.exception.InvalidCredentialsException;
 import io.github.tony8864.common.UserNotFoundException;
 import io.github.tony8864.user.repository.UserRepository;
@@ -23,11 +24,12 @@ class LoginUserUseCaseTest {
     private UserRepository userRepository;
     private PasswordHasher passwordHasher;
     private TokenService tokenService;
+    private PresenceRegistry presenceRegistry;
     private LoginUserUseCase useCase;
 
     private final Email email = Email.of("test@example.com");
     private final PasswordHash hash = PasswordHash.newHash("hashed-password");
-    private final UserId userId = UserId.of("user-1");
+    private final UserId userId = UserId.of("00000000-0000-0000-0000-000000000001");
     private User user;
 
     @BeforeEach
@@ -35,7 +37,8 @@ class LoginUserUseCaseTest {
         userRepository = mock(UserRepository.class);
         passwordHasher = mock(PasswordHasher.class);
         tokenService = mock(TokenService.class);
-        useCase = new LoginUserUseCase(userRepository, passwordHasher, tokenService);
+        presenceRegistry = mock(PresenceRegistry.class);
+        useCase = new LoginUserUseCase(userRepository, passwordHasher, tokenService, presenceRegistry);
 
         user = User.create(userId, "alice", email, hash);
     }
@@ -58,6 +61,7 @@ class LoginUserUseCaseTest {
 
         when(tokenService.generate(any(UserClaims.class), eq(Duration.ofHours(1))))
                 .thenReturn("jwt-token");
+        when(presenceRegistry.find(testUser.getUserId())).thenReturn(Optional.of(PresenceStatus.ONLINE));
 
         // Act
         AuthenticatedUser result = useCase.login(request);
@@ -68,8 +72,10 @@ class LoginUserUseCaseTest {
         assertEquals("test@example.com", result.email());
         assertEquals("jwt-token", result.token());
 
-        verify(userRepository).save(testUser);
-        assertEquals(PresenceStatus.ONLINE, testUser.getStatus());
+        verify(presenceRegistry).loggedIn(testUser.getUserId());
+        verify(userRepository, never()).save(any());
+        assertEquals("ONLINE", result.presenceStatus());
+        assertEquals(PresenceStatus.OFFLINE, testUser.getStatus());
     }
 
     @Test
@@ -94,6 +100,7 @@ class LoginUserUseCaseTest {
         assertThrows(InvalidCredentialsException.class, () -> useCase.login(request));
 
         verify(userRepository, never()).save(any());
+        verifyNoInteractions(presenceRegistry);
         verify(tokenService, never()).generate(any(), any());
     }
 }
\ No newline at end of file
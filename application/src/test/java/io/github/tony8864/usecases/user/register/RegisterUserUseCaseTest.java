@@ -50,7 +50,7 @@ class RegisterUserUseCaseTest {
 
         // verify repo.save() was called with a User containing the hashed password
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
+        verify(userRepository).add(userCaptor.capture());
 
         User saved = userCaptor.getValue();
         assertEquals("alice", saved.getUsername());
@@ -71,6 +71,6 @@ class RegisterUserUseCaseTest {
         assertThrows(UsernameAlreadyExistsException.class, () -> useCase.register(request));
 
         // verify that save() was never called
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).add(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package io.github.tony8864.user.common;
+
+import io.github.tony8864.entities.user.PresenceStatus;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PresenceRegistryTest {
+    private UserRepository userRepository;
+    private Clock clock;
+    private PresenceRegistry registry;
+
+    private final UserId alice = UserId.of("00000000-0000-0000-0000-000000000001");
+    private final UserId bob = UserId.of("00000000-0000-0000-0000-000000000002");
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        registry = new PresenceRegistry(userRepository, Duration.ofMinutes(5), Duration.ofSeconds(30), clock);
+    }
+
+    @Test
+    void loginStorm_shouldBecomeSingleWrite() {
+        for (int i = 0; i < 1000; i++) {
+            registry.loggedIn(alice);
+            registry.loggedIn(bob);
+        }
+
+        assertEquals(2, registry.flush());
+        verify(userRepository).updateStatuses(registry.getNodeId(), Map.of(alice, PresenceStatus.ONLINE, bob, PresenceStatus.ONLINE));
+
+        registry.loggedIn(alice);
+        assertEquals(0, registry.flush());
+        verify(userRepository, times(1)).updateStatuses(any(), any());
+    }
+
+    @Test
+    void user_shouldStayOnlineUntilLastSessionDisconnects() {
+        registry.connected(alice, "s1");
+        registry.connected(alice, "s2");
+        registry.flush();
+
+        registry.disconnected(alice, "s1");
+        assertEquals(Optional.of(PresenceStatus.ONLINE), registry.find(alice));
+
+        registry.disconnected(alice, "s2");
+        assertEquals(Optional.of(PresenceStatus.OFFLINE), registry.find(alice));
+
+        registry.flush();
+        verify(userRepository).updateStatuses(registry.getNodeId(), Map.of(alice, PresenceStatus.OFFLINE));
+        assertEquals(Optional.empty(), registry.find(alice));
+        assertEquals(0, registry.getTrackedUsers());
+    }
+
+    @Test
+    void reconnectBetweenFlushes_shouldNotWrite() {
+        registry.connected(alice, "s1");
+        registry.flush();
+
+        registry.disconnected(alice, "s1");
+        registry.connected(alice, "s2");
+
+        assertEquals(0, registry.flush());
+        verify(userRepository, times(1)).updateStatuses(any(), any());
+    }
+
+    @Test
+    void idleSession_shouldGoAwayAndComeBackOnHeartbeat() {
+        registry.connected(alice, "s1");
+        registry.loggedIn(bob);
+
+        when(clock.millis()).thenReturn(Duration.ofMinutes(5).toMillis());
+        registry.sweep();
+
+        assertEquals(Optional.of(PresenceStatus.AWAY), registry.find(alice));
+        assertEquals(Optional.of(PresenceStatus.OFFLINE), registry.find(bob));
+
+        registry.heartbeat(alice, "s1");
+        assertEquals(Optional.of(PresenceStatus.ONLINE), registry.find(alice));
+    }
+
+    @Test
+    void failedFlush_shouldRetryOnNextFlush() {
+        registry.loggedIn(alice);
+        doThrow(new IllegalStateException("db down")).doReturn(Map.of()).when(userRepository).updateStatuses(any(), any());
+
+        assertThrows(IllegalStateException.class, () -> registry.flush());
+        assertEquals(1, registry.flush());
+        verify(userRepository, times(2)).updateStatuses(registry.getNodeId(), Map.of(alice, PresenceStatus.ONLINE));
+    }
+
+    @Test
+    void loggedOut_shouldBeWrittenEvenForUntrackedUser() {
+        registry.loggedOut(alice);
+
+        registry.flush();
+
+        verify(userRepository).updateStatuses(registry.getNodeId(), Map.of(alice, PresenceStatus.OFFLINE));
+    }
+
+    @Test
+    void tick_shouldKeepNodeAliveAndExpireOthers() {
+        when(userRepository.touchNode(registry.getNodeId())).thenReturn(true);
+
+        registry.tick();
+
+        verify(userRepository).touchNode(registry.getNodeId());
+        verify(userRepository).expireNodes(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void nodeExpiredDuringPause_shouldRewriteEverythingItTracks() {
+        registry.connected(alice, "s1");
+        registry.connected(bob, "s2");
+        registry.flush();
+
+        when(userRepository.touchNode(registry.getNodeId())).thenReturn(false);
+        registry.heartbeat();
+
+        assertEquals(2, registry.flush());
+        verify(userRepository, times(2)).updateStatuses(registry.getNodeId(), Map.of(alice, PresenceStatus.ONLINE, bob, PresenceStatus.ONLINE));
+    }
+}
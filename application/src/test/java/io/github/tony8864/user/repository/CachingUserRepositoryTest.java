@@ -0,0 +1,109 @@
+package io.github.tony8864.user.repository;
+
+import io.github.tony8864.entities.user.Email;
+import io.github.tony8864.entities.user.PasswordHash;
+import io.github.tony8864.entities.user.PresenceStatus;
+import io.github.tony8864.entities.user.User;
+import io.github.tony8864.entities.user.UserId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingUserRepositoryTest {
+    private UserRepository delegate;
+    private Clock clock;
+    private CachingUserRepository repository;
+
+    private final UserId aliceId = UserId.of("00000000-0000-0000-0000-000000000001");
+    private final UserId bobId = UserId.of("00000000-0000-0000-0000-000000000007");
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(UserRepository.class);
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        repository = new CachingUserRepository(delegate, 1, Duration.ofMinutes(5), clock);
+
+        alice = User.create(aliceId, "alice", Email.of("alice@example.com"), PasswordHash.newHash("hash"));
+        bob = User.create(bobId, "bob", Email.of("bob@example.com"), PasswordHash.newHash("hash"));
+        when(delegate.findById(aliceId)).thenReturn(Optional.of(alice));
+        when(delegate.findById(bobId)).thenReturn(Optional.of(bob));
+    }
+
+    @Test
+    void findByIdShouldHitCacheAfterFirstLoad() {
+        assertEquals("alice", repository.findById(aliceId).orElseThrow().getUsername());
+        assertEquals("alice", repository.findById(aliceId).orElseThrow().getUsername());
+
+        verify(delegate, times(1)).findById(aliceId);
+        assertEquals(1, repository.getHits());
+        assertEquals(1, repository.getMisses());
+    }
+
+    @Test
+    void cachedUsersShouldNotShareMutableState() {
+        repository.findById(aliceId).orElseThrow().setPresenceStatus(PresenceStatus.ONLINE);
+
+        assertEquals(PresenceStatus.OFFLINE, repository.findById(aliceId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void findByIdShouldReloadAfterTtl() {
+        repository.findById(aliceId);
+        when(clock.millis()).thenReturn(Duration.ofMinutes(5).toMillis());
+        repository.findById(aliceId);
+
+        verify(delegate, times(2)).findById(aliceId);
+        assertEquals(1, repository.getEvictions());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedUserWhenFull() {
+        repository.findById(aliceId);
+        repository.findById(bobId);
+        repository.findById(aliceId);
+
+        verify(delegate, times(2)).findById(aliceId);
+        assertEquals(1, repository.getSize());
+    }
+
+    @Test
+    void saveShouldWriteThrough() {
+        repository.findById(aliceId);
+        alice.setPresenceStatus(PresenceStatus.ONLINE);
+
+        repository.save(alice);
+
+        verify(delegate).save(alice);
+        assertEquals(PresenceStatus.ONLINE, repository.findById(aliceId).orElseThrow().getStatus());
+        verify(delegate, times(1)).findById(aliceId);
+    }
+
+    @Test
+    void deleteShouldEvictUser() {
+        repository.findById(aliceId);
+
+        repository.delete(alice);
+        when(delegate.findById(aliceId)).thenReturn(Optional.empty());
+
+        verify(delegate).delete(alice);
+        assertTrue(repository.findById(aliceId).isEmpty());
+    }
+
+    @Test
+    void findStatusShouldReadThroughEvenWhenUserIsCached() {
+        repository.findById(aliceId);
+        when(delegate.findStatus(aliceId)).thenReturn(Optional.of(PresenceStatus.ONLINE));
+
+        assertEquals(Optional.of(PresenceStatus.ONLINE), repository.findStatus(aliceId));
+        verify(delegate).findStatus(aliceId);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.tony8864.user.usecase.getpresence;
+
+import io.github.tony8864.common.UserNotFoundException;
+import io.github.tony8864.entities.user.PresenceStatus;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.user.common.PresenceRegistry;
+import io.github.tony8864.user.repository.UserRepository;
+import io.github.tony8864.user.usecase.getpresence.dto.GetPresenceResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GetPresenceUseCaseTest {
+    private PresenceRegistry presenceRegistry;
+    private UserRepository userRepository;
+    private GetPresenceUseCase useCase;
+
+    private final UserId userId = UserId.of("00000000-0000-0000-0000-000000000001");
+
+    @BeforeEach
+    void setUp() {
+        presenceRegistry = mock(PresenceRegistry.class);
+        userRepository = mock(UserRepository.class);
+        useCase = new GetPresenceUseCase(presenceRegistry, userRepository);
+    }
+
+    @Test
+    void get_shouldServeTrackedUserFromMemory() {
+        when(presenceRegistry.find(userId)).thenReturn(Optional.of(PresenceStatus.ONLINE));
+
+        GetPresenceResponse response = useCase.get(userId.getValue());
+
+        assertEquals("ONLINE", response.status());
+        verify(userRepository, never()).findStatus(any());
+    }
+
+    @Test
+    void get_localOfflineOrAway_shouldDeferToStatusAcrossNodes() {
+        when(userRepository.findStatus(userId)).thenReturn(Optional.of(PresenceStatus.ONLINE));
+
+        when(presenceRegistry.find(userId)).thenReturn(Optional.of(PresenceStatus.OFFLINE));
+        assertEquals("ONLINE", useCase.get(userId.getValue()).status());
+
+        when(presenceRegistry.find(userId)).thenReturn(Optional.of(PresenceStatus.AWAY));
+        assertEquals("ONLINE", useCase.get(userId.getValue()).status());
+    }
+
+    @Test
+    void get_shouldFallBackToStoredStatus() {
+        when(presenceRegistry.find(userId)).thenReturn(Optional.empty());
+        when(userRepository.findStatus(userId)).thenReturn(Optional.of(PresenceStatus.OFFLINE));
+
+        assertEquals("OFFLINE", useCase.get(userId.getValue()).status());
+    }
+
+    @Test
+    void get_shouldThrowIfUserNotFound() {
+        when(presenceRegistry.find(userId)).thenReturn(Optional.empty());
+        when(userRepository.findStatus(userId)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> useCase.get(userId.getValue()));
+    }
+}
@@ -1,9 +1,9 @@
 package io.github.tony8864.user.usecase.logout;
 
 import io.github.tony8864.common.UserNotFoundException;
-import io.github.tony8864.entities.user.PresenceStatus;
 import io.github.tony8864.entities.user.User;
 import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.user.common.PresenceRegistry;
 import io.github.tony8864.user.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +14,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 class LogoutUseCaseTest {
     private UserRepository userRepository;
+    private PresenceRegistry presenceRegistry;
     private LogoutUseCase useCase;
 
     private UserId userId;
@@ -22,21 +23,22 @@ class LogoutUseCaseTest {
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
-        useCase = new LogoutUseCase(userRepository);
+        presenceRegistry = mock(PresenceRegistry.class);
+        useCase = new LogoutUseCase(userRepository, presenceRegistry);
 
-        userId = UserId.of("user-1");
+        userId = UserId.of("00000000-0000-0000-0000-000000000001");
         user = mock(User.class);
         when(user.getUserId()).thenReturn(userId);
     }
 
     @Test
-    void logout_shouldSetStatusOfflineAndSave() {
+    void logout_shouldMarkUserOfflineWithoutSaving() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         useCase.logout(userId.getValue());
 
-        verify(user).setPresenceStatus(PresenceStatus.OFFLINE);
-        verify(userRepository).save(user);
+        verify(presenceRegistry).loggedOut(userId);
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -46,5 +48,6 @@ class LogoutUseCaseTest {
         assertThrows(UserNotFoundException.class, () -> useCase.logout(userId.getValue()));
 
         verify(userRepository, never()).save(any());
+        verifyNoInteractions(presenceRegistry);
     }
 }
\ No newline at end of file
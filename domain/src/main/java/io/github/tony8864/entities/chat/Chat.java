@@ -0,0 +1,11 @@
+package io.github.tony8864.entities.chat;
+
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+
+public interface Chat {
+    ChatId getChatId();
+    boolean canSendMessage(UserId userId);
+    void updateLastMessage(MessageId messageId);
+    MessageId getLastMessageId();
+}
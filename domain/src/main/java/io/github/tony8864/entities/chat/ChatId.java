@@ -1,25 +1,39 @@
 package io.github.tony8864.entities.chat;
 
-import java.util.Objects;
+import io.github.tony8864.entities.common.UuidCodec;
+import io.github.tony8864.entities.common.UuidV7;
+
 import java.util.UUID;
 
 public class ChatId {
-    private final String value;
-
-    private ChatId(String value) {
-        this.value = value;
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+    private final int hash;
+
+    private ChatId(long mostSignificantBits, long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        this.hash = UuidCodec.hash(mostSignificantBits, leastSignificantBits);
     }
 
     public static ChatId newId() {
-        return new ChatId(UUID.randomUUID().toString());
+        return of(UuidV7.next());
     }
 
     public static ChatId of(String value) {
-        return new ChatId(value);
+        return new ChatId(UuidCodec.parseMostSignificantBits(value), UuidCodec.parseLeastSignificantBits(value));
+    }
+
+    public static ChatId of(UUID uuid) {
+        return new ChatId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public UUID toUuid() {
+        return new UUID(mostSignificantBits, leastSignificantBits);
     }
 
     public String getValue() {
-        return value;
+        return UuidCodec.format(mostSignificantBits, leastSignificantBits);
     }
 
     @Override
@@ -29,11 +43,12 @@ public class ChatId {
         if (obj == null || getClass() != obj.getClass()) return false;
 
         ChatId chatId = (ChatId) obj;
-        return Objects.equals(chatId.value, this.value);
+        return chatId.mostSignificantBits == this.mostSignificantBits
+                && chatId.leastSignificantBits == this.leastSignificantBits;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return hash;
     }
 }
@@ -0,0 +1,6 @@
+package io.github.tony8864.entities.chat;
+
+public enum ChatType {
+    DIRECT,
+    GROUP
+}
@@ -7,7 +7,7 @@ import io.github.tony8864.entities.user.UserId;
 import java.time.Instant;
 import java.util.List;
 
-public class DirectChat {
+public class DirectChat implements Chat {
     private final ChatId chatId;
     private final List<UserId> participants;
     private final Instant createdAt;
@@ -24,10 +24,12 @@ public class DirectChat {
         return new DirectChat(chatId, participants);
     }
 
+    @Override
     public void updateLastMessage(MessageId messageId) {
         this.lastMessageId = messageId;
     }
 
+    @Override
     public boolean canSendMessage(UserId userId) {
         return participants.contains(userId);
     }
@@ -36,6 +38,7 @@ public class DirectChat {
         return participants;
     }
 
+    @Override
     public ChatId getChatId() {
         return chatId;
     }
@@ -44,6 +47,7 @@ public class DirectChat {
         return createdAt;
     }
 
+    @Override
     public MessageId getLastMessageId() {
         return lastMessageId;
     }
@@ -1,6 +1,7 @@
 package io.github.tony8864.entities.chat;
 
 import io.github.tony8864.entities.participant.Participant;
+import io.github.tony8864.entities.participant.Role;
 import io.github.tony8864.entities.user.UserId;
 import io.github.tony8864.exceptions.chat.GroupChatDeletedException;
 import io.github.tony8864.entities.message.MessageId;
@@ -11,21 +12,30 @@ import io.github.tony8864.exceptions.common.UnauthorizedOperationException;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-public class GroupChat {
+public class GroupChat implements Chat {
     private final ChatId chatId;
-    private final List<Participant> participants;
+    private final Map<UserId, Role> participants;
     private final Instant createdAt;
+    private final Map<UserId, Participant> addedParticipants = new LinkedHashMap<>();
+    private final Set<UserId> removedParticipants = new LinkedHashSet<>();
 
     private String groupName;
     private GroupChatStatus state;
     private MessageId lastMessageId;
+    private int adminCount;
 
-    private GroupChat(ChatId chatId, List<Participant> participants, String groupName) {
+    private GroupChat(ChatId chatId, Map<UserId, Role> participants, int adminCount, String groupName) {
         this.chatId = chatId;
         this.participants = participants;
+        this.adminCount = adminCount;
         this.groupName = groupName;
         this.createdAt = Instant.now();
         this.state = GroupChatStatus.ACTIVE;
@@ -35,23 +45,35 @@ public class GroupChat {
         if (groupName == null || groupName.isBlank()) {
             throw new InvalidGroupException("GroupChat cannot have an empty name");
         }
-        if (participants == null || participants.size() < 3) {
+        if (participants == null) {
             throw new InvalidGroupException("GroupChat must be created with at least 3 participants");
         }
-        boolean hasAdmin = participants.stream().anyMatch(Participant::isAdmin);
-        if (!hasAdmin) {
+
+        Map<UserId, Role> roles = new LinkedHashMap<>();
+        int adminCount = 0;
+        for (Participant participant : participants) {
+            if (roles.putIfAbsent(participant.getUserId(), participant.getRole()) == null && participant.isAdmin()) {
+                adminCount++;
+            }
+        }
+
+        if (roles.size() < 3) {
+            throw new InvalidGroupException("GroupChat must be created with at least 3 participants");
+        }
+        if (adminCount == 0) {
             throw new InvalidGroupException("GroupChat must have at least one ADMIN");
         }
-        return new GroupChat(chatId, new ArrayList<>(participants), groupName);
+        return new GroupChat(chatId, roles, adminCount, groupName);
     }
 
+    @Override
     public void updateLastMessage(MessageId messageId) {
         this.lastMessageId = messageId;
     }
 
+    @Override
     public boolean canSendMessage(UserId userId) {
-        return participants.stream()
-                .anyMatch(p -> p.getUserId().equals(userId));
+        return isParticipant(userId);
     }
 
     public void rename(String newGroupName) {
@@ -63,40 +85,54 @@ public class GroupChat {
 
     public void addParticipant(UserId userId, Participant participant) {
         requireAdmin(userId);
-        if (participants.contains(participant)) {
+        if (isParticipant(participant.getUserId())) {
             throw new UserAlreadyParticipantException();
         }
-        participants.add(participant);
+        participants.put(participant.getUserId(), participant.getRole());
+        if (participant.isAdmin()) {
+            adminCount++;
+        }
+        removedParticipants.remove(participant.getUserId());
+        addedParticipants.put(participant.getUserId(), participant);
         updateState();
     }
 
     public void removeParticipant(UserId requesterId, UserId targetId) {
         requireAdmin(requesterId);
 
-        Participant toRemove = participants.stream()
-                .filter(p -> p.getUserId().equals(targetId))
-                .findFirst()
-                .orElseThrow(() -> new UserNotInChatException(targetId.getValue()));
-
-        participants.remove(toRemove);
+        Role role = participants.get(targetId);
+        if (role == null) {
+            throw new UserNotInChatException(targetId.getValue());
+        }
 
-        if (!hasAtLeastOneAdmin()) {
+        boolean removingAdmin = role == Role.ADMIN;
+        if (removingAdmin && adminCount == 1) {
             throw new InvalidGroupException("GroupChat must have at least one ADMIN");
         }
 
+        participants.remove(targetId);
+        if (removingAdmin) {
+            adminCount--;
+        }
+        if (addedParticipants.remove(targetId) == null) {
+            removedParticipants.add(targetId);
+        }
+
         updateState();
     }
 
-    private void requireAdmin(UserId userId) {
-        participants.stream()
-                .filter(p -> p.getUserId().equals(userId))
-                .findFirst()
-                .filter(Participant::isAdmin)
-                .orElseThrow(() -> new UnauthorizedOperationException("Only admins can manage participants"));
+    public boolean isParticipant(UserId userId) {
+        return participants.containsKey(userId);
     }
 
-    private boolean hasAtLeastOneAdmin() {
-        return participants.stream().anyMatch(Participant::isAdmin);
+    public boolean isAdmin(UserId userId) {
+        return participants.get(userId) == Role.ADMIN;
+    }
+
+    private void requireAdmin(UserId userId) {
+        if (!isAdmin(userId)) {
+            throw new UnauthorizedOperationException("Only admins can manage participants");
+        }
     }
 
     private void updateState() {
@@ -111,12 +147,32 @@ public class GroupChat {
         }
     }
 
+    @Override
     public ChatId getChatId() {
         return chatId;
     }
 
     public List<Participant> getParticipants() {
-        return Collections.unmodifiableList(participants);
+        List<Participant> result = new ArrayList<>(participants.size());
+        participants.forEach((userId, role) -> result.add(Participant.create(userId, role)));
+        return Collections.unmodifiableList(result);
+    }
+
+    public int getParticipantCount() {
+        return participants.size();
+    }
+
+    public Collection<Participant> getAddedParticipants() {
+        return Collections.unmodifiableCollection(addedParticipants.values());
+    }
+
+    public Set<UserId> getRemovedParticipants() {
+        return Collections.unmodifiableSet(removedParticipants);
+    }
+
+    public void clearParticipantChanges() {
+        addedParticipants.clear();
+        removedParticipants.clear();
     }
 
     public String getGroupName() {
@@ -127,6 +183,7 @@ public class GroupChat {
         return createdAt;
     }
 
+    @Override
     public MessageId getLastMessageId() {
         return lastMessageId;
     }
@@ -0,0 +1,76 @@
+package io.github.tony8864.entities.common;
+
+import io.github.tony8864.exceptions.common.InvalidIdentifierException;
+
+public final class UuidCodec {
+    private static final int LENGTH = 36;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private UuidCodec() {
+    }
+
+    public static long parseMostSignificantBits(CharSequence value) {
+        requireShape(value);
+        return parseHex(value, 0, 8) << 32
+                | parseHex(value, 9, 13) << 16
+                | parseHex(value, 14, 18);
+    }
+
+    public static long parseLeastSignificantBits(CharSequence value) {
+        requireShape(value);
+        return parseHex(value, 19, 23) << 48
+                | parseHex(value, 24, 36);
+    }
+
+    public static String format(long mostSignificantBits, long leastSignificantBits) {
+        char[] chars = new char[LENGTH];
+        writeHex(chars, 0, mostSignificantBits >>> 32, 8);
+        chars[8] = '-';
+        writeHex(chars, 9, mostSignificantBits >>> 16, 4);
+        chars[13] = '-';
+        writeHex(chars, 14, mostSignificantBits, 4);
+        chars[18] = '-';
+        writeHex(chars, 19, leastSignificantBits >>> 48, 4);
+        chars[23] = '-';
+        writeHex(chars, 24, leastSignificantBits, 12);
+        return new String(chars);
+    }
+
+    public static int hash(long mostSignificantBits, long leastSignificantBits) {
+        long bits = mostSignificantBits ^ leastSignificantBits;
+        return (int) (bits >> 32) ^ (int) bits;
+    }
+
+    private static void requireShape(CharSequence value) {
+        if (value == null
+                || value.length() != LENGTH
+                || value.charAt(8) != '-'
+                || value.charAt(13) != '-'
+                || value.charAt(18) != '-'
+                || value.charAt(23) != '-') {
+            throw new InvalidIdentifierException(value);
+        }
+    }
+
+    private static long parseHex(CharSequence value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result = result << 4 | digit(value, value.charAt(i));
+        }
+        return result;
+    }
+
+    private static int digit(CharSequence value, char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        throw new InvalidIdentifierException(value);
+    }
+
+    private static void writeHex(char[] chars, int offset, long bits, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = HEX[(int) (bits & 0xF)];
+            bits >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.tony8864.entities.common;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class UuidV7 {
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long COUNTER_SEED_MASK = COUNTER_MASK >>> 1;
+
+    private static final UuidV7 INSTANCE = new UuidV7();
+
+    private final AtomicLong last = new AtomicLong();
+
+    UuidV7() {
+    }
+
+    public static UUID next() {
+        return INSTANCE.generate(System.currentTimeMillis());
+    }
+
+    // unix_ts_ms and rand_a are treated as one counter, so ids stay strictly increasing
+    // within a millisecond and across backward clock steps (RFC 9562, method 3)
+    UUID generate(long epochMillis) {
+        long fresh = epochMillis << COUNTER_BITS;
+        long state;
+        while (true) {
+            long previous = last.get();
+            state = fresh > previous
+                    ? fresh | (ThreadLocalRandom.current().nextLong() & COUNTER_SEED_MASK)
+                    : previous + 1;
+            if (last.compareAndSet(previous, state)) {
+                break;
+            }
+        }
+
+        long msb = (state >>> COUNTER_BITS) << 16 | 0x7000L | (state & COUNTER_MASK);
+        long lsb = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
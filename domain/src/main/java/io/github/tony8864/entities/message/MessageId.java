@@ -1,25 +1,39 @@
 package io.github.tony8864.entities.message;
 
-import java.util.Objects;
+import io.github.tony8864.entities.common.UuidCodec;
+import io.github.tony8864.entities.common.UuidV7;
+
 import java.util.UUID;
 
 public class MessageId {
-    private final String value;
-
-    private MessageId(String value) {
-        this.value = value;
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+    private final int hash;
+
+    private MessageId(long mostSignificantBits, long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        this.hash = UuidCodec.hash(mostSignificantBits, leastSignificantBits);
     }
 
     public static MessageId newId() {
-        return new MessageId(UUID.randomUUID().toString());
+        return of(UuidV7.next());
     }
 
     public static MessageId of(String value) {
-        return new MessageId(value);
+        return new MessageId(UuidCodec.parseMostSignificantBits(value), UuidCodec.parseLeastSignificantBits(value));
+    }
+
+    public static MessageId of(UUID uuid) {
+        return new MessageId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public UUID toUuid() {
+        return new UUID(mostSignificantBits, leastSignificantBits);
     }
 
     public String getValue() {
-        return value;
+        return UuidCodec.format(mostSignificantBits, leastSignificantBits);
     }
 
     @Override
@@ -29,11 +43,12 @@ public class MessageId {
         if (obj == null || getClass() != obj.getClass()) return false;
 
         MessageId messageId = (MessageId) obj;
-        return Objects.equals(messageId.value, this.value);
+        return messageId.mostSignificantBits == this.mostSignificantBits
+                && messageId.leastSignificantBits == this.leastSignificantBits;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return hash;
     }
 }
@@ -1,25 +1,39 @@
 package io.github.tony8864.entities.user;
 
-import java.util.Objects;
+import io.github.tony8864.entities.common.UuidCodec;
+import io.github.tony8864.entities.common.UuidV7;
+
 import java.util.UUID;
 
 public class UserId {
 
-    private final String value;
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+    private final int hash;
 
-    private UserId(String value) {
-        this.value = value;
+    private UserId(long mostSignificantBits, long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        this.hash = UuidCodec.hash(mostSignificantBits, leastSignificantBits);
     }
 
     public static UserId newId() {
-        return new UserId(UUID.randomUUID().toString());
+        return of(UuidV7.next());
     }
 
     public static UserId of(String value) {
-        return new UserId(value);
+        return new UserId(UuidCodec.parseMostSignificantBits(value), UuidCodec.parseLeastSignificantBits(value));
+    }
+
+    public static UserId of(UUID uuid) {
+        return new UserId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public UUID toUuid() {
+        return new UUID(mostSignificantBits, leastSignificantBits);
     }
 
-    public String getValue() { return value; }
+    public String getValue() { return UuidCodec.format(mostSignificantBits, leastSignificantBits); }
 
     @Override
     public boolean equals(Object obj) {
@@ -28,16 +42,17 @@ public class UserId {
         if (obj == null || getClass() != obj.getClass()) return false;
 
         UserId userId = (UserId) obj;
-        return Objects.equals(userId.value, this.value);
+        return userId.mostSignificantBits == this.mostSignificantBits
+                && userId.leastSignificantBits == this.leastSignificantBits;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return hash;
     }
 
     @Override
     public String toString() {
-        return value;
+        return getValue();
     }
 }
@@ -0,0 +1,9 @@
+package io.github.tony8864.exceptions.common;
+
+import io.github.tony8864.exceptions.DomainException;
+
+public class InvalidIdentifierException extends DomainException {
+    public InvalidIdentifierException(CharSequence value) {
+        super("Invalid identifier: " + value);
+    }
+}
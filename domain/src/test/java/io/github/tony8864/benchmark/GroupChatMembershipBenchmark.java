@@ -0,0 +1,91 @@
+package io.github.tony8864.benchmark;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.participant.Participant;
+import io.github.tony8864.entities.participant.Role;
+import io.github.tony8864.entities.user.UserId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn -pl domain test -Dtest=GroupChatMembershipBenchmark -Dbenchmark=true
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupChatMembershipBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    public int members;
+
+    private GroupChat chat;
+    private UserId adminId;
+    private UserId lastMemberId;
+    private UserId strangerId;
+    private Participant newcomer;
+
+    @Setup
+    public void setUp() {
+        List<Participant> participants = new ArrayList<>(members);
+        adminId = UserId.newId();
+        participants.add(Participant.create(adminId, Role.ADMIN));
+        for (int i = 1; i < members; i++) {
+            lastMemberId = UserId.newId();
+            participants.add(Participant.create(lastMemberId, Role.MEMBER));
+        }
+        chat = GroupChat.create(ChatId.newId(), participants, "benchmark");
+        strangerId = UserId.newId();
+        newcomer = Participant.create(UserId.newId(), Role.MEMBER);
+    }
+
+    @Benchmark
+    public boolean canSendMessageAsLastMember() {
+        return chat.canSendMessage(lastMemberId);
+    }
+
+    @Benchmark
+    public boolean canSendMessageAsStranger() {
+        return chat.canSendMessage(strangerId);
+    }
+
+    @Benchmark
+    public boolean isAdmin() {
+        return chat.isAdmin(adminId);
+    }
+
+    @Benchmark
+    public int addThenRemoveParticipant() {
+        chat.addParticipant(adminId, newcomer);
+        chat.removeParticipant(adminId, newcomer.getUserId());
+        chat.clearParticipantChanges();
+        return chat.getParticipantCount();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GroupChatMembershipBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
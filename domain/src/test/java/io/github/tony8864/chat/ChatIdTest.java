@@ -1,8 +1,11 @@
 package io.github.tony8864.chat;
 
 import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.exceptions.common.InvalidIdentifierException;
 import org.junit.jupiter.api.Test;
 
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ChatIdTest {
@@ -35,4 +38,19 @@ class ChatIdTest {
 
         assertNotEquals(id1, id2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldConvertToAndFromUuid() {
+        UUID uuid = UUID.randomUUID();
+        ChatId id = ChatId.of(uuid);
+
+        assertEquals(uuid, id.toUuid());
+        assertEquals(uuid.toString(), id.getValue());
+        assertEquals(id, ChatId.of(uuid.toString()));
+    }
+
+    @Test
+    void ofShouldRejectNonUuidValues() {
+        assertThrows(InvalidIdentifierException.class, () -> ChatId.of("not-a-uuid"));
+    }
+}
@@ -19,7 +19,7 @@ class DirectChatTest {
 
     @Test
     void createShouldSucceedWithTwoParticipants() {
-        ChatId chatId = ChatId.of("chat-1");
+        ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
         DirectChat chat = DirectChat.create(chatId, List.of(user1, user2));
 
         assertNotNull(chat);
@@ -31,22 +31,22 @@ class DirectChatTest {
 
     @Test
     void createShouldThrowExceptionIfLessThanTwoParticipants() {
-        ChatId chatId = ChatId.of("chat-2");
+        ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000022");
         assertThrows(IllegalParticipantsSizeForDirectChat.class,
                 () -> DirectChat.create(chatId, List.of(user1)));
     }
 
     @Test
     void createShouldThrowExceptionIfMoreThanTwoParticipants() {
-        ChatId chatId = ChatId.of("chat-3");
+        ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000023");
         assertThrows(IllegalParticipantsSizeForDirectChat.class,
                 () -> DirectChat.create(chatId, List.of(user1, user2, stranger)));
     }
 
     @Test
     void updateLastMessageShouldChangeLastMessageId() {
-        DirectChat chat = DirectChat.create(ChatId.of("chat-4"), List.of(user1, user2));
-        MessageId msg = MessageId.of("msg-1");
+        DirectChat chat = DirectChat.create(ChatId.of("00000000-0000-0000-0000-000000000024"), List.of(user1, user2));
+        MessageId msg = MessageId.of("00000000-0000-0000-0000-000000000018");
 
         chat.updateLastMessage(msg);
 
@@ -55,7 +55,7 @@ class DirectChatTest {
 
     @Test
     void canSendMessageShouldReturnTrueForParticipants() {
-        DirectChat chat = DirectChat.create(ChatId.of("chat-5"), List.of(user1, user2));
+        DirectChat chat = DirectChat.create(ChatId.of("00000000-0000-0000-0000-000000000025"), List.of(user1, user2));
 
         assertTrue(chat.canSendMessage(user1));
         assertTrue(chat.canSendMessage(user2));
@@ -63,7 +63,7 @@ class DirectChatTest {
 
     @Test
     void canSendMessageShouldReturnFalseForNonParticipant() {
-        DirectChat chat = DirectChat.create(ChatId.of("chat-6"), List.of(user1, user2));
+        DirectChat chat = DirectChat.create(ChatId.of("00000000-0000-0000-0000-000000000026"), List.of(user1, user2));
 
         assertFalse(chat.canSendMessage(stranger));
     }
@@ -71,7 +71,7 @@ class DirectChatTest {
     @Test
     void createdAtShouldBeCloseToNow() {
         Instant before = Instant.now();
-        DirectChat chat = DirectChat.create(ChatId.of("chat-7"), List.of(user1, user2));
+        DirectChat chat = DirectChat.create(ChatId.of("00000000-0000-0000-0000-000000000027"), List.of(user1, user2));
         Instant after = Instant.now();
 
         assertTrue(!chat.getCreatedAt().isBefore(before) && !chat.getCreatedAt().isAfter(after));
@@ -11,13 +11,14 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class GroupChatTest {
-    private final UserId adminId = UserId.of("admin-1");
-    private final UserId memberId = UserId.of("member-1");
-    private final UserId strangerId = UserId.of("stranger-1");
+    private final UserId adminId = UserId.of("00000000-0000-0000-0000-000000000008");
+    private final UserId memberId = UserId.of("00000000-0000-0000-0000-000000000003");
+    private final UserId strangerId = UserId.of("00000000-0000-0000-0000-000000000036");
 
     private final Participant admin = Participant.create(adminId, Role.ADMIN);
     private final Participant member = Participant.create(memberId, Role.MEMBER);
@@ -25,8 +26,8 @@ class GroupChatTest {
     @Test
     void createShouldSucceedWithValidData() {
         GroupChat chat = GroupChat.create(
-                ChatId.of("chat-1"),
-                new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("m2"), Role.MEMBER))),
+                ChatId.of("00000000-0000-0000-0000-000000000009"),
+                new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER))),
                 "Team Chat"
         );
 
@@ -36,27 +37,27 @@ class GroupChatTest {
     @Test
     void createShouldThrowWhenGroupNameIsInvalid() {
         assertThrows(InvalidGroupException.class,
-                () -> GroupChat.create(ChatId.of("chat-2"),
-                        new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("m2"), Role.MEMBER))),
+                () -> GroupChat.create(ChatId.of("00000000-0000-0000-0000-000000000022"),
+                        new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER))),
                         "   "));
     }
 
     @Test
     void createShouldThrowWhenNotEnoughParticipants() {
         assertThrows(InvalidGroupException.class,
-                () -> GroupChat.create(ChatId.of("chat-3"),
+                () -> GroupChat.create(ChatId.of("00000000-0000-0000-0000-000000000023"),
                         new ArrayList<>(List.of(admin, member)),
                         "Tiny Group"));
     }
 
     @Test
     void createShouldThrowWhenNoAdminPresent() {
-        Participant m1 = Participant.create(UserId.of("m1"), Role.MEMBER);
-        Participant m2 = Participant.create(UserId.of("m2"), Role.MEMBER);
-        Participant m3 = Participant.create(UserId.of("m3"), Role.MEMBER);
+        Participant m1 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000034"), Role.MEMBER);
+        Participant m2 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER);
+        Participant m3 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000035"), Role.MEMBER);
 
         assertThrows(InvalidGroupException.class,
-                () -> GroupChat.create(ChatId.of("chat-4"),
+                () -> GroupChat.create(ChatId.of("00000000-0000-0000-0000-000000000024"),
                         new ArrayList<>(List.of(m1, m2, m3)),
                         "No Admin Group"));
     }
@@ -64,24 +65,24 @@ class GroupChatTest {
     @Test
     void addParticipantShouldWorkForAdmin() {
         GroupChat chat = GroupChat.create(
-                ChatId.of("chat-5"),
-                new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("m2"), Role.MEMBER))),
+                ChatId.of("00000000-0000-0000-0000-000000000025"),
+                new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER))),
                 "Project"
         );
 
-        Participant newMember = Participant.create(UserId.of("m3"), Role.MEMBER);
+        Participant newMember = Participant.create(UserId.of("00000000-0000-0000-0000-000000000035"), Role.MEMBER);
         assertDoesNotThrow(() -> chat.addParticipant(adminId, newMember));
     }
 
     @Test
     void addParticipantShouldThrowIfNotAdmin() {
         GroupChat chat = GroupChat.create(
-                ChatId.of("chat-6"),
-                new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("m2"), Role.MEMBER))),
+                ChatId.of("00000000-0000-0000-0000-000000000026"),
+                new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER))),
                 "Project"
         );
 
-        Participant newMember = Participant.create(UserId.of("m3"), Role.MEMBER);
+        Participant newMember = Participant.create(UserId.of("00000000-0000-0000-0000-000000000035"), Role.MEMBER);
         assertThrows(UnauthorizedOperationException.class,
                 () -> chat.addParticipant(memberId, newMember));
     }
@@ -89,8 +90,8 @@ class GroupChatTest {
     @Test
     void addParticipantShouldThrowIfAlreadyParticipant() {
         GroupChat chat = GroupChat.create(
-                ChatId.of("chat-7"),
-                new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("m2"), Role.MEMBER))),
+                ChatId.of("00000000-0000-0000-0000-000000000027"),
+                new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER))),
                 "Group"
         );
 
@@ -100,9 +101,9 @@ class GroupChatTest {
 
     @Test
     void removeParticipantShouldWorkForAdmin() {
-        Participant m2 = Participant.create(UserId.of("m2"), Role.MEMBER);
+        Participant m2 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER);
         GroupChat chat = GroupChat.create(
-                ChatId.of("chat-8"),
+                ChatId.of("00000000-0000-0000-0000-000000000032"),
                 new ArrayList<>(List.of(admin, member, m2)),
                 "Group"
         );
@@ -112,9 +113,9 @@ class GroupChatTest {
 
     @Test
     void removeParticipantShouldThrowIfNotAdmin() {
-        Participant m2 = Participant.create(UserId.of("m2"), Role.MEMBER);
+        Participant m2 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER);
         GroupChat chat = GroupChat.create(
-                ChatId.of("chat-9"),
+                ChatId.of("00000000-0000-0000-0000-000000000033"),
                 new ArrayList<>(List.of(admin, member, m2)),
                 "Group"
         );
@@ -125,9 +126,9 @@ class GroupChatTest {
 
     @Test
     void removeParticipantShouldThrowIfNoAdminLeft() {
-        Participant m2 = Participant.create(UserId.of("m2"), Role.MEMBER);
+        Participant m2 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER);
         GroupChat chat = GroupChat.create(
-                ChatId.of("chat-10"),
+                ChatId.of("00000000-0000-0000-0000-000000000028"),
                 new ArrayList<>(List.of(admin, member, m2)),
                 "Group"
         );
@@ -139,9 +140,9 @@ class GroupChatTest {
 
     @Test
     void removeParticipantShouldThrowIfEmpty() {
-        Participant m2 = Participant.create(UserId.of("m2"), Role.MEMBER);
+        Participant m2 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER);
         GroupChat chat = GroupChat.create(
-                ChatId.of("chat-11"),
+                ChatId.of("00000000-0000-0000-0000-000000000029"),
                 new ArrayList<>(List.of(admin, member, m2)),
                 "Group"
         );
@@ -154,4 +155,63 @@ class GroupChatTest {
         assertThrows(InvalidGroupException.class,
                 () -> chat.removeParticipant(adminId, admin.getUserId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void participantChangesShouldTrackNetAdditionsAndRemovals() {
+        Participant m2 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER);
+        Participant m3 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000035"), Role.MEMBER);
+        GroupChat chat = GroupChat.create(
+                ChatId.of("00000000-0000-0000-0000-000000000030"),
+                new ArrayList<>(List.of(admin, member, m2)),
+                "Group"
+        );
+
+        chat.addParticipant(adminId, m3);
+        chat.removeParticipant(adminId, member.getUserId());
+        chat.removeParticipant(adminId, m3.getUserId());
+
+        assertTrue(chat.getAddedParticipants().isEmpty());
+        assertEquals(Set.of(memberId), chat.getRemovedParticipants());
+
+        chat.clearParticipantChanges();
+        assertTrue(chat.getRemovedParticipants().isEmpty());
+    }
+
+    @Test
+    void removeParticipantShouldLeaveChatUnchangedWhenLastAdminIsRemoved() {
+        Participant m2 = Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER);
+        GroupChat chat = GroupChat.create(
+                ChatId.of("00000000-0000-0000-0000-000000000031"),
+                new ArrayList<>(List.of(admin, member, m2)),
+                "Group"
+        );
+
+        assertThrows(InvalidGroupException.class,
+                () -> chat.removeParticipant(adminId, adminId));
+        assertEquals(3, chat.getParticipants().size());
+        assertTrue(chat.getRemovedParticipants().isEmpty());
+    }
+
+    @Test
+    void membershipChecksShouldReflectRoles() {
+        GroupChat chat = GroupChat.create(
+                ChatId.of("00000000-0000-0000-0000-000000000030"),
+                new ArrayList<>(List.of(admin, member, Participant.create(UserId.of("00000000-0000-0000-0000-000000000010"), Role.MEMBER))),
+                "Group"
+        );
+
+        assertTrue(chat.isParticipant(memberId));
+        assertFalse(chat.isParticipant(strangerId));
+        assertTrue(chat.isAdmin(adminId));
+        assertFalse(chat.isAdmin(memberId));
+        assertFalse(chat.isAdmin(strangerId));
+    }
+
+    @Test
+    void createShouldCountDistinctParticipants() {
+        assertThrows(InvalidGroupException.class,
+                () -> GroupChat.create(ChatId.of("00000000-0000-0000-0000-000000000031"),
+                        new ArrayList<>(List.of(admin, member, Participant.create(memberId, Role.MEMBER))),
+                        "Duplicates"));
+    }
+}
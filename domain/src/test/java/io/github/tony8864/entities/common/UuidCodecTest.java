@@ -0,0 +1,44 @@
+package io.github.tony8864.entities.common;
+
+import io.github.tony8864.exceptions.common.InvalidIdentifierException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidCodecTest {
+    @Test
+    void parseShouldMatchJdkUuid() {
+        String raw = "123e4567-E89B-12d3-a456-426614174000";
+        UUID expected = UUID.fromString(raw);
+
+        assertEquals(expected.getMostSignificantBits(), UuidCodec.parseMostSignificantBits(raw));
+        assertEquals(expected.getLeastSignificantBits(), UuidCodec.parseLeastSignificantBits(raw));
+    }
+
+    @Test
+    void formatShouldMatchJdkUuid() {
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = UUID.randomUUID();
+            assertEquals(uuid.toString(), UuidCodec.format(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        }
+    }
+
+    @Test
+    void hashShouldMatchJdkUuid() {
+        UUID uuid = UUID.randomUUID();
+
+        assertEquals(uuid.hashCode(), UuidCodec.hash(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+    }
+
+    @Test
+    void parseShouldRejectMalformedValues() {
+        assertThrows(InvalidIdentifierException.class, () -> UuidCodec.parseMostSignificantBits(null));
+        assertThrows(InvalidIdentifierException.class, () -> UuidCodec.parseMostSignificantBits("chat-1"));
+        assertThrows(InvalidIdentifierException.class,
+                () -> UuidCodec.parseMostSignificantBits("123e4567-e89b-12d3-a456+426614174000"));
+        assertThrows(InvalidIdentifierException.class,
+                () -> UuidCodec.parseLeastSignificantBits("123e4567-e89b-12d3-a456-42661417400g"));
+    }
+}
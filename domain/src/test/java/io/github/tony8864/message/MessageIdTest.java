@@ -1,8 +1,11 @@
 package io.github.tony8864.message;
 
 import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.exceptions.common.InvalidIdentifierException;
 import org.junit.jupiter.api.Test;
 
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MessageIdTest {
@@ -35,4 +38,19 @@ class MessageIdTest {
 
         assertNotEquals(id1, id2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldConvertToAndFromUuid() {
+        UUID uuid = UUID.randomUUID();
+        MessageId id = MessageId.of(uuid);
+
+        assertEquals(uuid, id.toUuid());
+        assertEquals(uuid.toString(), id.getValue());
+        assertEquals(id, MessageId.of(uuid.toString()));
+    }
+
+    @Test
+    void ofShouldRejectNonUuidValues() {
+        assertThrows(InvalidIdentifierException.class, () -> MessageId.of("not-a-uuid"));
+    }
+}
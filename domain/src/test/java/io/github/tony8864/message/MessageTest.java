@@ -13,9 +13,9 @@ import java.time.Instant;
 import static org.junit.jupiter.api.Assertions.*;
 
 class MessageTest {
-    private final MessageId messageId = MessageId.of("msg-1");
-    private final ChatId chatId = ChatId.of("chat-1");
-    private final UserId userId = UserId.of("user-1");
+    private final MessageId messageId = MessageId.of("00000000-0000-0000-0000-000000000018");
+    private final ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private final UserId userId = UserId.of("00000000-0000-0000-0000-000000000001");
 
     @Test
     void createShouldSucceedWithValidContent() {
@@ -1,8 +1,11 @@
 package io.github.tony8864.user;
 
 import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.exceptions.common.InvalidIdentifierException;
 import org.junit.jupiter.api.Test;
 
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UserIdTest {
@@ -35,4 +38,19 @@ class UserIdTest {
 
         assertNotEquals(id1, id2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldConvertToAndFromUuid() {
+        UUID uuid = UUID.randomUUID();
+        UserId id = UserId.of(uuid);
+
+        assertEquals(uuid, id.toUuid());
+        assertEquals(uuid.toString(), id.getValue());
+        assertEquals(id, UserId.of(uuid.toString()));
+    }
+
+    @Test
+    void ofShouldRejectNonUuidValues() {
+        assertThrows(InvalidIdentifierException.class, () -> UserId.of("not-a-uuid"));
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.tony8864.adapter;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.common.Receipt;
+import io.github.tony8864.message.common.ReceiptAck;
+import io.github.tony8864.message.common.ReceiptCursor;
+import io.github.tony8864.message.repository.ReceiptRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@AllArgsConstructor
+public class JdbcReceiptRepository implements ReceiptRepository {
+
+    private static final String LATEST = "ORDER BY m.created_at DESC, m.id DESC";
+
+    // each ack is placed by the stored message, and only counts if that message is in the acked chat;
+    // readers deleted since the ack are skipped so one stale row cannot fail the whole batch.
+    // every ack is also a delivery, so the read cursor never gets ahead of the delivered one
+    private static final String UPSERT_SQL =
+            "WITH acks (chat_id, user_id, message_id, is_read) AS (" +
+            "SELECT * FROM unnest(?::uuid[], ?::uuid[], ?::uuid[], ?::boolean[])), " +
+            "resolved AS (SELECT a.chat_id, a.user_id, " +
+            "(array_agg(m.created_at " + LATEST + "))[1] AS delivered_created_at, " +
+            "(array_agg(m.id " + LATEST + "))[1] AS delivered_message_id, " +
+            "(array_agg(m.created_at " + LATEST + ") FILTER (WHERE a.is_read))[1] AS read_created_at, " +
+            "(array_agg(m.id " + LATEST + ") FILTER (WHERE a.is_read))[1] AS read_message_id " +
+            "FROM acks a JOIN messages m ON m.id = a.message_id AND m.chat_id = a.chat_id " +
+            "WHERE EXISTS (SELECT 1 FROM users u WHERE u.id = a.user_id) " +
+            "GROUP BY a.chat_id, a.user_id) " +
+            "INSERT INTO chat_receipts AS r (chat_id, user_id, delivered_created_at, delivered_message_id, " +
+            "read_created_at, read_message_id, updated_at) " +
+            "SELECT chat_id, user_id, delivered_created_at, delivered_message_id, " +
+            "read_created_at, read_message_id, now() FROM resolved " +
+            // cursors only move forward, even when another node flushed a later one first
+            "ON CONFLICT (chat_id, user_id) DO UPDATE SET " +
+            advance("delivered_created_at", "delivered") + ", " +
+            advance("delivered_message_id", "delivered") + ", " +
+            advance("read_created_at", "read") + ", " +
+            advance("read_message_id", "read") + ", " +
+            "updated_at = now() " +
+            "RETURNING r.chat_id, r.user_id, r.delivered_created_at, r.delivered_message_id, " +
+            "r.read_created_at, r.read_message_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Receipt> upsertAll(Collection<ReceiptAck> acks) {
+        if (acks.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(UPSERT_SQL);
+            statement.setArray(1, con.createArrayOf("uuid", acks.stream().map(ack -> ack.chatId().toUuid()).toArray()));
+            statement.setArray(2, con.createArrayOf("uuid", acks.stream().map(ack -> ack.userId().toUuid()).toArray()));
+            statement.setArray(3, con.createArrayOf("uuid", acks.stream().map(ack -> ack.messageId().toUuid()).toArray()));
+            statement.setArray(4, con.createArrayOf("boolean", acks.stream().map(ReceiptAck::read).toArray()));
+            return statement;
+        }, (rs, rowNum) -> new Receipt(
+                ChatId.of(rs.getObject("chat_id", UUID.class)),
+                UserId.of(rs.getObject("user_id", UUID.class)),
+                cursor(rs, "delivered"),
+                cursor(rs, "read")
+        ));
+    }
+
+    private static String advance(String column, String cursor) {
+        return column + " = CASE WHEN r." + cursor + "_created_at IS NULL " +
+                "OR (EXCLUDED." + cursor + "_created_at, EXCLUDED." + cursor + "_message_id) " +
+                "> (r." + cursor + "_created_at, r." + cursor + "_message_id) " +
+                "THEN EXCLUDED." + column + " ELSE r." + column + " END";
+    }
+
+    private static ReceiptCursor cursor(ResultSet rs, String cursor) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp(cursor + "_created_at");
+        return createdAt == null
+                ? null
+                : new ReceiptCursor(createdAt.toInstant(), MessageId.of(rs.getObject(cursor + "_message_id", UUID.class)));
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.tony8864.adapter;
+
+import io.github.tony8864.chat.repository.ChatRepository;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.chat.ChatType;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.repository.SpringDataChatRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@AllArgsConstructor
+public class JpaChatRepository implements ChatRepository {
+
+    private final SpringDataChatRepository chatRepository;
+
+    @Override
+    public Optional<ChatType> findType(ChatId chatId) {
+        return chatRepository.findTypeById(chatId.toUuid())
+                .map(ChatType::valueOf);
+    }
+
+    @Override
+    public boolean isMember(ChatId chatId, UserId userId) {
+        return chatRepository.isMember(chatId.toUuid(), userId.toUuid());
+    }
+
+    @Override
+    public List<UserId> findMemberIds(ChatId chatId) {
+        return chatRepository.findMemberIds(chatId.toUuid())
+                .stream()
+                .map(UserId::of)
+                .toList();
+    }
+}
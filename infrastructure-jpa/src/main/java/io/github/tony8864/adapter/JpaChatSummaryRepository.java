@@ -0,0 +1,89 @@
+package io.github.tony8864.adapter;
+
+import io.github.tony8864.chat.repository.ChatSummaryRepository;
+import io.github.tony8864.chat.usecase.listchats.dto.ChatSummaryDto;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.user.UserId;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@AllArgsConstructor
+public class JpaChatSummaryRepository implements ChatSummaryRepository {
+
+    private static final int PREVIEW_LENGTH = 200;
+
+    // the user's chats are reached through chat_inbox and ordered by the one chats row a send moves,
+    // so a page costs one probe per chat the user is in and a send never writes per member;
+    // names and previews are only joined for the rows returned
+    private static final String INBOX_PAGE =
+            "SELECT c.id AS chat_id, c.last_message_at FROM chat_inbox ci " +
+            "JOIN chats c ON c.id = ci.chat_id WHERE ci.user_id = :userId ";
+
+    private static final String AFTER_MESSAGE_CURSOR =
+            "AND (c.last_message_at, c.id) < (:cursorAt, :cursorChatId) ";
+
+    private static final String AFTER_EMPTY_CHAT_CURSOR =
+            "AND (c.last_message_at, c.id) < (CAST('-infinity' AS timestamptz), :cursorChatId) ";
+
+    private static final String PAGE_ORDER_AND_LIMIT =
+            "ORDER BY c.last_message_at DESC, c.id DESC LIMIT :limit";
+
+    private static final String INBOX_QUERY =
+            "SELECT i.chat_id, CASE WHEN dc.id IS NULL THEN 'GROUP' ELSE 'DIRECT' END AS type, " +
+            "       COALESCE(gc.group_name, u.username) AS name, " +
+            "       LEFT(m.content, " + PREVIEW_LENGTH + ") AS last_message, m.created_at AS last_message_at " +
+            "FROM (%s) i " +
+            "LEFT JOIN direct_chats dc ON dc.id = i.chat_id " +
+            "LEFT JOIN users u ON u.id = CASE WHEN dc.user1_id = :userId THEN dc.user2_id ELSE dc.user1_id END " +
+            "LEFT JOIN group_chats gc ON gc.id = i.chat_id " +
+            "LEFT JOIN messages m ON m.id = COALESCE(dc.last_message_id, gc.last_message_id) " +
+            "ORDER BY i.last_message_at DESC, i.chat_id DESC";
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ChatSummaryDto> findInbox(UserId userId, Instant cursorLastMessageAt, ChatId cursorChatId, int limit) {
+        StringBuilder page = new StringBuilder(INBOX_PAGE);
+        if (cursorChatId != null) {
+            page.append(cursorLastMessageAt != null ? AFTER_MESSAGE_CURSOR : AFTER_EMPTY_CHAT_CURSOR);
+        }
+        page.append(PAGE_ORDER_AND_LIMIT);
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(INBOX_QUERY.formatted(page))
+                .unwrap(NativeQuery.class)
+                .addScalar("chat_id", StandardBasicTypes.UUID)
+                .addScalar("type", StandardBasicTypes.STRING)
+                .addScalar("name", StandardBasicTypes.STRING)
+                .addScalar("last_message", StandardBasicTypes.STRING)
+                .addScalar("last_message_at", StandardBasicTypes.INSTANT);
+
+        query.setParameter("userId", userId.toUuid());
+        query.setParameter("limit", limit);
+        if (cursorChatId != null) {
+            query.setParameter("cursorChatId", cursorChatId.toUuid());
+            if (cursorLastMessageAt != null) {
+                query.setParameter("cursorAt", cursorLastMessageAt);
+            }
+        }
+
+        return query.getResultList()
+                .stream()
+                .map(row -> new ChatSummaryDto(
+                        row[0].toString(),
+                        (String) row[1],
+                        (String) row[2],
+                        (String) row[3],
+                        (Instant) row[4]
+                ))
+                .toList();
+    }
+}
@@ -3,6 +3,7 @@ package io.github.tony8864.adapter;
 import io.github.tony8864.chat.repository.DirectChatRepository;
 import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.chat.DirectChat;
+import io.github.tony8864.entities.message.MessageId;
 import io.github.tony8864.entities.user.UserId;
 import io.github.tony8864.entity.DirectChatEntity;
 import io.github.tony8864.entity.MessageEntity;
@@ -14,9 +15,9 @@ import io.github.tony8864.repository.SpringDataUserRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 
 @Repository
@@ -30,39 +31,59 @@ public class JpaDirectChatRepository implements DirectChatRepository {
 
     @Override
     public Optional<DirectChat> findById(ChatId chatId) {
-        return chatRepository.findById(UUID.fromString(chatId.getValue()))
+        return chatRepository.findById(chatId.toUuid())
                 .map(directChatMapper::toDomain);
     }
 
     @Override
     public Optional<DirectChat> findByUsers(UserId user1, UserId user2) {
-        return chatRepository.findByUsers(UUID.fromString(user1.getValue()), UUID.fromString(user2.getValue()))
+        return chatRepository.findByUsers(user1.toUuid(), user2.toUuid())
                 .map(directChatMapper::toDomain);
     }
 
     @Override
     public List<DirectChat> findByParticipant(UserId userId) {
-        return chatRepository.findByParticipant(UUID.fromString(userId.getValue()))
+        return chatRepository.findByParticipant(userId.toUuid())
                 .stream()
                 .map(directChatMapper::toDomain)
                 .toList();
     }
 
+    @Override
+    public void add(DirectChat directChat) {
+        DirectChatEntity entity = toEntity(directChat);
+        entity.markNew();
+        chatRepository.save(entity);
+    }
+
     @Override
     public void save(DirectChat directChat) {
-        UserEntity user1 = userRepository.getReferenceById(UUID.fromString(directChat.getParticipants().get(0).getValue()));
-        UserEntity user2 = userRepository.getReferenceById(UUID.fromString(directChat.getParticipants().get(1).getValue()));
+        chatRepository.save(toEntity(directChat));
+    }
+
+    @Override
+    public void updateLastMessage(ChatId chatId, MessageId messageId, Instant sentAt) {
+        chatRepository.updateLastMessage(
+                chatId.toUuid(),
+                messageId.toUuid(),
+                sentAt
+        );
+    }
+
+    private DirectChatEntity toEntity(DirectChat directChat) {
+        UserEntity user1 = userRepository.getReferenceById(directChat.getParticipants().get(0).toUuid());
+        UserEntity user2 = userRepository.getReferenceById(directChat.getParticipants().get(1).toUuid());
         MessageEntity lastMessage = null;
 
         if (directChat.getLastMessageId() != null) {
-            lastMessage = messageRepository.getReferenceById(UUID.fromString(directChat.getLastMessageId().getValue()));
+            lastMessage = messageRepository.getReferenceById(directChat.getLastMessageId().toUuid());
         }
 
-        chatRepository.save(directChatMapper.fromDomain(directChat, user1, user2, lastMessage));
+        return directChatMapper.fromDomain(directChat, user1, user2, lastMessage);
     }
 
     @Override
     public void delete(DirectChat directChat) {
-        chatRepository.deleteById(UUID.fromString(directChat.getChatId().getValue()));
+        chatRepository.deleteById(directChat.getChatId().toUuid());
     }
 }
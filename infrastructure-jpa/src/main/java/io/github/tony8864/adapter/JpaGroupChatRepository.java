@@ -3,18 +3,24 @@ package io.github.tony8864.adapter;
 import io.github.tony8864.chat.repository.GroupChatRepository;
 import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.message.MessageId;
 import io.github.tony8864.entities.user.UserId;
 import io.github.tony8864.entity.GroupChatEntity;
 import io.github.tony8864.entity.MessageEntity;
 import io.github.tony8864.entity.UserEntity;
 import io.github.tony8864.mapping.GroupChatMapper;
+import io.github.tony8864.repository.JdbcGroupChatParticipantRepository;
 import io.github.tony8864.repository.SpringDataGroupChatRepository;
 import io.github.tony8864.repository.SpringDataMessageRepository;
 import io.github.tony8864.repository.SpringDataUserRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,41 +31,84 @@ public class JpaGroupChatRepository implements GroupChatRepository {
     private final SpringDataGroupChatRepository groupChatRepository;
     private final SpringDataMessageRepository messageRepository;
     private final SpringDataUserRepository userRepository;
+    private final JdbcGroupChatParticipantRepository participantRepository;
     private final GroupChatMapper groupChatMapper;
 
     @Override
     public Optional<GroupChat> findById(ChatId chatId) {
-        return groupChatRepository.findByIdWithParticipants(UUID.fromString(chatId.getValue()))
+        return groupChatRepository.findByIdWithParticipants(chatId.toUuid())
                 .map(groupChatMapper::toDomain);
     }
 
     @Override
     public List<GroupChat> findByParticipant(UserId userId) {
-        List<GroupChatEntity> entities = groupChatRepository.findByParticipant(UUID.fromString(userId.getValue()));
+        List<GroupChatEntity> entities = groupChatRepository.findByParticipant(userId.toUuid());
         return entities.stream()
                 .map(groupChatMapper::toDomain)
                 .toList();
     }
 
     @Override
+    @Transactional
+    public void add(GroupChat groupChat) {
+        GroupChatEntity entity = toEntity(groupChat);
+        entity.markNew();
+        groupChatRepository.save(entity);
+        groupChat.clearParticipantChanges();
+    }
+
+    @Override
+    @Transactional
     public void save(GroupChat groupChat) {
+        UUID chatId = groupChat.getChatId().toUuid();
+        int updated = groupChatRepository.updateDetails(
+                chatId,
+                groupChat.getGroupName(),
+                groupChat.getState().name()
+        );
+        if (updated == 0) {
+            add(groupChat);
+            return;
+        }
+
+        participantRepository.deleteAll(chatId, groupChat.getRemovedParticipants().stream()
+                .map(UserId::toUuid)
+                .toList());
+
+        Map<UUID, String> added = new LinkedHashMap<>();
+        groupChat.getAddedParticipants().forEach(p ->
+                added.put(p.getUserId().toUuid(), p.getRole().name()));
+        participantRepository.upsertAll(chatId, added);
+
+        groupChat.clearParticipantChanges();
+    }
+
+    @Override
+    public void updateLastMessage(ChatId chatId, MessageId messageId, Instant sentAt) {
+        groupChatRepository.updateLastMessage(
+                chatId.toUuid(),
+                messageId.toUuid(),
+                sentAt
+        );
+    }
+
+    private GroupChatEntity toEntity(GroupChat groupChat) {
         MessageEntity lastMessage = null;
         if (groupChat.getLastMessageId() != null) {
             lastMessage = messageRepository.getReferenceById(
-                    UUID.fromString(groupChat.getLastMessageId().getValue())
+                    groupChat.getLastMessageId().toUuid()
             );
         }
 
         List<UserEntity> users = groupChat.getParticipants().stream()
-                .map(p -> userRepository.getReferenceById(UUID.fromString(p.getUserId().getValue())))
+                .map(p -> userRepository.getReferenceById(p.getUserId().toUuid()))
                 .toList();
 
-        GroupChatEntity entity = groupChatMapper.fromDomain(groupChat, users, lastMessage);
-        groupChatRepository.save(entity);
+        return groupChatMapper.fromDomain(groupChat, users, lastMessage);
     }
 
     @Override
     public void delete(GroupChat groupChat) {
-        groupChatRepository.deleteById(UUID.fromString(groupChat.getChatId().getValue()));
+        groupChatRepository.deleteById(groupChat.getChatId().toUuid());
     }
 }
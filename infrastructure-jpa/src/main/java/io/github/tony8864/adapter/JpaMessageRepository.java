@@ -2,22 +2,31 @@ package io.github.tony8864.adapter;
 
 import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
 import io.github.tony8864.entity.ChatEntity;
 import io.github.tony8864.entity.MessageEntity;
 import io.github.tony8864.entity.UserEntity;
 import io.github.tony8864.mapping.MessageMapper;
 import io.github.tony8864.message.repository.MessageRepository;
-import io.github.tony8864.repository.SpringDataGroupChatRepository;
+import io.github.tony8864.repository.JdbcOutboxRepository;
 import io.github.tony8864.repository.SpringDataMessageRepository;
 import io.github.tony8864.repository.SpringDataUserRepository;
 import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 @AllArgsConstructor
@@ -27,11 +36,31 @@ public class JpaMessageRepository implements MessageRepository {
     private final SpringDataUserRepository userRepository;
     private final EntityManager entityManager;
     private final MessageMapper messageMapper;
+    private final JdbcOutboxRepository outboxRepository;
+
+    @Override
+    public Optional<Message> findById(MessageId messageId) {
+        return messageRepository.findById(messageId.toUuid())
+                .map(messageMapper::toDomain);
+    }
 
     @Override
     public List<Message> findLastNMessages(ChatId chatId, int limit) {
         return messageRepository.findByChat_IdOrderByCreatedAtDescIdDesc(
-                UUID.fromString(chatId.getValue()),
+                chatId.toUuid(),
+                PageRequest.of(0, limit)
+        )
+                .stream()
+                .map(messageMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<Message> findMessagesBefore(ChatId chatId, Instant createdAt, MessageId messageId, int limit) {
+        return messageRepository.findPageBefore(
+                chatId.toUuid(),
+                createdAt,
+                messageId.toUuid(),
                 PageRequest.of(0, limit)
         )
                 .stream()
@@ -39,23 +68,68 @@ public class JpaMessageRepository implements MessageRepository {
                 .toList();
     }
 
+    @Override
+    public List<Message> findMessagesAfter(ChatId chatId, Instant createdAt, MessageId messageId, int limit) {
+        List<Message> messages = messageRepository.findPageAfter(
+                chatId.toUuid(),
+                createdAt,
+                messageId.toUuid(),
+                PageRequest.of(0, limit)
+        )
+                .stream()
+                .map(messageMapper::toDomain)
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        // keep the newest-first order of the other history queries
+        Collections.reverse(messages);
+        return messages;
+    }
+
     @Override
     public Optional<Message> findLastMessage(ChatId chatId) {
-        return Optional.empty();
+        return Optional.ofNullable(findLastMessages(List.of(chatId)).get(chatId));
+    }
+
+    @Override
+    public Map<ChatId, Message> findLastMessages(Collection<ChatId> chatIds) {
+        if (chatIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<UUID> ids = chatIds.stream()
+                .map(ChatId::toUuid)
+                .toList();
+
+        return messageRepository.findLastMessagesByChatIds(ids)
+                .stream()
+                .map(messageMapper::toDomain)
+                .collect(Collectors.toMap(Message::getChatId, Function.identity()));
+    }
+
+    @Override
+    @Transactional
+    public void add(Message message) {
+        MessageEntity entity = toEntity(message);
+        entity.markNew();
+        messageRepository.saveAndFlush(entity);
+        outboxRepository.recordMessageSent(message.getChatId().toUuid(), message.getMessageId().toUuid());
     }
 
     @Override
     public void save(Message message) {
+        messageRepository.save(toEntity(message));
+    }
+
+    private MessageEntity toEntity(Message message) {
         ChatEntity chat = entityManager.getReference(
                 ChatEntity.class,
-                UUID.fromString(message.getChatId().getValue())
+                message.getChatId().toUuid()
         );
 
         UserEntity user = userRepository.getReferenceById(
-                UUID.fromString(message.getUserId().getValue())
+                message.getUserId().toUuid()
         );
 
-        MessageEntity entity = messageMapper.fromDomain(message, chat, user);
-        messageRepository.save(entity);
+        return messageMapper.fromDomain(message, chat, user);
     }
 }
@@ -1,14 +1,24 @@
 package io.github.tony8864.adapter;
 
 import io.github.tony8864.entities.user.Email;
+import io.github.tony8864.entities.user.PresenceStatus;
 import io.github.tony8864.entities.user.User;
 import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.entity.UserEntity;
 import io.github.tony8864.mapping.UserJpaMapper;
 import io.github.tony8864.repository.SpringDataUserRepository;
 import io.github.tony8864.user.repository.UserRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,12 +26,33 @@ import java.util.UUID;
 @AllArgsConstructor
 public class JpaUserRepository implements UserRepository {
 
+    private static final String FIND_STATUS_SQL =
+            "SELECT status FROM users WHERE id = ?";
+    private static final String TOUCH_NODE_SQL =
+            "INSERT INTO presence_nodes (node_id, seen_at) VALUES (?, now()) " +
+            "ON CONFLICT (node_id) DO UPDATE SET seen_at = now() RETURNING xmax = 0";
+    private static final String LOCK_USERS_SQL =
+            "SELECT id FROM users WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+    private static final String UPSERT_PRESENCE_SQL =
+            "INSERT INTO user_presence (user_id, node_id, status) VALUES (?, ?, ?) " +
+            "ON CONFLICT (user_id, node_id) DO UPDATE SET status = EXCLUDED.status";
+    private static final String DELETE_PRESENCE_SQL =
+            "DELETE FROM user_presence WHERE user_id = ? AND node_id = ?";
+    private static final String AGGREGATE_SQL =
+            "UPDATE users SET status = user_presence_status(id) WHERE id = ANY(?) RETURNING id, status";
+    private static final String EXPIRED_USERS_SQL =
+            "SELECT DISTINCT p.user_id FROM user_presence p JOIN presence_nodes n ON n.node_id = p.node_id " +
+            "WHERE n.seen_at < now() - make_interval(secs => ?)";
+    private static final String DELETE_EXPIRED_NODES_SQL =
+            "DELETE FROM presence_nodes WHERE seen_at < now() - make_interval(secs => ?)";
+
     private final SpringDataUserRepository springDataUserRepository;
     private final UserJpaMapper userMapper;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public Optional<User> findById(UserId userId) {
-        return springDataUserRepository.findById(UUID.fromString(userId.getValue()))
+        return springDataUserRepository.findById(userId.toUuid())
                 .map(userMapper::toDomain);
     }
 
@@ -37,6 +68,13 @@ public class JpaUserRepository implements UserRepository {
                 .map(userMapper::toDomain);
     }
 
+    @Override
+    public void add(User user) {
+        UserEntity entity = userMapper.fromDomain(user);
+        entity.markNew();
+        springDataUserRepository.save(entity);
+    }
+
     @Override
     public void save(User user) {
         springDataUserRepository.save(userMapper.fromDomain(user));
@@ -46,4 +84,86 @@ public class JpaUserRepository implements UserRepository {
     public void delete(User user) {
         springDataUserRepository.delete(userMapper.fromDomain(user));
     }
+
+    @Override
+    public Optional<PresenceStatus> findStatus(UserId userId) {
+        return jdbcTemplate.queryForList(FIND_STATUS_SQL, String.class, userId.toUuid()).stream()
+                .findFirst()
+                .map(PresenceStatus::valueOf);
+    }
+
+    @Override
+    @Transactional
+    public Map<UserId, PresenceStatus> updateStatuses(String nodeId, Map<UserId, PresenceStatus> statuses) {
+        UUID node = UUID.fromString(nodeId);
+        touch(node);
+        // users deleted in the meantime are not locked, so they are skipped rather than failing the batch
+        List<UUID> users = lockUsers(statuses.keySet().stream().map(UserId::toUuid).toList());
+
+        List<Object[]> online = new ArrayList<>();
+        List<Object[]> offline = new ArrayList<>();
+        for (UUID user : users) {
+            PresenceStatus status = statuses.get(UserId.of(user.toString()));
+            if (status == PresenceStatus.OFFLINE) {
+                offline.add(new Object[]{user, node});
+            } else {
+                online.add(new Object[]{user, node, status.name()});
+            }
+        }
+        jdbcTemplate.batchUpdate(DELETE_PRESENCE_SQL, offline);
+        jdbcTemplate.batchUpdate(UPSERT_PRESENCE_SQL, online);
+        return aggregate(users);
+    }
+
+    @Override
+    @Transactional
+    public boolean touchNode(String nodeId) {
+        return touch(UUID.fromString(nodeId));
+    }
+
+    @Override
+    @Transactional
+    public Map<UserId, PresenceStatus> expireNodes(Duration expiry) {
+        double seconds = expiry.toMillis() / 1000.0;
+        List<UUID> users = jdbcTemplate.queryForList(EXPIRED_USERS_SQL, UUID.class, seconds);
+        if (users.isEmpty()) {
+            jdbcTemplate.update(DELETE_EXPIRED_NODES_SQL, seconds);
+            return Map.of();
+        }
+        users = lockUsers(users);
+        jdbcTemplate.update(DELETE_EXPIRED_NODES_SQL, seconds);
+        return aggregate(users);
+    }
+
+    private boolean touch(UUID node) {
+        return Boolean.FALSE.equals(jdbcTemplate.queryForObject(TOUCH_NODE_SQL, Boolean.class, node));
+    }
+
+    // taken in id order before the per-node rows change, so concurrent flushes for one user queue up
+    // and each recomputes the status from what the others committed
+    private List<UUID> lockUsers(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(LOCK_USERS_SQL);
+            statement.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return statement;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    private Map<UserId, PresenceStatus> aggregate(List<UUID> users) {
+        if (users.isEmpty()) {
+            return Map.of();
+        }
+        Map<UserId, PresenceStatus> statuses = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(AGGREGATE_SQL);
+            statement.setArray(1, con.createArrayOf("uuid", users.toArray()));
+            return statement;
+        }, rs -> {
+            statuses.put(UserId.of(rs.getObject(1, UUID.class).toString()), PresenceStatus.valueOf(rs.getString(2)));
+        });
+        return statuses;
+    }
 }
@@ -0,0 +1,20 @@
+package io.github.tony8864.adapter;
+
+import io.github.tony8864.common.TransactionRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class SpringTransactionRunner implements TransactionRunner {
+    private final TransactionTemplate transactionTemplate;
+
+    public SpringTransactionRunner(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void inTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> work.run());
+    }
+}
@@ -10,9 +10,10 @@ import java.util.UUID;
 @Entity
 @Table(name = "chats")
 @Inheritance(strategy = InheritanceType.JOINED)
+@DiscriminatorColumn(name = "chat_type", length = 20)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public abstract class ChatEntity {
+public abstract class ChatEntity extends PersistableEntity {
     @Id
     private UUID id;
 
@@ -11,6 +11,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "direct_chats")
+@DiscriminatorValue("DIRECT")
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
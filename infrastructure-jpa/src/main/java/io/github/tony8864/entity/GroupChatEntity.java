@@ -13,6 +13,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "group_chats")
+@DiscriminatorValue("GROUP")
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class GroupChatEntity extends ChatEntity {
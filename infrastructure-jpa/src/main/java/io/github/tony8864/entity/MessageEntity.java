@@ -12,7 +12,7 @@ import java.util.UUID;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 @Builder
-public class MessageEntity {
+public class MessageEntity extends PersistableEntity {
     @Id
     private UUID id;
 
@@ -0,0 +1,31 @@
+package io.github.tony8864.entity;
+
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.util.UUID;
+
+@MappedSuperclass
+public abstract class PersistableEntity implements Persistable<UUID> {
+
+    @Transient
+    private boolean isNew;
+
+    public void markNew() {
+        this.isNew = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -16,7 +16,7 @@ import java.util.UUID;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 @Builder
-public class UserEntity {
+public class UserEntity extends PersistableEntity {
 
     @Id
     @Column(name = "id", nullable = false, updatable = false)
@@ -10,23 +10,22 @@ import io.github.tony8864.entity.UserEntity;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.UUID;
 
 @Component
 public class DirectChatMapper {
     public DirectChat toDomain(DirectChatEntity entity) {
         List<UserId> participants = List.of(
-                UserId.of(entity.getUser1().getId().toString()),
-                UserId.of(entity.getUser2().getId().toString())
+                UserId.of(entity.getUser1().getId()),
+                UserId.of(entity.getUser2().getId())
         );
 
         DirectChat chat = DirectChat.create(
-                ChatId.of(entity.getId().toString()),
+                ChatId.of(entity.getId()),
                 participants
         );
 
         if (entity.getLastMessage() != null) {
-            chat.updateLastMessage(MessageId.of(entity.getLastMessage().getId().toString()));
+            chat.updateLastMessage(MessageId.of(entity.getLastMessage().getId()));
         }
 
         return chat;
@@ -39,7 +38,7 @@ public class DirectChatMapper {
             MessageEntity lastMessage
     ) {
         return new DirectChatEntity(
-                UUID.fromString(chat.getChatId().getValue()),
+                chat.getChatId().toUuid(),
                 user1,
                 user2,
                 chat.getCreatedAt(),
@@ -14,24 +14,28 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class GroupChatMapper {
     public GroupChat toDomain(GroupChatEntity entity) {
         List<Participant> participants = entity.getParticipants().stream()
                 .map(p -> Participant.create(
-                        UserId.of(p.getUser().getId().toString()), Role.valueOf(p.getRole())
+                        UserId.of(p.getUser().getId()), Role.valueOf(p.getRole())
                 )).toList();
 
         GroupChat chat = GroupChat.create(
-                ChatId.of(entity.getId().toString()),
+                ChatId.of(entity.getId()),
                 participants,
                 entity.getGroupName()
         );
 
         if (entity.getLastMessage() != null) {
-            chat.updateLastMessage(MessageId.of(entity.getLastMessage().getId().toString()));
+            chat.updateLastMessage(MessageId.of(entity.getLastMessage().getId()));
         }
 
         return chat;
@@ -39,7 +43,7 @@ public class GroupChatMapper {
 
     public GroupChatEntity fromDomain(GroupChat chat, List<UserEntity> users, MessageEntity lastMessage) {
         GroupChatEntity entity = new GroupChatEntity(
-                UUID.fromString(chat.getChatId().getValue()),
+                chat.getChatId().toUuid(),
                 chat.getGroupName(),
                 chat.getState().name(),
                 chat.getCreatedAt(),
@@ -47,11 +51,12 @@ public class GroupChatMapper {
                 new ArrayList<>()
         );
 
+        Map<UUID, UserEntity> usersById = users.stream()
+                .collect(Collectors.toMap(UserEntity::getId, Function.identity()));
+
         List<GroupChatParticipantEntity> participantEntities = chat.getParticipants().stream()
                 .map(p -> {
-                    UserEntity userEntity = users.stream()
-                            .filter(u -> u.getId().toString().equals(p.getUserId().getValue()))
-                            .findFirst()
+                    UserEntity userEntity = Optional.ofNullable(usersById.get(p.getUserId().toUuid()))
                             .orElseThrow();
                     return new GroupChatParticipantEntity(entity, userEntity, p.getRole().name());
                 })
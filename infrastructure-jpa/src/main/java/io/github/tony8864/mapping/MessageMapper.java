@@ -10,16 +10,15 @@ import io.github.tony8864.entity.MessageEntity;
 import io.github.tony8864.entity.UserEntity;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
 
 @Component
 public class MessageMapper {
 
     public Message toDomain(MessageEntity entity) {
         return Message.restore(
-                MessageId.of(entity.getId().toString()),
-                ChatId.of(entity.getChat().getId().toString()),
-                UserId.of(entity.getUser().getId().toString()),
+                MessageId.of(entity.getId()),
+                ChatId.of(entity.getChat().getId()),
+                UserId.of(entity.getUser().getId()),
                 entity.getContent(),
                 entity.getCreatedAt(),
                 MessageStatus.valueOf(entity.getStatus()),
@@ -33,7 +32,7 @@ public class MessageMapper {
             UserEntity user
     ) {
         return MessageEntity.builder()
-                .id(UUID.fromString(message.getMessageId().getValue()))
+                .id(message.getMessageId().toUuid())
                 .chat(chat)
                 .user(user)
                 .createdAt(message.getCreatedAt())
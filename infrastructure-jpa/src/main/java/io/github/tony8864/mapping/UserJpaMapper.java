@@ -4,13 +4,12 @@ import io.github.tony8864.entities.user.*;
 import io.github.tony8864.entity.UserEntity;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
 
 @Component
 public class UserJpaMapper {
     public User toDomain(UserEntity entity) {
         return User.restore(
-                UserId.of(entity.getId().toString()),
+                UserId.of(entity.getId()),
                 entity.getUsername(),
                 Email.of(entity.getEmail()),
                 PasswordHash.newHash(entity.getPasswordHash()),
@@ -21,7 +20,7 @@ public class UserJpaMapper {
 
     public UserEntity fromDomain(User user) {
         return UserEntity.builder()
-                .id(UUID.fromString(user.getUserId().getValue())) // convert String -> UUID
+                .id(user.getUserId().toUuid())
                 .username(user.getUsername())
                 .email(user.getEmail().getValue())
                 .passwordHash(user.getPasswordHash().getHash())
@@ -0,0 +1,184 @@
+package io.github.tony8864.outbox;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.message.repository.MessageEventPublisher;
+import io.github.tony8864.repository.JdbcOutboxRepository;
+import io.github.tony8864.repository.JdbcOutboxRepository.OutboxMessage;
+import io.github.tony8864.repository.JdbcOutboxRepository.RelayLease;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MessageOutboxRelay implements SmartLifecycle {
+
+    private final JdbcOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MessageEventPublisher publisher;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final Clock clock;
+
+    private volatile boolean running;
+    private Thread worker;
+    private RelayLease lease;
+
+    private final AtomicLong relayed = new AtomicLong();
+    private final AtomicLong lagNanos = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public MessageOutboxRelay(
+            JdbcOutboxRepository outboxRepository,
+            TransactionTemplate transactionTemplate,
+            MessageEventPublisher publisher,
+            int batchSize,
+            Duration pollInterval,
+            Clock clock
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.clock = clock;
+    }
+
+    public int relayOnce() {
+        // a single relay at a time across instances keeps the outbox order
+        if (!holdsLease()) {
+            return 0;
+        }
+
+        // read, publish and delete each run on their own, so neither a transaction nor a row lock waits on the broker;
+        // rows are only deleted once the publisher has returned for them, so an event is never dropped
+        List<OutboxMessage> batch = outboxRepository.findMessageSentBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> published = publish(batch);
+
+        // a crash before this point publishes the batch again on the next round
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAll(published));
+        relayed.addAndGet(published.size());
+        return published.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "message-outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker == null) {
+            // relayOnce was driven by the caller
+            releaseLease();
+            return;
+        }
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getRelayed() {
+        return relayed.get();
+    }
+
+    public double getLagNanos() {
+        return lagNanos.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private boolean holdsLease() {
+        if (lease != null && lease.isHeld()) {
+            return true;
+        }
+        releaseLease();
+        lease = outboxRepository.tryLeaseRelay().orElse(null);
+        return lease != null;
+    }
+
+    private void releaseLease() {
+        if (lease != null) {
+            lease.close();
+            lease = null;
+        }
+    }
+
+    private List<Long> publish(List<OutboxMessage> batch) {
+        // one call for the whole batch lets the publisher pack it into as few notifications as it can
+        try {
+            publisher.publishMessagesSent(batch.stream().map(OutboxMessage::message).toList());
+            batch.forEach(this::recordLag);
+            return batch.stream().map(OutboxMessage::id).toList();
+        } catch (RuntimeException e) {
+            // retried one by one below; whatever went out before the failure goes out twice
+        }
+
+        List<Long> published = new ArrayList<>(batch.size());
+        Set<ChatId> blockedChats = new HashSet<>();
+        for (OutboxMessage entry : batch) {
+            ChatId chatId = entry.message().getChatId();
+            if (blockedChats.contains(chatId)) {
+                continue;
+            }
+            try {
+                publisher.publishMessageSent(entry.message());
+            } catch (RuntimeException e) {
+                // later events of this chat wait for the next round so they are not delivered ahead of it
+                failed.incrementAndGet();
+                blockedChats.add(chatId);
+                continue;
+            }
+            recordLag(entry);
+            published.add(entry.id());
+        }
+        return published;
+    }
+
+    private void recordLag(OutboxMessage entry) {
+        lagNanos.addAndGet(Duration.between(entry.recordedAt(), clock.instant()).toNanos());
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                int count;
+                try {
+                    count = relayOnce();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    count = 0;
+                }
+                if (count < batchSize) {
+                    Thread.sleep(pollIntervalMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            releaseLease();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.tony8864.repository;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Repository
+@AllArgsConstructor
+public class JdbcGroupChatParticipantRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO group_chat_participants (chat_id, user_id, role) VALUES (?, ?, ?) " +
+            "ON CONFLICT (chat_id, user_id) DO UPDATE SET role = EXCLUDED.role";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM group_chat_participants WHERE chat_id = ? AND user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsertAll(UUID chatId, Map<UUID, String> rolesByUserId) {
+        if (rolesByUserId.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = rolesByUserId.entrySet().stream()
+                .map(e -> new Object[]{chatId, e.getKey(), e.getValue()})
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+    }
+
+    public void deleteAll(UUID chatId, Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = userIds.stream()
+                .map(userId -> new Object[]{chatId, userId})
+                .toList();
+        jdbcTemplate.batchUpdate(DELETE_SQL, args);
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.tony8864.repository;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.message.MessageStatus;
+import io.github.tony8864.entities.user.UserId;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@AllArgsConstructor
+public class JdbcOutboxRepository {
+
+    public static final String MESSAGE_SENT = "MESSAGE_SENT";
+
+    // any constant works as long as nothing else in the database takes the same advisory lock
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox (event_type, chat_id, message_id) VALUES (?, ?, ?)";
+
+    private static final String FIND_BATCH_SQL =
+            "SELECT o.id, o.created_at AS recorded_at, m.id AS message_id, m.chat_id, m.user_id, " +
+            "m.content, m.created_at, m.status, m.updated_at " +
+            "FROM outbox o JOIN messages m ON m.id = o.message_id " +
+            // rows of transactions still in flight, and everything written after them, wait for a later round
+            "WHERE o.event_type = ? AND o.tx_id < pg_snapshot_xmin(pg_current_snapshot()) " +
+            "ORDER BY o.tx_id, o.id LIMIT ?";
+
+    private static final String DELETE_SQL = "DELETE FROM outbox WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void recordMessageSent(UUID chatId, UUID messageId) {
+        jdbcTemplate.update(INSERT_SQL, MESSAGE_SENT, chatId, messageId);
+    }
+
+    // a session lock on its own connection, so no transaction stays open while the holder publishes
+    public Optional<RelayLease> tryLeaseRelay() {
+        DataSource dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource());
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(true);
+            if (advisoryLock(connection, "SELECT pg_try_advisory_lock(?)")) {
+                return Optional.of(new RelayLease(connection));
+            }
+            connection.close();
+            return Optional.empty();
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw Objects.requireNonNull(jdbcTemplate.getExceptionTranslator().translate("tryLeaseRelay", null, e));
+        }
+    }
+
+    public List<OutboxMessage> findMessageSentBatch(int limit) {
+        return jdbcTemplate.query(FIND_BATCH_SQL, (rs, rowNum) -> new OutboxMessage(
+                rs.getLong("id"),
+                rs.getTimestamp("recorded_at").toInstant(),
+                Message.restore(
+                        MessageId.of(rs.getObject("message_id", UUID.class)),
+                        ChatId.of(rs.getObject("chat_id", UUID.class)),
+                        UserId.of(rs.getObject("user_id", UUID.class)),
+                        rs.getString("content"),
+                        rs.getTimestamp("created_at").toInstant(),
+                        MessageStatus.valueOf(rs.getString("status")),
+                        toInstant(rs.getTimestamp("updated_at"))
+                )
+        ), MESSAGE_SENT, limit);
+    }
+
+    public void deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, ids.stream().map(id -> new Object[]{id}).toList());
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, RELAY_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // the pool discards a connection it cannot close
+        }
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    public record OutboxMessage(long id, Instant recordedAt, Message message) {
+    }
+
+    public static final class RelayLease implements AutoCloseable {
+        private final Connection connection;
+
+        private RelayLease(Connection connection) {
+            this.connection = connection;
+        }
+
+        // a dropped connection takes the lock with it, and another instance may already relay
+        public boolean isHeld() {
+            try {
+                return connection.isValid(1);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                // a pooled connection outlives close(), and the session lock would go with it
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)");
+            } catch (SQLException ignored) {
+                // the session is gone, and so is its lock
+            }
+            closeQuietly(connection);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.tony8864.repository;
+
+import io.github.tony8864.entity.ChatEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SpringDataChatRepository extends JpaRepository<ChatEntity, UUID> {
+    @Query(value = "SELECT chat_type FROM chats WHERE id = :id", nativeQuery = true)
+    Optional<String> findTypeById(@Param("id") UUID id);
+
+    @Query(value = "SELECT EXISTS (" +
+            "  SELECT 1 FROM group_chat_participants WHERE chat_id = :chatId AND user_id = :userId" +
+            ") OR EXISTS (" +
+            "  SELECT 1 FROM direct_chats WHERE id = :chatId AND (user1_id = :userId OR user2_id = :userId)" +
+            ")", nativeQuery = true)
+    boolean isMember(@Param("chatId") UUID chatId, @Param("userId") UUID userId);
+
+    @Query(value = "SELECT user_id FROM group_chat_participants WHERE chat_id = :chatId " +
+            "UNION ALL SELECT user1_id FROM direct_chats WHERE id = :chatId " +
+            "UNION ALL SELECT user2_id FROM direct_chats WHERE id = :chatId", nativeQuery = true)
+    List<UUID> findMemberIds(@Param("chatId") UUID chatId);
+}
@@ -2,10 +2,13 @@ package io.github.tony8864.repository;
 
 import io.github.tony8864.entity.DirectChatEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,4 +25,17 @@ public interface SpringDataDirectChatRepository extends JpaRepository<DirectChat
     @Query("SELECT c FROM DirectChatEntity c " +
             "WHERE c.user1.id = :userId OR c.user2.id = :userId")
     List<DirectChatEntity> findByParticipant(@Param("userId") UUID userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE direct_chats SET last_message_id = :messageId " +
+            "WHERE id = :chatId " +
+            "AND (last_message_id IS NULL " +
+            "OR (SELECT m.created_at FROM messages m WHERE m.id = last_message_id) <= :sentAt)",
+            nativeQuery = true)
+    int updateLastMessage(
+            @Param("chatId") UUID chatId,
+            @Param("messageId") UUID messageId,
+            @Param("sentAt") Instant sentAt
+    );
 }
@@ -2,10 +2,13 @@ package io.github.tony8864.repository;
 
 import io.github.tony8864.entity.GroupChatEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,4 +25,25 @@ public interface SpringDataGroupChatRepository extends JpaRepository<GroupChatEn
             "  WHERE gp.groupChat = g AND gp.user.id = :userId" +
             ")")
     List<GroupChatEntity> findByParticipant(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("UPDATE GroupChatEntity g SET g.groupName = :groupName, g.state = :state WHERE g.id = :id")
+    int updateDetails(
+            @Param("id") UUID id,
+            @Param("groupName") String groupName,
+            @Param("state") String state
+    );
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE group_chats SET last_message_id = :messageId " +
+            "WHERE id = :chatId " +
+            "AND (last_message_id IS NULL " +
+            "OR (SELECT m.created_at FROM messages m WHERE m.id = last_message_id) <= :sentAt)",
+            nativeQuery = true)
+    int updateLastMessage(
+            @Param("chatId") UUID chatId,
+            @Param("messageId") UUID messageId,
+            @Param("sentAt") Instant sentAt
+    );
 }
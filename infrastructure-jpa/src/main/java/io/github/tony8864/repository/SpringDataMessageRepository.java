@@ -3,12 +3,41 @@ package io.github.tony8864.repository;
 import io.github.tony8864.entity.MessageEntity;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface SpringDataMessageRepository extends JpaRepository<MessageEntity, UUID> {
     List<MessageEntity> findByChat_IdOrderByCreatedAtDescIdDesc(UUID chatId, Pageable pageable);
+
+    @Query("SELECT m FROM MessageEntity m " +
+            "WHERE m.chat.id = :chatId AND (m.createdAt, m.id) < (:createdAt, :messageId) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageEntity> findPageBefore(
+            @Param("chatId") UUID chatId,
+            @Param("createdAt") Instant createdAt,
+            @Param("messageId") UUID messageId,
+            Pageable pageable
+    );
+
+    @Query("SELECT m FROM MessageEntity m " +
+            "WHERE m.chat.id = :chatId AND (m.createdAt, m.id) > (:createdAt, :messageId) " +
+            "ORDER BY m.createdAt ASC, m.id ASC")
+    List<MessageEntity> findPageAfter(
+            @Param("chatId") UUID chatId,
+            @Param("createdAt") Instant createdAt,
+            @Param("messageId") UUID messageId,
+            Pageable pageable
+    );
+
+    @Query("SELECT m FROM MessageEntity m " +
+            "WHERE m.id IN (SELECT dc.lastMessage.id FROM DirectChatEntity dc WHERE dc.id IN :chatIds) " +
+            "OR m.id IN (SELECT gc.lastMessage.id FROM GroupChatEntity gc WHERE gc.id IN :chatIds)")
+    List<MessageEntity> findLastMessagesByChatIds(@Param("chatIds") Collection<UUID> chatIds);
 }
@@ -0,0 +1,70 @@
+-- a send moves one chats row instead of one chat_inbox row per member; chat_inbox only records membership
+ALTER TABLE chats ADD COLUMN last_message_at TIMESTAMPTZ NOT NULL DEFAULT '-infinity';
+
+UPDATE chats c
+SET last_message_at = m.created_at
+FROM direct_chats dc
+JOIN messages m ON m.id = dc.last_message_id
+WHERE dc.id = c.id;
+
+UPDATE chats c
+SET last_message_at = m.created_at
+FROM group_chats gc
+JOIN messages m ON m.id = gc.last_message_id
+WHERE gc.id = c.id;
+
+DROP TRIGGER chat_inbox_direct_chat_moved ON direct_chats;
+DROP TRIGGER chat_inbox_group_chat_moved ON group_chats;
+DROP FUNCTION chat_inbox_move_chat();
+
+CREATE FUNCTION chats_move_last_message() RETURNS trigger AS $$
+BEGIN
+    UPDATE chats
+    SET last_message_at = COALESCE((SELECT m.created_at FROM messages m WHERE m.id = NEW.last_message_id), '-infinity')
+    WHERE id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER chats_direct_chat_moved
+    AFTER UPDATE OF last_message_id ON direct_chats
+    FOR EACH ROW WHEN (NEW.last_message_id IS DISTINCT FROM OLD.last_message_id)
+    EXECUTE FUNCTION chats_move_last_message();
+
+CREATE TRIGGER chats_group_chat_moved
+    AFTER UPDATE OF last_message_id ON group_chats
+    FOR EACH ROW WHEN (NEW.last_message_id IS DISTINCT FROM OLD.last_message_id)
+    EXECUTE FUNCTION chats_move_last_message();
+
+-- inserts with a message already set (JPA merges of a restored aggregate) move the chat as well
+CREATE TRIGGER chats_direct_chat_inserted
+    AFTER INSERT ON direct_chats
+    FOR EACH ROW WHEN (NEW.last_message_id IS NOT NULL)
+    EXECUTE FUNCTION chats_move_last_message();
+
+CREATE TRIGGER chats_group_chat_inserted
+    AFTER INSERT ON group_chats
+    FOR EACH ROW WHEN (NEW.last_message_id IS NOT NULL)
+    EXECUTE FUNCTION chats_move_last_message();
+
+CREATE OR REPLACE FUNCTION chat_inbox_add_direct_chat() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO chat_inbox (user_id, chat_id)
+    VALUES (NEW.user1_id, NEW.id), (NEW.user2_id, NEW.id)
+    ON CONFLICT (user_id, chat_id) DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION chat_inbox_add_participant() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO chat_inbox (user_id, chat_id)
+    VALUES (NEW.user_id, NEW.chat_id)
+    ON CONFLICT (user_id, chat_id) DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP INDEX idx_chat_inbox_user_last_message;
+ALTER TABLE chat_inbox DROP COLUMN last_message_at;
+
@@ -0,0 +1,3 @@
+CREATE INDEX idx_direct_chats_user1_id ON direct_chats (user1_id);
+CREATE INDEX idx_direct_chats_user2_id ON direct_chats (user2_id);
+CREATE INDEX idx_group_chat_participants_user_id ON group_chat_participants (user_id);
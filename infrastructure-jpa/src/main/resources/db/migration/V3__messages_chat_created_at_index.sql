@@ -0,0 +1 @@
+CREATE INDEX idx_messages_chat_id_created_at_id ON messages (chat_id, created_at DESC, id DESC);
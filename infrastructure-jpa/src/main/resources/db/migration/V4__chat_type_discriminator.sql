@@ -0,0 +1,6 @@
+ALTER TABLE chats ADD COLUMN chat_type VARCHAR(20);
+
+UPDATE chats SET chat_type = 'DIRECT' WHERE id IN (SELECT id FROM direct_chats);
+UPDATE chats SET chat_type = 'GROUP' WHERE id IN (SELECT id FROM group_chats);
+
+ALTER TABLE chats ALTER COLUMN chat_type SET NOT NULL;
@@ -0,0 +1,7 @@
+CREATE TABLE outbox (
+    id          BIGSERIAL PRIMARY KEY,
+    event_type  VARCHAR(50) NOT NULL,
+    chat_id     UUID NOT NULL,
+    message_id  UUID NOT NULL REFERENCES messages(id) ON DELETE CASCADE,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT now()
+);
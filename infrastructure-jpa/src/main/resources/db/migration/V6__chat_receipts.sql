@@ -0,0 +1,10 @@
+CREATE TABLE chat_receipts (
+    chat_id                 UUID NOT NULL REFERENCES chats(id) ON DELETE CASCADE,
+    user_id                 UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    delivered_created_at    TIMESTAMPTZ,
+    delivered_message_id    UUID,
+    read_created_at         TIMESTAMPTZ,
+    read_message_id         UUID,
+    updated_at              TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (chat_id, user_id)
+);
@@ -0,0 +1,96 @@
+-- one row per chat a user is in, so a page of the chat list is a range scan instead of a sort over all of them
+CREATE TABLE chat_inbox (
+    user_id         UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    chat_id         UUID NOT NULL REFERENCES chats(id) ON DELETE CASCADE,
+    -- '-infinity' for chats without messages keeps them last without NULLs breaking the row comparison
+    last_message_at TIMESTAMPTZ NOT NULL DEFAULT '-infinity',
+    PRIMARY KEY (user_id, chat_id)
+);
+
+CREATE INDEX idx_chat_inbox_user_last_message ON chat_inbox (user_id, last_message_at DESC, chat_id DESC);
+
+CREATE FUNCTION chat_inbox_add_direct_chat() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO chat_inbox (user_id, chat_id, last_message_at)
+    SELECT p.user_id, NEW.id, COALESCE(m.created_at, '-infinity')
+    FROM (VALUES (NEW.user1_id), (NEW.user2_id)) AS p(user_id)
+    LEFT JOIN messages m ON m.id = NEW.last_message_id
+    ON CONFLICT (user_id, chat_id) DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION chat_inbox_remove_direct_chat() RETURNS trigger AS $$
+BEGIN
+    DELETE FROM chat_inbox WHERE chat_id = OLD.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION chat_inbox_add_participant() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO chat_inbox (user_id, chat_id, last_message_at)
+    SELECT NEW.user_id, NEW.chat_id, COALESCE(m.created_at, '-infinity')
+    FROM group_chats gc
+    LEFT JOIN messages m ON m.id = gc.last_message_id
+    WHERE gc.id = NEW.chat_id
+    ON CONFLICT (user_id, chat_id) DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION chat_inbox_remove_participant() RETURNS trigger AS $$
+BEGIN
+    DELETE FROM chat_inbox WHERE user_id = OLD.user_id AND chat_id = OLD.chat_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- every member's row moves with the chat, so a message in a large group costs one index update per member
+CREATE FUNCTION chat_inbox_move_chat() RETURNS trigger AS $$
+BEGIN
+    UPDATE chat_inbox
+    SET last_message_at = COALESCE((SELECT m.created_at FROM messages m WHERE m.id = NEW.last_message_id), '-infinity')
+    WHERE chat_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER chat_inbox_direct_chat_inserted
+    AFTER INSERT ON direct_chats
+    FOR EACH ROW EXECUTE FUNCTION chat_inbox_add_direct_chat();
+
+CREATE TRIGGER chat_inbox_direct_chat_deleted
+    AFTER DELETE ON direct_chats
+    FOR EACH ROW EXECUTE FUNCTION chat_inbox_remove_direct_chat();
+
+CREATE TRIGGER chat_inbox_direct_chat_moved
+    AFTER UPDATE OF last_message_id ON direct_chats
+    FOR EACH ROW WHEN (NEW.last_message_id IS DISTINCT FROM OLD.last_message_id)
+    EXECUTE FUNCTION chat_inbox_move_chat();
+
+CREATE TRIGGER chat_inbox_participant_inserted
+    AFTER INSERT ON group_chat_participants
+    FOR EACH ROW EXECUTE FUNCTION chat_inbox_add_participant();
+
+CREATE TRIGGER chat_inbox_participant_deleted
+    AFTER DELETE ON group_chat_participants
+    FOR EACH ROW EXECUTE FUNCTION chat_inbox_remove_participant();
+
+CREATE TRIGGER chat_inbox_group_chat_moved
+    AFTER UPDATE OF last_message_id ON group_chats
+    FOR EACH ROW WHEN (NEW.last_message_id IS DISTINCT FROM OLD.last_message_id)
+    EXECUTE FUNCTION chat_inbox_move_chat();
+
+INSERT INTO chat_inbox (user_id, chat_id, last_message_at)
+SELECT p.user_id, dc.id, COALESCE(m.created_at, '-infinity')
+FROM direct_chats dc
+CROSS JOIN LATERAL (VALUES (dc.user1_id), (dc.user2_id)) AS p(user_id)
+LEFT JOIN messages m ON m.id = dc.last_message_id
+ON CONFLICT (user_id, chat_id) DO NOTHING;
+
+INSERT INTO chat_inbox (user_id, chat_id, last_message_at)
+SELECT gp.user_id, gp.chat_id, COALESCE(m.created_at, '-infinity')
+FROM group_chat_participants gp
+JOIN group_chats gc ON gc.id = gp.chat_id
+LEFT JOIN messages m ON m.id = gc.last_message_id;
@@ -0,0 +1,5 @@
+-- ids are handed out at insert time, so a row can become visible after one with a higher id;
+-- the writing transaction's id lets the relay wait until every earlier writer has finished
+ALTER TABLE outbox ADD COLUMN tx_id XID8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX idx_outbox_tx_id ON outbox (tx_id, id);
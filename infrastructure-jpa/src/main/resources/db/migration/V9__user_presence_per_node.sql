@@ -0,0 +1,25 @@
+-- every application node writes its own view of a user, so a disconnect on one node cannot
+-- overwrite a session that is still open on another; users.status is the strongest of them
+CREATE TABLE presence_nodes (
+    node_id UUID PRIMARY KEY,
+    seen_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE TABLE user_presence (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    node_id UUID NOT NULL REFERENCES presence_nodes(node_id) ON DELETE CASCADE,
+    status  VARCHAR(20) NOT NULL,
+    PRIMARY KEY (user_id, node_id)
+);
+
+CREATE INDEX idx_user_presence_node ON user_presence (node_id);
+
+CREATE FUNCTION user_presence_status(uid UUID) RETURNS VARCHAR(20) AS $$
+    SELECT COALESCE((
+        SELECT p.status
+        FROM user_presence p
+        WHERE p.user_id = uid
+        ORDER BY CASE p.status WHEN 'BUSY' THEN 3 WHEN 'ONLINE' THEN 2 WHEN 'AWAY' THEN 1 ELSE 0 END DESC
+        LIMIT 1
+    ), 'OFFLINE')
+$$ LANGUAGE sql STABLE;
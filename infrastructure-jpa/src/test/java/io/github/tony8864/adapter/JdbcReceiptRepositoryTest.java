@@ -0,0 +1,185 @@
+package io.github.tony8864.adapter;
+
+import io.github.tony8864.chat.repository.DirectChatRepository;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.chat.DirectChat;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.message.MessageStatus;
+import io.github.tony8864.entities.user.Email;
+import io.github.tony8864.entities.user.PasswordHash;
+import io.github.tony8864.entities.user.User;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.common.Receipt;
+import io.github.tony8864.message.common.ReceiptAck;
+import io.github.tony8864.message.common.ReceiptCursor;
+import io.github.tony8864.message.repository.MessageRepository;
+import io.github.tony8864.message.repository.ReceiptRepository;
+import io.github.tony8864.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+class JdbcReceiptRepositoryTest {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DirectChatRepository directChatRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Instant t0 = Instant.parse("2025-01-01T10:00:00Z");
+
+    private ChatId chatId;
+    private UserId readerId;
+    private UserId otherId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        readerId = UserId.of(UUID.randomUUID().toString());
+        otherId = UserId.of(UUID.randomUUID().toString());
+        userRepository.save(User.create(readerId, "reader_" + suffix, Email.of("reader_" + suffix + "@example.com"), PasswordHash.newHash("hash1")));
+        userRepository.save(User.create(otherId, "other_" + suffix, Email.of("other_" + suffix + "@example.com"), PasswordHash.newHash("hash2")));
+
+        chatId = ChatId.of(UUID.randomUUID().toString());
+        directChatRepository.save(DirectChat.create(chatId, List.of(readerId, otherId)));
+    }
+
+    @Test
+    void upsertAll_shouldKeepOneRowPerChatAndUser() {
+        // given
+        MessageId first = sendMessage(chatId, t0);
+        MessageId second = sendMessage(chatId, t0.plusSeconds(1));
+
+        // when
+        receiptRepository.upsertAll(List.of(
+                new ReceiptAck(chatId, readerId, second, false),
+                new ReceiptAck(chatId, otherId, first, true)
+        ));
+        List<Receipt> written = receiptRepository.upsertAll(List.of(new ReceiptAck(chatId, readerId, first, true)));
+
+        // then
+        Map<String, Object> reader = row(readerId);
+        assertEquals(second.toUuid(), reader.get("delivered_message_id"));
+        assertEquals(first.toUuid(), reader.get("read_message_id"));
+        assertEquals(List.of(new Receipt(
+                chatId, readerId, new ReceiptCursor(t0.plusSeconds(1), second), new ReceiptCursor(t0, first)
+        )), written);
+
+        Map<String, Object> other = row(otherId);
+        assertEquals(first.toUuid(), other.get("delivered_message_id"));
+        assertEquals(first.toUuid(), other.get("read_message_id"));
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM chat_receipts WHERE chat_id = ?", Integer.class, chatId.toUuid()));
+    }
+
+    @Test
+    void upsertAll_shouldPlaceAcksByStoredMessageOrder() {
+        // given: acked newest first, as a client catching up out of order would
+        MessageId earlier = sendMessage(chatId, t0);
+        MessageId later = sendMessage(chatId, t0.plusSeconds(5));
+
+        // when
+        receiptRepository.upsertAll(List.of(
+                new ReceiptAck(chatId, readerId, later, true),
+                new ReceiptAck(chatId, readerId, earlier, true)
+        ));
+
+        // then
+        Map<String, Object> reader = row(readerId);
+        assertEquals(later.toUuid(), reader.get("delivered_message_id"));
+        assertEquals(later.toUuid(), reader.get("read_message_id"));
+    }
+
+    @Test
+    void upsertAll_shouldNeverMoveCursorsBack() {
+        // given
+        MessageId earlier = sendMessage(chatId, t0);
+        MessageId later = sendMessage(chatId, t0.plusSeconds(5));
+        receiptRepository.upsertAll(List.of(new ReceiptAck(chatId, readerId, later, true)));
+
+        // when
+        List<Receipt> written = receiptRepository.upsertAll(List.of(new ReceiptAck(chatId, readerId, earlier, true)));
+
+        // then
+        Map<String, Object> reader = row(readerId);
+        assertEquals(later.toUuid(), reader.get("delivered_message_id"));
+        assertEquals(later.toUuid(), reader.get("read_message_id"));
+        assertEquals(later, written.get(0).read().messageId());
+    }
+
+    @Test
+    void upsertAll_shouldDropAcksForUnknownMessagesOtherChatsAndMissingUsers() {
+        // given
+        ChatId otherChatId = ChatId.of(UUID.randomUUID().toString());
+        directChatRepository.save(DirectChat.create(otherChatId, List.of(readerId, otherId)));
+        MessageId inChat = sendMessage(chatId, t0);
+        MessageId inOtherChat = sendMessage(otherChatId, t0.plusSeconds(10));
+
+        // when
+        List<Receipt> written = receiptRepository.upsertAll(List.of(
+                new ReceiptAck(chatId, readerId, inChat, false),
+                new ReceiptAck(chatId, readerId, inOtherChat, true),
+                new ReceiptAck(chatId, otherId, MessageId.newId(), true),
+                new ReceiptAck(chatId, UserId.of(UUID.randomUUID().toString()), inChat, true)
+        ));
+
+        // then
+        assertEquals(List.of(Receipt.delivered(chatId, readerId, new ReceiptCursor(t0, inChat))), written);
+        Map<String, Object> reader = row(readerId);
+        assertEquals(inChat.toUuid(), reader.get("delivered_message_id"));
+        assertNull(reader.get("read_message_id"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM chat_receipts WHERE chat_id = ?", Integer.class, chatId.toUuid()));
+    }
+
+    private MessageId sendMessage(ChatId chat, Instant createdAt) {
+        MessageId messageId = MessageId.newId();
+        messageRepository.save(Message.restore(messageId, chat, otherId, "hello", createdAt, MessageStatus.SENT, null));
+        return messageId;
+    }
+
+    private Map<String, Object> row(UserId userId) {
+        return jdbcTemplate.queryForMap(
+                "SELECT * FROM chat_receipts WHERE chat_id = ? AND user_id = ?", chatId.toUuid(), userId.toUuid());
+    }
+}
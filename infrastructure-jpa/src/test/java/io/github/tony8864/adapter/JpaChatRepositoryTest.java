@@ -0,0 +1,109 @@
+package io.github.tony8864.adapter;
+
+import io.github.tony8864.chat.repository.ChatRepository;
+import io.github.tony8864.chat.repository.DirectChatRepository;
+import io.github.tony8864.chat.repository.GroupChatRepository;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.chat.ChatType;
+import io.github.tony8864.entities.chat.DirectChat;
+import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.participant.Participant;
+import io.github.tony8864.entities.participant.Role;
+import io.github.tony8864.entities.user.Email;
+import io.github.tony8864.entities.user.PasswordHash;
+import io.github.tony8864.entities.user.User;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+class JpaChatRepositoryTest {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DirectChatRepository directChatRepository;
+
+    @Autowired
+    private GroupChatRepository groupChatRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    private UserId user1Id;
+    private UserId user2Id;
+    private UserId user3Id;
+
+    @BeforeEach
+    void setupUsers() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        user1Id = UserId.of(UUID.randomUUID().toString());
+        user2Id = UserId.of(UUID.randomUUID().toString());
+        user3Id = UserId.of(UUID.randomUUID().toString());
+
+        userRepository.save(User.create(user1Id, "alice_" + suffix, Email.of("alice_" + suffix + "@example.com"), PasswordHash.newHash("hash1")));
+        userRepository.save(User.create(user2Id, "bob_" + suffix, Email.of("bob_" + suffix + "@example.com"), PasswordHash.newHash("hash2")));
+        userRepository.save(User.create(user3Id, "carol_" + suffix, Email.of("carol_" + suffix + "@example.com"), PasswordHash.newHash("hash3")));
+    }
+
+    @Test
+    void findTypeAndIsMember_shouldAnswerWithoutLoadingAggregate() {
+        // given
+        ChatId directId = ChatId.of(UUID.randomUUID().toString());
+        directChatRepository.save(DirectChat.create(directId, List.of(user1Id, user2Id)));
+
+        ChatId groupId = ChatId.of(UUID.randomUUID().toString());
+        groupChatRepository.add(GroupChat.create(
+                groupId,
+                List.of(
+                        Participant.create(user1Id, Role.ADMIN),
+                        Participant.create(user2Id, Role.MEMBER),
+                        Participant.create(user3Id, Role.MEMBER)
+                ),
+                "members-only"
+        ));
+
+        // then
+        assertEquals(Optional.of(ChatType.DIRECT), chatRepository.findType(directId));
+        assertEquals(Optional.of(ChatType.GROUP), chatRepository.findType(groupId));
+        assertTrue(chatRepository.findType(ChatId.of(UUID.randomUUID().toString())).isEmpty());
+
+        assertTrue(chatRepository.isMember(directId, user2Id));
+        assertFalse(chatRepository.isMember(directId, user3Id));
+        assertTrue(chatRepository.isMember(groupId, user3Id));
+        assertFalse(chatRepository.isMember(groupId, UserId.of(UUID.randomUUID().toString())));
+
+        assertEquals(Set.of(user1Id, user2Id), Set.copyOf(chatRepository.findMemberIds(directId)));
+        assertEquals(Set.of(user1Id, user2Id, user3Id), Set.copyOf(chatRepository.findMemberIds(groupId)));
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.tony8864.adapter;
+
+import io.github.tony8864.chat.repository.ChatSummaryRepository;
+import io.github.tony8864.chat.repository.DirectChatRepository;
+import io.github.tony8864.chat.repository.GroupChatRepository;
+import io.github.tony8864.chat.usecase.listchats.dto.ChatSummaryDto;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.chat.DirectChat;
+import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.message.MessageStatus;
+import io.github.tony8864.entities.participant.Participant;
+import io.github.tony8864.entities.participant.Role;
+import io.github.tony8864.entities.user.Email;
+import io.github.tony8864.entities.user.PasswordHash;
+import io.github.tony8864.entities.user.User;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.repository.MessageRepository;
+import io.github.tony8864.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Testcontainers
+class JpaChatSummaryRepositoryTest {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DirectChatRepository directChatRepository;
+
+    @Autowired
+    private GroupChatRepository groupChatRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ChatSummaryRepository chatSummaryRepository;
+
+    private String suffix;
+    private UserId aliceId;
+    private UserId bobId;
+    private UserId carolId;
+    private UserId daveId;
+
+    @BeforeEach
+    void setupUsers() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        aliceId = saveUser("alice");
+        bobId = saveUser("bob");
+        carolId = saveUser("carol");
+        daveId = saveUser("dave");
+    }
+
+    @Test
+    void findInbox_shouldReturnChatsOrderedByLastMessageWithPartnerNames() {
+        // given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        DirectChat withBob = DirectChat.create(ChatId.of(UUID.randomUUID().toString()), List.of(aliceId, bobId));
+        directChatRepository.save(withBob);
+        withBob.updateLastMessage(sendMessage(withBob.getChatId(), bobId, "hi alice", now.minusSeconds(60)));
+        directChatRepository.save(withBob);
+
+        GroupChat team = GroupChat.create(
+                ChatId.of(UUID.randomUUID().toString()),
+                List.of(
+                        Participant.create(aliceId, Role.ADMIN),
+                        Participant.create(carolId, Role.MEMBER),
+                        Participant.create(daveId, Role.MEMBER)
+                ),
+                "team"
+        );
+        groupChatRepository.add(team);
+        groupChatRepository.updateLastMessage(
+                team.getChatId(), sendMessage(team.getChatId(), carolId, "standup in 5", now), now
+        );
+
+        DirectChat withCarol = DirectChat.create(ChatId.of(UUID.randomUUID().toString()), List.of(carolId, aliceId));
+        directChatRepository.save(withCarol);
+
+        // when
+        List<ChatSummaryDto> inbox = chatSummaryRepository.findInbox(aliceId, null, null, 10);
+
+        // then
+        assertEquals(3, inbox.size());
+
+        assertEquals(team.getChatId().getValue(), inbox.get(0).chatId());
+        assertEquals("GROUP", inbox.get(0).type());
+        assertEquals("team", inbox.get(0).name());
+        assertEquals("standup in 5", inbox.get(0).lastMessage());
+        assertEquals(now, inbox.get(0).lastMessageAt());
+
+        assertEquals(withBob.getChatId().getValue(), inbox.get(1).chatId());
+        assertEquals("DIRECT", inbox.get(1).type());
+        assertEquals("bob_" + suffix, inbox.get(1).name());
+        assertEquals("hi alice", inbox.get(1).lastMessage());
+
+        assertEquals(withCarol.getChatId().getValue(), inbox.get(2).chatId());
+        assertEquals("carol_" + suffix, inbox.get(2).name());
+        assertNull(inbox.get(2).lastMessage());
+        assertNull(inbox.get(2).lastMessageAt());
+    }
+
+    @Test
+    void findInbox_shouldContinueFromCursor() {
+        // given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        DirectChat withBob = DirectChat.create(ChatId.of(UUID.randomUUID().toString()), List.of(aliceId, bobId));
+        directChatRepository.save(withBob);
+        withBob.updateLastMessage(sendMessage(withBob.getChatId(), aliceId, "older", now.minusSeconds(30)));
+        directChatRepository.save(withBob);
+
+        DirectChat withCarol = DirectChat.create(ChatId.of(UUID.randomUUID().toString()), List.of(aliceId, carolId));
+        directChatRepository.save(withCarol);
+        withCarol.updateLastMessage(sendMessage(withCarol.getChatId(), aliceId, "newer", now));
+        directChatRepository.save(withCarol);
+
+        DirectChat withDave = DirectChat.create(ChatId.of(UUID.randomUUID().toString()), List.of(aliceId, daveId));
+        directChatRepository.save(withDave);
+
+        // when
+        List<ChatSummaryDto> firstPage = chatSummaryRepository.findInbox(aliceId, null, null, 1);
+        ChatSummaryDto firstLast = firstPage.get(firstPage.size() - 1);
+        List<ChatSummaryDto> secondPage = chatSummaryRepository.findInbox(
+                aliceId, firstLast.lastMessageAt(), ChatId.of(firstLast.chatId()), 1
+        );
+        ChatSummaryDto secondLast = secondPage.get(secondPage.size() - 1);
+        List<ChatSummaryDto> thirdPage = chatSummaryRepository.findInbox(
+                aliceId, secondLast.lastMessageAt(), ChatId.of(secondLast.chatId()), 1
+        );
+        ChatSummaryDto thirdLast = thirdPage.get(thirdPage.size() - 1);
+        List<ChatSummaryDto> fourthPage = chatSummaryRepository.findInbox(
+                aliceId, thirdLast.lastMessageAt(), ChatId.of(thirdLast.chatId()), 1
+        );
+
+        // then
+        assertEquals(withCarol.getChatId().getValue(), firstLast.chatId());
+        assertEquals(withBob.getChatId().getValue(), secondLast.chatId());
+        assertEquals(withDave.getChatId().getValue(), thirdLast.chatId());
+        assertTrue(fourthPage.isEmpty());
+    }
+
+    @Test
+    void findInbox_shouldFollowGroupMembershipChanges() {
+        // given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        GroupChat team = GroupChat.create(
+                ChatId.of(UUID.randomUUID().toString()),
+                List.of(
+                        Participant.create(aliceId, Role.ADMIN),
+                        Participant.create(bobId, Role.MEMBER),
+                        Participant.create(carolId, Role.MEMBER)
+                ),
+                "team"
+        );
+        groupChatRepository.add(team);
+        groupChatRepository.updateLastMessage(
+                team.getChatId(), sendMessage(team.getChatId(), aliceId, "welcome", now), now
+        );
+
+        // when
+        team.removeParticipant(aliceId, bobId);
+        team.addParticipant(aliceId, Participant.create(daveId, Role.MEMBER));
+        groupChatRepository.save(team);
+
+        // then
+        assertTrue(chatSummaryRepository.findInbox(bobId, null, null, 10).isEmpty());
+
+        List<ChatSummaryDto> daveInbox = chatSummaryRepository.findInbox(daveId, null, null, 10);
+        assertEquals(1, daveInbox.size());
+        assertEquals("welcome", daveInbox.get(0).lastMessage());
+        assertEquals(now, daveInbox.get(0).lastMessageAt());
+    }
+
+    private MessageId sendMessage(ChatId chatId, UserId senderId, String content, Instant createdAt) {
+        MessageId messageId = MessageId.of(UUID.randomUUID().toString());
+        messageRepository.save(Message.restore(
+                messageId, chatId, senderId, content, createdAt, MessageStatus.SENT, null
+        ));
+        return messageId;
+    }
+
+    private UserId saveUser(String name) {
+        UserId id = UserId.of(UUID.randomUUID().toString());
+        userRepository.save(User.create(
+                id,
+                name + "_" + suffix,
+                Email.of(name + "_" + suffix + "@example.com"),
+                PasswordHash.newHash("hash")
+        ));
+        return id;
+    }
+}
@@ -3,12 +3,16 @@ package io.github.tony8864.adapter;
 import io.github.tony8864.chat.repository.GroupChatRepository;
 import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.message.MessageStatus;
 import io.github.tony8864.entities.participant.Participant;
 import io.github.tony8864.entities.participant.Role;
 import io.github.tony8864.entities.user.Email;
 import io.github.tony8864.entities.user.PasswordHash;
 import io.github.tony8864.entities.user.User;
 import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.repository.MessageRepository;
 import io.github.tony8864.user.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +24,8 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -49,6 +55,9 @@ class JpaGroupChatRepositoryTest {
     @Autowired
     private GroupChatRepository groupChatRepository;
 
+    @Autowired
+    private MessageRepository messageRepository;
+
     private UserId user1Id;
     private UserId user2Id;
     private UserId user3Id;
@@ -121,6 +130,63 @@ class JpaGroupChatRepositoryTest {
         assertTrue(loaded.getParticipants().stream().anyMatch(p -> p.getRole() == Role.ADMIN));
     }
 
+    @Test
+    void add_shouldInsertNewGroupChatWithParticipants() {
+        // given
+        ChatId chatId = ChatId.of(UUID.randomUUID().toString());
+        GroupChat chat = GroupChat.create(
+                chatId,
+                List.of(
+                        Participant.create(user1Id, Role.ADMIN),
+                        Participant.create(user2Id, Role.MEMBER),
+                        Participant.create(user3Id, Role.MEMBER)
+                ),
+                "new-team"
+        );
+
+        // when
+        groupChatRepository.add(chat);
+
+        // then
+        GroupChat loaded = groupChatRepository.findById(chatId).orElseThrow();
+        assertEquals("new-team", loaded.getGroupName());
+        assertEquals(3, loaded.getParticipants().size());
+    }
+
+    @Test
+    void save_shouldApplyOnlyParticipantChanges() {
+        // given
+        ChatId chatId = ChatId.of(UUID.randomUUID().toString());
+        GroupChat chat = GroupChat.create(
+                chatId,
+                List.of(
+                        Participant.create(user1Id, Role.ADMIN),
+                        Participant.create(user2Id, Role.MEMBER),
+                        Participant.create(user3Id, Role.MEMBER)
+                ),
+                "ops-team"
+        );
+        groupChatRepository.add(chat);
+
+        GroupChat loaded = groupChatRepository.findById(chatId).orElseThrow();
+        loaded.addParticipant(user1Id, Participant.create(extraUserId, Role.MEMBER));
+        loaded.removeParticipant(user1Id, user3Id);
+        loaded.rename("ops-team-renamed");
+
+        // when
+        groupChatRepository.save(loaded);
+
+        // then
+        assertTrue(loaded.getAddedParticipants().isEmpty());
+        assertTrue(loaded.getRemovedParticipants().isEmpty());
+
+        GroupChat reloaded = groupChatRepository.findById(chatId).orElseThrow();
+        assertEquals("ops-team-renamed", reloaded.getGroupName());
+        assertEquals(3, reloaded.getParticipants().size());
+        assertTrue(reloaded.getParticipants().stream().anyMatch(p -> p.getUserId().equals(extraUserId)));
+        assertTrue(reloaded.getParticipants().stream().noneMatch(p -> p.getUserId().equals(user3Id)));
+    }
+
     @Test
     void delete_shouldRemoveGroupChat() {
         // given
@@ -202,4 +268,35 @@ class JpaGroupChatRepositoryTest {
         // then
         assertTrue(user3Chats.isEmpty(), "User3 should not be in any chat");
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateLastMessage_shouldOnlyMovePointerForward() {
+        // given
+        ChatId chatId = ChatId.of(UUID.randomUUID().toString());
+        GroupChat chat = GroupChat.create(
+                chatId,
+                List.of(
+                        Participant.create(user1Id, Role.ADMIN),
+                        Participant.create(user2Id, Role.MEMBER),
+                        Participant.create(user3Id, Role.MEMBER)
+                ),
+                "pointer-team"
+        );
+        groupChatRepository.add(chat);
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Message newer = Message.restore(MessageId.of(UUID.randomUUID().toString()), chatId, user1Id, "newer", now, MessageStatus.SENT, null);
+        Message older = Message.restore(MessageId.of(UUID.randomUUID().toString()), chatId, user2Id, "older", now.minusSeconds(5), MessageStatus.SENT, null);
+        messageRepository.add(newer);
+        messageRepository.add(older);
+
+        // when
+        groupChatRepository.updateLastMessage(chatId, newer.getMessageId(), newer.getCreatedAt());
+        groupChatRepository.updateLastMessage(chatId, older.getMessageId(), older.getCreatedAt());
+
+        // then
+        GroupChat loaded = groupChatRepository.findById(chatId).orElseThrow();
+        assertEquals(newer.getMessageId(), loaded.getLastMessageId());
+        assertEquals(3, loaded.getParticipants().size());
+    }
+}
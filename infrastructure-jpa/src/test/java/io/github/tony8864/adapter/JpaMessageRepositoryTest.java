@@ -6,8 +6,10 @@ import io.github.tony8864.entities.message.MessageId;
 import io.github.tony8864.entities.message.MessageStatus;
 import io.github.tony8864.entities.user.UserId;
 import io.github.tony8864.entity.GroupChatEntity;
+import io.github.tony8864.entity.MessageEntity;
 import io.github.tony8864.entity.UserEntity;
 import io.github.tony8864.mapping.MessageMapper;
+import io.github.tony8864.repository.JdbcOutboxRepository;
 import io.github.tony8864.repository.SpringDataGroupChatRepository;
 import io.github.tony8864.repository.SpringDataMessageRepository;
 import io.github.tony8864.repository.SpringDataUserRepository;
@@ -16,6 +18,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -23,9 +26,12 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
 @SpringBootTest
@@ -56,6 +62,9 @@ class JpaMessageRepositoryTest {
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private JdbcOutboxRepository outboxRepository;
+
     private JpaMessageRepository jpaMessageRepository;
 
     @BeforeEach
@@ -64,7 +73,8 @@ class JpaMessageRepositoryTest {
                 springDataMessageRepository,
                 springDataUserRepository,
                 entityManager,
-                new MessageMapper()
+                new MessageMapper(),
+                outboxRepository
         );
     }
 
@@ -132,4 +142,143 @@ class JpaMessageRepositoryTest {
         assertThat(twoMessages.get(0).getContent()).isEqualTo("second message");
         assertThat(twoMessages.get(1).getContent()).isEqualTo("first message");
     }
-}
\ No newline at end of file
+
+    @Test
+    void findLastMessages_shouldResolveLastMessagePointerPerChat() {
+        // given
+        UUID userId = UUID.randomUUID();
+        springDataUserRepository.save(
+                UserEntity.builder()
+                        .id(userId)
+                        .username("carol")
+                        .email("carol@example.com")
+                        .passwordHash("secret")
+                        .createdAt(Instant.now())
+                        .status("ACTIVE")
+                        .build()
+        );
+
+        UUID activeChatId = UUID.randomUUID();
+        UUID silentChatId = UUID.randomUUID();
+        springDataGroupChatRepository.save(
+                new GroupChatEntity(activeChatId, "Active Group", "ACTIVE", Instant.now(), null, List.of())
+        );
+        springDataGroupChatRepository.save(
+                new GroupChatEntity(silentChatId, "Silent Group", "ACTIVE", Instant.now(), null, List.of())
+        );
+
+        Message message = Message.restore(
+                MessageId.of(UUID.randomUUID().toString()),
+                ChatId.of(activeChatId.toString()),
+                UserId.of(userId.toString()),
+                "latest message",
+                Instant.now(),
+                MessageStatus.SENT,
+                null
+        );
+        jpaMessageRepository.save(message);
+
+        MessageEntity lastMessage = springDataMessageRepository
+                .findById(UUID.fromString(message.getMessageId().getValue()))
+                .orElseThrow();
+        springDataGroupChatRepository.save(
+                new GroupChatEntity(activeChatId, "Active Group", "ACTIVE", Instant.now(), lastMessage, List.of())
+        );
+
+        // when
+        Map<ChatId, Message> lastMessages = jpaMessageRepository.findLastMessages(
+                List.of(ChatId.of(activeChatId.toString()), ChatId.of(silentChatId.toString()))
+        );
+
+        // then
+        assertThat(lastMessages).hasSize(1);
+        assertThat(lastMessages.get(ChatId.of(activeChatId.toString())).getContent()).isEqualTo("latest message");
+        assertThat(jpaMessageRepository.findLastMessage(ChatId.of(silentChatId.toString()))).isEmpty();
+    }
+
+    @Test
+    void findMessagesBeforeAndAfter_shouldPageAroundCursor() {
+        // given
+        UUID userId = UUID.randomUUID();
+        springDataUserRepository.save(
+                UserEntity.builder()
+                        .id(userId)
+                        .username("dave")
+                        .email("dave@example.com")
+                        .passwordHash("secret")
+                        .createdAt(Instant.now())
+                        .status("ACTIVE")
+                        .build()
+        );
+
+        UUID chatId = UUID.randomUUID();
+        springDataGroupChatRepository.save(
+                new GroupChatEntity(chatId, "Paged Group", "ACTIVE", Instant.now(), null, List.of())
+        );
+
+        Instant base = Instant.parse("2025-09-13T10:00:00Z");
+        List<Message> history = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Message message = Message.restore(
+                    MessageId.of(UUID.randomUUID().toString()),
+                    ChatId.of(chatId.toString()),
+                    UserId.of(userId.toString()),
+                    "message " + i,
+                    base.plusSeconds(i),
+                    MessageStatus.SENT,
+                    null
+            );
+            jpaMessageRepository.save(message);
+            history.add(message);
+        }
+        Message cursor = history.get(2);
+
+        // when
+        List<Message> before = jpaMessageRepository.findMessagesBefore(
+                ChatId.of(chatId.toString()), cursor.getCreatedAt(), cursor.getMessageId(), 10
+        );
+        List<Message> after = jpaMessageRepository.findMessagesAfter(
+                ChatId.of(chatId.toString()), cursor.getCreatedAt(), cursor.getMessageId(), 1
+        );
+
+        // then
+        assertThat(before).extracting(Message::getContent).containsExactly("message 1", "message 0");
+        assertThat(after).extracting(Message::getContent).containsExactly("message 3");
+    }
+
+    @Test
+    void add_shouldInsertWithoutMergingExistingRow() {
+        // given
+        UUID userId = UUID.randomUUID();
+        springDataUserRepository.save(
+                UserEntity.builder()
+                        .id(userId)
+                        .username("erin")
+                        .email("erin@example.com")
+                        .passwordHash("secret")
+                        .createdAt(Instant.now())
+                        .status("ACTIVE")
+                        .build()
+        );
+
+        UUID chatId = UUID.randomUUID();
+        springDataGroupChatRepository.save(
+                new GroupChatEntity(chatId, "Insert Group", "ACTIVE", Instant.now(), null, List.of())
+        );
+
+        Message message = Message.create(
+                MessageId.of(UUID.randomUUID().toString()),
+                ChatId.of(chatId.toString()),
+                UserId.of(userId.toString()),
+                "inserted once"
+        );
+
+        // when
+        jpaMessageRepository.add(message);
+
+        // then: a second add is a plain INSERT, so the duplicate key surfaces instead of being merged
+        assertThat(springDataMessageRepository.findById(UUID.fromString(message.getMessageId().getValue()))).isPresent();
+        assertThatThrownBy(() -> jpaMessageRepository.add(message))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -2,18 +2,22 @@ package io.github.tony8864.adapter;
 
 import io.github.tony8864.entities.user.Email;
 import io.github.tony8864.entities.user.PasswordHash;
+import io.github.tony8864.entities.user.PresenceStatus;
 import io.github.tony8864.entities.user.User;
 import io.github.tony8864.entities.user.UserId;
 import io.github.tony8864.user.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -39,6 +43,9 @@ class JpaUserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void saveAndFindById() {
         UserId id = UserId.of(UUID.randomUUID().toString());
@@ -113,4 +120,69 @@ class JpaUserRepositoryTest {
 
         assertTrue(found.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateStatusesShouldWriteEveryStatus() {
+        UserId online = UserId.of(UUID.randomUUID().toString());
+        UserId away = UserId.of(UUID.randomUUID().toString());
+        userRepository.save(User.create(online, "statusonline", Email.of("statusonline@example.com"), PasswordHash.newHash("hash123")));
+        userRepository.save(User.create(away, "statusaway", Email.of("statusaway@example.com"), PasswordHash.newHash("hash123")));
+
+        userRepository.updateStatuses(UUID.randomUUID().toString(), Map.of(online, PresenceStatus.ONLINE, away, PresenceStatus.AWAY));
+
+        assertEquals(PresenceStatus.ONLINE, userRepository.findById(online).orElseThrow().getStatus());
+        assertEquals(PresenceStatus.AWAY, userRepository.findById(away).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateStatusesShouldKeepUserOnlineWhileAnyNodeHasThem() {
+        UserId id = UserId.of(UUID.randomUUID().toString());
+        userRepository.save(User.create(id, "twonodes", Email.of("twonodes@example.com"), PasswordHash.newHash("hash123")));
+        String nodeA = UUID.randomUUID().toString();
+        String nodeB = UUID.randomUUID().toString();
+
+        userRepository.updateStatuses(nodeA, Map.of(id, PresenceStatus.ONLINE));
+        userRepository.updateStatuses(nodeB, Map.of(id, PresenceStatus.AWAY));
+        Map<UserId, PresenceStatus> afterDisconnectOnA = userRepository.updateStatuses(nodeA, Map.of(id, PresenceStatus.OFFLINE));
+
+        assertEquals(Map.of(id, PresenceStatus.AWAY), afterDisconnectOnA);
+        assertEquals(PresenceStatus.AWAY, userRepository.findById(id).orElseThrow().getStatus());
+
+        userRepository.updateStatuses(nodeB, Map.of(id, PresenceStatus.OFFLINE));
+        assertEquals(PresenceStatus.OFFLINE, userRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void expireNodesShouldDropWhatSilentNodesWrote() {
+        UserId id = UserId.of(UUID.randomUUID().toString());
+        userRepository.save(User.create(id, "crashed", Email.of("crashed@example.com"), PasswordHash.newHash("hash123")));
+        String crashed = UUID.randomUUID().toString();
+        userRepository.updateStatuses(crashed, Map.of(id, PresenceStatus.ONLINE));
+        jdbcTemplate.update("UPDATE presence_nodes SET seen_at = now() - interval '1 minute' WHERE node_id = ?", UUID.fromString(crashed));
+
+        Map<UserId, PresenceStatus> recomputed = userRepository.expireNodes(Duration.ofSeconds(30));
+
+        assertEquals(PresenceStatus.OFFLINE, recomputed.get(id));
+        assertEquals(PresenceStatus.OFFLINE, userRepository.findById(id).orElseThrow().getStatus());
+        assertFalse(userRepository.touchNode(crashed));
+        assertTrue(userRepository.touchNode(crashed));
+    }
+
+    @Test
+    void updateStatusesShouldSkipDeletedUsers() {
+        UserId missing = UserId.of(UUID.randomUUID().toString());
+
+        assertTrue(userRepository.updateStatuses(UUID.randomUUID().toString(), Map.of(missing, PresenceStatus.ONLINE)).isEmpty());
+    }
+
+    @Test
+    void findStatusShouldReturnStatusAcrossNodes() {
+        UserId id = UserId.of(UUID.randomUUID().toString());
+        userRepository.save(User.create(id, "statusread", Email.of("statusread@example.com"), PasswordHash.newHash("hash123")));
+
+        userRepository.updateStatuses(UUID.randomUUID().toString(), Map.of(id, PresenceStatus.AWAY));
+
+        assertEquals(Optional.of(PresenceStatus.AWAY), userRepository.findStatus(id));
+        assertTrue(userRepository.findStatus(UserId.of(UUID.randomUUID().toString())).isEmpty());
+    }
+}
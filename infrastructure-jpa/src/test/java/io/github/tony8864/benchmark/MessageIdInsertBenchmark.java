@@ -0,0 +1,84 @@
+package io.github.tony8864.benchmark;
+
+import io.github.tony8864.entities.common.UuidV7;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Run with: mvn -pl infrastructure-jpa -am test -Dtest=MessageIdInsertBenchmark -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false
+@SpringBootTest
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MessageIdInsertBenchmark {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareRandomAndTimeOrderedMessageIds() {
+        UUID chatId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO chats (id, chat_type) VALUES (?, 'DIRECT')", chatId);
+        jdbcTemplate.update(
+                "INSERT INTO users (id, username, email, password_hash, created_at) VALUES (?, ?, ?, ?, now())",
+                userId, "bench_" + userId, userId + "@example.com", "hash"
+        );
+
+        run("warmup", UUID::randomUUID, chatId, userId, ROWS / 10);
+        run("warmup", UuidV7::next, chatId, userId, ROWS / 10);
+
+        run("uuid v4", UUID::randomUUID, chatId, userId, ROWS);
+        run("uuid v7", UuidV7::next, chatId, userId, ROWS);
+    }
+
+    private void run(String label, Supplier<UUID> ids, UUID chatId, UUID userId, int rows) {
+        jdbcTemplate.execute("TRUNCATE messages CASCADE");
+
+        long start = System.nanoTime();
+        for (int inserted = 0; inserted < rows; inserted += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            Timestamp now = Timestamp.from(Instant.now());
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(new Object[]{ids.get(), chatId, userId, now, "benchmark", "SENT"});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO messages (id, chat_id, user_id, created_at, content, status) VALUES (?, ?, ?, ?, ?, ?)",
+                    batch
+            );
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        Long indexBytes = jdbcTemplate.queryForObject("SELECT pg_relation_size('messages_pkey')", Long.class);
+        System.out.printf("%-8s rows=%d time=%dms throughput=%.0f rows/s pkey=%.1fMB%n",
+                label, rows, elapsedNanos / 1_000_000, rows / (elapsedNanos / 1e9), indexBytes / 1024.0 / 1024.0);
+    }
+}
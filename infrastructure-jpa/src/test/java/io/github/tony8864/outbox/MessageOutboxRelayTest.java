@@ -0,0 +1,208 @@
+package io.github.tony8864.outbox;
+
+import io.github.tony8864.chat.repository.GroupChatRepository;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.chat.GroupChat;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.participant.Participant;
+import io.github.tony8864.entities.participant.Role;
+import io.github.tony8864.entities.user.Email;
+import io.github.tony8864.entities.user.PasswordHash;
+import io.github.tony8864.entities.user.User;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.repository.MessageEventPublisher;
+import io.github.tony8864.message.repository.MessageRepository;
+import io.github.tony8864.repository.JdbcOutboxRepository;
+import io.github.tony8864.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+class MessageOutboxRelayTest {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private GroupChatRepository groupChatRepository;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private JdbcOutboxRepository outboxRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Autowired private DataSource dataSource;
+
+    private final List<Message> published = new CopyOnWriteArrayList<>();
+    private final List<MessageOutboxRelay> relays = new ArrayList<>();
+
+    private UserId senderId;
+    private ChatId firstChatId;
+    private ChatId secondChatId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM outbox");
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        List<UserId> userIds = List.of(UserId.newId(), UserId.newId(), UserId.newId());
+        for (int i = 0; i < userIds.size(); i++) {
+            userRepository.add(User.create(
+                    userIds.get(i), "user" + i + "_" + suffix, Email.of("user" + i + "_" + suffix + "@example.com"), PasswordHash.newHash("hash")
+            ));
+        }
+        senderId = userIds.get(0);
+
+        firstChatId = ChatId.newId();
+        secondChatId = ChatId.newId();
+        List<Participant> participants = List.of(
+                Participant.create(userIds.get(0), Role.ADMIN),
+                Participant.create(userIds.get(1), Role.MEMBER),
+                Participant.create(userIds.get(2), Role.MEMBER)
+        );
+        groupChatRepository.add(GroupChat.create(firstChatId, participants, "First"));
+        groupChatRepository.add(GroupChat.create(secondChatId, participants, "Second"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        relays.forEach(MessageOutboxRelay::stop);
+    }
+
+    @Test
+    void relayOnce_shouldPublishInOutboxOrderAndDeleteRows() {
+        // given
+        send(firstChatId, "first 1");
+        send(secondChatId, "second 1");
+        send(firstChatId, "first 2");
+
+        MessageOutboxRelay relay = relay(message -> published.add(message), 10);
+
+        // when
+        int relayed = relay.relayOnce();
+
+        // then
+        assertThat(relayed).isEqualTo(3);
+        assertThat(published).extracting(Message::getContent).containsExactly("first 1", "second 1", "first 2");
+        assertThat(outboxRepository.findMessageSentBatch(10)).isEmpty();
+        assertThat(relay.relayOnce()).isZero();
+    }
+
+    @Test
+    void relayOnce_publishFails_shouldHoldBackLaterEventsOfThatChatOnly() {
+        // given
+        send(firstChatId, "first 1");
+        send(secondChatId, "second 1");
+        send(firstChatId, "first 2");
+
+        MessageOutboxRelay failingFirstChat = relay(message -> {
+            if (message.getChatId().equals(firstChatId)) {
+                throw new IllegalStateException("broker unavailable");
+            }
+            published.add(message);
+        }, 10);
+
+        // when
+        failingFirstChat.relayOnce();
+        failingFirstChat.stop();
+        relay(message -> published.add(message), 10).relayOnce();
+
+        // then
+        assertThat(failingFirstChat.getFailed()).isEqualTo(1);
+        assertThat(published).extracting(Message::getContent).containsExactly("second 1", "first 1", "first 2");
+    }
+
+    @Test
+    void relayOnce_transactionInFlight_shouldHoldBackRowsWrittenAfterIt() throws SQLException {
+        // given
+        send(firstChatId, "before");
+        MessageOutboxRelay relay = relay(message -> published.add(message), 10);
+
+        try (Connection inFlight = dataSource.getConnection()) {
+            inFlight.setAutoCommit(false);
+            try (Statement statement = inFlight.createStatement()) {
+                statement.execute("SELECT pg_current_xact_id()");
+            }
+            send(firstChatId, "after");
+
+            // when
+            int whileInFlight = relay.relayOnce();
+            inFlight.rollback();
+
+            // then
+            assertThat(whileInFlight).isEqualTo(1);
+        }
+        assertThat(relay.relayOnce()).isEqualTo(1);
+        assertThat(published).extracting(Message::getContent).containsExactly("before", "after");
+    }
+
+    @Test
+    void relayOnce_anotherRelayHoldsLease_shouldPublishNothing() {
+        // given
+        send(firstChatId, "first 1");
+        MessageOutboxRelay leader = relay(message -> published.add(message), 10);
+        MessageOutboxRelay follower = relay(message -> published.add(message), 10);
+        leader.relayOnce();
+        send(firstChatId, "first 2");
+
+        // when
+        int followerRelayed = follower.relayOnce();
+        leader.stop();
+
+        // then
+        assertThat(followerRelayed).isZero();
+        assertThat(follower.relayOnce()).isEqualTo(1);
+        assertThat(published).extracting(Message::getContent).containsExactly("first 1", "first 2");
+    }
+
+    private void send(ChatId chatId, String content) {
+        messageRepository.add(Message.create(MessageId.newId(), chatId, senderId, content));
+    }
+
+    private MessageOutboxRelay relay(MessageEventPublisher publisher, int batchSize) {
+        MessageOutboxRelay relay = new MessageOutboxRelay(
+                outboxRepository,
+                new TransactionTemplate(transactionManager),
+                publisher,
+                batchSize,
+                Duration.ofMillis(100),
+                Clock.systemUTC()
+        );
+        relays.add(relay);
+        return relay;
+    }
+}
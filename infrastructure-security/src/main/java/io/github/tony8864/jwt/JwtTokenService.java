@@ -2,30 +2,64 @@ package io.github.tony8864.jwt;
 
 import io.github.tony8864.security.TokenService;
 import io.github.tony8864.security.UserClaims;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
-import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class JwtTokenService implements TokenService {
 
+    private static final int DEFAULT_MAX_CACHED_TOKENS = 10_000;
+    private static final int MAX_STRIPES = 64;
+
     private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Clock clock;
+    private final Stripe[] stripes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
 
     public JwtTokenService(String secret) {
+        this(secret, DEFAULT_MAX_CACHED_TOKENS, Clock.systemUTC());
+    }
+
+    public JwtTokenService(String secret, int maxCachedTokens, Clock clock) {
         this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.clock = clock;
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+
+        // every authenticated request verifies a token, so tokens are spread over independently locked LRU maps
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, maxCachedTokens)));
+        int tokensPerStripe = (maxCachedTokens + stripeCount - 1) / stripeCount;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(tokensPerStripe);
+        }
     }
 
     @Override
     public String generate(UserClaims claims, Duration expiry) {
-        Instant now = Instant.now();
-        Instant expiryInstant = now.plus(expiry);
+        Instant now = clock.instant();
 
         return Jwts.builder()
                 .subject(claims.userId())
@@ -39,23 +73,88 @@ public class JwtTokenService implements TokenService {
 
     @Override
     public UserClaims verifyToken(String token) {
+        String digest = digest(token);
+        Instant now = clock.instant();
+        Stripe stripe = stripe(digest);
+
+        synchronized (stripe) {
+            CachedClaims cached = stripe.entries.get(digest);
+            if (cached != null) {
+                if (now.isBefore(cached.expiresAt())) {
+                    hits.incrementAndGet();
+                    return cached.claims();
+                }
+                stripe.entries.remove(digest);
+            }
+        }
+        misses.incrementAndGet();
+
         try {
-            var claims = Jwts.parser()
-                    .verifyWith(signingKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
 
             String userId = claims.getSubject();
             String email = claims.get("email", String.class);
 
             @SuppressWarnings("unchecked")
             List<String> rolesList = claims.get("roles", List.class);
-            HashSet<String> roles = new HashSet<>(rolesList);
+            UserClaims userClaims = new UserClaims(userId, email, Set.copyOf(rolesList));
 
-            return new UserClaims(userId, email, roles);
+            Date expiration = claims.getExpiration();
+            if (expiration != null) {
+                synchronized (stripe) {
+                    stripe.entries.put(digest, new CachedClaims(userClaims, expiration.toInstant()));
+                }
+            }
+            return userClaims;
         } catch (JwtException e) {
             throw new InvalidTokenException("Invalid or expired JWT", e);
         }
     }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int getCachedTokenCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.entries.size();
+            }
+        }
+        return count;
+    }
+
+    private Stripe stripe(String digest) {
+        return stripes[digest.hashCode() & (stripes.length - 1)];
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Stripe {
+        private final Map<String, CachedClaims> entries;
+
+        private Stripe(int maxTokens) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                    return size() > maxTokens;
+                }
+            };
+        }
+    }
+
+    private record CachedClaims(UserClaims claims, Instant expiresAt) {
+    }
 }
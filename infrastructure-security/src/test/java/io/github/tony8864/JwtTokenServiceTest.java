@@ -6,11 +6,15 @@ import io.github.tony8864.security.UserClaims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class JwtTokenServiceTest {
     private JwtTokenService jwtTokenService;
@@ -73,4 +77,85 @@ class JwtTokenServiceTest {
         assertThat(verified.email()).isEqualTo("claims@example.com");
         assertThat(verified.roles()).containsExactly("ADMIN");
     }
-}
\ No newline at end of file
+
+    @Test
+    void verifyToken_SameTokenTwice_ShouldServeSecondFromCache() {
+        // given
+        UserClaims claims = new UserClaims("123", "test@example.com", Set.of("USER"));
+        String token = jwtTokenService.generate(claims, Duration.ofMinutes(5));
+
+        // when
+        UserClaims first = jwtTokenService.verifyToken(token);
+        UserClaims second = jwtTokenService.verifyToken(token);
+
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(jwtTokenService.getMisses()).isEqualTo(1);
+        assertThat(jwtTokenService.getHits()).isEqualTo(1);
+        assertThat(jwtTokenService.getCachedTokenCount()).isEqualTo(1);
+    }
+
+    @Test
+    void verifyToken_CachedTokenPastExpiry_ShouldThrowInvalidTokenException() {
+        // given
+        Clock clock = mock(Clock.class);
+        Instant issuedAt = Instant.parse("2025-09-13T10:00:00Z");
+        when(clock.instant()).thenReturn(issuedAt);
+        JwtTokenService service = new JwtTokenService("test-secret-key-12345678901234567890", 10, clock);
+        String token = service.generate(new UserClaims("123", "test@example.com", Set.of("USER")), Duration.ofMinutes(5));
+        service.verifyToken(token);
+
+        // when
+        when(clock.instant()).thenReturn(issuedAt.plus(Duration.ofMinutes(6)));
+
+        // then
+        assertThatThrownBy(() -> service.verifyToken(token))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThat(service.getCachedTokenCount()).isZero();
+    }
+
+    @Test
+    void verifyToken_TamperedToken_ShouldNotBeServedFromCache() {
+        // given
+        UserClaims claims = new UserClaims("123", "test@example.com", Set.of("USER"));
+        String token = jwtTokenService.generate(claims, Duration.ofMinutes(5));
+        jwtTokenService.verifyToken(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // when / then
+        assertThatThrownBy(() -> jwtTokenService.verifyToken(tampered))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void verifyToken_CacheFull_ShouldEvictLeastRecentlyUsedToken() {
+        // given
+        JwtTokenService service = new JwtTokenService("test-secret-key-12345678901234567890", 1, Clock.systemUTC());
+        String first = service.generate(new UserClaims("1", "a@example.com", Set.of("USER")), Duration.ofMinutes(5));
+        String second = service.generate(new UserClaims("2", "b@example.com", Set.of("USER")), Duration.ofMinutes(5));
+
+        // when
+        service.verifyToken(first);
+        service.verifyToken(second);
+        service.verifyToken(first);
+
+        // then
+        assertThat(service.getMisses()).isEqualTo(3);
+        assertThat(service.getCachedTokenCount()).isEqualTo(1);
+    }
+
+    @Test
+    void verifyToken_ManyTokensAcrossStripes_ShouldStayWithinCapacity() {
+        // given
+        JwtTokenService service = new JwtTokenService("test-secret-key-12345678901234567890", 128, Clock.systemUTC());
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            service.verifyToken(service.generate(new UserClaims(String.valueOf(i), i + "@example.com", Set.of("USER")), Duration.ofMinutes(5)));
+        }
+
+        // then
+        assertThat(service.getMisses()).isEqualTo(1000);
+        assertThat(service.getCachedTokenCount()).isBetween(1, 128);
+    }
+}
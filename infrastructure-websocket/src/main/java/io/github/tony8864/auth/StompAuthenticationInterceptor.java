@@ -0,0 +1,70 @@
+package io.github.tony8864.auth;
+
+import io.github.tony8864.security.TokenService;
+import io.github.tony8864.security.UserClaims;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private final TokenService tokenService;
+    private final String applicationDestinationPrefix;
+
+    public StompAuthenticationInterceptor(TokenService tokenService, String applicationDestinationPrefix) {
+        this.tokenService = tokenService;
+        this.applicationDestinationPrefix = applicationDestinationPrefix.endsWith("/")
+                ? applicationDestinationPrefix
+                : applicationDestinationPrefix + "/";
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            // everything a client can receive is addressed to its own user, so an anonymous subscription has no use
+            if (accessor.getUser() == null) {
+                throw new MessageDeliveryException(message, "Authentication required to subscribe");
+            }
+            return message;
+        }
+        if (StompCommand.SEND.equals(accessor.getCommand())) {
+            if (accessor.getUser() == null) {
+                throw new MessageDeliveryException(message, "Authentication required to send");
+            }
+            // anything else would reach the broker as is, letting a client forge events on any topic or queue
+            String destination = accessor.getDestination();
+            if (destination == null || !destination.startsWith(applicationDestinationPrefix)) {
+                throw new MessageDeliveryException(message, "Clients may only send to " + applicationDestinationPrefix);
+            }
+            return message;
+        }
+        if (!StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null) {
+            return message;
+        }
+        if (!authHeader.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Unsupported Authorization header");
+        }
+
+        UserClaims claims;
+        try {
+            claims = tokenService.verifyToken(authHeader.substring(7));
+        } catch (RuntimeException e) {
+            throw new MessageDeliveryException(message, "Invalid or expired JWT", e);
+        }
+        accessor.setUser(new StompPrincipal(claims.userId()));
+        return message;
+    }
+}
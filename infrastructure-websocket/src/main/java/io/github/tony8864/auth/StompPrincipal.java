@@ -0,0 +1,10 @@
+package io.github.tony8864.auth;
+
+import java.security.Principal;
+
+public record StompPrincipal(String userId) implements Principal {
+    @Override
+    public String getName() {
+        return userId;
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.tony8864.config;
+
+import io.github.tony8864.chat.common.ChatMembershipCache;
+import io.github.tony8864.fanout.ChatEventNotificationCodec;
+import io.github.tony8864.fanout.MessageNotificationCodec;
+import io.github.tony8864.fanout.PostgresNotificationListener;
+import io.github.tony8864.fanout.PostgresNotifyChatEventPublisher;
+import io.github.tony8864.fanout.PostgresNotifyMembershipPublisher;
+import io.github.tony8864.fanout.PostgresNotifyMessagePublisher;
+import io.github.tony8864.message.common.MessageTailCache;
+import io.github.tony8864.message.repository.MessageEventPublisher;
+import io.github.tony8864.message.repository.MessageRepository;
+import io.github.tony8864.publisher.WebSocketMessagePublisher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "message.fanout.postgres.enabled", havingValue = "true", matchIfMissing = true)
+public class PostgresFanoutConfig {
+
+    @Bean
+    public MessageNotificationCodec messageNotificationCodec() {
+        return new MessageNotificationCodec();
+    }
+
+    @Bean
+    public ChatEventNotificationCodec chatEventNotificationCodec() {
+        return new ChatEventNotificationCodec();
+    }
+
+    @Bean
+    @Primary
+    public PostgresNotifyMessagePublisher postgresNotifyMessagePublisher(JdbcTemplate jdbcTemplate, MessageNotificationCodec codec) {
+        return new PostgresNotifyMessagePublisher(jdbcTemplate, codec);
+    }
+
+    @Bean
+    @Primary
+    public PostgresNotifyMembershipPublisher postgresNotifyMembershipPublisher(JdbcTemplate jdbcTemplate) {
+        return new PostgresNotifyMembershipPublisher(jdbcTemplate);
+    }
+
+    @Bean
+    @Primary
+    public PostgresNotifyChatEventPublisher postgresNotifyChatEventPublisher(JdbcTemplate jdbcTemplate, ChatEventNotificationCodec codec) {
+        return new PostgresNotifyChatEventPublisher(jdbcTemplate, codec);
+    }
+
+    @Bean
+    public PostgresNotificationListener postgresNotificationListener(
+            DataSource dataSource,
+            MessageNotificationCodec codec,
+            ChatEventNotificationCodec eventCodec,
+            WebSocketMessagePublisher webSocketMessagePublisher,
+            @Qualifier("asyncMessageEventPublisher") MessageEventPublisher localMessagePublisher,
+            MessageRepository messageRepository,
+            MessageTailCache tailCache,
+            ChatMembershipCache membershipCache
+    ) {
+        return new PostgresNotificationListener(
+                dataSource, codec, eventCodec, webSocketMessagePublisher, localMessagePublisher, messageRepository, tailCache, membershipCache
+        );
+    }
+}
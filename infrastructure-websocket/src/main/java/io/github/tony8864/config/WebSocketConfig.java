@@ -1,6 +1,12 @@
 package io.github.tony8864.config;
 
+import io.github.tony8864.auth.StompAuthenticationInterceptor;
+import io.github.tony8864.encoding.CborPayloadEncoder;
+import io.github.tony8864.encoding.CompactEncodingNegotiator;
+import io.github.tony8864.presence.PresenceTracker;
+import io.github.tony8864.security.TokenService;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -10,16 +16,45 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final String APPLICATION_DESTINATION_PREFIX = "/app";
+
+    private final TokenService tokenService;
+    private final PresenceTracker presenceTracker;
+    private final CompactEncodingNegotiator compactEncoding = new CompactEncodingNegotiator(new CborPayloadEncoder());
+
+    public WebSocketConfig(TokenService tokenService, PresenceTracker presenceTracker) {
+        this.tokenService = tokenService;
+        this.presenceTracker = presenceTracker;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // frames from one session are handled in arrival order, so consecutive sends are stored in order
+        registry.setPreserveReceiveOrder(true);
         registry.addEndpoint("/ws")
                 .setAllowedOrigins("*")
                 .withSockJS();
+        // plain WebSocket for clients that can take binary frames and negotiate compact payloads
+        registry.addEndpoint("/ws-native")
+                .setAllowedOrigins("*")
+                .addInterceptors(compactEncoding.binaryCapableEndpoint());
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.setApplicationDestinationPrefixes("/app");
-        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes(APPLICATION_DESTINATION_PREFIX);
+        registry.setUserDestinationPrefix("/user");
+        registry.enableSimpleBroker("/topic", "/queue");
+        registry.configureBrokerChannel().interceptors(compactEncoding.broker());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompAuthenticationInterceptor(tokenService, APPLICATION_DESTINATION_PREFIX), compactEncoding.inbound(), presenceTracker);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(compactEncoding.outbound());
     }
 }
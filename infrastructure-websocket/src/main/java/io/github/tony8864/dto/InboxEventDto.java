@@ -0,0 +1,27 @@
+package io.github.tony8864.dto;
+
+public class InboxEventDto<T> {
+    public static final String MESSAGE_SENT = "MESSAGE_SENT";
+    public static final String MESSAGES_SENT = "MESSAGES_SENT";
+    public static final String TYPING = "TYPING";
+    public static final String RECEIPTS_UPDATED = "RECEIPTS_UPDATED";
+
+    private String type;
+    private T payload;
+
+    public InboxEventDto() {
+    }
+
+    public InboxEventDto(String type, T payload) {
+        this.type = type;
+        this.payload = payload;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public T getPayload() {
+        return payload;
+    }
+}
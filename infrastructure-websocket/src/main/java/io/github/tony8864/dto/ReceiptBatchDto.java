@@ -0,0 +1,24 @@
+package io.github.tony8864.dto;
+
+import java.util.List;
+
+public class ReceiptBatchDto {
+    private String chatId;
+    private List<ReceiptDto> receipts;
+
+    public ReceiptBatchDto() {
+    }
+
+    public ReceiptBatchDto(String chatId, List<ReceiptDto> receipts) {
+        this.chatId = chatId;
+        this.receipts = receipts;
+    }
+
+    public String getChatId() {
+        return chatId;
+    }
+
+    public List<ReceiptDto> getReceipts() {
+        return receipts;
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.tony8864.dto;
+
+public class ReceiptDto {
+    private String userId;
+    private String deliveredMessageId;
+    private String deliveredCreatedAt;
+    private String readMessageId;
+    private String readCreatedAt;
+
+    public ReceiptDto() {
+    }
+
+    public ReceiptDto(String userId, String deliveredMessageId, String deliveredCreatedAt, String readMessageId, String readCreatedAt) {
+        this.userId = userId;
+        this.deliveredMessageId = deliveredMessageId;
+        this.deliveredCreatedAt = deliveredCreatedAt;
+        this.readMessageId = readMessageId;
+        this.readCreatedAt = readCreatedAt;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getDeliveredMessageId() {
+        return deliveredMessageId;
+    }
+
+    public String getDeliveredCreatedAt() {
+        return deliveredCreatedAt;
+    }
+
+    public String getReadMessageId() {
+        return readMessageId;
+    }
+
+    public String getReadCreatedAt() {
+        return readCreatedAt;
+    }
+}
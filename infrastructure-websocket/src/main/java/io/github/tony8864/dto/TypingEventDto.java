@@ -0,0 +1,34 @@
+package io.github.tony8864.dto;
+
+public class TypingEventDto {
+    private String chatId;
+    private String userId;
+    private boolean typing;
+    private long expiresInMs;
+
+    public TypingEventDto() {
+    }
+
+    public TypingEventDto(String chatId, String userId, boolean typing, long expiresInMs) {
+        this.chatId = chatId;
+        this.userId = userId;
+        this.typing = typing;
+        this.expiresInMs = expiresInMs;
+    }
+
+    public String getChatId() {
+        return chatId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public boolean isTyping() {
+        return typing;
+    }
+
+    public long getExpiresInMs() {
+        return expiresInMs;
+    }
+}
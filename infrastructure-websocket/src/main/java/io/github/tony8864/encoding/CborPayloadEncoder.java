@@ -0,0 +1,74 @@
+package io.github.tony8864.encoding;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.UUID;
+
+public class CborPayloadEncoder {
+
+    // RFC 9562 registers tag 37 for binary UUIDs, so standard CBOR decoders restore them
+    private static final int TAG_UUID = 37;
+
+    // the id fields of the events we send; free text such as message content stays text even when it looks like a UUID
+    private static final Set<String> ID_FIELDS = Set.of(
+            "id", "chatId", "senderId", "userId", "messageId", "deliveredMessageId", "readMessageId"
+    );
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    // streams the JSON tokens straight into a CBOR generator, so no tree is built on the way
+    public byte[] encode(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (JsonParser parser = jsonFactory.createParser(json);
+             JsonGenerator generator = cborMapper.getFactory().createGenerator(out)) {
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                if (token == JsonToken.VALUE_STRING && isIdField(parser.currentName()) && isUuid(parser.getText())) {
+                    writeUuid((CBORGenerator) generator, UUID.fromString(parser.getText()));
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Payload is not JSON", e);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeUuid(CBORGenerator generator, UUID uuid) throws IOException {
+        generator.writeTag(TAG_UUID);
+        generator.writeBinary(ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array());
+    }
+
+    // array elements have no field name of their own
+    private static boolean isIdField(String name) {
+        return name != null && ID_FIELDS.contains(name);
+    }
+
+    // only the canonical lowercase form, so decoding gives back exactly the original string
+    private static boolean isUuid(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : !((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
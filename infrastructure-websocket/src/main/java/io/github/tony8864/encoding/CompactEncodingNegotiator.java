@@ -0,0 +1,157 @@
+package io.github.tony8864.encoding;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CompactEncodingNegotiator {
+
+    public static final String ACCEPT_HEADER = "accept-content-type";
+    public static final String CBOR = "application/cbor";
+
+    private static final String BINARY_CAPABLE = "compactEncoding.binaryCapable";
+    private static final String CBOR_PAYLOAD = "compactEncoding.cborPayload";
+
+    private final CborPayloadEncoder encoder;
+    private final Set<String> cborSessions = ConcurrentHashMap.newKeySet();
+
+    public CompactEncodingNegotiator(CborPayloadEncoder encoder) {
+        this.encoder = encoder;
+    }
+
+    // marks sessions on a plain WebSocket endpoint; SockJS can only carry text, so its sessions stay on JSON
+    public HandshakeInterceptor binaryCapableEndpoint() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                           WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                attributes.put(BINARY_CAPABLE, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
+    }
+
+    public ChannelInterceptor inbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                if (sessionId == null) {
+                    return message;
+                }
+                if (type == SimpMessageType.CONNECT && acceptsCbor(message)) {
+                    cborSessions.add(sessionId);
+                } else if (type == SimpMessageType.DISCONNECT) {
+                    cborSessions.remove(sessionId);
+                }
+                return message;
+            }
+        };
+    }
+
+    // the broker copies these headers onto every subscriber's frame, so a broadcast is converted at most once
+    public ChannelInterceptor broker() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (cborSessions.isEmpty() || message.getHeaders().containsKey(CBOR_PAYLOAD)
+                        || !(message.getPayload() instanceof byte[] json)) {
+                    return message;
+                }
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+                accessor.setHeader(CBOR_PAYLOAD, new CborPayload(encoder, json));
+                accessor.setLeaveMutable(true);
+                return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+            }
+        };
+    }
+
+    public ChannelInterceptor outbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                if (sessionId == null || !cborSessions.contains(sessionId)
+                        || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                        || !(message.getPayload() instanceof byte[] json)) {
+                    return message;
+                }
+
+                SimpMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+                if (accessor == null || !accessor.isMutable()) {
+                    accessor = SimpMessageHeaderAccessor.wrap(message);
+                }
+                MimeType contentType = accessor.getContentType();
+                if (contentType == null || !MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(contentType)) {
+                    return message;
+                }
+
+                // STOMP over WebSocket only sends binary frames for octet-stream content
+                accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+                CborPayload shared = accessor.getHeader(CBOR_PAYLOAD) instanceof CborPayload payload ? payload : null;
+                byte[] cbor = shared != null && shared.json == json ? shared.get() : encoder.encode(json);
+                accessor.removeHeader(CBOR_PAYLOAD);
+                return MessageBuilder.createMessage(cbor, accessor.getMessageHeaders());
+            }
+        };
+    }
+
+    private boolean acceptsCbor(Message<?> message) {
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        if (attributes == null || !Boolean.TRUE.equals(attributes.get(BINARY_CAPABLE))) {
+            return false;
+        }
+        SimpMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+        List<String> accepted = accessor == null ? null : accessor.getNativeHeader(ACCEPT_HEADER);
+        return accepted != null && accepted.stream()
+                .flatMap(value -> MimeTypeUtils.parseMimeTypes(value).stream())
+                .anyMatch(MimeType.valueOf(CBOR)::equalsTypeAndSubtype);
+    }
+
+    // converted by whichever session's frame gets there first; the lock is per broadcast, not global
+    private static final class CborPayload {
+        private final CborPayloadEncoder encoder;
+        private final byte[] json;
+        private volatile byte[] cbor;
+
+        private CborPayload(CborPayloadEncoder encoder, byte[] json) {
+            this.encoder = encoder;
+            this.json = json;
+        }
+
+        private byte[] get() {
+            byte[] result = cbor;
+            if (result == null) {
+                synchronized (this) {
+                    result = cbor;
+                    if (result == null) {
+                        result = encoder.encode(json);
+                        cbor = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.tony8864.fanout;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tony8864.dto.ReceiptBatchDto;
+import io.github.tony8864.dto.ReceiptDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChatEventNotificationCodec {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // a large group can ack more receipts in one flush than a NOTIFY payload holds, so they are split per chat
+    public List<String> encodeReceipts(ReceiptBatchDto batch) {
+        int envelopeBytes = bytes(write(new Notification(new ReceiptBatchDto(batch.getChatId(), List.of()))));
+        List<String> payloads = new ArrayList<>();
+        List<ReceiptDto> chunk = new ArrayList<>();
+        int chunkBytes = envelopeBytes;
+
+        for (ReceiptDto receipt : batch.getReceipts()) {
+            int receiptBytes = bytes(write(receipt)) + 1;
+            if (!chunk.isEmpty() && chunkBytes + receiptBytes > MessageNotificationCodec.MAX_PAYLOAD_BYTES) {
+                payloads.add(write(new Notification(new ReceiptBatchDto(batch.getChatId(), chunk))));
+                chunk = new ArrayList<>();
+                chunkBytes = envelopeBytes;
+            }
+            chunk.add(receipt);
+            chunkBytes += receiptBytes;
+        }
+
+        if (!chunk.isEmpty()) {
+            payloads.add(write(new Notification(new ReceiptBatchDto(batch.getChatId(), chunk))));
+        }
+        return payloads;
+    }
+
+    public Notification decode(String payload) {
+        try {
+            return objectMapper.readValue(payload, Notification.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed chat event notification", e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode chat event notification", e);
+        }
+    }
+
+    private static int bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // typing events from nodes that still NOTIFY them are skipped rather than failing the decode
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Notification(ReceiptBatchDto receipts) {
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.tony8864.fanout;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tony8864.dto.ChatMessageDto;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.message.MessageStatus;
+import io.github.tony8864.entities.user.UserId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MessageNotificationCodec {
+
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more
+    static final int MAX_PAYLOAD_BYTES = 7800;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public List<String> encode(List<ChatMessageDto> messages) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder("[");
+        int payloadBytes = 1;
+
+        for (ChatMessageDto message : messages) {
+            String entry = write(Notification.of(message));
+            int entryBytes = entry.getBytes(StandardCharsets.UTF_8).length;
+            if (entryBytes + 2 > MAX_PAYLOAD_BYTES) {
+                // too large to inline; listeners load it by id instead
+                entry = write(Notification.reference(message));
+                entryBytes = entry.getBytes(StandardCharsets.UTF_8).length;
+            }
+
+            if (payloadBytes > 1 && payloadBytes + entryBytes + 2 > MAX_PAYLOAD_BYTES) {
+                payloads.add(payload.append(']').toString());
+                payload = new StringBuilder("[");
+                payloadBytes = 1;
+            }
+            if (payloadBytes > 1) {
+                payload.append(',');
+                payloadBytes++;
+            }
+            payload.append(entry);
+            payloadBytes += entryBytes;
+        }
+
+        if (payloadBytes > 1) {
+            payloads.add(payload.append(']').toString());
+        }
+        return payloads;
+    }
+
+    public List<Notification> decode(String payload) {
+        try {
+            return List.of(objectMapper.readValue(payload, Notification[].class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed message notification", e);
+        }
+    }
+
+    private String write(Notification notification) {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode message notification", e);
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Notification(String i, String c, String s, String t, String a) {
+
+        static Notification of(ChatMessageDto message) {
+            return new Notification(
+                    message.getId(),
+                    message.getChatId(),
+                    message.getSenderId(),
+                    message.getContent(),
+                    message.getTimestamp()
+            );
+        }
+
+        static Notification reference(ChatMessageDto message) {
+            return new Notification(message.getId(), message.getChatId(), null, null, null);
+        }
+
+        @JsonIgnore
+        public boolean isReference() {
+            return t == null;
+        }
+
+        public ChatMessageDto toDto() {
+            return new ChatMessageDto(i, c, s, t, a);
+        }
+
+        public Message toMessage() {
+            return Message.restore(
+                    MessageId.of(i), ChatId.of(c), UserId.of(s), t, Instant.parse(a), MessageStatus.SENT, null
+            );
+        }
+    }
+}
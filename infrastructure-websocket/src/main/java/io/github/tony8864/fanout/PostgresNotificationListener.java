@@ -0,0 +1,205 @@
+package io.github.tony8864.fanout;
+
+import io.github.tony8864.chat.common.ChatMembershipCache;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.message.common.MessageTailCache;
+import io.github.tony8864.message.repository.MessageEventPublisher;
+import io.github.tony8864.message.repository.MessageRepository;
+import io.github.tony8864.publisher.WebSocketMessagePublisher;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PostgresNotificationListener implements SmartLifecycle {
+
+    private static final int POLL_MILLIS = 500;
+    private static final long RECONNECT_MILLIS = 1000;
+    private static final long STARTUP_WAIT_MILLIS = 5000;
+
+    private final DataSource dataSource;
+    private final MessageNotificationCodec codec;
+    private final ChatEventNotificationCodec eventCodec;
+    private final WebSocketMessagePublisher localPublisher;
+    private final MessageEventPublisher localMessagePublisher;
+    private final MessageRepository messageRepository;
+    private final MessageTailCache tailCache;
+    private final ChatMembershipCache membershipCache;
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private final CountDownLatch firstListen = new CountDownLatch(1);
+    private Thread worker;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public PostgresNotificationListener(
+            DataSource dataSource,
+            MessageNotificationCodec codec,
+            ChatEventNotificationCodec eventCodec,
+            WebSocketMessagePublisher localPublisher,
+            MessageEventPublisher localMessagePublisher,
+            MessageRepository messageRepository,
+            MessageTailCache tailCache,
+            ChatMembershipCache membershipCache
+    ) {
+        this.dataSource = dataSource;
+        this.codec = codec;
+        this.eventCodec = eventCodec;
+        this.localPublisher = localPublisher;
+        this.localMessagePublisher = localMessagePublisher;
+        this.messageRepository = messageRepository;
+        this.tailCache = tailCache;
+        this.membershipCache = membershipCache;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "postgres-notification-listener");
+        worker.setDaemon(true);
+        worker.start();
+
+        // events published right after startup would otherwise be missed by this node
+        try {
+            firstListen.await(STARTUP_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isListening() {
+        return listening;
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                listen();
+            } catch (SQLException | RuntimeException e) {
+                failures.incrementAndGet();
+            }
+            listening = false;
+
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void listen() throws SQLException {
+        // holds one connection for as long as the node runs; notifications are only seen by the session that listens
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + PostgresNotifyMessagePublisher.CHANNEL);
+                statement.execute("LISTEN " + PostgresNotifyMembershipPublisher.CHANNEL);
+                statement.execute("LISTEN " + PostgresNotifyChatEventPublisher.CHANNEL);
+            }
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            // sends committed while this node was not listening never reached its tails
+            tailCache.clear();
+            listening = true;
+            firstListen.countDown();
+
+            while (running) {
+                PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                if (notifications == null) {
+                    continue;
+                }
+                for (PGNotification notification : notifications) {
+                    if (PostgresNotifyMembershipPublisher.CHANNEL.equals(notification.getName())) {
+                        evictMembership(notification.getParameter());
+                    } else if (PostgresNotifyChatEventPublisher.CHANNEL.equals(notification.getName())) {
+                        deliverEvent(notification.getParameter());
+                    } else {
+                        deliver(notification.getParameter());
+                    }
+                }
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        List<MessageNotificationCodec.Notification> notifications;
+        try {
+            notifications = codec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            failures.incrementAndGet();
+            return;
+        }
+
+        for (MessageNotificationCodec.Notification notification : notifications) {
+            try {
+                Optional<Message> message = notification.isReference()
+                        ? messageRepository.findById(MessageId.of(notification.i()))
+                        : Optional.of(notification.toMessage());
+                // the sending node appended already; the tail cache skips a message it holds
+                message.ifPresent(tailCache::append);
+                message.ifPresent(localMessagePublisher::publishMessageSent);
+                delivered.incrementAndGet();
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+            }
+        }
+    }
+
+    private void deliverEvent(String payload) {
+        try {
+            ChatEventNotificationCodec.Notification notification = eventCodec.decode(payload);
+            if (notification.receipts() != null) {
+                localPublisher.deliverReceipts(notification.receipts());
+            }
+            delivered.incrementAndGet();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+    }
+
+    private void evictMembership(String chatId) {
+        try {
+            membershipCache.evict(ChatId.of(chatId));
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.tony8864.fanout;
+
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.message.common.Receipt;
+import io.github.tony8864.message.repository.ReceiptEventPublisher;
+import io.github.tony8864.publisher.WebSocketMessagePublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.List;
+
+// receipts are not stored for replay, so they skip the outbox and go straight to every node; typing is left
+// to the node-local publisher, as a NOTIFY per keystroke would put the database on the hottest path
+public class PostgresNotifyChatEventPublisher implements ReceiptEventPublisher {
+
+    public static final String CHANNEL = "chat_events";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChatEventNotificationCodec codec;
+
+    public PostgresNotifyChatEventPublisher(JdbcTemplate jdbcTemplate, ChatEventNotificationCodec codec) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.codec = codec;
+    }
+
+    @Override
+    public void publishReceipts(ChatId chatId, List<Receipt> receipts) {
+        codec.encodeReceipts(WebSocketMessagePublisher.toDto(chatId, receipts)).forEach(this::notify);
+    }
+
+    private void notify(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload);
+    }
+}
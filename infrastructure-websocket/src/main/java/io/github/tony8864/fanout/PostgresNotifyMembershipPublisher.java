@@ -0,0 +1,23 @@
+package io.github.tony8864.fanout;
+
+import io.github.tony8864.chat.repository.ChatMembershipEventPublisher;
+import io.github.tony8864.entities.chat.ChatId;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+public class PostgresNotifyMembershipPublisher implements ChatMembershipEventPublisher {
+
+    public static final String CHANNEL = "chat_membership";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresNotifyMembershipPublisher(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void publishMembershipChanged(ChatId chatId) {
+        // inside a transaction the NOTIFY waits for the commit, so no node reloads the old membership
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, chatId.getValue());
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.tony8864.fanout;
+
+import io.github.tony8864.dto.ChatMessageDto;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.message.repository.MessageEventPublisher;
+import io.github.tony8864.publisher.WebSocketMessagePublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PostgresNotifyMessagePublisher implements MessageEventPublisher {
+
+    public static final String CHANNEL = "chat_messages";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MessageNotificationCodec codec;
+
+    public PostgresNotifyMessagePublisher(JdbcTemplate jdbcTemplate, MessageNotificationCodec codec) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.codec = codec;
+    }
+
+    @Override
+    public void publishMessageSent(Message message) {
+        publish(List.of(WebSocketMessagePublisher.toDto(message)));
+    }
+
+    @Override
+    public void publishMessagesSent(List<Message> messages) {
+        publish(messages.stream().map(WebSocketMessagePublisher::toDto).toList());
+    }
+
+    private void publish(List<ChatMessageDto> dtos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sendNotifications(dtos);
+            return;
+        }
+
+        // NOTIFY is delivered on commit anyway, so collect the transaction's events into as few payloads as possible
+        @SuppressWarnings("unchecked")
+        List<ChatMessageDto> pending = (List<ChatMessageDto>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<ChatMessageDto> batch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    sendNotifications(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(PostgresNotifyMessagePublisher.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.addAll(dtos);
+    }
+
+    private void sendNotifications(List<ChatMessageDto> messages) {
+        for (String payload : codec.encode(messages)) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload);
+        }
+    }
+}
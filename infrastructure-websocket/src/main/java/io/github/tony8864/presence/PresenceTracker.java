@@ -0,0 +1,55 @@
+package io.github.tony8864.presence;
+
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.user.common.PresenceRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+
+@Component
+@AllArgsConstructor
+public class PresenceTracker implements ChannelInterceptor {
+
+    public static final String HEARTBEAT_DESTINATION = "/app/presence/heartbeat";
+
+    private final PresenceRegistry presenceRegistry;
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (event.getUser() != null && sessionId != null) {
+            presenceRegistry.connected(UserId.of(event.getUser().getName()), sessionId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        if (event.getUser() != null) {
+            presenceRegistry.disconnected(UserId.of(event.getUser().getName()), event.getSessionId());
+        }
+    }
+
+    // any frame a user sends counts as activity; idle clients can send an empty frame to the heartbeat destination
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        Principal user = SimpMessageHeaderAccessor.getUser(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE || user == null || sessionId == null) {
+            return message;
+        }
+
+        presenceRegistry.heartbeat(UserId.of(user.getName()), sessionId);
+        return HEARTBEAT_DESTINATION.equals(SimpMessageHeaderAccessor.getDestination(headers)) ? null : message;
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.tony8864.publisher;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+// converted once per event; the template and broker copy only headers, so every session shares this payload
+final class EncodedFrame {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Message<?> message;
+
+    private EncodedFrame(SimpMessagingTemplate messagingTemplate, Message<?> message) {
+        this.messagingTemplate = messagingTemplate;
+        this.message = message;
+    }
+
+    static EncodedFrame encode(SimpMessagingTemplate messagingTemplate, Object payload) {
+        Message<?> message = messagingTemplate.getMessageConverter().toMessage(payload, null);
+        if (message == null) {
+            throw new MessageConversionException("Unable to convert " + payload.getClass().getName());
+        }
+        return new EncodedFrame(messagingTemplate, message);
+    }
+
+    void sendTo(String destination) {
+        messagingTemplate.send(destination, message);
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.tony8864.publisher;
+
+import io.github.tony8864.dto.ChatMessageDto;
+import io.github.tony8864.entities.chat.ChatId;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+public class MessageCoalescer {
+
+    private final Duration window;
+    private final int maxBatch;
+    private final int minMembers;
+    private final ScheduledExecutorService flusher;
+
+    private final Map<ChatId, List<ChatMessageDto>> pending = new HashMap<>();
+    // batches per chat that are collecting or waiting to be emitted
+    private final Map<ChatId, Integer> unflushed = new HashMap<>();
+
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+
+    public MessageCoalescer(Duration window, int maxBatch, int minMembers) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("maxBatch must be positive");
+        }
+        this.window = window;
+        this.maxBatch = maxBatch;
+        this.minMembers = minMembers;
+        this.flusher = window.isZero() || window.isNegative() ? null : Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "message-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static MessageCoalescer disabled() {
+        return new MessageCoalescer(Duration.ZERO, 1, Integer.MAX_VALUE);
+    }
+
+    // small chats rarely burst, so they skip the window and keep their latency; a chat with a batch
+    // still unflushed stays here whatever its size, or a direct delivery would overtake that batch
+    public boolean offer(ChatId chatId, int memberCount, ChatMessageDto message, BiConsumer<ChatId, List<ChatMessageDto>> flush) {
+        if (flusher == null) {
+            return false;
+        }
+        synchronized (pending) {
+            if (memberCount < minMembers && !unflushed.containsKey(chatId)) {
+                return false;
+            }
+            add(chatId, message, flush);
+            return true;
+        }
+    }
+
+    private void add(ChatId chatId, ChatMessageDto message, BiConsumer<ChatId, List<ChatMessageDto>> flush) {
+        List<ChatMessageDto> batch = pending.get(chatId);
+        if (batch == null) {
+            batch = new ArrayList<>();
+            pending.put(chatId, batch);
+            unflushed.merge(chatId, 1, Integer::sum);
+            List<ChatMessageDto> scheduled = batch;
+            flusher.schedule(() -> flushIfPending(chatId, scheduled, flush), window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        batch.add(message);
+
+        if (batch.size() >= maxBatch) {
+            // flushed on the same single thread as timed batches, so a chat's batches leave in order
+            pending.remove(chatId);
+            List<ChatMessageDto> full = batch;
+            flusher.execute(() -> emit(chatId, full, flush));
+        }
+    }
+
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+    }
+
+    public long getMessages() {
+        return messages.get();
+    }
+
+    public long getFrames() {
+        return frames.get();
+    }
+
+    private void flushIfPending(ChatId chatId, List<ChatMessageDto> batch, BiConsumer<ChatId, List<ChatMessageDto>> flush) {
+        synchronized (pending) {
+            if (!pending.remove(chatId, batch)) {
+                return;
+            }
+        }
+        emit(chatId, batch, flush);
+    }
+
+    private void emit(ChatId chatId, List<ChatMessageDto> batch, BiConsumer<ChatId, List<ChatMessageDto>> flush) {
+        try {
+            flush.accept(chatId, List.copyOf(batch));
+        } finally {
+            synchronized (pending) {
+                unflushed.computeIfPresent(chatId, (id, count) -> count > 1 ? count - 1 : null);
+            }
+            // counted once the batch is out, so a reader of the counters also sees what was flushed
+            messages.addAndGet(batch.size());
+            frames.incrementAndGet();
+        }
+    }
+}
@@ -1,31 +1,155 @@
 package io.github.tony8864.publisher;
 
+import io.github.tony8864.chat.common.ChatMembershipCache;
 import io.github.tony8864.dto.ChatMessageDto;
+import io.github.tony8864.dto.InboxEventDto;
+import io.github.tony8864.dto.ReceiptBatchDto;
+import io.github.tony8864.dto.ReceiptDto;
+import io.github.tony8864.dto.TypingEventDto;
+import io.github.tony8864.entities.chat.ChatId;
 import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.common.Receipt;
+import io.github.tony8864.message.common.ReceiptCursor;
 import io.github.tony8864.message.repository.MessageEventPublisher;
+import io.github.tony8864.message.repository.ReceiptEventPublisher;
+import io.github.tony8864.message.repository.TypingEventPublisher;
 import lombok.AllArgsConstructor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 @Component
 @AllArgsConstructor
-public class WebSocketMessagePublisher implements MessageEventPublisher {
+public class WebSocketMessagePublisher implements MessageEventPublisher, TypingEventPublisher, ReceiptEventPublisher {
+
+    public static final String INBOX_DESTINATION = "/queue/inbox";
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final ChatMembershipCache membershipCache;
+    private final MessageCoalescer coalescer;
 
     @Override
     public void publishMessageSent(Message message) {
-        ChatMessageDto dto = new ChatMessageDto(
+        deliver(toDto(message));
+    }
+
+    public void deliver(ChatMessageDto dto) {
+        if (userRegistry.getUserCount() == 0) {
+            return;
+        }
+
+        ChatId chatId = ChatId.of(dto.getChatId());
+        Set<UserId> members = membershipCache.findMembers(chatId);
+        if (!coalescer.offer(chatId, members.size(), dto, this::deliverBatch)) {
+            deliverToInboxes(members, null, new InboxEventDto<>(InboxEventDto.MESSAGE_SENT, dto));
+        }
+    }
+
+    @Override
+    public void publishTyping(ChatId chatId, UserId userId, boolean typing, Duration expiresIn) {
+        deliverTyping(new TypingEventDto(chatId.getValue(), userId.getValue(), typing, expiresIn.toMillis()));
+    }
+
+    public void deliverTyping(TypingEventDto dto) {
+        if (userRegistry.getUserCount() == 0) {
+            return;
+        }
+        deliverToInboxes(membershipCache.findMembers(ChatId.of(dto.getChatId())), UserId.of(dto.getUserId()),
+                new InboxEventDto<>(InboxEventDto.TYPING, dto));
+    }
+
+    // one event per chat and flush, however many members acked in between
+    @Override
+    public void publishReceipts(ChatId chatId, List<Receipt> receipts) {
+        deliverReceipts(toDto(chatId, receipts));
+    }
+
+    public void deliverReceipts(ReceiptBatchDto batch) {
+        deliverToInboxes(ChatId.of(batch.getChatId()), new InboxEventDto<>(InboxEventDto.RECEIPTS_UPDATED, batch));
+    }
+
+    public void deliverToInboxes(ChatId chatId, InboxEventDto<?> event) {
+        if (userRegistry.getUserCount() == 0) {
+            return;
+        }
+        deliverToInboxes(membershipCache.findMembers(chatId), null, event);
+    }
+
+    private void deliverBatch(ChatId chatId, List<ChatMessageDto> batch) {
+        deliverToInboxes(chatId, batch.size() == 1
+                ? new InboxEventDto<>(InboxEventDto.MESSAGE_SENT, batch.get(0))
+                : new InboxEventDto<>(InboxEventDto.MESSAGES_SENT, batch));
+    }
+
+    private void deliverToInboxes(Set<UserId> members, UserId except, InboxEventDto<?> event) {
+        // only users with a session on this node can receive anything here, so walk the smaller side
+        int connectedUsers = userRegistry.getUserCount();
+        String skipped = except != null ? except.getValue() : null;
+        List<String> recipients = new ArrayList<>();
+        if (connectedUsers < members.size()) {
+            for (SimpUser user : userRegistry.getUsers()) {
+                if (!user.getName().equals(skipped) && members.contains(UserId.of(user.getName()))) {
+                    recipients.add(user.getName());
+                }
+            }
+        } else {
+            for (UserId member : members) {
+                if (!member.getValue().equals(skipped) && userRegistry.getUser(member.getValue()) != null) {
+                    recipients.add(member.getValue());
+                }
+            }
+        }
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        EncodedFrame frame = EncodedFrame.encode(messagingTemplate, event);
+        for (String recipient : recipients) {
+            frame.sendTo(userDestination(recipient));
+        }
+    }
+
+    private String userDestination(String user) {
+        return messagingTemplate.getUserDestinationPrefix() + StringUtils.replace(user, "/", "%2F") + INBOX_DESTINATION;
+    }
+
+    private static String messageId(ReceiptCursor cursor) {
+        return cursor == null ? null : cursor.messageId().getValue();
+    }
+
+    private static String createdAt(ReceiptCursor cursor) {
+        return cursor == null ? null : cursor.createdAt().toString();
+    }
+
+    public static ReceiptBatchDto toDto(ChatId chatId, List<Receipt> receipts) {
+        List<ReceiptDto> dtos = receipts.stream()
+                .map(receipt -> new ReceiptDto(
+                        receipt.userId().getValue(),
+                        messageId(receipt.delivered()),
+                        createdAt(receipt.delivered()),
+                        messageId(receipt.read()),
+                        createdAt(receipt.read())
+                ))
+                .toList();
+        return new ReceiptBatchDto(chatId.getValue(), dtos);
+    }
+
+    public static ChatMessageDto toDto(Message message) {
+        return new ChatMessageDto(
                 message.getMessageId().getValue(),
                 message.getChatId().getValue(),
                 message.getUserId().getValue(),
                 message.getContent(),
                 message.getCreatedAt().toString()
         );
-
-        messagingTemplate.convertAndSend(
-                "/topic/chats/" + message.getChatId().getValue() + "/messages",
-                dto
-        );
     }
 }
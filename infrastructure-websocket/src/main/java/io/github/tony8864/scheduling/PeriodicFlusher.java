@@ -0,0 +1,70 @@
+package io.github.tony8864.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// drives a write-behind buffer: flushes on a fixed delay and once more on shutdown
+@Slf4j
+public class PeriodicFlusher implements SmartLifecycle {
+
+    private final String name;
+    private final Runnable flush;
+    private final Duration interval;
+
+    private volatile ScheduledExecutorService scheduler;
+    private final AtomicLong failures = new AtomicLong();
+
+    public PeriodicFlusher(String name, Runnable flush, Duration interval) {
+        this.name = name;
+        this.flush = flush;
+        this.interval = interval;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // whatever was buffered since the last tick would otherwise be lost on shutdown
+        tick();
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    // a failed flush keeps its data buffered, so the next tick retries it
+    private void tick() {
+        try {
+            flush.run();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("{} failed, retrying on the next tick", name, e);
+        }
+    }
+}
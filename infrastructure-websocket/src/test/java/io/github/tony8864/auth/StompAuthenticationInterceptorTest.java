@@ -0,0 +1,52 @@
+package io.github.tony8864.auth;
+
+import io.github.tony8864.security.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class StompAuthenticationInterceptorTest {
+    private final StompAuthenticationInterceptor interceptor = new StompAuthenticationInterceptor(mock(TokenService.class), "/app");
+
+    @Test
+    void subscribe_anonymousSession_isRejected() {
+        Message<byte[]> subscribe = frame(StompCommand.SUBSCRIBE, "/topic/chats/1/messages", null);
+
+        assertThatThrownBy(() -> interceptor.preSend(subscribe, null))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasMessageContaining("Authentication required");
+    }
+
+    @Test
+    void subscribe_authenticatedSession_isPassedOn() {
+        Message<byte[]> subscribe = frame(StompCommand.SUBSCRIBE, "/user/queue/inbox", new StompPrincipal("user-1"));
+
+        assertThat(interceptor.preSend(subscribe, null)).isSameAs(subscribe);
+    }
+
+    @Test
+    void send_outsideApplicationPrefix_isRejected() {
+        Message<byte[]> send = frame(StompCommand.SEND, "/user/user-2/queue/inbox", new StompPrincipal("user-1"));
+
+        assertThatThrownBy(() -> interceptor.preSend(send, null))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasMessageContaining("/app/");
+    }
+
+    private Message<byte[]> frame(StompCommand command, String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.tony8864.benchmark;
+
+import io.github.tony8864.chat.common.ChatMembershipCache;
+import io.github.tony8864.chat.repository.ChatRepository;
+import io.github.tony8864.dto.InboxEventDto;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.chat.ChatType;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.publisher.MessageCoalescer;
+import io.github.tony8864.publisher.WebSocketMessagePublisher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpSubscriptionMatcher;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Run with: mvn -pl infrastructure-websocket -am test -Dtest=BroadcastBenchmark -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    @Param({"10000"})
+    public int sessions;
+
+    private final ChatId chatId = ChatId.newId();
+    private final UserId senderId = UserId.newId();
+
+    private Message message;
+    private List<UserId> members;
+    private WebSocketMessagePublisher inboxPublisher;
+    private SimpMessagingTemplate inboxTemplate;
+    private long frames;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        message = Message.create(MessageId.newId(), chatId, senderId, "x".repeat(200));
+        members = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            members.add(UserId.newId());
+        }
+
+        ChatRepository chatRepository = mock(ChatRepository.class);
+        when(chatRepository.findType(chatId)).thenReturn(Optional.of(ChatType.GROUP));
+        when(chatRepository.findMemberIds(chatId)).thenReturn(members);
+        ChatMembershipCache membershipCache = new ChatMembershipCache(chatRepository, id -> {
+        }, 10, sessions, 10, Duration.ofHours(1));
+
+        // every member connected; user destinations are resolved downstream, so this measures the publisher alone
+        MessageChannel inboxChannel = (frame, timeout) -> ++frames > 0;
+        inboxTemplate = template(inboxChannel);
+        inboxPublisher = new WebSocketMessagePublisher(
+                inboxTemplate, registry(sessions), membershipCache, MessageCoalescer.disabled()
+        );
+    }
+
+    @Benchmark
+    public long inboxToAllMembersEncodedOnce() {
+        inboxPublisher.publishMessageSent(message);
+        return frames;
+    }
+
+    // what the publisher did before: convertAndSendToUser, which runs Jackson once per member
+    @Benchmark
+    public long inboxToAllMembersEncodedPerMember() {
+        InboxEventDto<?> event = new InboxEventDto<>(InboxEventDto.MESSAGE_SENT, WebSocketMessagePublisher.toDto(message));
+        for (UserId member : members) {
+            inboxTemplate.convertAndSendToUser(member.getValue(), WebSocketMessagePublisher.INBOX_DESTINATION, event);
+        }
+        return frames;
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BroadcastBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static SimpMessagingTemplate template(MessageChannel channel) {
+        SimpMessagingTemplate template = new SimpMessagingTemplate(channel);
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+        return template;
+    }
+
+    private static SimpUserRegistry registry(int connectedUsers) {
+        SimpUser user = mock(SimpUser.class);
+        return new SimpUserRegistry() {
+            @Override
+            public SimpUser getUser(String userName) {
+                return user;
+            }
+
+            @Override
+            public Set<SimpUser> getUsers() {
+                return Set.of(user);
+            }
+
+            @Override
+            public int getUserCount() {
+                return connectedUsers;
+            }
+
+            @Override
+            public Set<SimpSubscription> findSubscriptions(SimpSubscriptionMatcher matcher) {
+                return Set.of();
+            }
+        };
+    }
+}
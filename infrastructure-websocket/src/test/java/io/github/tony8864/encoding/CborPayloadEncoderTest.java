@@ -0,0 +1,57 @@
+package io.github.tony8864.encoding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CborPayloadEncoderTest {
+    private final CborPayloadEncoder encoder = new CborPayloadEncoder();
+
+    @Test
+    void encode_writesStandardCbor() throws Exception {
+        byte[] json = "{\"a\":[1,-2,1.5,true,null],\"s\":\"hello\"}".getBytes(StandardCharsets.UTF_8);
+
+        byte[] cbor = encoder.encode(json);
+
+        // containers are streamed, so they come out with indefinite lengths
+        assertThat(HexFormat.of().formatHex(cbor)).isEqualTo(
+                "bf" + "6161" + "9f" + "01" + "21" + "fb3ff8000000000000" + "f5" + "f6" + "ff"
+                        + "6173" + "6568656c6c6f" + "ff"
+        );
+        JsonNode decoded = new CBORMapper().readTree(cbor);
+        assertThat(decoded.get("a").get(2).doubleValue()).isEqualTo(1.5);
+        assertThat(decoded.get("s").textValue()).isEqualTo("hello");
+    }
+
+    @Test
+    void encode_writesUuidsAsTaggedBytes() {
+        String uuid = "0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0";
+        byte[] json = ("{\"id\":\"" + uuid + "\",\"upper\":\"" + uuid.toUpperCase() + "\"}").getBytes(StandardCharsets.UTF_8);
+
+        byte[] cbor = encoder.encode(json);
+
+        // canonical ids shrink from 38 bytes of JSON to 19; anything else is kept as text
+        assertThat(HexFormat.of().formatHex(cbor)).startsWith(
+                "bf" + "626964" + "d82550" + "0f1e2d3c4b5a69788796a5b4c3d2e1f0" + "6575707065727824"
+        );
+        assertThat(cbor.length).isLessThan(json.length);
+    }
+
+    @Test
+    void encode_keepsUuidsOutsideIdFieldsAsText() throws Exception {
+        String uuid = "0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0";
+        byte[] json = ("{\"content\":\"" + uuid + "\",\"ids\":[\"" + uuid + "\"]}").getBytes(StandardCharsets.UTF_8);
+
+        byte[] cbor = encoder.encode(json);
+
+        JsonNode decoded = new CBORMapper().readTree(cbor);
+        assertThat(decoded.get("content").isTextual()).isTrue();
+        assertThat(decoded.get("content").textValue()).isEqualTo(uuid);
+        assertThat(decoded.get("ids").get(0).textValue()).isEqualTo(uuid);
+    }
+}
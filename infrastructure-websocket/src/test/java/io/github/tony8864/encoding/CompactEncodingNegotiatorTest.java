@@ -0,0 +1,85 @@
+package io.github.tony8864.encoding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactEncodingNegotiatorTest {
+    private final AtomicInteger encoded = new AtomicInteger();
+    private final CompactEncodingNegotiator negotiator = new CompactEncodingNegotiator(new CborPayloadEncoder() {
+        @Override
+        public byte[] encode(byte[] json) {
+            encoded.incrementAndGet();
+            return super.encode(json);
+        }
+    });
+
+    @Test
+    void broadcast_isConvertedOnceForAllCborSessions() throws Exception {
+        // given
+        connectWithCbor("s1");
+        connectWithCbor("s2");
+        byte[] json = "{\"content\":\"hi\"}".getBytes(StandardCharsets.UTF_8);
+        Message<?> published = negotiator.broker().preSend(brokerMessage(json), null);
+
+        // when
+        Message<?> first = negotiator.outbound().preSend(frameFor("s1", published), null);
+        Message<?> second = negotiator.outbound().preSend(frameFor("s2", published), null);
+        Message<?> plain = negotiator.outbound().preSend(frameFor("s3", published), null);
+
+        // then
+        assertThat(encoded).hasValue(1);
+        assertThat(first.getPayload()).isSameAs(second.getPayload());
+        assertThat(SimpMessageHeaderAccessor.wrap(first).getContentType()).isEqualTo(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        assertThat(plain.getPayload()).isSameAs(json);
+    }
+
+    @Test
+    void frameNotSeenByBroker_isStillConverted() throws Exception {
+        connectWithCbor("s1");
+        byte[] json = "{\"content\":\"hi\"}".getBytes(StandardCharsets.UTF_8);
+
+        Message<?> frame = negotiator.outbound().preSend(frameFor("s1", brokerMessage(json)), null);
+
+        assertThat(encoded).hasValue(1);
+        assertThat(frame.getPayload()).isNotSameAs(json);
+    }
+
+    private void connectWithCbor(String sessionId) throws Exception {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        Map<String, Object> attributes = new HashMap<>();
+        negotiator.binaryCapableEndpoint().beforeHandshake(null, null, null, attributes);
+        accessor.setSessionAttributes(attributes);
+        accessor.setNativeHeader(CompactEncodingNegotiator.ACCEPT_HEADER, CompactEncodingNegotiator.CBOR);
+        negotiator.inbound().preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+
+    private Message<byte[]> brokerMessage(byte[] json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination("/topic/chats/1/messages");
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+
+    // what the simple broker does for each subscriber
+    private Message<?> frameFor(String sessionId, Message<?> published) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.copyHeadersIfAbsent(published.getHeaders());
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(published.getPayload(), accessor.getMessageHeaders());
+    }
+}
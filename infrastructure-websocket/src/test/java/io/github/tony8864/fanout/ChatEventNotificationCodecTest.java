@@ -0,0 +1,44 @@
+package io.github.tony8864.fanout;
+
+import io.github.tony8864.dto.ReceiptBatchDto;
+import io.github.tony8864.dto.ReceiptDto;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatEventNotificationCodecTest {
+    private final ChatEventNotificationCodec codec = new ChatEventNotificationCodec();
+
+    @Test
+    void decode_typingFromOlderNode_shouldBeSkipped() {
+        ChatEventNotificationCodec.Notification decoded = codec.decode(
+                "{\"typing\":{\"chatId\":\"chat\",\"userId\":\"user\",\"typing\":true,\"expiresInMs\":5000}}");
+
+        assertThat(decoded.receipts()).isNull();
+    }
+
+    @Test
+    void encodeReceipts_largeBatch_shouldSplitUnderPayloadLimitKeepingOrder() {
+        // given
+        List<ReceiptDto> receipts = IntStream.range(0, 200)
+                .mapToObj(i -> new ReceiptDto(String.valueOf(i), UUID.randomUUID().toString(), "2025-01-01T00:00:00Z", null, null))
+                .toList();
+
+        // when
+        List<String> payloads = codec.encodeReceipts(new ReceiptBatchDto("chat", receipts));
+
+        // then
+        assertThat(payloads).hasSizeGreaterThan(1);
+        assertThat(payloads).allSatisfy(payload ->
+                assertThat(payload.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(MessageNotificationCodec.MAX_PAYLOAD_BYTES));
+        assertThat(payloads.stream().map(codec::decode))
+                .allSatisfy(notification -> assertThat(notification.receipts().getChatId()).isEqualTo("chat"));
+        assertThat(payloads.stream().flatMap(payload -> codec.decode(payload).receipts().getReceipts().stream()).map(ReceiptDto::getUserId))
+                .containsExactlyElementsOf(IntStream.range(0, 200).mapToObj(String::valueOf).toList());
+    }
+}
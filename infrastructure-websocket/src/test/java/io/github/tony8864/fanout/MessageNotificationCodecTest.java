@@ -0,0 +1,67 @@
+package io.github.tony8864.fanout;
+
+import io.github.tony8864.dto.ChatMessageDto;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageNotificationCodecTest {
+    private final MessageNotificationCodec codec = new MessageNotificationCodec();
+
+    @Test
+    void encode_smallBatch_shouldFitOnePayloadAndRoundTrip() {
+        // given
+        List<ChatMessageDto> messages = List.of(dto("1", "hello"), dto("2", "world"));
+
+        // when
+        List<String> payloads = codec.encode(messages);
+
+        // then
+        assertThat(payloads).hasSize(1);
+        assertThat(codec.decode(payloads.get(0)))
+                .extracting(MessageNotificationCodec.Notification::toDto)
+                .extracting(ChatMessageDto::getContent)
+                .containsExactly("hello", "world");
+    }
+
+    @Test
+    void encode_largeBatch_shouldSplitUnderPayloadLimitKeepingOrder() {
+        // given
+        List<ChatMessageDto> messages = IntStream.range(0, 200)
+                .mapToObj(i -> dto(String.valueOf(i), "message " + i + " " + "a".repeat(100)))
+                .toList();
+
+        // when
+        List<String> payloads = codec.encode(messages);
+
+        // then
+        assertThat(payloads).hasSizeGreaterThan(1);
+        assertThat(payloads).allSatisfy(payload ->
+                assertThat(payload.getBytes(StandardCharsets.UTF_8).length).isLessThan(MessageNotificationCodec.MAX_PAYLOAD_BYTES));
+        assertThat(payloads.stream().flatMap(payload -> codec.decode(payload).stream()))
+                .extracting(MessageNotificationCodec.Notification::i)
+                .containsExactlyElementsOf(messages.stream().map(ChatMessageDto::getId).toList());
+    }
+
+    @Test
+    void encode_oversizedMessage_shouldFallBackToReference() {
+        // given
+        ChatMessageDto large = dto("1", "é".repeat(5_000));
+
+        // when
+        List<MessageNotificationCodec.Notification> decoded = codec.decode(codec.encode(List.of(large)).get(0));
+
+        // then
+        assertThat(decoded).hasSize(1);
+        assertThat(decoded.get(0).isReference()).isTrue();
+        assertThat(decoded.get(0).i()).isEqualTo("1");
+    }
+
+    private ChatMessageDto dto(String id, String content) {
+        return new ChatMessageDto(id, "00000000-0000-0000-0000-000000000009", "00000000-0000-0000-0000-000000000001", content, "2025-09-13T10:00:00Z");
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.tony8864.fanout;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tony8864.chat.common.ChatMembershipCache;
+import io.github.tony8864.dto.ChatMessageDto;
+import io.github.tony8864.dto.ReceiptBatchDto;
+import io.github.tony8864.dto.ReceiptDto;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.common.MessageTailCache;
+import io.github.tony8864.message.common.Receipt;
+import io.github.tony8864.message.common.ReceiptCursor;
+import io.github.tony8864.message.repository.MessageRepository;
+import io.github.tony8864.publisher.MessageCoalescer;
+import io.github.tony8864.publisher.WebSocketMessagePublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@Testcontainers
+class PostgresFanoutIntegrationTest {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private final ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private final UserId senderId = UserId.of("00000000-0000-0000-0000-000000000001");
+
+    private DriverManagerDataSource dataSource;
+    private MessageRepository messageRepository;
+    private MessageChannel nodeA;
+    private MessageChannel nodeB;
+    private PostgresNotificationListener listenerA;
+    private PostgresNotificationListener listenerB;
+    private MessageTailCache tailCacheB;
+    private ChatMembershipCache membershipCacheB;
+    private PostgresNotifyMessagePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        MessageNotificationCodec codec = new MessageNotificationCodec();
+        messageRepository = mock(MessageRepository.class);
+
+        nodeA = node();
+        nodeB = node();
+        tailCacheB = new MessageTailCache(100, 1_000_000, Duration.ofMinutes(5));
+        membershipCacheB = mock(ChatMembershipCache.class);
+        listenerA = new PostgresNotificationListener(
+                dataSource, codec, new ChatEventNotificationCodec(), localPublisher(nodeA), localPublisher(nodeA), messageRepository, new MessageTailCache(100, 1_000_000, Duration.ofMinutes(5)), mock(ChatMembershipCache.class)
+        );
+        listenerB = new PostgresNotificationListener(
+                dataSource, codec, new ChatEventNotificationCodec(), localPublisher(nodeB), localPublisher(nodeB), messageRepository, tailCacheB, membershipCacheB
+        );
+        listenerA.start();
+        listenerB.start();
+
+        publisher = new PostgresNotifyMessagePublisher(new JdbcTemplate(dataSource), codec);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listenerA.stop();
+        listenerB.stop();
+    }
+
+    @Test
+    void publishMessageSent_shouldReachEveryNode() {
+        // given
+        Message message = Message.create(MessageId.newId(), chatId, senderId, "hello from node A");
+
+        // when
+        publisher.publishMessageSent(message);
+
+        // then
+        for (MessageChannel node : List.of(nodeA, nodeB)) {
+            org.springframework.messaging.Message<?> frame = delivered(node, 1).get(0);
+            ChatMessageDto dto = read(frame);
+            assertThat(SimpMessageHeaderAccessor.getDestination(frame.getHeaders()))
+                    .isEqualTo("/user/" + senderId.getValue() + "/queue/inbox");
+            assertThat(dto.getId()).isEqualTo(message.getMessageId().getValue());
+            assertThat(dto.getContent()).isEqualTo("hello from node A");
+        }
+    }
+
+    @Test
+    void relisten_shouldDropTailsThatMayHaveMissedSends() {
+        // given
+        Message cached = Message.create(MessageId.newId(), chatId, senderId, "cached before the reconnect");
+        tailCacheB.prime(chatId, tailCacheB.version(chatId), List.of(cached), 50);
+        assertThat(tailCacheB.findLatest(chatId, 1)).isPresent();
+
+        // when
+        listenerB.stop();
+        listenerB = new PostgresNotificationListener(
+                dataSource, new MessageNotificationCodec(), new ChatEventNotificationCodec(), localPublisher(nodeB), localPublisher(nodeB), messageRepository, tailCacheB, membershipCacheB
+        );
+        listenerB.start();
+
+        // then
+        assertThat(listenerB.isListening()).isTrue();
+        assertThat(tailCacheB.findLatest(chatId, 1)).isEmpty();
+    }
+
+    @Test
+    void publishInTransaction_shouldDeliverOnCommitInOrder() {
+        // given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        List<Message> messages = List.of(
+                Message.create(MessageId.newId(), chatId, senderId, "one"),
+                Message.create(MessageId.newId(), chatId, senderId, "two"),
+                Message.create(MessageId.newId(), chatId, senderId, "three")
+        );
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> messages.forEach(publisher::publishMessageSent));
+
+        // then
+        assertThat(delivered(nodeB, 3)).extracting(frame -> read(frame).getContent()).containsExactly("one", "two", "three");
+    }
+
+    @Test
+    void publishInRolledBackTransaction_shouldDeliverNothing() throws InterruptedException {
+        // given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> {
+            publisher.publishMessageSent(Message.create(MessageId.newId(), chatId, senderId, "never sent"));
+            status.setRollbackOnly();
+        });
+        Thread.sleep(500);
+
+        // then
+        verify(nodeA, never()).send(any());
+    }
+
+    @Test
+    void oversizedMessage_shouldBeLoadedByIdOnEveryNode() {
+        // given
+        Message message = Message.create(MessageId.newId(), chatId, senderId, "x".repeat(10_000));
+        when(messageRepository.findById(message.getMessageId())).thenReturn(Optional.of(message));
+
+        // when
+        publisher.publishMessageSent(message);
+
+        // then
+        assertThat(read(delivered(nodeA, 1).get(0)).getContent()).hasSize(10_000);
+        verify(nodeB, timeout(2000)).send(any());
+    }
+
+    @Test
+    void publishMessageSent_shouldAppendToTailCacheOfOtherNodes() {
+        // given
+        tailCacheB.prime(chatId, tailCacheB.version(chatId), List.of(), 10);
+        Message message = Message.create(MessageId.newId(), chatId, senderId, "cached on node B");
+
+        // when
+        publisher.publishMessageSent(message);
+        delivered(nodeB, 1);
+
+        // then
+        assertThat(tailCacheB.findLatest(chatId, 10).orElseThrow())
+                .extracting(Message::getMessageId, Message::getContent, Message::getCreatedAt)
+                .containsExactly(tuple(message.getMessageId(), "cached on node B", message.getCreatedAt()));
+    }
+
+    @Test
+    void publishMembershipChanged_shouldEvictOtherNodesCache() {
+        // given
+        PostgresNotifyMembershipPublisher membershipPublisher = new PostgresNotifyMembershipPublisher(new JdbcTemplate(dataSource));
+
+        // when
+        membershipPublisher.publishMembershipChanged(chatId);
+
+        // then
+        verify(membershipCacheB, timeout(2000)).evict(chatId);
+        verify(nodeB, never()).send(any());
+    }
+
+    @Test
+    void receipts_shouldReachEveryNode() {
+        // given
+        WebSocketMessagePublisher nodeC = mock(WebSocketMessagePublisher.class);
+        PostgresNotificationListener listenerC = new PostgresNotificationListener(
+                dataSource, new MessageNotificationCodec(), new ChatEventNotificationCodec(), nodeC, nodeC, messageRepository,
+                new MessageTailCache(100, 1_000_000, Duration.ofMinutes(5)), mock(ChatMembershipCache.class)
+        );
+        listenerC.start();
+        PostgresNotifyChatEventPublisher eventPublisher =
+                new PostgresNotifyChatEventPublisher(new JdbcTemplate(dataSource), new ChatEventNotificationCodec());
+        Receipt receipt = Receipt.read(chatId, senderId, new ReceiptCursor(Instant.parse("2025-01-01T00:00:00Z"), MessageId.newId()));
+
+        try {
+            // when
+            eventPublisher.publishReceipts(chatId, List.of(receipt));
+
+            // then
+            ArgumentCaptor<ReceiptBatchDto> receipts = ArgumentCaptor.forClass(ReceiptBatchDto.class);
+            verify(nodeC, timeout(2000)).deliverReceipts(receipts.capture());
+            assertThat(receipts.getValue().getReceipts())
+                    .extracting(ReceiptDto::getUserId, ReceiptDto::getReadCreatedAt)
+                    .containsExactly(tuple(senderId.getValue(), "2025-01-01T00:00:00Z"));
+        } finally {
+            listenerC.stop();
+        }
+    }
+
+    private MessageChannel node() {
+        MessageChannel channel = mock(MessageChannel.class);
+        when(channel.send(any())).thenReturn(true);
+        return channel;
+    }
+
+    private WebSocketMessagePublisher localPublisher(MessageChannel node) {
+        SimpMessagingTemplate template = new SimpMessagingTemplate(node);
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+        // the sender is the chat's only member and has a session on every node
+        SimpUserRegistry userRegistry = mock(SimpUserRegistry.class);
+        when(userRegistry.getUserCount()).thenReturn(1);
+        when(userRegistry.getUser(senderId.getValue())).thenReturn(mock(SimpUser.class));
+        ChatMembershipCache membershipCache = mock(ChatMembershipCache.class);
+        when(membershipCache.findMembers(chatId)).thenReturn(Set.of(senderId));
+        return new WebSocketMessagePublisher(template, userRegistry, membershipCache, MessageCoalescer.disabled());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<org.springframework.messaging.Message<?>> delivered(MessageChannel node, int times) {
+        ArgumentCaptor<org.springframework.messaging.Message<?>> frames = ArgumentCaptor.forClass(org.springframework.messaging.Message.class);
+        verify(node, timeout(2000).times(times)).send(frames.capture());
+        return frames.getAllValues();
+    }
+
+    private ChatMessageDto read(org.springframework.messaging.Message<?> frame) {
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            return mapper.treeToValue(mapper.readTree((byte[]) frame.getPayload()).get("payload"), ChatMessageDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.tony8864.publisher;
+
+import io.github.tony8864.dto.ChatMessageDto;
+import io.github.tony8864.entities.chat.ChatId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageCoalescerTest {
+    private final ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private final ChatId otherChatId = ChatId.of("00000000-0000-0000-0000-000000000010");
+
+    private final List<List<ChatMessageDto>> flushed = new CopyOnWriteArrayList<>();
+    private MessageCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void offer_onlyWhenEnabledAndChatIsLargeEnough() {
+        coalescer = new MessageCoalescer(Duration.ofMillis(10), 50, 100);
+        MessageCoalescer disabled = MessageCoalescer.disabled();
+
+        assertThat(coalescer.offer(chatId, 99, message(chatId, 1), (id, batch) -> flushed.add(batch))).isFalse();
+        assertThat(coalescer.offer(chatId, 100, message(chatId, 2), (id, batch) -> flushed.add(batch))).isTrue();
+        assertThat(disabled.offer(chatId, Integer.MAX_VALUE, message(chatId, 3), (id, batch) -> flushed.add(batch))).isFalse();
+        disabled.shutdown();
+    }
+
+    @Test
+    void offer_chatShrinksBelowThresholdWithBatchPending_staysInOrder() throws InterruptedException {
+        // given
+        coalescer = new MessageCoalescer(Duration.ofMillis(50), 50, 100);
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        coalescer.offer(chatId, 100, message(chatId, 1), (id, batch) -> batch.forEach(m -> delivered.add(m.getId())));
+
+        // when
+        boolean queued = coalescer.offer(chatId, 99, message(chatId, 2), (id, batch) -> batch.forEach(m -> delivered.add(m.getId())));
+        awaitMessages(2);
+
+        // then
+        assertThat(queued).isTrue();
+        assertThat(delivered).containsExactly("1", "2");
+        assertThat(coalescer.offer(chatId, 99, message(chatId, 3), (id, batch) -> flushed.add(batch))).isFalse();
+    }
+
+    @Test
+    void offer_flushesAfterWindow() throws InterruptedException {
+        // given
+        coalescer = new MessageCoalescer(Duration.ofMillis(10), 50, 1);
+
+        // when
+        coalescer.offer(chatId, 1, message(chatId, 1), (id, batch) -> flushed.add(batch));
+        coalescer.offer(chatId, 1, message(chatId, 2), (id, batch) -> flushed.add(batch));
+        coalescer.offer(otherChatId, 1, message(otherChatId, 3), (id, batch) -> flushed.add(batch));
+        awaitMessages(3);
+
+        // then
+        assertThat(flushed).hasSize(2);
+        assertThat(flushed).anySatisfy(batch ->
+                assertThat(batch).extracting(ChatMessageDto::getId).containsExactly("1", "2"));
+    }
+
+    @Test
+    void burst_isFlushedInOrderWithFarFewerFrames() throws InterruptedException {
+        // given
+        int burst = 1010;
+        coalescer = new MessageCoalescer(Duration.ofMillis(20), 50, 1);
+
+        // when
+        for (int i = 0; i < burst; i++) {
+            coalescer.offer(chatId, 1, message(chatId, i), (id, batch) -> flushed.add(batch));
+        }
+        awaitMessages(burst);
+
+        // then: 20 frames cut by the size cap and one by the window, instead of one frame per message
+        assertThat(coalescer.getFrames()).isEqualTo(21);
+        assertThat(flushed.stream().flatMap(List::stream).map(ChatMessageDto::getId))
+                .containsExactlyElementsOf(IntStream.range(0, burst).mapToObj(String::valueOf).toList());
+    }
+
+    private void awaitMessages(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (coalescer.getMessages() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(coalescer.getMessages()).isEqualTo(expected);
+    }
+
+    private ChatMessageDto message(ChatId chat, int id) {
+        return new ChatMessageDto(String.valueOf(id), chat.getValue(), "sender", "hello", "2025-01-01T00:00:00Z");
+    }
+}
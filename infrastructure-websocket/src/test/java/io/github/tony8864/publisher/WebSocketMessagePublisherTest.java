@@ -0,0 +1,222 @@
+package io.github.tony8864.publisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tony8864.chat.common.ChatMembershipCache;
+import io.github.tony8864.dto.InboxEventDto;
+import io.github.tony8864.entities.chat.ChatId;
+import io.github.tony8864.entities.message.Message;
+import io.github.tony8864.entities.message.MessageId;
+import io.github.tony8864.entities.user.UserId;
+import io.github.tony8864.message.common.Receipt;
+import io.github.tony8864.message.common.ReceiptCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class WebSocketMessagePublisherTest {
+    private final ChatId chatId = ChatId.of("00000000-0000-0000-0000-000000000009");
+    private final UserId alice = UserId.of("00000000-0000-0000-0000-000000000001");
+    private final UserId bob = UserId.of("00000000-0000-0000-0000-000000000007");
+    private final UserId carol = UserId.of("00000000-0000-0000-0000-000000000036");
+    private final UserId stranger = UserId.of("00000000-0000-0000-0000-000000000017");
+
+    private final List<org.springframework.messaging.Message<?>> sent = new ArrayList<>();
+    private CountingConverter converter;
+    private SimpUserRegistry userRegistry;
+    private ChatMembershipCache membershipCache;
+    private WebSocketMessagePublisher publisher;
+    private Message message;
+
+    @BeforeEach
+    void setUp() {
+        converter = new CountingConverter();
+        userRegistry = mock(SimpUserRegistry.class);
+        membershipCache = mock(ChatMembershipCache.class);
+        publisher = new WebSocketMessagePublisher(template((m, timeout) -> sent.add(m)), userRegistry, membershipCache, MessageCoalescer.disabled());
+
+        message = Message.create(MessageId.newId(), chatId, alice, "hello");
+        when(membershipCache.findMembers(chatId)).thenReturn(Set.of(alice, bob, carol));
+    }
+
+    @Test
+    void publishMessageSent_noConnectedUsers_skipsMembershipLookup() {
+        when(userRegistry.getUserCount()).thenReturn(0);
+
+        publisher.publishMessageSent(message);
+
+        assertThat(sent).isEmpty();
+        verifyNoInteractions(membershipCache);
+    }
+
+    @Test
+    void publishMessageSent_fewConnectedUsers_walksRegistry() {
+        SimpUser connectedBob = user(bob);
+        SimpUser connectedStranger = user(stranger);
+        when(userRegistry.getUserCount()).thenReturn(2);
+        when(userRegistry.getUsers()).thenReturn(Set.of(connectedBob, connectedStranger));
+
+        publisher.publishMessageSent(message);
+
+        assertThat(destinations()).containsExactly("/user/" + bob.getValue() + "/queue/inbox");
+        verify(userRegistry, never()).getUser(anyString());
+    }
+
+    @Test
+    void publishMessageSent_manyConnectedUsers_walksMembers() {
+        SimpUser connectedCarol = user(carol);
+        when(userRegistry.getUserCount()).thenReturn(1000);
+        when(userRegistry.getUser(carol.getValue())).thenReturn(connectedCarol);
+
+        publisher.publishMessageSent(message);
+
+        assertThat(destinations()).containsExactly("/user/" + carol.getValue() + "/queue/inbox");
+        verify(userRegistry, never()).getUsers();
+    }
+
+    @Test
+    void publishMessageSent_encodesInboxEventOnceForAllRecipients() {
+        when(userRegistry.getUserCount()).thenReturn(1000);
+        when(userRegistry.getUser(anyString())).thenAnswer(invocation -> mock(SimpUser.class));
+
+        publisher.publishMessageSent(message);
+
+        // one inbox frame shared by alice, bob and carol
+        assertThat(converter.conversions).isEqualTo(1);
+        assertThat(sent).hasSize(3);
+        assertThat(sent).allSatisfy(m -> assertThat(m.getPayload()).isSameAs(sent.get(0).getPayload()));
+    }
+
+    @Test
+    void publishTyping_reachesOtherMembersOnly() throws Exception {
+        when(userRegistry.getUserCount()).thenReturn(1000);
+        when(userRegistry.getUser(anyString())).thenAnswer(invocation -> mock(SimpUser.class));
+
+        publisher.publishTyping(chatId, alice, true, Duration.ofSeconds(6));
+
+        assertThat(destinations()).containsExactlyInAnyOrder(
+                "/user/" + bob.getValue() + "/queue/inbox",
+                "/user/" + carol.getValue() + "/queue/inbox"
+        );
+        Map<?, ?> event = new ObjectMapper().readValue((byte[]) sent.get(0).getPayload(), Map.class);
+        Map<?, ?> payload = (Map<?, ?>) event.get("payload");
+        assertThat(event.get("type")).isEqualTo(InboxEventDto.TYPING);
+        assertThat(payload.get("userId")).isEqualTo(alice.getValue());
+        assertThat(payload.get("typing")).isEqualTo(true);
+        assertThat(payload.get("expiresInMs")).isEqualTo(6000);
+    }
+
+    @Test
+    void publishReceipts_sendsOneAggregatedEventPerMember() throws Exception {
+        when(userRegistry.getUserCount()).thenReturn(1000);
+        when(userRegistry.getUser(anyString())).thenAnswer(invocation -> mock(SimpUser.class));
+        ReceiptCursor cursor = new ReceiptCursor(Instant.parse("2025-01-01T10:00:00Z"), message.getMessageId());
+
+        publisher.publishReceipts(chatId, List.of(
+                Receipt.read(chatId, bob, cursor),
+                Receipt.delivered(chatId, carol, cursor)
+        ));
+
+        assertThat(sent).hasSize(3);
+        assertThat(converter.conversions).isEqualTo(1);
+        Map<?, ?> event = new ObjectMapper().readValue((byte[]) sent.get(0).getPayload(), Map.class);
+        List<?> receipts = (List<?>) ((Map<?, ?>) event.get("payload")).get("receipts");
+        assertThat(event.get("type")).isEqualTo(InboxEventDto.RECEIPTS_UPDATED);
+        assertThat(receipts).hasSize(2);
+        assertThat(((Map<?, ?>) receipts.get(0)).get("readMessageId")).isEqualTo(message.getMessageId().getValue());
+        assertThat(((Map<?, ?>) receipts.get(1)).get("readMessageId")).isNull();
+        assertThat(((Map<?, ?>) receipts.get(1)).get("deliveredCreatedAt")).isEqualTo("2025-01-01T10:00:00Z");
+    }
+
+    @Test
+    void publishMessageSent_largeChat_coalescesInboxEvents() throws Exception {
+        MessageCoalescer coalescer = new MessageCoalescer(Duration.ofSeconds(10), 2, 3);
+        List<org.springframework.messaging.Message<?>> frames = new CopyOnWriteArrayList<>();
+        WebSocketMessagePublisher coalescing = new WebSocketMessagePublisher(
+                template((m, timeout) -> frames.add(m)), userRegistry, membershipCache, coalescer
+        );
+        SimpUser connectedBob = user(bob);
+        when(userRegistry.getUserCount()).thenReturn(1);
+        when(userRegistry.getUsers()).thenReturn(Set.of(connectedBob));
+
+        coalescing.publishMessageSent(message);
+        coalescing.publishMessageSent(Message.create(MessageId.newId(), chatId, alice, "again"));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (frames.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        coalescer.shutdown();
+
+        // the two inbox events share one frame
+        assertThat(frames).hasSize(1);
+        Map<?, ?> inbox = new ObjectMapper().readValue((byte[]) frames.get(0).getPayload(), Map.class);
+        assertThat(inbox.get("type")).isEqualTo(InboxEventDto.MESSAGES_SENT);
+        assertThat((List<?>) inbox.get("payload")).hasSize(2);
+    }
+
+    @Test
+    void broadcastToTenThousandMembers_sharesOneEncodedPayload() {
+        // given
+        int members = 10_000;
+        Set<UserId> everyone = new HashSet<>();
+        for (int i = 0; i < members; i++) {
+            everyone.add(UserId.of(String.format("00000000-0000-0000-0000-%012d", i)));
+        }
+        when(membershipCache.findMembers(chatId)).thenReturn(everyone);
+        when(userRegistry.getUserCount()).thenReturn(members);
+        when(userRegistry.getUser(anyString())).thenAnswer(invocation -> mock(SimpUser.class));
+
+        // when
+        publisher.publishMessageSent(message);
+
+        // then
+        assertThat(converter.conversions).isEqualTo(1);
+        assertThat(sent).hasSize(members);
+        Object payload = sent.get(0).getPayload();
+        assertThat(sent).allSatisfy(m -> assertThat(m.getPayload()).isSameAs(payload));
+    }
+
+    private SimpMessagingTemplate template(MessageChannel channel) {
+        SimpMessagingTemplate template = new SimpMessagingTemplate(channel);
+        template.setMessageConverter(converter);
+        return template;
+    }
+
+    private List<String> destinations() {
+        return sent.stream().map(m -> SimpMessageHeaderAccessor.getDestination(m.getHeaders())).toList();
+    }
+
+    private SimpUser user(UserId userId) {
+        SimpUser user = mock(SimpUser.class);
+        when(user.getName()).thenReturn(userId.getValue());
+        return user;
+    }
+
+    private static class CountingConverter extends MappingJackson2MessageConverter {
+        private int conversions;
+
+        @Override
+        protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+            conversions++;
+            return super.convertToInternal(payload, headers, conversionHint);
+        }
+    }
+}